@@ -1,10 +1,11 @@
 package kjd.reactnative.bluetooth;
 
 import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.bridge.WritableMap;
 
-import java.util.Calendar;
-import java.util.Date;
+import kjd.reactnative.bluetooth.event.TimestampFormat;
 
 /**
  * Wraps bluetooth message data within a message containing the device from which and timestamp
@@ -16,20 +17,69 @@ import java.util.Date;
 public class BluetoothMessage<T> {
 
     private WritableMap device;
-    private Date timestamp;
+    private long timestamp;
+    private long monotonicTimestamp;
     private T data;
 
     public BluetoothMessage(WritableMap device, T data) {
         this.device = device;
         this.data = data;
-        this.timestamp = Calendar.getInstance().getTime();
+        this.timestamp = System.currentTimeMillis();
+        this.monotonicTimestamp = System.nanoTime();
+    }
+
+    /**
+     * Creates a message without a device, used for compact events where the device is already
+     * known by the receiver.
+     *
+     * @param data the message data
+     */
+    public BluetoothMessage(T data) {
+        this(null, data);
     }
 
     public WritableMap asMap() {
+        return asMap(TimestampFormat.ISO);
+    }
+
+    /**
+     * Provides the message as a map, with the timestamp in the requested format.
+     *
+     * @param timestampFormat the {@link TimestampFormat}
+     * @return the message map
+     */
+    public WritableMap asMap(TimestampFormat timestampFormat) {
         WritableMap map = Arguments.createMap();
         map.putMap("device", device);
-        map.putString("data", String.valueOf(data));
-        map.putString("timestamp", Utilities.formatDate(timestamp));
+        putData(map);
+        timestampFormat.put(map, timestamp, monotonicTimestamp);
+        return map;
+    }
+
+    /**
+     * Provides the message as a compact map, containing only the data, sequence and
+     * (optionally) the timestamp.
+     *
+     * @param sequence the message sequence number
+     * @param timestampFormat the {@link TimestampFormat}, {@link TimestampFormat#NONE} to leave
+     *                        the timestamp out
+     * @return the compact message map
+     */
+    public WritableMap asCompactMap(long sequence, TimestampFormat timestampFormat) {
+        WritableMap map = Arguments.createMap();
+        putData(map);
+        map.putDouble("sequence", sequence);
+        timestampFormat.put(map, timestamp, monotonicTimestamp);
         return map;
     }
+
+    private void putData(WritableMap map) {
+        if (data instanceof ReadableArray) {
+            map.putArray("data", (ReadableArray) data);
+        } else if (data instanceof ReadableMap) {
+            map.putMap("data", (ReadableMap) data);
+        } else {
+            map.putString("data", String.valueOf(data));
+        }
+    }
 }
@@ -28,6 +28,9 @@ public enum Exceptions {
     INVALID_CONNECTOR_TYPE("Invalid connector type: %s"),
     INVALID_ACCEPTOR_TYPE("Invalid acceptor type: %s"),
     INVALID_CONNECTION_TYPE("Invalid connection type: %s"),
+    INVALID_CONNECTION_OPTIONS("Invalid connection options: %s"),
+    READ_FLOW_CONTROL_DISABLED("Read flow control is not enabled for %s"),
+    INVALID_READ_CREDIT("Invalid read credit: %s"),
     ;
 
     private final String message;
@@ -27,7 +27,9 @@ import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.bridge.ReactContext;
 import com.facebook.react.bridge.ReactContextBaseJavaModule;
 import com.facebook.react.bridge.ReactMethod;
+import com.facebook.react.bridge.ReadableArray;
 import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.ReadableType;
 import com.facebook.react.bridge.WritableArray;
 import com.facebook.react.bridge.WritableMap;
 import com.facebook.react.modules.core.DeviceEventManagerModule;
@@ -35,31 +37,64 @@ import com.facebook.react.modules.core.DeviceEventManagerModule;
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.net.SocketTimeoutException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.Properties;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
 import javax.annotation.Nullable;
 
 import kjd.reactnative.android.BiConsumer;
+import kjd.reactnative.bluetooth.conn.AbstractDeviceConnection;
 import kjd.reactnative.bluetooth.conn.AcceptFailedException;
+import kjd.reactnative.bluetooth.conn.AcceptMode;
+import kjd.reactnative.bluetooth.conn.ConnectOption;
 import kjd.reactnative.bluetooth.conn.ConnectionAcceptor;
 import kjd.reactnative.bluetooth.conn.ConnectionAcceptorFactory;
+import kjd.reactnative.bluetooth.conn.ConnectionConfig;
 import kjd.reactnative.bluetooth.conn.ConnectionConnector;
 import kjd.reactnative.bluetooth.conn.ConnectionConnectorFactory;
+import kjd.reactnative.bluetooth.conn.ConnectionExecutor;
 import kjd.reactnative.bluetooth.conn.ConnectionFailedException;
+import kjd.reactnative.bluetooth.conn.ConnectionStats;
 import kjd.reactnative.bluetooth.conn.StandardOption;
+import kjd.reactnative.bluetooth.conn.StructuredDataConnection;
+import kjd.reactnative.bluetooth.conn.WriteQueue;
+import kjd.reactnative.bluetooth.event.BatchedReadListener;
 import kjd.reactnative.bluetooth.event.BluetoothDeviceEvent;
 import kjd.reactnative.bluetooth.event.BluetoothStateEvent;
+import kjd.reactnative.bluetooth.event.ConflatingReadListener;
+import kjd.reactnative.bluetooth.event.ConnectProgressEvent;
+import kjd.reactnative.bluetooth.event.CreditReadListener;
+import kjd.reactnative.bluetooth.event.ReadCredit;
 import kjd.reactnative.bluetooth.event.EventType;
+import kjd.reactnative.bluetooth.event.ReadDelivery;
+import kjd.reactnative.bluetooth.event.ReadEventFormat;
+import kjd.reactnative.bluetooth.event.ReadOption;
+import kjd.reactnative.bluetooth.event.TimedReadListener;
+import kjd.reactnative.bluetooth.event.TimestampFormat;
 import kjd.reactnative.bluetooth.conn.DeviceConnection;
 import kjd.reactnative.bluetooth.conn.DeviceConnectionFactory;
 import kjd.reactnative.bluetooth.device.NativeDevice;
 import kjd.reactnative.bluetooth.receiver.ActionACLReceiver;
+import kjd.reactnative.bluetooth.receiver.DeviceChangeReceiver;
 import kjd.reactnative.bluetooth.receiver.DiscoveryReceiver;
 import kjd.reactnative.bluetooth.receiver.PairingReceiver;
 import kjd.reactnative.bluetooth.receiver.StateChangeReceiver;
@@ -93,7 +128,8 @@ public class RNBluetoothClassicModule
         implements ActivityEventListener,
         LifecycleEventListener,
         StateChangeReceiver.StateChangeCallback,
-        ActionACLReceiver.ActionACLCallback {
+        ActionACLReceiver.ActionACLCallback,
+        DeviceChangeReceiver.DeviceChangeCallback {
 
     /**
      * Name of the module when provided to React Native {@code NativeModules}.
@@ -158,6 +194,20 @@ public class RNBluetoothClassicModule
      */
     private Map<String, ConnectionConnector> mConnecting;
 
+    /**
+     * Maintains the listener provided to each {@link DeviceConnection} when a
+     * {@link EventType#DEVICE_READ} listener is added, keyed on {@link BluetoothDevice}
+     * address.  Listeners are created with the connection, as they depend on the
+     * connection options (for example {@link ReadOption#READ_BATCH_SIZE}).
+     */
+    private Map<String, BiConsumer<BluetoothDevice, Object>> mReadListeners;
+
+    /**
+     * Provides the threads for connectors, acceptors and connections.  Also used to flush
+     * batched {@link EventType#DEVICE_READ} events which haven't filled.
+     */
+    private final ConnectionExecutor mExecutor;
+
     /**
      * Manages intents while the application and {@link BluetoothAdapter} are in
      * discovery mode.
@@ -184,6 +234,21 @@ public class RNBluetoothClassicModule
      */
     private BroadcastReceiver mActionACLReceiver;
 
+    /**
+     * Intent receiver responsible for invalidating {@link #mDevices} when a device is
+     * bonded, renamed or connected.
+     */
+    private BroadcastReceiver mDeviceChangeReceiver;
+
+    /**
+     * {@link NativeDevice}(s) by address, these cache the device details so that mapping a
+     * device (on every {@link EventType#DEVICE_READ}) doesn't require calls to the Bluetooth
+     * service.  Only connected devices are cached, entries are invalidated by the
+     * {@link DeviceChangeReceiver}, removed on disconnection and cleared whenever the receivers
+     * are (un)registered.
+     */
+    private final ConcurrentMap<String, NativeDevice> mDevices = new ConcurrentHashMap<>(1);
+
     /**
      * Promise must be maintained across Activity requests for managing the enabled
      * request
@@ -226,6 +291,21 @@ public class RNBluetoothClassicModule
             Map<String, ConnectionAcceptorFactory> acceptFactories,
             Map<String, ConnectionConnectorFactory> connectFactories,
             Map<String, DeviceConnectionFactory> factories) {
+        this(context, acceptFactories, connectFactories, factories, new ConnectionExecutor());
+    }
+
+    /**
+     * Creates the RNBlutoothClassicModule using the provided {@link ConnectionExecutor}.
+     *
+     * @param context   React application context
+     * @param factories {@link DeviceConnection} factories
+     * @param executor  provides connector, acceptor and connection threads
+     */
+    public RNBluetoothClassicModule(ReactApplicationContext context,
+            Map<String, ConnectionAcceptorFactory> acceptFactories,
+            Map<String, ConnectionConnectorFactory> connectFactories,
+            Map<String, DeviceConnectionFactory> factories,
+            ConnectionExecutor executor) {
         super(context);
 
         this.mAdapter = BluetoothAdapter.getDefaultAdapter();
@@ -236,7 +316,9 @@ public class RNBluetoothClassicModule
 
         this.mConnections = new ConcurrentHashMap<>(1);
         this.mConnecting = new ConcurrentHashMap<>(1);
+        this.mReadListeners = new ConcurrentHashMap<>(1);
         this.mListenerCounts = new ConcurrentHashMap<>();
+        this.mExecutor = executor;
 
         if (mAdapter != null && mAdapter.isEnabled()) {
             sendEvent(EventType.BLUETOOTH_ENABLED,
@@ -258,6 +340,38 @@ public class RNBluetoothClassicModule
         return MODULE_NAME;
     }
 
+    /**
+     * Called when the React Native instance is destroyed (including reloads), which creates a
+     * new module and {@link ConnectionExecutor}.  Accepting and connecting are cancelled, the
+     * connections are disconnected and the executor threads are stopped so that nothing from
+     * this module is left running.
+     */
+    @Override
+    public void invalidate() {
+        if (BuildConfig.DEBUG)
+            Log.d(TAG, "invalidate: cancel accept and connects, disconnect and shutdown threads");
+
+        ConnectionAcceptor acceptor = mAcceptor.getAndSet(null);
+        if (acceptor != null)
+            acceptor.cancel();
+
+        for (ConnectionConnector connector : mConnecting.values())
+            connector.abort();
+        mConnecting.clear();
+
+        for (DeviceConnection connection : mConnections.values())
+            connection.disconnect();
+        mConnections.clear();
+        mReadListeners.clear();
+
+        getReactApplicationContext().removeActivityEventListener(this);
+        getReactApplicationContext().removeLifecycleEventListener(this);
+        unregisterBluetoothReceivers();
+
+        mExecutor.shutdown();
+        super.invalidate();
+    }
+
     public boolean hasConstants() {
         return true;
     }
@@ -490,7 +604,7 @@ public class RNBluetoothClassicModule
     public void getConnectedDevices(Promise promise) {
         WritableArray connected = Arguments.createArray();
         for (DeviceConnection connection : mConnections.values()) {
-            connected.pushMap(new NativeDevice(connection.getDevice()).map());
+            connected.pushMap(getNativeDevice(connection.getDevice()).map());
         }
 
         Log.d(TAG, "getConnectedDevices: " + connected.toString());
@@ -703,7 +817,14 @@ public class RNBluetoothClassicModule
      * Puts the {@link BluetoothAdapter} into an accept mode using the provided
      * accept type
      * configured on the module.
+     * <p>
+     * By default ({@link AcceptMode#SINGLE}) the promise is resolved with the first device
+     * accepted.  With {@link AcceptMode#SERVER} the promise is resolved {@code true} once
+     * accepting has started, each client is reported with a {@link EventType#DEVICE_CONNECTED}
+     * event and accepting continues until {@link #cancelAccept(Promise)}.  Cancelling doesn't
+     * disconnect the clients already accepted.
      *
+     * @param parameters the {@link StandardOption}(s) for the acceptor and connections
      * @param promise resolve or reject the requested listening
      */
     @ReactMethod
@@ -716,58 +837,69 @@ public class RNBluetoothClassicModule
             promise.reject(Exceptions.BLUETOOTH_IN_ACCEPTING.name(),
                     Exceptions.BLUETOOTH_IN_ACCEPTING.message());
         } else {
-            Properties properties = Utilities.mapToProperties(parameters);
+            final ConnectionConfig config;
+            try {
+                config = parseConfig(parameters);
+            } catch (IllegalArgumentException e) {
+                promise.reject(Exceptions.INVALID_CONNECTION_OPTIONS.name(),
+                        Exceptions.INVALID_CONNECTION_OPTIONS.message(e.getMessage()));
+                return;
+            }
 
             try {
-                String connectorType = StandardOption.ACCEPTOR_TYPE.get(properties);
+                String connectorType = config.getString(StandardOption.ACCEPTOR_TYPE);
                 if (!mAcceptorFactories.containsKey(connectorType))
                     throw new IllegalStateException(
                             String.format("No ConnectionAcceptorFactory configured for type %s", connectorType));
 
                 ConnectionAcceptorFactory acceptorFactory = mAcceptorFactories.get(connectorType);
-                ConnectionAcceptor acceptor = acceptorFactory.create(mAdapter, properties);
-                acceptor.addListener(new ConnectionAcceptor.AcceptorListener<BluetoothSocket>() {
-                    @Override
-                    public void success(BluetoothSocket bluetoothSocket) {
-                        BluetoothDevice device = bluetoothSocket.getRemoteDevice();
-                        NativeDevice nativeDevice = new NativeDevice(device);
-
-                        try {
-                            // Create the appropriate Connection type and add it to the connected list
-
-                            String connectionType = StandardOption.CONNECTION_TYPE.get(properties);
-                            DeviceConnectionFactory connectionFactory = mConnectionFactories.get(connectionType);
-                            DeviceConnection connection = connectionFactory.create(bluetoothSocket, properties);
-                            connection.onDisconnect(onDisconnect);
-                            mConnections.put(device.getAddress(), connection);
-
-                            // Now start the connection and let React Native know
-                            Thread ct = new Thread(connection);
-                            ct.start();
-
-                            promise.resolve(nativeDevice.map());
-
-                        } catch (IOException e) {
-                            promise.reject(new ConnectionFailedException(nativeDevice, e));
-                        } finally {
-                            // Clear the connection acceptor, as the connection has been successfully
-                            // established
-                            if (mAcceptor.get() != null) {
-                                mAcceptor.get().cancel();
-                                mAcceptor.set(null);
+                final ConnectionAcceptor acceptor = acceptorFactory.create(mAdapter, config);
+                final boolean server = AcceptMode.SERVER == config.get(ConnectOption.ACCEPT_MODE);
+                if (server) {
+                    acceptor.addListener(createServerListener(acceptor, config));
+                } else {
+                    acceptor.addListener(new ConnectionAcceptor.AcceptorListener<BluetoothSocket>() {
+                        @Override
+                        public void success(BluetoothSocket bluetoothSocket) {
+                            BluetoothDevice device = bluetoothSocket.getRemoteDevice();
+                            NativeDevice nativeDevice = new NativeDevice(device);
+
+                            try {
+                                // Create the appropriate Connection type, add it to the connected list and
+                                // let React Native know
+                                String connectionType = config.getString(StandardOption.CONNECTION_TYPE);
+                                startConnection(bluetoothSocket, connectionType, config);
+
+                                promise.resolve(nativeDevice.map());
+
+                            } catch (IOException e) {
+                                promise.reject(new ConnectionFailedException(nativeDevice, e));
+                            } finally {
+                                // Clear the connection acceptor, as the connection has been successfully
+                                // established
+                                if (mAcceptor.compareAndSet(acceptor, null))
+                                    acceptor.cancel();
                             }
                         }
-                    }
 
-                    @Override
-                    public void failure(Exception e) {
-                        promise.reject(new AcceptFailedException(e.getMessage(), e));
-                    }
-                });
+                        @Override
+                        public void failure(Exception e) {
+                            mAcceptor.compareAndSet(acceptor, null);
+                            promise.reject(new AcceptFailedException(e.getMessage(), e));
+                        }
+                    });
+                }
 
                 this.mAcceptor.set(acceptor);
-                this.mAcceptor.get().start();
+                mExecutor.accept(acceptor);
 
+                // In server mode clients are reported with DEVICE_CONNECTED events
+                if (server)
+                    promise.resolve(true);
+
+            } catch (RejectedExecutionException e) {
+                this.mAcceptor.set(null);
+                promise.reject(new AcceptFailedException(e.getMessage(), e));
             } catch (IOException e) {
                 promise.reject(new AcceptFailedException(e.getMessage(), e));
             } catch (IllegalStateException e) {
@@ -776,6 +908,65 @@ public class RNBluetoothClassicModule
         }
     }
 
+    /**
+     * Creates the listener for an {@link AcceptMode#SERVER} acceptor.  Each accepted socket is
+     * started as its own {@link DeviceConnection} and a {@link EventType#DEVICE_CONNECTED} event
+     * is sent.  Sockets accepted while {@link ConnectOption#ACCEPT_CONNECTION_NUM} clients are
+     * still connected are closed straight away.
+     * <p>
+     * When the acceptor stops for any reason other than {@link #cancelAccept(Promise)} an
+     * {@link EventType#ERROR} is sent.
+     *
+     * @param acceptor the server acceptor
+     * @param config the options used for the acceptor and each connection
+     * @return the listener
+     */
+    private ConnectionAcceptor.AcceptorListener<BluetoothSocket> createServerListener(
+            final ConnectionAcceptor acceptor, final ConnectionConfig config) {
+        final int maxClients = config.getInt(ConnectOption.ACCEPT_CONNECTION_NUM);
+        final String connectionType = config.getString(StandardOption.CONNECTION_TYPE);
+
+        // Only ever modified from the acceptor thread
+        final Set<String> clients = new HashSet<>();
+
+        return new ConnectionAcceptor.AcceptorListener<BluetoothSocket>() {
+            @Override
+            public void success(BluetoothSocket bluetoothSocket) {
+                BluetoothDevice device = bluetoothSocket.getRemoteDevice();
+
+                // Clients that have since disconnected no longer count
+                clients.retainAll(mConnections.keySet());
+                if (clients.size() >= maxClients) {
+                    Log.w(TAG, String.format("Closing %s, already connected to %d clients",
+                            device.getAddress(), clients.size()));
+                    try { bluetoothSocket.close(); } catch (IOException ignored) { }
+                    return;
+                }
+
+                try {
+                    startConnection(bluetoothSocket, connectionType, config);
+                    clients.add(device.getAddress());
+
+                    BluetoothDeviceEvent event =
+                            new BluetoothDeviceEvent(EventType.DEVICE_CONNECTED, getNativeDevice(device));
+                    sendEvent(EventType.DEVICE_CONNECTED, event.map());
+                } catch (IOException e) {
+                    Log.e(TAG, String.format("Could not start connection to %s: %s",
+                            device.getAddress(), e.getMessage()));
+                    sendEvent(EventType.ERROR, new BluetoothException(e.getMessage()).map());
+                }
+            }
+
+            @Override
+            public void failure(Exception e) {
+                // cancelAccept clears the acceptor before cancelling it
+                if (mAcceptor.compareAndSet(acceptor, null))
+                    sendEvent(EventType.ERROR,
+                            new AcceptFailedException(e.getMessage(), e).map());
+            }
+        };
+    }
+
     /**
      * Attempts to cancel the Accepting thread.
      * <p>
@@ -800,10 +991,10 @@ public class RNBluetoothClassicModule
             promise.reject(Exceptions.BLUETOOTH_NOT_ENABLED.name(),
                     Exceptions.BLUETOOTH_NOT_ENABLED.message());
         } else {
-            if (mAcceptor.get() != null) {
-                mAcceptor.get().cancel();
-                mAcceptor.set(null);
-            }
+            // Cleared first, so that the acceptor's failure knows it was cancelled
+            ConnectionAcceptor acceptor = mAcceptor.getAndSet(null);
+            if (acceptor != null)
+                acceptor.cancel();
 
             promise.resolve(true);
         }
@@ -835,7 +1026,7 @@ public class RNBluetoothClassicModule
         } else if (mConnections.containsKey(address)) {
             // If it's already connected just return the device now.
             DeviceConnection connection = mConnections.get(address);
-            promise.resolve(new NativeDevice(connection.getDevice()).map());
+            promise.resolve(getNativeDevice(connection.getDevice()).map());
         } else {
             final BluetoothDevice device = mAdapter.getRemoteDevice(address);
             final NativeDevice nativeDevice = new NativeDevice(device);
@@ -843,18 +1034,23 @@ public class RNBluetoothClassicModule
             try {
                 // Issue/84 just in case the React Native side gets circumvented somehow
                 // this matches the IOS side of a new parameters being added to a NSDictionary
-                Properties properties = parameters == null
-                        ? new Properties()
-                        : Utilities.mapToProperties(parameters);
+                final ConnectionConfig config;
+                try {
+                    config = parseConfig(parameters);
+                } catch (IllegalArgumentException e) {
+                    promise.reject(Exceptions.INVALID_CONNECTION_OPTIONS.name(),
+                            Exceptions.INVALID_CONNECTION_OPTIONS.message(e.getMessage()));
+                    return;
+                }
 
-                final String connectorType = StandardOption.CONNECTOR_TYPE.get(properties);
+                final String connectorType = config.getString(StandardOption.CONNECTOR_TYPE);
                 if (!mConnectorFactories.containsKey(connectorType)) {
                     promise.reject(Exceptions.INVALID_CONNECTOR_TYPE.name(),
                             Exceptions.INVALID_CONNECTOR_TYPE.message(connectorType));
                     return;
                 }
 
-                final String connectionType = StandardOption.CONNECTION_TYPE.get(properties);
+                final String connectionType = config.getString(StandardOption.CONNECTION_TYPE);
                 if (!mConnectionFactories.containsKey(connectionType)) {
                     promise.reject(Exceptions.INVALID_CONNECTION_TYPE.name(),
                             Exceptions.INVALID_CONNECTION_TYPE.message(connectorType));
@@ -862,22 +1058,13 @@ public class RNBluetoothClassicModule
                 }
 
                 ConnectionConnectorFactory connectorFactory = mConnectorFactories.get(connectorType);
-                ConnectionConnector connector = connectorFactory.create(device, properties);
-                connector.addListener(new ConnectionConnector.ConnectorListener<BluetoothSocket>() {
+                startConnector(device, connectorFactory, config, new ConnectionConnector.ConnectorListener<BluetoothSocket>() {
                     @Override
                     public void success(BluetoothSocket bluetoothSocket) {
-                        // Remove from connecting and add to connected
-                        mConnecting.remove(address);
-
                         try {
-                            // Create the appropriate Connection type and add it to the connected list
-                            DeviceConnectionFactory connectionFactory = mConnectionFactories.get(connectionType);
-                            DeviceConnection connection = connectionFactory.create(bluetoothSocket, properties);
-                            connection.onDisconnect(onDisconnect);
-                            mConnections.put(address, connection);
-
-                            // Now start the connection and let React Native know
-                            new Thread(connection).start();
+                            // Create the appropriate Connection type, add it to the connected list and
+                            // let React Native know
+                            startConnection(bluetoothSocket, connectionType, config);
                             promise.resolve(nativeDevice.map());
                         } catch (IOException e) {
                             promise.reject(new ConnectionFailedException(nativeDevice, e));
@@ -886,14 +1073,9 @@ public class RNBluetoothClassicModule
 
                     @Override
                     public void failure(Exception e) {
-                        // Remove from connecting and notify of failure
-                        mConnecting.remove(address);
                         promise.reject(new ConnectionFailedException(nativeDevice, e));
                     }
                 });
-
-                mConnecting.put(address, connector);
-                connector.start();
             } catch (IOException e) {
                 promise.reject(new ConnectionFailedException(nativeDevice, e));
             } catch (IllegalStateException e) {
@@ -902,6 +1084,291 @@ public class RNBluetoothClassicModule
         }
     }
 
+    /**
+     * Attempts to connect to each of the provided addresses, using the same options for each
+     * connection.  Rather than queueing every attempt at once, no more than
+     * {@link ConnectOption#CONNECT_CONCURRENCY} attempts are in progress at the same time (so
+     * that {@link ConnectOption#CONNECT_TIMEOUT} only counts the time spent connecting).
+     * <p>
+     * A {@link EventType#DEVICE_CONNECT_PROGRESS} event is sent as each attempt starts and
+     * completes.  The promise is resolved once every address has completed, with a map of
+     * address to result ({@code status}, {@code device} and {@code error}); individual failures
+     * don't reject the promise.  Addresses which are already connected are reported connected,
+     * those which are already connecting are reported failed.
+     *
+     * @param addresses the addresses to which we want to connect
+     * @param parameters the parameters controlling the type of connection to make
+     * @param promise resolved with the result of each address
+     */
+    @ReactMethod
+    @SuppressWarnings("unused")
+    public void connectToDevices(ReadableArray addresses, ReadableMap parameters, Promise promise) {
+        if (!checkBluetoothAdapter()) {
+            promise.reject(Exceptions.BLUETOOTH_NOT_ENABLED.name(),
+                    Exceptions.BLUETOOTH_NOT_ENABLED.message());
+            return;
+        }
+
+        final ConnectionConfig config;
+        try {
+            config = parseConfig(parameters);
+        } catch (IllegalArgumentException e) {
+            promise.reject(Exceptions.INVALID_CONNECTION_OPTIONS.name(),
+                    Exceptions.INVALID_CONNECTION_OPTIONS.message(e.getMessage()));
+            return;
+        }
+
+        final String connectorType = config.getString(StandardOption.CONNECTOR_TYPE);
+        if (!mConnectorFactories.containsKey(connectorType)) {
+            promise.reject(Exceptions.INVALID_CONNECTOR_TYPE.name(),
+                    Exceptions.INVALID_CONNECTOR_TYPE.message(connectorType));
+            return;
+        }
+
+        final String connectionType = config.getString(StandardOption.CONNECTION_TYPE);
+        if (!mConnectionFactories.containsKey(connectionType)) {
+            promise.reject(Exceptions.INVALID_CONNECTION_TYPE.name(),
+                    Exceptions.INVALID_CONNECTION_TYPE.message(connectionType));
+            return;
+        }
+
+        // Duplicates are only attempted once, entries which aren't Strings are reported failed
+        // under their index
+        Set<String> unique = new LinkedHashSet<>();
+        Map<String, String> invalid = new LinkedHashMap<>();
+        for (int i = 0; i < addresses.size(); i++) {
+            String address = (addresses.getType(i) == ReadableType.String)
+                    ? addresses.getString(i) : null;
+            if (address == null) {
+                invalid.put(String.valueOf(i), String.format("Address at index %d is not a string", i));
+            } else {
+                unique.add(address);
+            }
+        }
+
+        int concurrency = config.getInt(ConnectOption.CONNECT_CONCURRENCY);
+        int maxConcurrency = mExecutor.getMaxConcurrentConnects();
+        concurrency = (concurrency == 0) ? maxConcurrency : Math.min(concurrency, maxConcurrency);
+
+        new ConnectBatch(unique, invalid, mConnectorFactories.get(connectorType), connectionType,
+                config, promise).start(concurrency);
+    }
+
+    /**
+     * Creates the {@link ConnectionConnector} and queues it on the {@link ConnectionExecutor},
+     * tracking it within {@link #mConnecting} until it completes.  When
+     * {@link ConnectOption#CONNECT_TIMEOUT} is configured the connector is aborted once the time
+     * has passed, and the listener fails with a {@link SocketTimeoutException}.  The time starts
+     * once a connect thread runs the connector, so waiting behind other attempts (for example
+     * within a large {@link #connectToDevices} request) doesn't count against it.
+     *
+     * @param device the device to connect
+     * @param connectorFactory creates the connector
+     * @param config the connection options
+     * @param listener notified once the device is connected or has failed
+     * @throws IOException if the connector cannot be created or queued
+     */
+    private void startConnector(final BluetoothDevice device,
+                                ConnectionConnectorFactory connectorFactory,
+                                ConnectionConfig config,
+                                final ConnectionConnector.ConnectorListener<BluetoothSocket> listener)
+            throws IOException {
+        final String address = device.getAddress();
+        final ConnectionConnector connector = connectorFactory.create(device, config);
+        final int timeout = config.getInt(ConnectOption.CONNECT_TIMEOUT);
+        final AtomicBoolean timedOut = new AtomicBoolean(false);
+        final AtomicReference<ScheduledFuture<?>> timer = new AtomicReference<>();
+
+        connector.addListener(new ConnectionConnector.ConnectorListener<BluetoothSocket>() {
+            @Override
+            public void success(BluetoothSocket bluetoothSocket) {
+                cancelTimer(timer);
+
+                // Remove from connecting and add to connected
+                mConnecting.remove(address);
+
+                if (timedOut.get()) {
+                    // Connected just as the timeout closed the socket
+                    try { bluetoothSocket.close(); } catch (IOException ignored) { }
+                    listener.failure(timeoutException(timeout));
+                } else {
+                    listener.success(bluetoothSocket);
+                }
+            }
+
+            @Override
+            public void failure(Exception e) {
+                cancelTimer(timer);
+
+                // Remove from connecting and notify of failure
+                mConnecting.remove(address);
+                listener.failure(timedOut.get() ? timeoutException(timeout) : e);
+            }
+        });
+
+        mConnecting.put(address, connector);
+        try {
+            if (timeout > 0) {
+                mExecutor.connect(address, connector, () ->
+                        timer.set(mExecutor.scheduler().schedule(() -> {
+                            timedOut.set(true);
+                            connector.abort();
+                        }, timeout, TimeUnit.MILLISECONDS)));
+            } else {
+                mExecutor.connect(address, connector);
+            }
+        } catch (RejectedExecutionException e) {
+            mConnecting.remove(address);
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    private static void cancelTimer(AtomicReference<ScheduledFuture<?>> timer) {
+        ScheduledFuture<?> scheduled = timer.get();
+        if (scheduled != null)
+            scheduled.cancel(false);
+    }
+
+    private static SocketTimeoutException timeoutException(int timeout) {
+        return new SocketTimeoutException(String.format("Connection timed out after %d ms", timeout));
+    }
+
+    /**
+     * Manages the connection attempts of a single {@link #connectToDevices} request.  Attempts
+     * are started as previous attempts complete, so that no more than the requested concurrency
+     * are in progress, and the request is resolved once every address has completed.
+     */
+    private class ConnectBatch {
+
+        private final Deque<String> mPending;
+        private final Map<String, String> mInvalid;
+        private final int mTotal;
+        private final ConnectionConnectorFactory mConnectorFactory;
+        private final String mConnectionType;
+        private final ConnectionConfig mConfig;
+        private final Promise mPromise;
+        private final WritableMap mResults;
+        private int mCompleted;
+
+        ConnectBatch(Collection<String> addresses,
+                     Map<String, String> invalid,
+                     ConnectionConnectorFactory connectorFactory,
+                     String connectionType,
+                     ConnectionConfig config,
+                     Promise promise) {
+            this.mPending = new ArrayDeque<>(addresses);
+            this.mInvalid = invalid;
+            this.mTotal = addresses.size() + invalid.size();
+            this.mConnectorFactory = connectorFactory;
+            this.mConnectionType = connectionType;
+            this.mConfig = config;
+            this.mPromise = promise;
+            this.mResults = Arguments.createMap();
+            this.mCompleted = 0;
+        }
+
+        synchronized void start(int concurrency) {
+            if (mTotal == 0) {
+                mPromise.resolve(mResults);
+                return;
+            }
+
+            for (Map.Entry<String, String> entry : mInvalid.entrySet()) {
+                complete(entry.getKey(), ConnectProgressEvent.Status.FAILED, null, entry.getValue());
+            }
+
+            int started = 0;
+            while (started < concurrency && next())
+                started++;
+        }
+
+        /**
+         * Starts the next pending attempt, addresses which are completed straight away (already
+         * connected, invalid, etc.) are skipped over.
+         *
+         * @return whether an attempt was started
+         */
+        private boolean next() {
+            String address;
+            while ((address = mPending.poll()) != null) {
+                if (attempt(address))
+                    return true;
+            }
+            return false;
+        }
+
+        private boolean attempt(final String address) {
+            if (!BluetoothAdapter.checkBluetoothAddress(address)) {
+                complete(address, ConnectProgressEvent.Status.FAILED, null,
+                        String.format("%s is not a valid address", address));
+                return false;
+            }
+
+            final BluetoothDevice device = mAdapter.getRemoteDevice(address);
+            final NativeDevice nativeDevice = getNativeDevice(device);
+
+            if (mConnections.containsKey(address)) {
+                complete(address, ConnectProgressEvent.Status.CONNECTED, nativeDevice, null);
+                return false;
+            } else if (mConnecting.containsKey(address)) {
+                complete(address, ConnectProgressEvent.Status.FAILED, nativeDevice,
+                        Exceptions.ALREADY_CONNECTING.message(address));
+                return false;
+            }
+
+            try {
+                startConnector(device, mConnectorFactory, mConfig,
+                        new ConnectionConnector.ConnectorListener<BluetoothSocket>() {
+                    @Override
+                    public void success(BluetoothSocket bluetoothSocket) {
+                        try {
+                            startConnection(bluetoothSocket, mConnectionType, mConfig);
+                            finished(address, ConnectProgressEvent.Status.CONNECTED, nativeDevice, null);
+                        } catch (IOException e) {
+                            finished(address, ConnectProgressEvent.Status.FAILED, nativeDevice, e.getMessage());
+                        }
+                    }
+
+                    @Override
+                    public void failure(Exception e) {
+                        finished(address, (e instanceof SocketTimeoutException)
+                                        ? ConnectProgressEvent.Status.TIMEOUT
+                                        : ConnectProgressEvent.Status.FAILED,
+                                nativeDevice, e.getMessage());
+                    }
+                });
+            } catch (IOException e) {
+                complete(address, ConnectProgressEvent.Status.FAILED, nativeDevice, e.getMessage());
+                return false;
+            }
+
+            sendEvent(EventType.DEVICE_CONNECT_PROGRESS,
+                    new ConnectProgressEvent(address, ConnectProgressEvent.Status.CONNECTING,
+                            nativeDevice, null, mCompleted, mTotal).map());
+            return true;
+        }
+
+        /**
+         * An attempt has completed, start the next one.
+         */
+        private synchronized void finished(String address, ConnectProgressEvent.Status status,
+                                           NativeDevice device, String error) {
+            complete(address, status, device, error);
+            next();
+        }
+
+        private void complete(String address, ConnectProgressEvent.Status status,
+                              NativeDevice device, String error) {
+            ConnectProgressEvent event =
+                    new ConnectProgressEvent(address, status, device, error, ++mCompleted, mTotal);
+            mResults.putMap(address, event.result());
+            sendEvent(EventType.DEVICE_CONNECT_PROGRESS, event.map());
+
+            if (mCompleted == mTotal)
+                mPromise.resolve(mResults);
+        }
+    }
+
     /**
      * Disconnect the BluetoothService from the currently connected device.
      *
@@ -919,7 +1386,9 @@ public class RNBluetoothClassicModule
                     Exceptions.NOT_CURRENTLY_CONNECTED.message(address));
         } else {
             DeviceConnection connection = mConnections.remove(address);
+            mDevices.remove(address);
             connection.disconnect();
+            removeReadListener(address);
 
             promise.resolve(true);
         }
@@ -962,7 +1431,7 @@ public class RNBluetoothClassicModule
                 promise.reject(new BluetoothException(address + " is not currently connected"));
             } else {
                 DeviceConnection connection = mConnections.get(address);
-                promise.resolve(new NativeDevice(connection.getDevice()).map());
+                promise.resolve(getNativeDevice(connection.getDevice()).map());
             }
         }
     }
@@ -995,10 +1464,23 @@ public class RNBluetoothClassicModule
             // left in it's raw byte[] and it's up to the DeviceConnection to handle/write
             // accordingly
             byte[] data = Base64.decode(message, Base64.DEFAULT);
+            DeviceConnection connection = mConnections.get(address);
 
             try {
-                mConnections.get(address).write(data);
-                promise.resolve(true);
+                if (connection instanceof AbstractDeviceConnection) {
+                    // Resolved once the data is flushed, which may be on the writer thread
+                    ((AbstractDeviceConnection) connection).write(data, (written, error) -> {
+                        if (error == null) {
+                            promise.resolve(true);
+                        } else {
+                            promise.reject(Exceptions.WRITE_FAILED.name(),
+                                    Exceptions.WRITE_FAILED.message(error.getMessage()));
+                        }
+                    });
+                } else {
+                    connection.write(data);
+                    promise.resolve(true);
+                }
             } catch (IOException e) {
                 promise.reject(Exceptions.WRITE_FAILED.name(),
                         Exceptions.WRITE_FAILED.message(e.getMessage()));
@@ -1006,6 +1488,83 @@ public class RNBluetoothClassicModule
         }
     }
 
+    /**
+     * Writes each of the messages to the device, in order, within a single request.  Writing
+     * stops at the first failure and the promise is resolved with the number of messages that
+     * were written, allowing large transfers to be made with one call instead of a call per
+     * message.  Every message is decoded before any are written, so the promise is rejected
+     * (with nothing written) when one isn't a base64 String.
+     * <p>
+     * When the connection is using a {@link WriteQueue} the messages take a single place in the
+     * queue, the promise is rejected if the queue is full or resolved once the messages have
+     * been flushed.
+     *
+     * @param address address of the device to which we will write the data
+     * @param messages base64 encoded messages to be sent
+     * @param promise resolved with the number of messages written
+     */
+    @ReactMethod
+    @SuppressWarnings("unused")
+    public void writeManyToDevice(String address, ReadableArray messages, Promise promise) {
+        if (!checkBluetoothAdapter()) {
+            promise.reject(Exceptions.BLUETOOTH_NOT_ENABLED.name(),
+                    Exceptions.BLUETOOTH_NOT_ENABLED.message());
+        } else if (!mConnections.containsKey(address)) {
+            promise.reject(Exceptions.NOT_CURRENTLY_CONNECTED.name(),
+                    Exceptions.NOT_CURRENTLY_CONNECTED.message(address));
+        } else {
+            List<byte[]> data = new ArrayList<>(messages.size());
+            for (int i = 0; i < messages.size(); i++) {
+                try {
+                    if (messages.getType(i) != ReadableType.String)
+                        throw new IllegalArgumentException("not a String");
+
+                    data.add(Base64.decode(messages.getString(i), Base64.DEFAULT));
+                } catch (IllegalArgumentException e) {
+                    promise.reject(Exceptions.WRITE_FAILED.name(),
+                            Exceptions.WRITE_FAILED.message(
+                                    String.format("message %d is invalid (%s)", i, e.getMessage())));
+                    return;
+                }
+            }
+
+            DeviceConnection connection = mConnections.get(address);
+            if (connection instanceof AbstractDeviceConnection) {
+                writeMany((AbstractDeviceConnection) connection, data, promise);
+                return;
+            }
+
+            int written = 0;
+            try {
+                for (; written < data.size(); written++) {
+                    connection.write(data.get(written));
+                }
+            } catch (IOException e) {
+                Log.w(this.getClass().getSimpleName(),
+                        String.format("writeManyToDevice stopped after %d: %s", written, e.getMessage()));
+            }
+            promise.resolve(written);
+        }
+    }
+
+    /**
+     * Writes the messages using {@link AbstractDeviceConnection#writeAll(List, BiConsumer)},
+     * which may complete on the writer thread.
+     */
+    private void writeMany(AbstractDeviceConnection connection, List<byte[]> data, Promise promise) {
+        try {
+            connection.writeAll(data, (written, error) -> {
+                if (error != null)
+                    Log.w(this.getClass().getSimpleName(),
+                            String.format("writeManyToDevice stopped after %d: %s", written, error.getMessage()));
+                promise.resolve(written);
+            });
+        } catch (IOException e) {
+            promise.reject(Exceptions.WRITE_FAILED.name(),
+                    Exceptions.WRITE_FAILED.message(e.getMessage()));
+        }
+    }
+
     /**
      * Attempts to read from the device. The full buffer is read (then cleared)
      * without using the
@@ -1079,6 +1638,109 @@ public class RNBluetoothClassicModule
         }
     }
 
+    /**
+     * Grants credit to a connection using {@link ReadOption#READ_FLOW_CONTROL}, allowing
+     * that many more messages to be sent as {@link EventType#DEVICE_READ} events.  Messages
+     * waiting for credit are sent immediately.
+     *
+     * @param address the device address
+     * @param credit the number of messages React Native is ready to receive
+     * @param promise resolves with the credit remaining
+     */
+    @ReactMethod
+    @SuppressWarnings("unused")
+    public void grantReadCredit(String address, int credit, Promise promise) {
+        if (!mConnections.containsKey(address)) {
+            promise.reject(Exceptions.NOT_CURRENTLY_CONNECTED.name(),
+                    Exceptions.NOT_CURRENTLY_CONNECTED.message(address));
+        } else if (credit < 0) {
+            promise.reject(Exceptions.INVALID_READ_CREDIT.name(),
+                    Exceptions.INVALID_READ_CREDIT.message(credit));
+        } else {
+            ReadCredit readCredit = readCredit(mReadListeners.get(address));
+            if (readCredit != null) {
+                promise.resolve((double) readCredit.grant(credit));
+            } else {
+                promise.reject(Exceptions.READ_FLOW_CONTROL_DISABLED.name(),
+                        Exceptions.READ_FLOW_CONTROL_DISABLED.message(address));
+            }
+        }
+    }
+
+    /**
+     * Provides the throughput and latency counters for the connected device(s).  When an
+     * address is provided the stats for that connection are resolved, otherwise all connections
+     * are resolved (keyed by address) along with the state of the connection threads:
+     * <pre>
+     * {
+     *     connections: { [address]: stats },
+     *     executor: { connectQueueDepth, activeConnects, ... }
+     * }
+     * </pre>
+     * Connections which don't extend {@link AbstractDeviceConnection} have no stats and are
+     * provided as an empty map.
+     *
+     * @param address the device address, or null for all connections
+     * @param promise resolves with the stats
+     */
+    @ReactMethod
+    @SuppressWarnings("unused")
+    public void getConnectionStats(@Nullable String address, Promise promise) {
+        if (address == null) {
+            WritableMap connections = Arguments.createMap();
+            for (Map.Entry<String, DeviceConnection> entry : mConnections.entrySet()) {
+                connections.putMap(entry.getKey(), mapStats(entry.getKey(), entry.getValue()));
+            }
+
+            WritableMap stats = Arguments.createMap();
+            stats.putMap("connections", connections);
+            stats.putMap("executor", mExecutor.map());
+            promise.resolve(stats);
+        } else if (!mConnections.containsKey(address)) {
+            promise.reject(Exceptions.NOT_CURRENTLY_CONNECTED.name(),
+                    Exceptions.NOT_CURRENTLY_CONNECTED.message(address));
+        } else {
+            promise.resolve(mapStats(address, mConnections.get(address)));
+        }
+    }
+
+    private WritableMap mapStats(String address, DeviceConnection connection) {
+        WritableMap stats = (connection instanceof AbstractDeviceConnection)
+                ? ((AbstractDeviceConnection) connection).getStats().map()
+                : Arguments.createMap();
+
+        BiConsumer<BluetoothDevice, Object> listener = mReadListeners.get(address);
+        if (listener instanceof CreditReadListener) {
+            CreditReadListener credit = (CreditReadListener) listener;
+            stats.putDouble("readCredit", credit.getCredit());
+            stats.putInt("readQueueDepth", credit.getQueueDepth());
+            stats.putDouble("readQueueDropped", credit.getDropped());
+            listener = credit.getListener();
+        }
+
+        if (listener instanceof ConflatingReadListener) {
+            ConflatingReadListener conflating = (ConflatingReadListener) listener;
+            stats.putDouble("messagesConflated", conflating.getConflated());
+            if (conflating.isFlowControlled())
+                stats.putDouble("readCredit", conflating.getCredit());
+        }
+
+        return stats;
+    }
+
+    /**
+     * @param listener the read listener of a connection
+     * @return the listener applying {@link ReadOption#READ_FLOW_CONTROL}, or null
+     */
+    private static ReadCredit readCredit(BiConsumer<BluetoothDevice, Object> listener) {
+        if (listener instanceof CreditReadListener)
+            return (CreditReadListener) listener;
+        if (listener instanceof ConflatingReadListener
+                && ((ConflatingReadListener) listener).isFlowControlled())
+            return (ConflatingReadListener) listener;
+        return null;
+    }
+
     /**
      * Attempts to set the BluetoothAdapter name.
      *
@@ -1112,6 +1774,9 @@ public class RNBluetoothClassicModule
      * </ul>
      */
     private void registerBluetoothReceivers() {
+        // Changes while the receivers were unregistered (paused) weren't seen
+        mDevices.clear();
+
         if (mStateChangeReceiver == null) {
             mStateChangeReceiver = new StateChangeReceiver(this);
             getReactApplicationContext()
@@ -1123,6 +1788,12 @@ public class RNBluetoothClassicModule
             getReactApplicationContext()
                     .registerReceiver(mActionACLReceiver, ActionACLReceiver.intentFilter());
         }
+
+        if (mDeviceChangeReceiver == null) {
+            mDeviceChangeReceiver = new DeviceChangeReceiver(this);
+            getReactApplicationContext()
+                    .registerReceiver(mDeviceChangeReceiver, DeviceChangeReceiver.intentFilter());
+        }
     }
 
     /**
@@ -1141,6 +1812,14 @@ public class RNBluetoothClassicModule
             mActionACLReceiver = null;
         }
 
+        if (mDeviceChangeReceiver != null) {
+            getReactApplicationContext().unregisterReceiver(mDeviceChangeReceiver);
+            mDeviceChangeReceiver = null;
+        }
+
+        // Nothing is invalidating the cached details any longer
+        mDevices.clear();
+
         if (mDiscoveryReceiver != null) {
             if (mAdapter != null && hasBluetoothScanPermission()) {
                 try {
@@ -1161,18 +1840,234 @@ public class RNBluetoothClassicModule
         // been
         // sent from the ACL message already.
         mConnections.remove(device.getAddress());
+        mDevices.remove(device.getAddress());
+        removeReadListener(device.getAddress());
         sendEvent(EventType.DEVICE_DISCONNECTED, new NativeDevice(device),
                 new BluetoothException(e.getMessage()).map());
     };
 
-    private BiConsumer<BluetoothDevice, String> onReceivedData = (BluetoothDevice device, String data) -> {
-        Log.d(TAG, String.format("Received translated data from the device: %s", data));
+    private BiConsumer<BluetoothDevice, Object> onReceivedData = (BluetoothDevice device, Object data) -> {
+        if (BuildConfig.DEBUG)
+            Log.d(TAG, String.format("Received translated data from the device: %s", data));
 
-        NativeDevice nativeDevice = new NativeDevice(device);
-        BluetoothMessage bluetoothMessage = new BluetoothMessage<>(nativeDevice.map(), data);
-        sendEvent(EventType.DEVICE_READ, nativeDevice, bluetoothMessage.asMap());
+        sendRead(device, data, TimestampFormat.ISO);
     };
 
+    private BiConsumer<BluetoothDevice, List<Object>> onReceivedBatch = (BluetoothDevice device, List<Object> batch) -> {
+        if (BuildConfig.DEBUG)
+            Log.d(TAG, String.format("Received batch of %d messages from the device", batch.size()));
+
+        sendRead(device, toArray(batch), TimestampFormat.ISO);
+    };
+
+    /**
+     * Sends a {@link ReadEventFormat#FULL} {@link EventType#DEVICE_READ} event.
+     *
+     * @param device the device from which the data was read
+     * @param data the message or batch of messages
+     * @param timestampFormat the {@link TimestampFormat} of the event
+     */
+    private void sendRead(BluetoothDevice device, Object data, TimestampFormat timestampFormat) {
+        NativeDevice nativeDevice = getNativeDevice(device);
+        BluetoothMessage bluetoothMessage = new BluetoothMessage<>(nativeDevice.map(), data);
+        sendEvent(EventType.DEVICE_READ, nativeDevice, bluetoothMessage.asMap(timestampFormat));
+    }
+
+    /**
+     * Sends a {@link ReadEventFormat#COMPACT} {@link EventType#DEVICE_READ} event.
+     *
+     * @param device the device from which the data was read
+     * @param data the message or batch of messages
+     * @param sequence the connection's event sequence number
+     * @param timestampFormat the {@link TimestampFormat} of the event
+     */
+    private void sendCompactRead(BluetoothDevice device, Object data, long sequence, TimestampFormat timestampFormat) {
+        BluetoothMessage bluetoothMessage = new BluetoothMessage<>(data);
+        sendEvent(EventType.DEVICE_READ, getNativeDevice(device),
+                bluetoothMessage.asCompactMap(sequence, timestampFormat));
+    }
+
+    private static WritableArray toArray(List<Object> batch) {
+        WritableArray data = Arguments.createArray();
+        for (Object message : batch) {
+            if (message instanceof ReadableMap) {
+                data.pushMap((ReadableMap) message);
+            } else {
+                data.pushString((String) message);
+            }
+        }
+        return data;
+    }
+
+    /**
+     * Creates the listener which will be provided to a {@link DeviceConnection} when
+     * {@link EventType#DEVICE_READ} events are requested.  By default each message is sent
+     * as it's own event, when {@link ReadOption#READ_BATCH_SIZE} is greater than 1 messages
+     * are sent in batches.  {@link ReadOption#READ_EVENT_FORMAT} selects the content of the
+     * events, compact events are numbered per connection, and {@link ReadOption#READ_TIMESTAMP}
+     * their timestamp.  With {@link ReadOption#READ_DELIVERY} {@code latest} only the newest
+     * message (or newest per key, sent as a batch) is sent, and batching isn't used.
+     * With {@link ReadOption#READ_FLOW_CONTROL} messages are only handed to the listener
+     * while React Native has granted credit, see {@link #grantReadCredit}.  With {@code latest}
+     * delivery credit is applied to the conflated events, so messages keep being conflated
+     * (rather than queued) while there is no credit.
+     *
+     * <p>
+     * Messages are either Strings or, from a {@link StructuredDataConnection}, maps.  As each
+     * event is sent the time since the read of its (oldest) message is recorded in the
+     * connection's {@link ConnectionStats}.
+     *
+     * @param config the connection options
+     * @param stats the connection's stats, or null if it doesn't keep any
+     * @return the listener used for the connection
+     */
+    private BiConsumer<BluetoothDevice, Object> createReadListener(ConnectionConfig config,
+                                                                   final ConnectionStats stats) {
+        ReadEventFormat format = config.get(ReadOption.READ_EVENT_FORMAT);
+
+        TimestampFormat timestampOption = config.get(ReadOption.READ_TIMESTAMP);
+        final TimestampFormat timestamp = timestampOption != null ? timestampOption
+                : ReadEventFormat.COMPACT == format ? TimestampFormat.NONE : TimestampFormat.ISO;
+
+        BiConsumer<BluetoothDevice, Object> onData = onReceivedData;
+        BiConsumer<BluetoothDevice, List<Object>> onBatch = onReceivedBatch;
+        if (ReadEventFormat.COMPACT == format) {
+            final AtomicLong sequence = new AtomicLong();
+            onData = (BluetoothDevice device, Object data) ->
+                    sendCompactRead(device, data, sequence.getAndIncrement(), timestamp);
+            onBatch = (BluetoothDevice device, List<Object> batch) ->
+                    sendCompactRead(device, toArray(batch), sequence.getAndIncrement(), timestamp);
+        } else if (TimestampFormat.ISO != timestamp) {
+            onData = (BluetoothDevice device, Object data) -> sendRead(device, data, timestamp);
+            onBatch = (BluetoothDevice device, List<Object> batch) ->
+                    sendRead(device, toArray(batch), timestamp);
+        }
+
+        final BiConsumer<BluetoothDevice, Object> sendData = onData;
+        final BiConsumer<BluetoothDevice, List<Object>> sendBatch = onBatch;
+        TimedReadListener<Object> emitData = (BluetoothDevice device, Object data, long readNanos) -> {
+            sendData.accept(device, data);
+            eventSent(stats, readNanos);
+        };
+        TimedReadListener<List<Object>> emitBatch = (BluetoothDevice device, List<Object> batch, long readNanos) -> {
+            sendBatch.accept(device, batch);
+            eventSent(stats, readNanos);
+        };
+
+        boolean flowControl = config.getBoolean(ReadOption.READ_FLOW_CONTROL);
+        if (ReadDelivery.LATEST == config.get(ReadOption.READ_DELIVERY)) {
+            return new ConflatingReadListener(config.getInt(ReadOption.READ_CONFLATE_INTERVAL),
+                    config.getString(ReadOption.READ_CONFLATE_KEY),
+                    flowControl, config.getInt(ReadOption.READ_INITIAL_CREDIT),
+                    mExecutor.scheduler(), emitData, emitBatch);
+        }
+
+        TimedReadListener<Object> listener = emitData;
+        int batchSize = config.getInt(ReadOption.READ_BATCH_SIZE);
+        if (batchSize > 1) {
+            int linger = config.getInt(ReadOption.READ_BATCH_LINGER);
+            listener = new BatchedReadListener<>(batchSize, linger, mExecutor.scheduler(), emitBatch);
+        }
+
+        if (flowControl) {
+            listener = new CreditReadListener(config.getInt(ReadOption.READ_INITIAL_CREDIT),
+                    config.getInt(ReadOption.READ_CREDIT_QUEUE_LIMIT),
+                    config.get(ReadOption.READ_CREDIT_OVERFLOW), listener);
+        }
+
+        return listener;
+    }
+
+    /**
+     * Records the time since a read event's (oldest) message was read, once it has been sent.
+     *
+     * @param stats the connection's stats, or null if it doesn't keep any
+     * @param readNanos {@link System#nanoTime()} of the read
+     */
+    private static void eventSent(ConnectionStats stats, long readNanos) {
+        if (stats != null)
+            stats.eventSent(System.nanoTime() - readNanos);
+    }
+
+    /**
+     * Creates the requested {@link DeviceConnection} for the newly connected socket, adds it to
+     * the connections and starts it on a {@link ConnectionExecutor} connection thread.  A socket
+     * from a device which is already connected (a client connecting twice while accepting in
+     * server mode) is closed, leaving the existing connection in place.
+     *
+     * @param socket the connected {@link BluetoothSocket}
+     * @param connectionType the {@link DeviceConnectionFactory} type
+     * @param config the connection options
+     * @return the started {@link DeviceConnection}
+     * @throws IOException if the connection cannot be created or started, or the device is
+     *      already connected
+     */
+    private DeviceConnection startConnection(BluetoothSocket socket,
+                                             String connectionType,
+                                             ConnectionConfig config) throws IOException {
+        String address = socket.getRemoteDevice().getAddress();
+        if (mConnections.containsKey(address)) {
+            try { socket.close(); } catch (IOException ignored) { }
+            throw new IOException(Exceptions.ALREADY_CONNECTED.message(address));
+        }
+
+        DeviceConnectionFactory connectionFactory = mConnectionFactories.get(connectionType);
+        DeviceConnection connection;
+        try {
+            connection = connectionFactory.create(socket, config);
+        } catch (IllegalArgumentException e) {
+            try { socket.close(); } catch (IOException ignored) { }
+            throw new IOException(String.format("Invalid connection options: %s", e.getMessage()), e);
+        }
+        connection.onDisconnect(onDisconnect);
+        BiConsumer<BluetoothDevice, Object> readListener = createReadListener(config,
+                connection instanceof AbstractDeviceConnection
+                        ? ((AbstractDeviceConnection) connection).getStats() : null);
+        if (mConnections.putIfAbsent(address, connection) != null) {
+            // Connected by another thread since the check, the connection was never started
+            try { socket.close(); } catch (IOException ignored) { }
+            throw new IOException(Exceptions.ALREADY_CONNECTED.message(address));
+        }
+        mReadListeners.put(address, readListener);
+
+        try {
+            mExecutor.connection(address, connection);
+
+            if (connection instanceof AbstractDeviceConnection) {
+                WriteQueue writeQueue = ((AbstractDeviceConnection) connection).getWriteQueue();
+                if (writeQueue != null)
+                    mExecutor.execute(String.format("write-%s", address), writeQueue);
+            }
+        } catch (RejectedExecutionException e) {
+            mConnections.remove(address);
+            mReadListeners.remove(address);
+            connection.disconnect();
+            throw new IOException("No connection threads available", e);
+        }
+
+        return connection;
+    }
+
+    /**
+     * Removes the read listener for the address, once the connection has ended, sending
+     * anything that is still waiting to be batched, conflated or for read credit.
+     *
+     * @param address the device address
+     */
+    private void removeReadListener(String address) {
+        BiConsumer<BluetoothDevice, Object> listener = mReadListeners.remove(address);
+        if (listener instanceof CreditReadListener) {
+            ((CreditReadListener) listener).drain();
+            listener = ((CreditReadListener) listener).getListener();
+        }
+
+        if (listener instanceof BatchedReadListener) {
+            ((BatchedReadListener) listener).flush();
+        } else if (listener instanceof ConflatingReadListener) {
+            ((ConflatingReadListener) listener).drain();
+        }
+    }
+
     /**
      * Adds a new listener for the {@link EventType} provided.
      * <p>
@@ -1210,7 +2105,13 @@ public class RNBluetoothClassicModule
             }
 
             DeviceConnection connection = mConnections.get(eventDevice);
-            connection.onDataReceived(onReceivedData);
+            BiConsumer<BluetoothDevice, Object> listener = mReadListeners.get(eventDevice);
+            final BiConsumer<BluetoothDevice, Object> readListener = listener != null ? listener : onReceivedData;
+            if (connection instanceof StructuredDataConnection) {
+                ((StructuredDataConnection) connection).onStructuredDataReceived(readListener::accept);
+            } else {
+                connection.onDataReceived(readListener::accept);
+            }
         }
 
         // Now we can increment the listener as appropriate
@@ -1380,10 +2281,72 @@ public class RNBluetoothClassicModule
         Log.d(TAG, "onACLDisconnected to " + device.getAddress());
 
         mConnections.remove(device.getAddress());
+        mDevices.remove(device.getAddress());
+        removeReadListener(device.getAddress());
         BluetoothDeviceEvent event = new BluetoothDeviceEvent(EventType.DEVICE_DISCONNECTED, device);
         sendEvent(EventType.DEVICE_DISCONNECTED, event.map());
     }
 
+    /**
+     * The device was bonded, renamed or connected, so any details cached for it are out of date.
+     *
+     * @param device the {@link BluetoothDevice} which changed
+     */
+    @Override
+    public void onDeviceChanged(BluetoothDevice device) {
+        NativeDevice nativeDevice = mDevices.get(device.getAddress());
+        if (nativeDevice != null)
+            nativeDevice.invalidate();
+    }
+
+    /**
+     * Provides the cached {@link NativeDevice} for the {@link BluetoothDevice}, creating it if
+     * this is the first time the device has been seen.  Devices which aren't connected (such as
+     * connection attempts) aren't cached, since nothing removes them once they're done with.
+     *
+     * @param device the {@link BluetoothDevice}
+     * @return the cached {@link NativeDevice}
+     */
+    private NativeDevice getNativeDevice(BluetoothDevice device) {
+        NativeDevice nativeDevice = mDevices.get(device.getAddress());
+        if (nativeDevice == null) {
+            NativeDevice created = new NativeDevice(device);
+            if (!mConnections.containsKey(device.getAddress()))
+                return created;
+
+            nativeDevice = mDevices.putIfAbsent(device.getAddress(), created);
+            if (nativeDevice == null)
+                nativeDevice = created;
+        }
+        return nativeDevice;
+    }
+
+    /**
+     * Parses the connection options: the {@link StandardOption}(s), the {@link ConnectOption}(s)
+     * and {@link ReadOption}(s) used by the module and the options registered by the
+     * {@link DeviceConnectionFactory} of the requested connection type, which then
+     * {@link DeviceConnectionFactory#validate(ConnectionConfig) validates} them.  An unknown
+     * connection type is reported by the caller.
+     *
+     * @param parameters provided to the module, may be null
+     * @return the config
+     * @throws IllegalArgumentException if any of the options are invalid
+     */
+    private ConnectionConfig parseConfig(ReadableMap parameters) {
+        ConnectionConfig config = ConnectionConfig.from(parameters)
+                .parse(ConnectOption.values())
+                .parse(ReadOption.values());
+
+        DeviceConnectionFactory factory =
+                mConnectionFactories.get(config.getString(StandardOption.CONNECTION_TYPE));
+        if (factory == null)
+            return config;
+
+        config = config.parse(factory.options());
+        factory.validate(config);
+        return config;
+    }
+
     /**
      * Sends a {@link EventType} to the React Native JS module
      * {@link com.facebook.react.modules.core.DeviceEventManagerModule.RCTDeviceEventEmitter}.
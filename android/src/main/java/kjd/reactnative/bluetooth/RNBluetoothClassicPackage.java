@@ -15,12 +15,28 @@ import com.facebook.react.bridge.JavaScriptModule;
 
 import kjd.reactnative.bluetooth.conn.ConnectionAcceptorFactory;
 import kjd.reactnative.bluetooth.conn.ConnectionConnectorFactory;
+import kjd.reactnative.bluetooth.conn.ConnectionExecutor;
 import kjd.reactnative.bluetooth.conn.DelimitedStringDeviceConnectionImpl;
 import kjd.reactnative.bluetooth.conn.DeviceConnectionFactory;
+import kjd.reactnative.bluetooth.conn.JsonLinesDeviceConnectionImpl;
+import kjd.reactnative.bluetooth.conn.NmeaDeviceConnectionImpl;
 import kjd.reactnative.bluetooth.conn.RfcommAcceptorThreadImpl;
 import kjd.reactnative.bluetooth.conn.RfcommConnectorThreadImpl;
 import kjd.reactnative.bluetooth.conn.StandardOption;
 import kjd.reactnative.bluetooth.conn.ByteArrayDeviceConnectionImpl;
+import kjd.reactnative.bluetooth.frame.ByteDelimiterFramer;
+import kjd.reactnative.bluetooth.frame.CobsFramer;
+import kjd.reactnative.bluetooth.frame.Crc16;
+import kjd.reactnative.bluetooth.frame.FrameEncoder;
+import kjd.reactnative.bluetooth.frame.FrameTransformer;
+import kjd.reactnative.bluetooth.frame.FrameValidator;
+import kjd.reactnative.bluetooth.frame.FramedDeviceConnectionImpl;
+import kjd.reactnative.bluetooth.frame.FramerFactory;
+import kjd.reactnative.bluetooth.frame.HdlcFramer;
+import kjd.reactnative.bluetooth.frame.LengthFieldFramer;
+import kjd.reactnative.bluetooth.frame.PipelineStages;
+import kjd.reactnative.bluetooth.frame.SlipFramer;
+import kjd.reactnative.bluetooth.frame.StageFactory;
 
 /**
  *
@@ -30,6 +46,11 @@ import kjd.reactnative.bluetooth.conn.ByteArrayDeviceConnectionImpl;
  */
 public class RNBluetoothClassicPackage implements ReactPackage {
 
+    /**
+     * The connection type running the {@link PipelineStages} selected by the connection options.
+     */
+    public static final String PIPELINE_CONNECTION_TYPE = "pipeline";
+
     /**
      * Provides a default builder to allow for overriding.
      */
@@ -37,6 +58,13 @@ public class RNBluetoothClassicPackage implements ReactPackage {
             = RNBluetoothClassicPackage.builder()
                 .withConnectionFactory(StandardOption.CONNECTION_TYPE.defaultValue(), DelimitedStringDeviceConnectionImpl::new)
                 .withConnectionFactory("binary", ByteArrayDeviceConnectionImpl::new)
+                .withConnectionFactory("jsonl", JsonLinesDeviceConnectionImpl.factory())
+                .withConnectionFactory("nmea", NmeaDeviceConnectionImpl.factory())
+                .withConnectionFactory("length-prefixed", FramedDeviceConnectionImpl.factory(LengthFieldFramer::new))
+                .withConnectionFactory("binary-delimited", FramedDeviceConnectionImpl.factory(ByteDelimiterFramer::new))
+                .withConnectionFactory("slip", FramedDeviceConnectionImpl.factory(SlipFramer::new))
+                .withConnectionFactory("cobs", FramedDeviceConnectionImpl.factory(CobsFramer::new))
+                .withConnectionFactory("hdlc", FramedDeviceConnectionImpl.factory(HdlcFramer::new, Crc16.X25))
                 .withConnectorFactory(StandardOption.CONNECTOR_TYPE.defaultValue(), RfcommConnectorThreadImpl::new)
                 .withAcceptorFactory(StandardOption.ACCEPTOR_TYPE.defaultValue(), RfcommAcceptorThreadImpl::new);
 
@@ -58,6 +86,24 @@ public class RNBluetoothClassicPackage implements ReactPackage {
      */
     private Map<String, ConnectionConnectorFactory> mConnectorFactories;
 
+    /**
+     * Maximum number of {@link kjd.reactnative.bluetooth.conn.ConnectionConnector}(s) run at
+     * the same time by the {@link ConnectionExecutor}.
+     */
+    private int mMaxConcurrentConnects;
+
+    /**
+     * Maximum number of {@link kjd.reactnative.bluetooth.conn.ConnectionConnector}(s) waiting
+     * for a connect thread.
+     */
+    private int mMaxQueuedConnects;
+
+    /**
+     * Maximum number of connection threads (connections, acceptors and writers) provided by the
+     * {@link ConnectionExecutor}.
+     */
+    private int mMaxConnections;
+
     /**
      * Creates a new package with the default {@link kjd.reactnative.bluetooth.conn.DeviceConnectionFactory}
      * for CLIENT and SERVER.  Sadly this needs to happen as I can't get the customized auto linking
@@ -68,6 +114,14 @@ public class RNBluetoothClassicPackage implements ReactPackage {
         this.mConnectionFactories = new HashMap<String, DeviceConnectionFactory>() {{
             put(StandardOption.CONNECTION_TYPE.defaultValue(), DelimitedStringDeviceConnectionImpl::new);
             put("binary", ByteArrayDeviceConnectionImpl::new);
+            put("jsonl", JsonLinesDeviceConnectionImpl.factory());
+            put("nmea", NmeaDeviceConnectionImpl.factory());
+            put("length-prefixed", FramedDeviceConnectionImpl.factory(LengthFieldFramer::new));
+            put("binary-delimited", FramedDeviceConnectionImpl.factory(ByteDelimiterFramer::new));
+            put("slip", FramedDeviceConnectionImpl.factory(SlipFramer::new));
+            put("cobs", FramedDeviceConnectionImpl.factory(CobsFramer::new));
+            put("hdlc", FramedDeviceConnectionImpl.factory(HdlcFramer::new, Crc16.X25));
+            put(PIPELINE_CONNECTION_TYPE, PipelineStages.standard().connectionFactory());
         }};
         this.mAcceptorFactories = Collections.singletonMap(
                 StandardOption.ACCEPTOR_TYPE.defaultValue(),
@@ -75,6 +129,9 @@ public class RNBluetoothClassicPackage implements ReactPackage {
         this.mConnectorFactories = Collections.singletonMap(
                 StandardOption.CONNECTOR_TYPE.defaultValue(),
                 RfcommConnectorThreadImpl::new);
+        this.mMaxConcurrentConnects = ConnectionExecutor.DEFAULT_MAX_CONCURRENT_CONNECTS;
+        this.mMaxQueuedConnects = ConnectionExecutor.DEFAULT_MAX_QUEUED_CONNECTS;
+        this.mMaxConnections = ConnectionExecutor.DEFAULT_MAX_CONNECTIONS;
     }
 
     /**
@@ -84,9 +141,14 @@ public class RNBluetoothClassicPackage implements ReactPackage {
      * @param builder {@link Builder} used to create
      */
     private RNBluetoothClassicPackage(Builder builder) {
-        this.mConnectionFactories = builder.mConnectionFactories;
+        this.mConnectionFactories = new HashMap<>(builder.mConnectionFactories);
+        if (!mConnectionFactories.containsKey(PIPELINE_CONNECTION_TYPE))
+            mConnectionFactories.put(PIPELINE_CONNECTION_TYPE, builder.mPipelineStages.connectionFactory());
         this.mAcceptorFactories = builder.mAcceptorFactories;
         this.mConnectorFactories = builder.mConnectorFactories;
+        this.mMaxConcurrentConnects = builder.mMaxConcurrentConnects;
+        this.mMaxQueuedConnects = builder.mMaxQueuedConnects;
+        this.mMaxConnections = builder.mMaxConnections;
     }
 
     /**
@@ -99,7 +161,8 @@ public class RNBluetoothClassicPackage implements ReactPackage {
     @Override
     public List<NativeModule> createNativeModules(ReactApplicationContext reactContext) {
         RNBluetoothClassicModule module = new RNBluetoothClassicModule(reactContext,
-                mAcceptorFactories, mConnectorFactories, mConnectionFactories);
+                mAcceptorFactories, mConnectorFactories, mConnectionFactories,
+                new ConnectionExecutor(mMaxConcurrentConnects, mMaxQueuedConnects, mMaxConnections));
         return Arrays.<NativeModule>asList(module);
     }
 
@@ -142,11 +205,19 @@ public class RNBluetoothClassicPackage implements ReactPackage {
         private Map<String, DeviceConnectionFactory> mConnectionFactories;
         private Map<String, ConnectionAcceptorFactory> mAcceptorFactories;
         private Map<String, ConnectionConnectorFactory> mConnectorFactories;
+        private int mMaxConcurrentConnects;
+        private int mMaxQueuedConnects;
+        private int mMaxConnections;
+        private PipelineStages mPipelineStages;
 
         private Builder() {
             this.mConnectionFactories = new HashMap<>();
             this.mAcceptorFactories = new HashMap<>();
             this.mConnectorFactories = new HashMap<>();
+            this.mMaxConcurrentConnects = ConnectionExecutor.DEFAULT_MAX_CONCURRENT_CONNECTS;
+            this.mMaxQueuedConnects = ConnectionExecutor.DEFAULT_MAX_QUEUED_CONNECTS;
+            this.mMaxConnections = ConnectionExecutor.DEFAULT_MAX_CONNECTIONS;
+            this.mPipelineStages = PipelineStages.standard();
         }
 
         public RNBluetoothClassicPackage build() {
@@ -167,5 +238,96 @@ public class RNBluetoothClassicPackage implements ReactPackage {
             mConnectorFactories.put(type, factory);
             return this;
         }
+
+        /**
+         * Registers a {@link kjd.reactnative.bluetooth.frame.Framer} available to
+         * {@code pipeline} connections with the {@code framer} option.
+         *
+         * @param name the framer name
+         * @param factory creates the framer for each connection
+         * @return this {@link Builder}
+         */
+        public Builder withFramer(String name, FramerFactory factory) {
+            mPipelineStages.withFramer(name, factory);
+            return this;
+        }
+
+        /**
+         * Registers a {@link FrameValidator} available to {@code pipeline} connections with the
+         * {@code frameValidators} option.
+         *
+         * @param name the validator name
+         * @param factory creates the validator for each connection
+         * @return this {@link Builder}
+         */
+        public Builder withFrameValidator(String name, StageFactory<? extends FrameValidator> factory) {
+            mPipelineStages.withValidator(name, factory);
+            return this;
+        }
+
+        /**
+         * Registers a {@link FrameTransformer} available to {@code pipeline} connections with the
+         * {@code frameTransformers} option.
+         *
+         * @param name the transformer name
+         * @param factory creates the transformer for each connection
+         * @return this {@link Builder}
+         */
+        public Builder withFrameTransformer(String name, StageFactory<? extends FrameTransformer> factory) {
+            mPipelineStages.withTransformer(name, factory);
+            return this;
+        }
+
+        /**
+         * Registers a {@link FrameEncoder} available to {@code pipeline} connections with the
+         * {@code frameEncoding} option.
+         *
+         * @param name the encoder name
+         * @param factory creates the encoder for each connection
+         * @return this {@link Builder}
+         */
+        public Builder withFrameEncoder(String name, StageFactory<? extends FrameEncoder> factory) {
+            mPipelineStages.withEncoder(name, factory);
+            return this;
+        }
+
+        /**
+         * Limits the number of connection attempts run at the same time, further attempts are
+         * queued until one completes (see {@link #withMaxQueuedConnects(int)}).
+         *
+         * @param maxConcurrentConnects the number of concurrent connection attempts
+         * @return this {@link Builder}
+         */
+        public Builder withMaxConcurrentConnects(int maxConcurrentConnects) {
+            mMaxConcurrentConnects = maxConcurrentConnects;
+            return this;
+        }
+
+        /**
+         * Limits the number of connection attempts waiting for one of the concurrent attempts
+         * to complete.  Once reached further attempts are rejected.  Defaults to
+         * {@link ConnectionExecutor#DEFAULT_MAX_QUEUED_CONNECTS}.
+         *
+         * @param maxQueuedConnects the number of queued connection attempts
+         * @return this {@link Builder}
+         */
+        public Builder withMaxQueuedConnects(int maxQueuedConnects) {
+            mMaxQueuedConnects = maxQueuedConnects;
+            return this;
+        }
+
+        /**
+         * Limits the number of connection threads (connections, acceptors and writers).  Once
+         * reached new connections are rejected.  Defaults to
+         * {@link ConnectionExecutor#DEFAULT_MAX_CONNECTIONS}, which is the way to raise it when
+         * more are required.
+         *
+         * @param maxConnections the number of connection threads
+         * @return this {@link Builder}
+         */
+        public Builder withMaxConnections(int maxConnections) {
+            mMaxConnections = maxConnections;
+            return this;
+        }
     }
 }
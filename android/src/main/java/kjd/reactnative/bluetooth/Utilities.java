@@ -9,6 +9,7 @@ import java.util.Date;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Properties;
+import java.util.TimeZone;
 
 /**
  * Random utility classes and variables used for consistency.
@@ -17,16 +18,39 @@ public class Utilities {
 
     public static final String DATE_PATTERN = "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'";
 
+    /**
+     * {@link SimpleDateFormat} isn't thread safe, each thread (generally the connection threads)
+     * keeps its own instead of creating one per message.
+     */
+    private static final ThreadLocal<DateFormat> DATE_FORMAT = new ThreadLocal<DateFormat>() {
+        @Override
+        protected DateFormat initialValue() {
+            return dateFormat();
+        }
+    };
+
+    /**
+     * Creates a new {@link DateFormat} for the {@link #DATE_PATTERN}.  The pattern ends with
+     * {@code Z} so dates are formatted (and parsed) in UTC.
+     *
+     * @return a new {@link DateFormat}
+     */
     public static DateFormat dateFormat() {
-        return new SimpleDateFormat(DATE_PATTERN, Locale.getDefault());
+        DateFormat format = new SimpleDateFormat(DATE_PATTERN, Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        return format;
     }
 
     public static String formatDate(Date date) {
-        return dateFormat().format(date);
+        return DATE_FORMAT.get().format(date);
+    }
+
+    public static String formatDate(long millis) {
+        return formatDate(new Date(millis));
     }
 
     public static Date parseDate(String date) throws ParseException {
-        return dateFormat().parse(date);
+        return DATE_FORMAT.get().parse(date);
     }
 
     public static Properties mapToProperties(ReadableMap readableMap) {
@@ -3,19 +3,21 @@ package kjd.reactnative.bluetooth.conn;
 import android.bluetooth.BluetoothDevice;
 import android.bluetooth.BluetoothSocket;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.Arrays;
-import java.util.Properties;
+import java.util.List;
 
 import kjd.reactnative.android.BiConsumer;
+import kjd.reactnative.bluetooth.device.NativeDevice;
 
 
 /**
  * Implements the comment features for a delimited device connection.  Delimited
  * connections are generally String based which parse / concatenate received messages
- * by their specified delimiter.  The standard mProperties required for this
+ * by their specified delimiter.  The standard options required for this
  * connection are:
  * <ul>
  *     <li><strong>delimiter</strong> string delimited for parsing messages.</li>
@@ -27,6 +29,11 @@ import kjd.reactnative.android.BiConsumer;
  *     <li><strong>readTimeout</strong> defines the timeout between read attempts.  This was
  *      from the initial project, so it was left in there as a default to the original
  *      value.</li>
+ *     <li><strong>readPacing</strong> whether the readTimeout is applied after every read
+ *      ({@code fixed}) or only as a back off when no data is read ({@code adaptive}).</li>
+ *     <li><strong>writeQueueSize</strong> when set, writes are queued and made by a
+ *      {@link WriteQueue} (joining adjacent writes up to <strong>writeCoalesceSize</strong>
+ *      bytes).</li>
  * </ul>
  *
  * @author kendavidson
@@ -38,6 +45,12 @@ abstract public class AbstractDeviceConnection implements DeviceConnection {
      */
     private final BluetoothSocket mSocket;
 
+    /**
+     * The device at the other end of {@link #mSocket}, which doesn't change, kept so that
+     * delivering each message doesn't need to go back to the socket.
+     */
+    private final BluetoothDevice mDevice;
+
     /**
      * The InputStream from which the DeviceConnection is reading.
      */
@@ -48,15 +61,22 @@ abstract public class AbstractDeviceConnection implements DeviceConnection {
      */
     private OutputStream mOutStream;
 
+    /**
+     * Guards writes to {@link #mOutStream}.  Kept separate from the connection's monitor so that
+     * a write blocked on the device doesn't block {@link #disconnect()} (which closes the
+     * streams to release it) or the listener and status methods.
+     */
+    private final Object mWriteLock = new Object();
+
     /**
      * Status of the current connection.
      */
     private ConnectionStatus mConnectionStatus;
 
     /**
-     * Connection properties
+     * Connection options
      */
-    protected Properties mProperties;
+    protected final ConnectionConfig mConfig;
 
     /**
      * Data is provided through this listener.  If there is no listener, the implementation is to
@@ -70,18 +90,35 @@ abstract public class AbstractDeviceConnection implements DeviceConnection {
      */
     protected BiConsumer<BluetoothDevice, Exception> mOnDisconnect;
 
+    /**
+     * Throughput and latency counters for this connection.
+     */
+    protected final ConnectionStats mStats;
+
+    /**
+     * Pending writes, null when writes are made directly.
+     */
+    private final WriteQueue mWriteQueue;
+
     /**
      * Creates a new {@link AbstractDeviceConnection} to the provided NativeDevice, using the provided
-     * Properties.
+     * {@link ConnectionConfig}.
      *
      * @param socket
-     * @param properties
+     * @param config
      */
-    public AbstractDeviceConnection(BluetoothSocket socket, Properties properties) throws IOException {
+    public AbstractDeviceConnection(BluetoothSocket socket, ConnectionConfig config) throws IOException {
         this.mSocket = socket;
-        this.mProperties = new Properties(properties);
+        this.mDevice = socket.getRemoteDevice();
+        this.mConfig = config;
 
         this.mConnectionStatus = ConnectionStatus.DISCONNECTED;
+        this.mStats = new ConnectionStats();
+
+        int writeQueueSize = mConfig.getInt(StandardOption.WRITE_QUEUE_SIZE);
+        this.mWriteQueue = writeQueueSize > 0
+                ? new WriteQueue(this, writeQueueSize, mConfig.getInt(StandardOption.WRITE_COALESCE_SIZE))
+                : null;
 
         this.mInStream = mSocket.getInputStream();
         this.mOutStream = mSocket.getOutputStream();
@@ -89,13 +126,16 @@ abstract public class AbstractDeviceConnection implements DeviceConnection {
 
     @Override
     public void run() {
-        int bufferSize = StandardOption.READ_SIZE.get(mProperties);
-        int readTimeout = StandardOption.READ_TIMEOUT.get(mProperties);
+        int bufferSize = mConfig.getInt(StandardOption.READ_SIZE);
+        int readTimeout = mConfig.getInt(StandardOption.READ_TIMEOUT);
+        ReadPacing pacing = mConfig.get(StandardOption.READ_PACING);
 
         mConnectionStatus = ConnectionStatus.CONNECTING;
 
         final byte[] buffer = new byte[bufferSize];
         int bytes;
+        long lastArrival = 0;
+        long backoff = 0;
 
         try {
             // The device will continue attempting to read until there is an IOException thrown
@@ -104,19 +144,41 @@ abstract public class AbstractDeviceConnection implements DeviceConnection {
             mConnectionStatus = ConnectionStatus.CONNECTED;
             while (mConnectionStatus == ConnectionStatus.CONNECTED) {
                 bytes = mInStream.read(buffer);
-                if (bytes > 0)
-                    receivedData(Arrays.copyOf(buffer, bytes));
-
-                if (readTimeout > 0)
+                if (bytes < 0) {
+                    // The other side closed the stream, nothing more will be read
+                    throw new ConnectionLostException(new NativeDevice(mDevice),
+                            new EOFException("End of stream"));
+                } else if (bytes > 0) {
+                    long now = System.nanoTime();
+                    if (lastArrival > 0)
+                        mStats.getInterArrival().record(now - lastArrival);
+                    lastArrival = now;
+                    mStats.bytesRead(bytes);
+
+                    receivedData(buffer, 0, bytes);
+                }
+
+                if (readTimeout <= 0)
+                    continue;
+
+                if (ReadPacing.FIXED == pacing) {
                     Thread.sleep(readTimeout);
+                } else if (bytes > 0) {
+                    backoff = 0;
+                } else {
+                    backoff = Math.min(Math.max(backoff << 1, 1), readTimeout);
+                    Thread.sleep(backoff);
+                }
             }
         } catch (Exception e) {
             if (mConnectionStatus != ConnectionStatus.DISCONNECTING
                     && mOnDisconnect != null) {
-                mOnDisconnect.accept(mSocket.getRemoteDevice(), e);
+                mOnDisconnect.accept(mDevice, e);
             }
         } finally {
             mConnectionStatus = ConnectionStatus.DISCONNECTED;
+            if (mWriteQueue != null)
+                mWriteQueue.close();
 
             // Finally clean up the streams, because we could have already done this during the
             // disconnect() it's possible they were already closed
@@ -126,14 +188,34 @@ abstract public class AbstractDeviceConnection implements DeviceConnection {
         }
     }
 
+    /**
+     * Provides the time between successive reads which returned data from the device.  This
+     * can be used to compare the effects of {@link StandardOption#READ_PACING} and
+     * {@link StandardOption#READ_TIMEOUT}.
+     *
+     * @return the inter-arrival {@link LatencyHistogram}
+     */
+    public LatencyHistogram getInterArrivalLatency() {
+        return mStats.getInterArrival();
+    }
+
+    /**
+     * Provides the throughput and latency counters for this connection.
+     *
+     * @return the {@link ConnectionStats}
+     */
+    public ConnectionStats getStats() {
+        return mStats;
+    }
+
     /**
      * Returns the BluetoothDevice to which this {@link DeviceConnection} is communicating.
      *
      * @return the BluetoothDevice for this connection
      */
     @Override
-    public synchronized BluetoothDevice getDevice() {
-        return mSocket.getRemoteDevice();
+    public BluetoothDevice getDevice() {
+        return mDevice;
     }
 
     /**
@@ -145,6 +227,8 @@ abstract public class AbstractDeviceConnection implements DeviceConnection {
     @Override
     public synchronized boolean disconnect() {
         mConnectionStatus = ConnectionStatus.DISCONNECTING;
+        if (mWriteQueue != null)
+            mWriteQueue.close();
 
         try { mInStream.close(); } catch (IOException ignored) { }
         try { mOutStream.close(); } catch (IOException ignored) { }
@@ -161,6 +245,55 @@ abstract public class AbstractDeviceConnection implements DeviceConnection {
      */
     protected abstract void receivedData(byte[] bytes);
 
+    /**
+     * Handle incoming data from the device directly from the read buffer.  The buffer is re-used
+     * for the next read, so implementations must copy (or consume) the data before returning.
+     * <p>
+     * The default implementation copies the data and calls {@link #receivedData(byte[])}, the
+     * provided implementations override this to avoid the copy.
+     *
+     * @param buffer the read buffer
+     * @param offset position of the first byte read
+     * @param length number of bytes read
+     */
+    protected void receivedData(byte[] buffer, int offset, int length) {
+        receivedData(Arrays.copyOfRange(buffer, offset, offset + length));
+    }
+
+    /**
+     * Provides a message to the {@link #mOnDataReceived} listener, counting it as delivered.
+     * Implementations should use this rather than calling the listener directly so that the
+     * {@link ConnectionStats} are kept up to date.
+     *
+     * @param message the message being provided
+     */
+    protected void deliver(String message) {
+        BiConsumer<BluetoothDevice, String> listener = mOnDataReceived;
+        if (listener == null)
+            return;
+
+        listener.accept(getDevice(), message);
+        messageDelivered();
+    }
+
+    /**
+     * Counts a delivered message, for implementations which provide messages to a listener other
+     * than {@link #mOnDataReceived}.
+     */
+    protected void messageDelivered() {
+        mStats.messageDelivered();
+    }
+
+    /**
+     * Whether received messages should be delivered as they arrive (rather than buffered until
+     * read).  Implementations with other listeners should include them.
+     *
+     * @return true when there is a read listener
+     */
+    protected boolean hasDataListener() {
+        return mOnDataReceived != null;
+    }
+
     /**
      * Attempts to write data to the device.  If the bytes need to be encoded or modified prior
      * it's wise to override this method to do so.
@@ -169,8 +302,90 @@ abstract public class AbstractDeviceConnection implements DeviceConnection {
      * @throws IOException if there was an error encoding bytes.
      */
     @Override
-    public synchronized void write(byte[] bytes) throws IOException {
-        mOutStream.write(bytes);
+    public void write(byte[] bytes) throws IOException {
+        writeDirect(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Writes the data using the {@link WriteQueue} when one is configured, otherwise the data is
+     * written immediately using {@link #write(byte[])}.  Either way {@code onWritten} is called
+     * with the data and {@code null} once written, or the Exception which caused the failure.
+     *
+     * <p>
+     * Queued writes are joined and written as is, implementations which modify the data within
+     * {@link #write(byte[])} should also override this method.
+     *
+     * @param bytes correctly encoded byte[] to be written to device
+     * @param onWritten notified once the data has been written
+     * @throws IOException if the write queue is full
+     */
+    public void write(byte[] bytes, BiConsumer<byte[], Exception> onWritten) throws IOException {
+        if (mWriteQueue != null) {
+            mWriteQueue.offer(bytes, onWritten);
+            return;
+        }
+
+        try {
+            write(bytes);
+        } catch (IOException e) {
+            onWritten.accept(bytes, e);
+            return;
+        }
+        onWritten.accept(bytes, null);
+    }
+
+    /**
+     * Writes each of the data, in order, stopping at the first failure.  When a
+     * {@link WriteQueue} is configured the list takes a single place in the queue, so is either
+     * queued as a whole or refused.  Either way {@code onWritten} is called with the number
+     * written and {@code null}, or the Exception which stopped the writes.
+     *
+     * @param data correctly encoded byte[](s) to be written to device
+     * @param onWritten notified once the data has been written
+     * @throws IOException if the write queue is full, in which case nothing is written
+     */
+    public void writeAll(List<byte[]> data, BiConsumer<Integer, Exception> onWritten) throws IOException {
+        if (mWriteQueue != null) {
+            mWriteQueue.offerAll(data, onWritten);
+            return;
+        }
+
+        int written = 0;
+        try {
+            for (; written < data.size(); written++) {
+                write(data.get(written));
+            }
+        } catch (IOException e) {
+            onWritten.accept(written, e);
+            return;
+        }
+        onWritten.accept(written, null);
+    }
+
+    /**
+     * Provides the {@link WriteQueue} which needs to be run by the owner of the connection.
+     *
+     * @return the write queue, or null if writes are not queued
+     */
+    public WriteQueue getWriteQueue() {
+        return mWriteQueue;
+    }
+
+    /**
+     * Writes (and flushes) the bytes to the OutputStream, this is where all writes end up.  Only
+     * the write lock is held, see {@link #mWriteLock}.
+     *
+     * @param bytes the data
+     * @param offset position of the first byte
+     * @param length number of bytes
+     * @throws IOException if the write fails
+     */
+    void writeDirect(byte[] bytes, int offset, int length) throws IOException {
+        synchronized (mWriteLock) {
+            mOutStream.write(bytes, offset, length);
+            mOutStream.flush();
+        }
+        mStats.bytesWritten(length);
     }
 
     /**
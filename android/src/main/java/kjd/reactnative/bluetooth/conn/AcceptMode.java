@@ -0,0 +1,20 @@
+package kjd.reactnative.bluetooth.conn;
+
+/**
+ * Determines how many connections a {@link ConnectionAcceptor} accepts, selected with
+ * {@link ConnectOption#ACCEPT_MODE}.
+ *
+ * @author kendavidson
+ */
+public enum AcceptMode {
+    /**
+     * The original behaviour, the first connection is accepted and the acceptor finishes.
+     */
+    SINGLE,
+
+    /**
+     * The acceptor keeps listening, providing each accepted connection, until it's cancelled.
+     * The number of connected clients is limited by {@link ConnectOption#ACCEPT_CONNECTION_NUM}.
+     */
+    SERVER
+}
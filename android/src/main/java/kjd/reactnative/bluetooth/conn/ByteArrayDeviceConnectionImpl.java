@@ -5,9 +5,8 @@ import android.util.Base64;
 import android.util.Log;
 
 import java.io.IOException;
-import java.nio.ByteBuffer;
-import java.nio.charset.Charset;
-import java.util.Properties;
+
+import kjd.reactnative.bluetooth.BuildConfig;
 
 /**
  * Implements {@link DeviceConnection} providing direct write and reading of byte[] data.   When
@@ -17,6 +16,11 @@ import java.util.Properties;
  * When data is received, it's written to the input buffer or transferred as is.  At this point
  * there is no concept of a deliminator, if required we can add one in later where we just look
  * for matching bytes.
+ * <p>
+ * Received data is held in a {@link ByteRingBuffer} which starts at
+ * {@link StandardOption#READ_SIZE} and grows up to {@link StandardOption#READ_BUFFER_LIMIT}.
+ * When the limit would be exceeded the {@link StandardOption#READ_OVERFLOW} policy is applied
+ * and the overflow is counted in the {@link ConnectionStats}.
  *
  * @author kendavidson
  *
@@ -26,52 +30,101 @@ public class ByteArrayDeviceConnectionImpl extends AbstractDeviceConnection {
     /**
      * The buffer in which data is stored.
      */
-    private final ByteBuffer mBuffer;
+    private final ByteRingBuffer mBuffer;
+
+    /**
+     * Maximum number of bytes held in {@link #mBuffer}.
+     */
+    private final int mBufferLimit;
+
+    /**
+     * Applied when {@link #mBufferLimit} would be exceeded.
+     */
+    private final OverflowPolicy mOverflowPolicy;
 
     /**
      * Creates a new {@link AbstractDeviceConnection} to the provided NativeDevice, using the provided
-     * Properties.
+     * {@link ConnectionConfig}.
      *
      * @param socket
-     * @param properties
+     * @param config
      */
-    public ByteArrayDeviceConnectionImpl(BluetoothSocket socket, Properties properties) throws IOException {
-        super(socket, properties);
+    public ByteArrayDeviceConnectionImpl(BluetoothSocket socket, ConnectionConfig config) throws IOException {
+        super(socket, config);
 
-        int bufferSize = StandardOption.READ_SIZE.get(mProperties);
-        this.mBuffer = ByteBuffer.allocate(bufferSize);
+        int bufferSize = mConfig.getInt(StandardOption.READ_SIZE);
+        this.mBufferLimit = Math.max(bufferSize, mConfig.getInt(StandardOption.READ_BUFFER_LIMIT));
+        this.mOverflowPolicy = mConfig.get(StandardOption.READ_OVERFLOW);
+        this.mBuffer = new ByteRingBuffer(bufferSize);
     }
 
     @Override
     protected void receivedData(byte[] bytes) {
-        Log.d(this.getClass().getSimpleName(),
-                String.format("Received %d bytes from device %s", bytes.length, getDevice().getAddress()));
-        mBuffer.put(bytes);
+        receivedData(bytes, 0, bytes.length);
+    }
 
-        if (mOnDataReceived != null) {
-            Log.d(this.getClass().getSimpleName(),
-                    "BluetoothEvent.READ listener is registered, providing data");
-            mOnDataReceived.accept(getDevice(), read());
-        } else {
+    @Override
+    protected void receivedData(byte[] buffer, int offset, int length) {
+        if (BuildConfig.DEBUG)
             Log.d(this.getClass().getSimpleName(),
-                    "No BluetoothEvent.READ listeners are registered, storing in buffer");
+                String.format("Received %d bytes from device %s", length, getDevice().getAddress()));
+
+        synchronized (mBuffer) {
+            int overflow = mBuffer.size() + length - mBufferLimit;
+            if (overflow > 0) {
+                mStats.overflow(overflow);
+
+                switch (mOverflowPolicy) {
+                    case DROP_OLDEST:
+                        // When a single read is larger than the limit, its oldest bytes are
+                        // dropped along with everything buffered
+                        int dropped = Math.min(overflow, mBuffer.size());
+                        mBuffer.skip(dropped);
+                        offset += overflow - dropped;
+                        length -= overflow - dropped;
+                        break;
+                    case DROP_NEWEST:
+                        length -= overflow;
+                        break;
+                    default:
+                        throw new IllegalStateException(String.format(
+                                "Read buffer limit of %d bytes exceeded", mBufferLimit));
+                }
+            }
+
+            mBuffer.write(buffer, offset, length);
+            mStats.buffered(mBuffer.size());
+
+            if (hasDataListener()) {
+                if (BuildConfig.DEBUG)
+                    Log.d(this.getClass().getSimpleName(),
+                        "BluetoothEvent.READ listener is registered, providing data");
+                deliver(read());
+            } else if (BuildConfig.DEBUG) {
+                Log.d(this.getClass().getSimpleName(),
+                        "No BluetoothEvent.READ listeners are registered, storing in buffer");
+            }
         }
     }
 
     /**
-     * Provides the number of full messages (delimiters) available within the buffer.
+     * Provides the number of bytes available within the buffer.
      *
-     * @return the number of messages available
+     * @return the number of bytes available
      */
     @Override
     public int available() {
-        return mBuffer.array().length;
+        synchronized (mBuffer) {
+            return mBuffer.size();
+        }
     }
 
     @Override
-    public synchronized boolean clear() {
-        mBuffer.clear();
-        return true;
+    public boolean clear() {
+        synchronized (mBuffer) {
+            mBuffer.clear();
+            return true;
+        }
     }
 
     /**
@@ -83,13 +136,16 @@ public class ByteArrayDeviceConnectionImpl extends AbstractDeviceConnection {
      */
     @Override
     public String read() {
-        byte[] arr = new byte[mBuffer.position()];
-        mBuffer.flip();
-        mBuffer.get(arr);
-        String message = Base64.encodeToString(arr, Base64.DEFAULT);
-        clear();
+        synchronized (mBuffer) {
+            byte[] arr = new byte[mBuffer.size()];
+            if (arr.length > 0)
+                mStats.messageReceived();
 
-        return message;
+            mBuffer.copyTo(0, arr, 0, arr.length);
+            mBuffer.clear();
+
+            return Base64.encodeToString(arr, Base64.DEFAULT);
+        }
     }
 
 }
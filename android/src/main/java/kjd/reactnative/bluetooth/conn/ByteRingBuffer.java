@@ -0,0 +1,210 @@
+package kjd.reactnative.bluetooth.conn;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Circular byte buffer used by the {@link DeviceConnection} implementations to hold received
+ * data until it can be framed.  Data is appended at the tail and consumed from the head, so
+ * dropping a complete frame is just moving the head forward (no shifting of the remaining
+ * data as was the case with the previous {@link StringBuffer#delete(int, int)}).
+ * <p>
+ * All indexes provided to and returned from this buffer are relative to the current head,
+ * index {@code 0} is always the oldest byte available.  When there is not enough room for
+ * new data the buffer is grown (doubled) and linearized.
+ * <p>
+ * The buffer is not thread safe, callers are responsible for synchronization.
+ *
+ * @author kendavidson
+ */
+public class ByteRingBuffer {
+
+    /**
+     * Backing storage.
+     */
+    private byte[] mData;
+
+    /**
+     * Physical index of the oldest byte.
+     */
+    private int mHead;
+
+    /**
+     * Number of bytes currently available.
+     */
+    private int mSize;
+
+    public ByteRingBuffer(int initialCapacity) {
+        this.mData = new byte[Math.max(initialCapacity, 16)];
+        this.mHead = 0;
+        this.mSize = 0;
+    }
+
+    public int size() {
+        return mSize;
+    }
+
+    public int capacity() {
+        return mData.length;
+    }
+
+    public boolean isEmpty() {
+        return mSize == 0;
+    }
+
+    /**
+     * Appends the full byte[] to the buffer.
+     *
+     * @param bytes the data to append
+     */
+    public void write(byte[] bytes) {
+        write(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Appends {@code length} bytes from {@code bytes} starting at {@code offset}.  The buffer
+     * will grow if required.
+     *
+     * @param bytes source of the data
+     * @param offset position within source
+     * @param length number of bytes to append
+     */
+    public void write(byte[] bytes, int offset, int length) {
+        ensureCapacity(mSize + length);
+
+        int tail = physical(mSize);
+        int first = Math.min(length, mData.length - tail);
+        System.arraycopy(bytes, offset, mData, tail, first);
+        if (first < length) {
+            System.arraycopy(bytes, offset + first, mData, 0, length - first);
+        }
+        mSize += length;
+    }
+
+    /**
+     * Get the byte at the relative index.
+     *
+     * @param index relative to the head
+     * @return the byte
+     */
+    public byte get(int index) {
+        if (index < 0 || index >= mSize)
+            throw new IndexOutOfBoundsException(String.format("Index %d size %d", index, mSize));
+
+        return mData[physical(index)];
+    }
+
+    /**
+     * Looks for the first occurrence of {@code pattern} starting at the relative index
+     * {@code fromIndex}.  Callers that have already scanned part of the buffer should provide
+     * the position where they stopped, so the same bytes aren't looked at again.
+     *
+     * @param pattern the bytes being searched for
+     * @param fromIndex relative index from which to start
+     * @return the relative index of the pattern or -1 if not found
+     */
+    public int indexOf(byte[] pattern, int fromIndex) {
+        int last = mSize - pattern.length;
+        byte first = pattern[0];
+
+        for (int i = Math.max(fromIndex, 0); i <= last; i++) {
+            int p = physical(i);
+            if (mData[p] != first)
+                continue;
+
+            int j = 1;
+            while (j < pattern.length) {
+                if (++p == mData.length) p = 0;
+                if (mData[p] != pattern[j]) break;
+                j++;
+            }
+
+            if (j == pattern.length)
+                return i;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Copies {@code length} bytes starting at the relative {@code index} into {@code dest}.
+     *
+     * @param index relative index
+     * @param dest destination array
+     * @param destOffset position within the destination
+     * @param length number of bytes
+     */
+    public void copyTo(int index, byte[] dest, int destOffset, int length) {
+        if (index < 0 || length < 0 || index + length > mSize)
+            throw new IndexOutOfBoundsException(
+                    String.format("Index %d length %d size %d", index, length, mSize));
+
+        int start = physical(index);
+        int first = Math.min(length, mData.length - start);
+        System.arraycopy(mData, start, dest, destOffset, first);
+        if (first < length) {
+            System.arraycopy(mData, 0, dest, destOffset + first, length - first);
+        }
+    }
+
+    /**
+     * Provides the first {@code length} bytes as a {@link ByteBuffer} view of the backing array
+     * (no copy is made).  When the bytes wrap around the end of the backing array the data is
+     * first linearized, which only happens when a message spans the wrap.
+     * <p>
+     * The view is only valid until the buffer is next modified.
+     *
+     * @param length the number of bytes
+     * @return a view of the bytes
+     */
+    public ByteBuffer view(int length) {
+        if (length < 0 || length > mSize)
+            throw new IndexOutOfBoundsException(String.format("Length %d size %d", length, mSize));
+
+        if (mHead + length > mData.length) {
+            byte[] data = new byte[mData.length];
+            copyTo(0, data, 0, mSize);
+            mData = data;
+            mHead = 0;
+        }
+
+        return ByteBuffer.wrap(mData, mHead, length);
+    }
+
+    /**
+     * Drops {@code length} bytes from the head of the buffer.
+     *
+     * @param length the number of bytes to drop
+     */
+    public void skip(int length) {
+        if (length < 0 || length > mSize)
+            throw new IndexOutOfBoundsException(String.format("Skip %d size %d", length, mSize));
+
+        mSize -= length;
+        mHead = mSize == 0 ? 0 : physical(length);
+    }
+
+    public void clear() {
+        mHead = 0;
+        mSize = 0;
+    }
+
+    private int physical(int index) {
+        int p = mHead + index;
+        return p >= mData.length ? p - mData.length : p;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= mData.length)
+            return;
+
+        int capacity = mData.length;
+        while (capacity < required) {
+            capacity = capacity << 1;
+        }
+
+        byte[] data = new byte[capacity];
+        copyTo(0, data, 0, mSize);
+        mData = data;
+        mHead = 0;
+    }
+}
@@ -0,0 +1,47 @@
+package kjd.reactnative.bluetooth.conn;
+
+/**
+ * The options used by the {@link kjd.reactnative.bluetooth.RNBluetoothClassicModule} while
+ * connecting ({@code connectToDevice} and {@code connectToDevices}) or accepting, these apply to
+ * any {@link ConnectionConnector} or {@link ConnectionAcceptor}.
+ *
+ * @author kendavidson
+ */
+public enum ConnectOption implements ConnectionOption {
+    /**
+     * The time (milliseconds) a {@link ConnectionConnector} is given to connect before it's
+     * cancelled.  The default of {@code 0} waits for the connector to succeed or fail.
+     */
+    CONNECT_TIMEOUT("connectTimeout", Integer.class, 0, 0),
+
+    /**
+     * The number of devices a {@code connectToDevices} request attempts at the same time.  The
+     * default of {@code 0} uses the {@link ConnectionExecutor} concurrent connect limit, which
+     * also caps larger values.
+     */
+    CONNECT_CONCURRENCY("connectConcurrency", Integer.class, 0, 0),
+
+    /**
+     * Used by {@link ConnectionAcceptor} to either accept a single connection (the default) or
+     * keep accepting clients until cancelled, see {@link AcceptMode}.
+     */
+    ACCEPT_MODE("acceptMode", AcceptMode.class, AcceptMode.SINGLE),
+
+    /**
+     * The maximum number of clients connected at the same time when the
+     * {@link #ACCEPT_MODE} is {@code server}.  Clients accepted while the limit is reached are
+     * disconnected straight away.
+     */
+    ACCEPT_CONNECTION_NUM("acceptConnectionNumber", Integer.class, 1, 1);
+
+    private final OptionSpec spec;
+
+    ConnectOption(String code, Class clazz, Object defaultValue, int... range) {
+        this.spec = new OptionSpec(code, clazz, defaultValue, range);
+    }
+
+    @Override
+    public OptionSpec spec() {
+        return spec;
+    }
+}
@@ -6,25 +6,32 @@ import android.bluetooth.BluetoothSocket;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.HashSet;
-import java.util.Properties;
 import java.util.Set;
 
 /**
  * Responsible for managing how the {@link BluetoothAdapter} is placed into accept mode.
+ * <p>
+ * In {@link AcceptMode#SINGLE} mode the socket returned by {@link #connect(ConnectionConfig)} is
+ * provided to the listeners.  In {@link AcceptMode#SERVER} mode implementations should call
+ * {@link #notifyListeners(BluetoothSocket)} for each socket accepted, and only return once
+ * cancelled.
+ * <p>
+ * Acceptors are {@link Runnable}(s) run by the module's {@link ConnectionExecutor}, they don't
+ * start their own thread.
  *
  * @author kendavidson
  *
  */
-public abstract class ConnectionAcceptor extends Thread {
+public abstract class ConnectionAcceptor implements Runnable {
 
     protected BluetoothAdapter mAdapter;
-    protected Properties mProperties;
+    protected final ConnectionConfig mConfig;
 
     private final Set<AcceptorListener<BluetoothSocket>> mListeners;
 
-    protected ConnectionAcceptor(BluetoothAdapter adapter, Properties properties) throws IOException {
+    protected ConnectionAcceptor(BluetoothAdapter adapter, ConnectionConfig config) throws IOException {
         this.mAdapter = adapter;
-        this.mProperties = new Properties(properties);
+        this.mConfig = config;
         this.mListeners = Collections.synchronizedSet(new HashSet<>());
     }
 
@@ -32,11 +39,12 @@ public abstract class ConnectionAcceptor extends Thread {
      * Provide an implementation to the accept logic and return the {@link BluetoothSocket} which
      * was accepted.
      *
-     * @param properties the connection {@link Properties} from the app
-     * @return the {@link BluetoothSocket} of the app connected.
+     * @param config the {@link ConnectionConfig} from the app
+     * @return the {@link BluetoothSocket} of the app connected, or null if the acceptor was
+     *      cancelled (or in {@link AcceptMode#SERVER} mode, has finished)
      * @throws IOException if an error occurs during connection
      */
-    protected abstract BluetoothSocket connect(Properties properties) throws IOException;
+    protected abstract BluetoothSocket connect(ConnectionConfig config) throws IOException;
 
     /**
      * Provide appropriate cancel logic.  This will most likely force close the server socket
@@ -47,8 +55,11 @@ public abstract class ConnectionAcceptor extends Thread {
     @Override
     final public void run() {
         try {
-            BluetoothSocket results = connect(mProperties);
-            notifyListeners(results);
+            BluetoothSocket results = connect(mConfig);
+            if (results != null)
+                notifyListeners(results);
+            else
+                notifyListeners(new IOException("Accept was cancelled"));
         } catch (Exception e) {
             notifyListeners(e);
         }
@@ -71,14 +82,9 @@ public abstract class ConnectionAcceptor extends Thread {
     }
 
     /**
-     * Allow communication between the {@link ConnectionAcceptor} and it's caller.  This will
-     * need to be updated, at some point, to allow for multiple connections to be established, but
-     * at this point with no specific use cases I'm not sure the best way to do it.
-     * <ul>
-     *     <li>Make multiple calls to {@link #success(BluetoothSocket)} and then return the last
-     *     device connected when it's finished?</li>
-     *     <li>Add another success method that accepts a {@link BluetoothSocket}[] at the end</li>
-     * </ul>
+     * Allow communication between the {@link ConnectionAcceptor} and it's caller.  In
+     * {@link AcceptMode#SERVER} mode {@link #success(BluetoothSocket)} is called for each
+     * connection accepted and {@link #failure(Exception)} once the acceptor has finished.
      *
      * @param <BluetoothSocket>
      */
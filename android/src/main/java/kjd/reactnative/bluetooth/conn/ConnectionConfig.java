@@ -0,0 +1,222 @@
+package kjd.reactnative.bluetooth.conn;
+
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.ReadableMapKeySetIterator;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * The options provided by the application for a single {@code connectToDevice} or {@code accept}
+ * request.  Every {@link StandardOption} is looked up and parsed (see
+ * {@link ConnectionOption#parse(Object)}) once when the config is created, so that invalid values
+ * are reported to the application straight away instead of silently falling back to their
+ * default.  The options owned by the selected connection type (and the module) are added with
+ * {@link #parse(ConnectionOption...)} before anything is connected.  Connectors, acceptors and
+ * connections then read the typed values with {@link #get(ConnectionOption)}, which only looks
+ * up the parsed value.
+ * <p>
+ * Custom options are kept as provided and are available with {@link #get(String)}.
+ * <p>
+ * A ConnectionConfig can't be modified once created.
+ *
+ * @author kendavidson
+ */
+public final class ConnectionConfig {
+
+    private static final ConnectionConfig DEFAULTS =
+            create(Collections.<String, Object>emptyMap());
+
+    /**
+     * The options as provided.
+     */
+    private final Map<String, Object> mOptions;
+
+    /**
+     * The parsed value (or default) of each {@link StandardOption} and parsed option set.  Keyed
+     * by options from several enums, so a HashMap rather than an EnumMap.
+     */
+    private final Map<ConnectionOption, Object> mValues;
+
+    private ConnectionConfig(Map<String, Object> options, Map<ConnectionOption, Object> values) {
+        this.mOptions = options;
+        this.mValues = values;
+    }
+
+    private static ConnectionConfig create(Map<String, Object> options) {
+        Map<String, Object> provided = Collections.unmodifiableMap(options);
+        return new ConnectionConfig(provided,
+                parse(provided, new HashMap<>(), StandardOption.values()));
+    }
+
+    /**
+     * Parses each of the options into {@code values}, all of the invalid options are reported
+     * together.
+     *
+     * @throws IllegalArgumentException if any of the options are invalid
+     */
+    private static Map<ConnectionOption, Object> parse(Map<String, Object> provided,
+                                                       Map<ConnectionOption, Object> values,
+                                                       ConnectionOption... options) {
+        StringBuilder errors = new StringBuilder();
+        for (ConnectionOption option : options) {
+            try {
+                values.put(option, option.parse(option.lookup(provided)));
+            } catch (IllegalArgumentException e) {
+                if (errors.length() > 0)
+                    errors.append("; ");
+                errors.append(e.getMessage());
+            }
+        }
+
+        if (errors.length() > 0)
+            throw new IllegalArgumentException(errors.toString());
+
+        return values;
+    }
+
+    /**
+     * @return a config with the default value of every {@link StandardOption}
+     */
+    public static ConnectionConfig defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * Creates a config from the React Native options.
+     *
+     * @param options provided to the module, may be null
+     * @return the config
+     * @throws IllegalArgumentException if any {@link StandardOption} is invalid
+     */
+    public static ConnectionConfig from(ReadableMap options) {
+        if (options == null)
+            return DEFAULTS;
+
+        Map<String, Object> values = new HashMap<>();
+        ReadableMapKeySetIterator keys = options.keySetIterator();
+        while (keys.hasNextKey()) {
+            String key = keys.nextKey();
+            switch (options.getType(key)) {
+                case Boolean:
+                    values.put(key, options.getBoolean(key));
+                    break;
+                case Number:
+                    values.put(key, options.getDouble(key));
+                    break;
+                case String:
+                    values.put(key, options.getString(key));
+                    break;
+                case Map:
+                    values.put(key, options.getMap(key).toHashMap());
+                    break;
+                case Array:
+                    values.put(key, options.getArray(key).toArrayList());
+                    break;
+                default:
+                    // Null is the same as not provided
+                    break;
+            }
+        }
+        return create(values);
+    }
+
+    /**
+     * Creates a config from the provided options.
+     *
+     * @param options the options
+     * @return the config
+     * @throws IllegalArgumentException if any {@link StandardOption} is invalid
+     */
+    public static ConnectionConfig from(Map<String, ?> options) {
+        return create(new HashMap<>(options));
+    }
+
+    /**
+     * Creates a config from {@link Properties}, as previously provided to the factories.
+     *
+     * @param properties the options
+     * @return the config
+     * @throws IllegalArgumentException if any {@link StandardOption} is invalid
+     */
+    public static ConnectionConfig from(Properties properties) {
+        Map<String, Object> values = new HashMap<>();
+        for (Map.Entry<Object, Object> entry : properties.entrySet()) {
+            values.put(String.valueOf(entry.getKey()), entry.getValue());
+        }
+        return create(values);
+    }
+
+    /**
+     * Parses (and validates) a set of options, usually those of the connection type from
+     * {@link DeviceConnectionFactory#options()}.
+     *
+     * @param options the options to parse
+     * @return a config with the options parsed, along with those already parsed
+     * @throws IllegalArgumentException if any of the options are invalid
+     */
+    public ConnectionConfig parse(ConnectionOption... options) {
+        if (options.length == 0)
+            return this;
+
+        return new ConnectionConfig(mOptions,
+                parse(mOptions, new HashMap<>(mValues), options));
+    }
+
+    /**
+     * The parsed value of the option, or its default when not provided.
+     *
+     * @param option the {@link ConnectionOption}
+     * @param <T> the {@link ConnectionOption#type()}
+     * @return the value
+     * @throws IllegalStateException if the option wasn't parsed, which means it's used by a
+     *          connection type which doesn't register it with
+     *          {@link DeviceConnectionFactory#options()}
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(ConnectionOption option) {
+        Object value = mValues.get(option);
+        if (value == null && !mValues.containsKey(option))
+            throw new IllegalStateException(String.format(
+                    "%s was not parsed, register it with the connection type's options()",
+                    option.code()));
+        return (T) value;
+    }
+
+    public int getInt(ConnectionOption option) {
+        return this.<Integer>get(option);
+    }
+
+    public boolean getBoolean(ConnectionOption option) {
+        return this.<Boolean>get(option);
+    }
+
+    public String getString(ConnectionOption option) {
+        return get(option);
+    }
+
+    /**
+     * A custom option as it was provided.
+     *
+     * @param key the option name
+     * @param <T> the type of the value
+     * @return the value, or null if not provided
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key) {
+        return (T) mOptions.get(key);
+    }
+
+    public boolean contains(String key) {
+        return mOptions.containsKey(key);
+    }
+
+    /**
+     * @return the options as they were provided
+     */
+    public Map<String, Object> options() {
+        return mOptions;
+    }
+}
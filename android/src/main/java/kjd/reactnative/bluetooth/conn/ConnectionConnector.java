@@ -6,37 +6,39 @@ import android.bluetooth.BluetoothSocket;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.HashSet;
-import java.util.Properties;
 import java.util.Set;
 
 /**
  * Responsible for performing the actual connection to a {@link BluetoothDevice}.  Implementations
- * will accept the {@link BluetoothDevice} and connection {@link Properties} and attempt
+ * will accept the {@link BluetoothDevice} and {@link ConnectionConfig} and attempt
  * to establish a {@link BluetoothSocket}.
+ * <p>
+ * Connectors are {@link Runnable}(s) run by the module's {@link ConnectionExecutor}, they don't
+ * start their own thread.
  *
  * @author kendavidson
  */
-public abstract class ConnectionConnector extends Thread {
+public abstract class ConnectionConnector implements Runnable {
 
     protected BluetoothDevice device;
-    protected Properties properties;
+    protected final ConnectionConfig config;
 
     private final Set<ConnectorListener<BluetoothSocket>> listeners;
 
-    public ConnectionConnector(BluetoothDevice device, Properties properties) throws IOException {
+    public ConnectionConnector(BluetoothDevice device, ConnectionConfig config) throws IOException {
         this.device = device;
-        this.properties = new Properties(properties);
+        this.config = config;
         this.listeners = Collections.synchronizedSet(new HashSet<>());
     }
 
     /**
      * Establish and return a {@link BluetoothSocket}.
      *
-     * @param properties the {@link Properties} provided by the app
+     * @param config the {@link ConnectionConfig} provided by the app
      * @return the {@link BluetoothSocket} which will be provided to the module
      * @throws IOException if an error occurs during read
      */
-    protected abstract BluetoothSocket connect(Properties properties) throws IOException;
+    protected abstract BluetoothSocket connect(ConnectionConfig config) throws IOException;
 
     /**
      * Provide appropriate cancel logic.  In most cases connectors are quickly successful or
@@ -44,10 +46,18 @@ public abstract class ConnectionConnector extends Thread {
      */
     protected abstract void cancel();
 
+    /**
+     * Cancels the connection attempt from outside of the connector, for example when it has
+     * taken too long.  The listeners are notified of the failure once {@link #connect} returns.
+     */
+    public final void abort() {
+        cancel();
+    }
+
     @Override
     final public void run() {
         try {
-            BluetoothSocket result = connect(properties);
+            BluetoothSocket result = connect(config);
             notifyListeners(result);
         } catch (Exception e) {
             notifyListeners(e);
@@ -72,7 +82,7 @@ public abstract class ConnectionConnector extends Thread {
 
     /**
      * Responsible for providing the {@link ConnectionConnector} a method for communication with
-     * it's caller.  As the calls are done from the {@link ConnectionConnector} thread it's
+     * it's caller.  As the calls are done from the connect thread running the connector it's
      * important that the methods are synchronized appropriately.
      *
      * @param <BluetoothSocket>
@@ -0,0 +1,263 @@
+package kjd.reactnative.bluetooth.conn;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.WritableMap;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import kjd.reactnative.bluetooth.Mappable;
+
+/**
+ * Provides the threads used by the {@link kjd.reactnative.bluetooth.RNBluetoothClassicModule}
+ * for {@link ConnectionConnector}(s), {@link ConnectionAcceptor}(s) and {@link DeviceConnection}(s)
+ * instead of starting a new {@link Thread} for each.  There are three pools:
+ * <ul>
+ *     <li><strong>connect</strong> runs {@link ConnectionConnector}(s).  The number of concurrent
+ *     connection attempts is capped, further attempts wait in a bounded queue and are rejected
+ *     once it's full, see {@link #DEFAULT_MAX_QUEUED_CONNECTS}.</li>
+ *     <li><strong>connection</strong> runs the long lived {@link DeviceConnection} read threads
+ *     (along with acceptors and writers).  Threads are re-used when connections end and the
+ *     total is capped, see {@link #DEFAULT_MAX_CONNECTIONS}.</li>
+ *     <li><strong>scheduler</strong> used for timed work, such as flushing batched reads.
+ *     Cancelled tasks (for example connect timeouts) are removed from its queue.</li>
+ * </ul>
+ * While running, threads are named for the device address they're working with.
+ *
+ * @author kendavidson
+ */
+public class ConnectionExecutor implements Mappable {
+
+    public static final int DEFAULT_MAX_CONCURRENT_CONNECTS = 2;
+
+    /**
+     * Connection attempts waiting for a connect thread, further attempts are rejected rather
+     * than piling up behind connectors which may take a long time to fail.
+     */
+    public static final int DEFAULT_MAX_QUEUED_CONNECTS = 16;
+
+    /**
+     * Classic Bluetooth allows seven active devices, this leaves room for each to have a read
+     * and write thread along with an acceptor.  Applications which need more can raise it with
+     * {@link kjd.reactnative.bluetooth.RNBluetoothClassicPackage.Builder#withMaxConnections(int)}.
+     */
+    public static final int DEFAULT_MAX_CONNECTIONS = 16;
+
+    private static final String THREAD_PREFIX = "RNBluetoothClassic";
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    private final ThreadPoolExecutor mConnectPool;
+    private final ThreadPoolExecutor mConnectionPool;
+    private final ScheduledThreadPoolExecutor mScheduler;
+
+    public ConnectionExecutor() {
+        this(DEFAULT_MAX_CONCURRENT_CONNECTS, DEFAULT_MAX_CONNECTIONS);
+    }
+
+    /**
+     * Creates a new {@link ConnectionExecutor} queuing up to {@link #DEFAULT_MAX_QUEUED_CONNECTS}
+     * connection attempts.
+     *
+     * @param maxConcurrentConnects the number of {@link ConnectionConnector}(s) allowed to run
+     *                              at the same time
+     * @param maxConnections the number of connection threads (connections, acceptors and
+     *                       writers) allowed at the same time
+     */
+    public ConnectionExecutor(int maxConcurrentConnects, int maxConnections) {
+        this(maxConcurrentConnects, DEFAULT_MAX_QUEUED_CONNECTS, maxConnections);
+    }
+
+    /**
+     * Creates a new {@link ConnectionExecutor}.
+     *
+     * @param maxConcurrentConnects the number of {@link ConnectionConnector}(s) allowed to run
+     *                              at the same time
+     * @param maxQueuedConnects the number of {@link ConnectionConnector}(s) allowed to wait for
+     *                          a connect thread
+     * @param maxConnections the number of connection threads (connections, acceptors and
+     *                       writers) allowed at the same time
+     */
+    public ConnectionExecutor(int maxConcurrentConnects, int maxQueuedConnects, int maxConnections) {
+        if (maxConcurrentConnects < 1 || maxConnections < 1)
+            throw new IllegalArgumentException("ConnectionExecutor requires at least one thread per pool");
+        if (maxQueuedConnects < 1)
+            throw new IllegalArgumentException("ConnectionExecutor requires a connect queue of at least one");
+
+        this.mConnectPool = new ThreadPoolExecutor(maxConcurrentConnects, maxConcurrentConnects,
+                KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(maxQueuedConnects),
+                new NamedThreadFactory("connect"),
+                (task, executor) -> {
+                    throw new RejectedExecutionException(executor.isShutdown()
+                            ? "Connection executor has been shut down"
+                            : String.format("Too many connection attempts, %d are already waiting",
+                                    maxQueuedConnects));
+                });
+        this.mConnectPool.allowCoreThreadTimeOut(true);
+
+        this.mConnectionPool = new ThreadPoolExecutor(0, maxConnections,
+                KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new SynchronousQueue<>(),
+                new NamedThreadFactory("connection"));
+
+        this.mScheduler = new ScheduledThreadPoolExecutor(1, new NamedThreadFactory("scheduler"));
+        this.mScheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Queues the {@link ConnectionConnector}, it will be run once there is a connect thread
+     * available.
+     *
+     * @param address the device address being connected
+     * @param connector the connector
+     * @throws RejectedExecutionException if the connect queue is full
+     */
+    public void connect(String address, ConnectionConnector connector) {
+        mConnectPool.execute(named(String.format("connect-%s", address), connector));
+    }
+
+    /**
+     * Queues the {@link ConnectionConnector}, calling {@code onStart} on the connect thread just
+     * before the connector is run.  Used to start a connect timeout, which shouldn't include the
+     * time spent waiting for a connect thread.
+     *
+     * @param address the device address being connected
+     * @param connector the connector
+     * @param onStart run before the connector, once there is a connect thread available
+     * @throws RejectedExecutionException if the connect queue is full
+     */
+    public void connect(String address, ConnectionConnector connector, Runnable onStart) {
+        mConnectPool.execute(named(String.format("connect-%s", address), () -> {
+            onStart.run();
+            connector.run();
+        }));
+    }
+
+    /**
+     * Runs the {@link ConnectionAcceptor} on a connection thread.
+     *
+     * @param acceptor the acceptor
+     * @throws RejectedExecutionException if the connection threads are exhausted
+     */
+    public void accept(ConnectionAcceptor acceptor) {
+        mConnectionPool.execute(named("accept", acceptor));
+    }
+
+    /**
+     * Runs the {@link DeviceConnection} on a connection thread.
+     *
+     * @param address the device address
+     * @param connection the connection
+     * @throws RejectedExecutionException if the connection threads are exhausted
+     */
+    public void connection(String address, DeviceConnection connection) {
+        mConnectionPool.execute(named(String.format("read-%s", address), connection));
+    }
+
+    /**
+     * Runs any other long lived task (for example a writer) on a connection thread.
+     *
+     * @param name used for the thread while the task is running
+     * @param task the task
+     * @throws RejectedExecutionException if the connection threads are exhausted
+     */
+    public void execute(String name, Runnable task) {
+        mConnectionPool.execute(named(name, task));
+    }
+
+    public ScheduledExecutorService scheduler() {
+        return mScheduler;
+    }
+
+    /**
+     * @return the number of connection attempts waiting for a connect thread
+     */
+    public int getConnectQueueDepth() {
+        return mConnectPool.getQueue().size();
+    }
+
+    /**
+     * @return the number of connection attempts allowed to run at the same time
+     */
+    public int getMaxConcurrentConnects() {
+        return mConnectPool.getMaximumPoolSize();
+    }
+
+    /**
+     * @return the number of connection attempts currently running
+     */
+    public int getActiveConnects() {
+        return mConnectPool.getActiveCount();
+    }
+
+    /**
+     * @return the number of connections, acceptors and writers currently running
+     */
+    public int getActiveConnections() {
+        return mConnectionPool.getActiveCount();
+    }
+
+    /**
+     * Stops all of the threads, interrupting the running connectors, connections and scheduled
+     * tasks.  Called by the module when React Native destroys it, after which the executor can't
+     * be used.
+     */
+    public void shutdown() {
+        mConnectPool.shutdownNow();
+        mConnectionPool.shutdownNow();
+        mScheduler.shutdownNow();
+    }
+
+    @Override
+    public WritableMap map() {
+        WritableMap map = Arguments.createMap();
+        map.putInt("connectQueueDepth", getConnectQueueDepth());
+        map.putInt("activeConnects", getActiveConnects());
+        map.putInt("maxConcurrentConnects", getMaxConcurrentConnects());
+        map.putDouble("completedConnects", mConnectPool.getCompletedTaskCount());
+        map.putInt("activeConnections", getActiveConnections());
+        map.putInt("connectionThreads", mConnectionPool.getPoolSize());
+        map.putInt("scheduledTasks", mScheduler.getQueue().size());
+        return map;
+    }
+
+    /**
+     * Wraps the task so the running thread carries a meaningful name.
+     */
+    private static Runnable named(final String name, final Runnable task) {
+        return () -> {
+            Thread thread = Thread.currentThread();
+            String original = thread.getName();
+            thread.setName(String.format("%s-%s", THREAD_PREFIX, name));
+            try {
+                task.run();
+            } finally {
+                thread.setName(original);
+            }
+        };
+    }
+
+    private static class NamedThreadFactory implements ThreadFactory {
+        private final String mPool;
+        private final AtomicInteger mCount = new AtomicInteger();
+
+        NamedThreadFactory(String pool) {
+            this.mPool = pool;
+        }
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r,
+                    String.format("%s-%s-%d", THREAD_PREFIX, mPool, mCount.incrementAndGet()));
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package kjd.reactnative.bluetooth.conn;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An option provided by the application with a {@code connectToDevice} or {@code accept}
+ * request.  Options are grouped into sets (enums) owned by whatever uses them: the
+ * {@link StandardOption}(s) shared by every connection, and the options of each connection type
+ * (for example {@link kjd.reactnative.bluetooth.frame.FrameOption}) which are registered by its
+ * {@link DeviceConnectionFactory#options()}.
+ * <p>
+ * Each option is described by its {@link OptionSpec}, and is parsed and validated by
+ * {@link ConnectionConfig}.  Integer options may provide a {@link #min()} and {@link #max()}.
+ *
+ * @author kendavidson
+ */
+public interface ConnectionOption {
+
+    /**
+     * @return the name of the option constant
+     */
+    String name();
+
+    /**
+     * @return the code, type, default and range of the option
+     */
+    OptionSpec spec();
+
+    /**
+     * @return the name used by the application
+     */
+    default String code() {
+        return spec().code();
+    }
+
+    /**
+     * @return the type of the parsed value
+     */
+    default Class type() {
+        return spec().type();
+    }
+
+    /**
+     * The default value.
+     *
+     * @param <T> the Type of data this option represents.  Be careful here as this does no
+     *          type checking.
+     * @return the value used when the option isn't provided
+     */
+    @SuppressWarnings("unchecked")
+    default <T> T defaultValue() {
+        return (T) spec().defaultValue();
+    }
+
+    /**
+     * @return the smallest value allowed for Integer options
+     */
+    default int min() {
+        return spec().min();
+    }
+
+    /**
+     * @return the largest value allowed for Integer options
+     */
+    default int max() {
+        return spec().max();
+    }
+
+    /**
+     * Looks up the value of the option.  The key is checked in order:
+     * <ul>
+     *     <li>option name</li>
+     *     <li>option name as lowercase</li>
+     *     <li>option code</li>
+     * </ul>
+     * which I'm not a huge fan of, but this will allow for a number of different methodologies
+     * with regards to properties and naming conventions.  In the end hopefully we can
+     * stick with one.
+     *
+     * @param options the options provided by the application
+     * @return the provided value, or null
+     */
+    default Object lookup(Map<?, ?> options) {
+        return options.containsKey(name())
+            ? options.get(name()) : options.containsKey(name().toLowerCase())
+                ? options.get(name().toLowerCase()) : options.get(code());
+    }
+
+    /**
+     * Converts the provided value to the {@link #type()} of this option:
+     * <ul>
+     *     <li>null provides the {@link #defaultValue()}</li>
+     *     <li>Integer options accept any whole {@link Number} within their range, numbers
+     *     from React Native are all provided as Double</li>
+     *     <li>Enum options accept the name of the constant in any case, using either {@code -}
+     *     or {@code _}</li>
+     *     <li>List options accept a list of Strings, or a single comma separated String</li>
+     * </ul>
+     *
+     * @param value the provided value
+     * @return the parsed value
+     * @throws IllegalArgumentException if the value can't be used for this option
+     */
+    default Object parse(Object value) {
+        if (value == null)
+            return defaultValue();
+
+        Class clazz = type();
+        if (Integer.class.equals(clazz)) {
+            if (!(value instanceof Number))
+                throw invalid(value);
+
+            double number = ((Number) value).doubleValue();
+            if (number != Math.rint(number) || number < min() || number > max())
+                throw invalid(value);
+
+            return (int) number;
+        }
+
+        if (clazz.isEnum() && value instanceof String) {
+            String name = ((String) value).trim().replace('-', '_');
+            for (Object constant : clazz.getEnumConstants()) {
+                if (((Enum) constant).name().equalsIgnoreCase(name))
+                    return constant;
+            }
+            throw invalid(value);
+        }
+
+        if (List.class.equals(clazz)) {
+            List<String> names = new ArrayList<>();
+            if (value instanceof String) {
+                for (String name : ((String) value).split(",")) {
+                    if (!name.trim().isEmpty())
+                        names.add(name.trim());
+                }
+            } else if (value instanceof List) {
+                for (Object name : (List<?>) value) {
+                    if (!(name instanceof String))
+                        throw invalid(value);
+                    names.add(((String) name).trim());
+                }
+            } else {
+                throw invalid(value);
+            }
+            return Collections.unmodifiableList(names);
+        }
+
+        if (!clazz.isInstance(value))
+            throw invalid(value);
+
+        return value;
+    }
+
+    /**
+     * @param value the provided value
+     * @return the exception describing what was expected
+     */
+    default IllegalArgumentException invalid(Object value) {
+        Class clazz = type();
+        String expected;
+        if (Integer.class.equals(clazz)) {
+            expected = min() > Integer.MIN_VALUE && max() < Integer.MAX_VALUE
+                    ? String.format("a whole number from %d to %d", min(), max())
+                    : min() > Integer.MIN_VALUE
+                        ? String.format("a whole number of at least %d", min())
+                        : "a whole number";
+        } else if (clazz.isEnum()) {
+            StringBuilder names = new StringBuilder();
+            for (Object constant : clazz.getEnumConstants()) {
+                if (names.length() > 0)
+                    names.append(", ");
+                names.append(((Enum) constant).name().toLowerCase().replace('_', '-'));
+            }
+            expected = "one of " + names;
+        } else if (List.class.equals(clazz)) {
+            expected = "a list of names";
+        } else {
+            expected = "a " + clazz.getSimpleName();
+        }
+
+        return new IllegalArgumentException(
+                String.format("%s must be %s, was %s", code(), expected, value));
+    }
+}
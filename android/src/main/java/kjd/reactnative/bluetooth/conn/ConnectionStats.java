@@ -0,0 +1,172 @@
+package kjd.reactnative.bluetooth.conn;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.WritableMap;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import kjd.reactnative.bluetooth.Mappable;
+
+/**
+ * Throughput and latency counters kept for each {@link AbstractDeviceConnection}.  All values
+ * are updated with atomics from the read thread (or writing thread) so a snapshot can be
+ * requested at any time through {@link #map()}.
+ *
+ * @author kendavidson
+ */
+public class ConnectionStats implements Mappable {
+
+    private final long mCreated;
+
+    private final AtomicLong mBytesRead;
+    private final AtomicLong mBytesWritten;
+    private final AtomicLong mMessagesReceived;
+    private final AtomicLong mMessagesDelivered;
+    private final AtomicLong mBufferHighWater;
+    private final AtomicLong mOverflows;
+    private final AtomicLong mOverflowBytes;
+    private final AtomicLong mFramesDropped;
+
+    /**
+     * Time between successive reads which returned data.
+     */
+    private final LatencyHistogram mInterArrival;
+
+    /**
+     * Time from the socket read completing a message until the event containing it is sent to
+     * React Native, including the time spent batching, conflating or waiting for read credit.
+     * A batch is measured from the read of its oldest message.  Messages buffered before the
+     * listener was registered are measured from the read during which they're handed over.
+     */
+    private final LatencyHistogram mReadToEmit;
+
+    public ConnectionStats() {
+        this.mCreated = System.currentTimeMillis();
+        this.mBytesRead = new AtomicLong();
+        this.mBytesWritten = new AtomicLong();
+        this.mMessagesReceived = new AtomicLong();
+        this.mMessagesDelivered = new AtomicLong();
+        this.mBufferHighWater = new AtomicLong();
+        this.mOverflows = new AtomicLong();
+        this.mOverflowBytes = new AtomicLong();
+        this.mFramesDropped = new AtomicLong();
+        this.mInterArrival = new LatencyHistogram();
+        this.mReadToEmit = new LatencyHistogram();
+    }
+
+    public void bytesRead(int bytes) {
+        mBytesRead.addAndGet(bytes);
+    }
+
+    public void bytesWritten(int bytes) {
+        mBytesWritten.addAndGet(bytes);
+    }
+
+    /**
+     * A complete message was framed by the connection (whether or not it's been read).
+     */
+    public void messageReceived() {
+        mMessagesReceived.incrementAndGet();
+    }
+
+    /**
+     * A message was provided to the read listener.
+     */
+    public void messageDelivered() {
+        mMessagesDelivered.incrementAndGet();
+    }
+
+    /**
+     * A read event was sent to React Native.
+     *
+     * @param readToEmitNanos time since the socket read which completed the (oldest) message
+     */
+    public void eventSent(long readToEmitNanos) {
+        mReadToEmit.record(readToEmitNanos);
+    }
+
+    /**
+     * Updates the buffer high water mark if required.
+     *
+     * @param size the current amount of buffered data
+     */
+    public void buffered(long size) {
+        long current;
+        while (size > (current = mBufferHighWater.get())
+                && !mBufferHighWater.compareAndSet(current, size)) { }
+    }
+
+    /**
+     * The buffer limit was reached.
+     *
+     * @param dropped the number of bytes dropped
+     */
+    public void overflow(int dropped) {
+        mOverflows.incrementAndGet();
+        mOverflowBytes.addAndGet(dropped);
+    }
+
+    /**
+     * A malformed frame was dropped.
+     */
+    public void frameDropped() {
+        mFramesDropped.incrementAndGet();
+    }
+
+    public long getBytesRead() {
+        return mBytesRead.get();
+    }
+
+    public long getBytesWritten() {
+        return mBytesWritten.get();
+    }
+
+    public long getMessagesReceived() {
+        return mMessagesReceived.get();
+    }
+
+    public long getMessagesDelivered() {
+        return mMessagesDelivered.get();
+    }
+
+    public long getBufferHighWater() {
+        return mBufferHighWater.get();
+    }
+
+    public long getOverflows() {
+        return mOverflows.get();
+    }
+
+    public long getOverflowBytes() {
+        return mOverflowBytes.get();
+    }
+
+    public long getFramesDropped() {
+        return mFramesDropped.get();
+    }
+
+    public LatencyHistogram getInterArrival() {
+        return mInterArrival;
+    }
+
+    public LatencyHistogram getReadToEmit() {
+        return mReadToEmit;
+    }
+
+    @Override
+    public WritableMap map() {
+        WritableMap map = Arguments.createMap();
+        map.putDouble("connectedAt", mCreated);
+        map.putDouble("bytesRead", getBytesRead());
+        map.putDouble("bytesWritten", getBytesWritten());
+        map.putDouble("messagesReceived", getMessagesReceived());
+        map.putDouble("messagesDelivered", getMessagesDelivered());
+        map.putDouble("bufferHighWater", getBufferHighWater());
+        map.putDouble("overflows", getOverflows());
+        map.putDouble("overflowBytes", getOverflowBytes());
+        map.putDouble("framesDropped", getFramesDropped());
+        map.putMap("interArrival", mInterArrival.map());
+        map.putMap("readToEmit", mReadToEmit.map());
+        return map;
+    }
+}
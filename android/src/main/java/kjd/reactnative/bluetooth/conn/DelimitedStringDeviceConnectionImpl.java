@@ -4,13 +4,23 @@ import android.bluetooth.BluetoothSocket;
 import android.util.Log;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 import java.nio.charset.Charset;
-import java.util.Properties;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+import kjd.reactnative.bluetooth.BuildConfig;
 
 /**
  * Implements a {@link DeviceConnection} which manages the received data within a
- * {@StringBuffer}.  Incoming data is stored and parsed as "messages", which by definition are
- * delimited.  
+ * {@link ByteRingBuffer}.  Incoming data is stored and parsed as "messages", which by definition are
+ * delimited.  When the charset is ASCII compatible and self-synchronizing (US-ASCII, ISO-8859-x
+ * and UTF-8) messages are framed on the raw bytes, using the delimiter encoded with the
+ * configured charset, and each message is only decoded once it's complete.  Any other charset
+ * (UTF-16, Shift_JIS, etc.) could match the delimiter bytes part way through a character, so the
+ * data is decoded as it's received and the delimiter is found within the decoded characters.
  *
  * When no read listener is available the `byte[]` is processed by adding it to the `buffer'.  When there is
  * a listener, the `buffer` is scanned for all instances of the delimiter, which would result in none or many
@@ -22,7 +32,12 @@ import java.util.Properties;
  *
  * Previously setting the delimiter to blank or null would result in no messages being read.  After some 
  * requests it's now possible to provide a blank or null delimiter which will just return all the data
- * (as one message) currently in the buffer.
+ * (as one message) currently in the buffer.  In this case a multi-byte character split between
+ * reads is left in the buffer until the rest of it arrives, rather than being decoded into
+ * replacement characters.
+ *
+ * Decoding uses a single {@link CharsetDecoder} and {@link CharBuffer} for the life of the
+ * connection.
  *
  * @author kendavidson
  *
@@ -32,57 +47,122 @@ public class DelimitedStringDeviceConnectionImpl extends AbstractDeviceConnectio
     /**
      * The buffer in which data is stored.
      */
-    private final StringBuffer mBuffer;
+    private final ByteRingBuffer mBuffer;
 
     /**
      * The delimiter - easy access from properties.
      */
     private final String mDelimiter;
 
+    /**
+     * The delimiter encoded using {@link #mCharset}, null when the delimiter is blank or the
+     * delimiter is found within the decoded {@link #mDecoded} characters.
+     */
+    private final byte[] mDelimiterBytes;
+
+    /**
+     * Characters decoded from {@link #mBuffer} but not yet read, only used when the delimiter
+     * can't be found by scanning the bytes.
+     */
+    private final StringBuilder mDecoded;
+
+    /**
+     * Position (relative to the head of {@link #mBuffer}, or of {@link #mDecoded} when decoding
+     * as received) up to which received data has been scanned for delimiters.  Keeps from re-scanning the same bytes each time a new chunk
+     * arrives while waiting on a long message.
+     */
+    private int mScanIndex;
+
+    /**
+     * The number of complete messages (delimiters) found within {@link #mBuffer}.  This is
+     * updated as data is received and messages are read, so that {@link #available()} doesn't
+     * need to scan the buffer.
+     */
+    private int mMessageCount;
+
     /**
      * The charset used to decode the inbound data.
      */
     private final Charset mCharset;
 
+    /**
+     * Re-used for every message.
+     */
+    private final CharsetDecoder mDecoder;
+
+    /**
+     * Decoded characters, re-used (and grown when required) for every message.
+     */
+    private CharBuffer mChars;
+
     /**
      * Creates a new {@link AbstractDeviceConnection} to the provided NativeDevice, using the provided
-     * Properties.
+     * {@link ConnectionConfig}.
      *
      * @param socket
-     * @param properties
+     * @param config
      */
-    public DelimitedStringDeviceConnectionImpl(BluetoothSocket socket, Properties properties) throws IOException {
-        super(socket, properties);
+    public DelimitedStringDeviceConnectionImpl(BluetoothSocket socket, ConnectionConfig config) throws IOException {
+        super(socket, config);
 
-        this.mBuffer = new StringBuffer();
-        this.mDelimiter = StandardOption.DELIMITER.get(properties);
-        this.mCharset = StandardOption.DEVICE_CHARSET.get(properties);
+        this.mBuffer = new ByteRingBuffer(mConfig.getInt(StandardOption.READ_SIZE));
+        this.mDelimiter = mConfig.getString(StandardOption.DELIMITER);
+        this.mCharset = mConfig.get(StandardOption.DEVICE_CHARSET);
+
+        boolean delimited = mDelimiter != null && !mDelimiter.isEmpty();
+        boolean byteScan = isByteScannable(mCharset);
+        this.mDelimiterBytes = (delimited && byteScan) ? encode(mDelimiter, mCharset) : null;
+        this.mDecoded = (delimited && !byteScan) ? new StringBuilder() : null;
+        this.mScanIndex = 0;
+        this.mMessageCount = 0;
+        this.mDecoder = mCharset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.mChars = CharBuffer.allocate(mConfig.getInt(StandardOption.READ_SIZE));
+    }
+
+    @Override
+    protected void receivedData(byte[] bytes) {
+        receivedData(bytes, 0, bytes.length);
     }
 
     /**
      * Receives `byte[]` and either stores the data for later reads or provides the delimited message(s) to
      * the listener. This method is `synchronized` on the `buffer`.
-     * 
-     * @param bytes recently read byte[] from the device
+     *
+     * @param buffer the read buffer from the device
+     * @param offset position of the first byte read
+     * @param length number of bytes read
      */
     @Override
-    protected void receivedData(byte[] bytes) {
-        Log.d(this.getClass().getSimpleName(),
-                String.format("Received %d bytes from device %s", bytes.length, getDevice().getAddress()));
+    protected void receivedData(byte[] buffer, int offset, int length) {
+        if (BuildConfig.DEBUG)
+            Log.d(this.getClass().getSimpleName(),
+                String.format("Received %d bytes from device %s", length, getDevice().getAddress()));
 
         synchronized(mBuffer) {
-            mBuffer.append(new String(bytes, mCharset));
+            mBuffer.write(buffer, offset, length);
+            if (mDecoded != null)
+                decodeReceived();
+            countMessages();
+            mStats.buffered(mBuffer.size());
 
-            if (mOnDataReceived != null) {
-                Log.d(this.getClass().getSimpleName(),
-                    "BluetoothEvent.READ listener is registered, providing data");
+            if (hasDataListener()) {
+                if (BuildConfig.DEBUG)
+                    Log.d(this.getClass().getSimpleName(),
+                        "BluetoothEvent.READ listener is registered, providing data");
 
                 String message;
-                while ((mBuffer.length() > 0) 
-                       && ((message = read()) != null)) {
-                    mOnDataReceived.accept(getDevice(), message);
+                if (isBlankDelimiter()) {
+                    // Anything left after the read is an incomplete character
+                    if (!(message = read()).isEmpty())
+                        deliver(message);
+                } else {
+                    while ((message = read()) != null) {
+                        deliver(message);
+                    }
                 }
-            } else {
+            } else if (BuildConfig.DEBUG) {
                 Log.d(this.getClass().getSimpleName(),
                     "No BluetoothEvent.READ listeners are registered, skipping handling of the event");
             }   
@@ -91,7 +171,7 @@ public class DelimitedStringDeviceConnectionImpl extends AbstractDeviceConnectio
 
     /**
      * Provides the number of full messages (delimiters) available within the buffer.  If the delimiter is
-     * blank or null the full length of the buffer is returned.
+     * blank or null the full length (in bytes) of the buffer is returned.
      *
      * @return the number of messages available or the size of the buffer with no delimiter
      */
@@ -100,22 +180,37 @@ public class DelimitedStringDeviceConnectionImpl extends AbstractDeviceConnectio
         synchronized(mBuffer) {
             int count = 0;
             
-            if (mDelimiter == null || mDelimiter.isEmpty()) {
-                count = mBuffer.length();
-            } else {                
-                int lastIndex = -1;
-                while ((lastIndex = mBuffer.indexOf(mDelimiter, lastIndex+1)) > -1) {
-                    count++;
-                }
+            if (isBlankDelimiter()) {
+                count = mBuffer.size();
+            } else {
+                count = mMessageCount;
             }
             return count;   
         }        
     }
 
+    /**
+     * The position up to which received data has been scanned for delimiters, used by the
+     * tests to check data is only scanned once.
+     *
+     * @return the scan index
+     */
+    int getScanIndex() {
+        synchronized(mBuffer) {
+            return mScanIndex;
+        }
+    }
+
     @Override
     public boolean clear() {
         synchronized(mBuffer) {
-            mBuffer.delete(0, mBuffer.length());
+            mBuffer.clear();
+            if (mDecoded != null) {
+                mDecoded.setLength(0);
+                mDecoder.reset();
+            }
+            mScanIndex = 0;
+            mMessageCount = 0;
             return true;   
         }
     }
@@ -135,17 +230,146 @@ public class DelimitedStringDeviceConnectionImpl extends AbstractDeviceConnectio
         synchronized(mBuffer) {
             String message = null;
             
-            if (mDelimiter == null || mDelimiter.isEmpty()) {
-                message = mBuffer.substring(0, mBuffer.length());
-                mBuffer.delete(0, mBuffer.length());
-            } else {
-                int index = mBuffer.indexOf(mDelimiter, 0);
-                if (index > -1) {
-                    message = mBuffer.substring(0, index);
-                    mBuffer.delete(0, index + mDelimiter.length());
-                }   
+            if (isBlankDelimiter()) {
+                // An incomplete character at the end is left for the next read
+                ByteBuffer bytes = mBuffer.view(mBuffer.size());
+                int start = bytes.position();
+                message = decode(bytes, false);
+                mBuffer.skip(bytes.position() - start);
+            } else if (mMessageCount > 0 && mDecoded != null) {
+                int index = mDecoded.indexOf(mDelimiter);
+                int length = index + mDelimiter.length();
+
+                message = mDecoded.substring(0, index);
+                mDecoded.delete(0, length);
+                mScanIndex -= length;
+                mMessageCount--;
+            } else if (mMessageCount > 0) {
+                int index = mBuffer.indexOf(mDelimiterBytes, 0);
+                int length = index + mDelimiterBytes.length;
+
+                message = decode(mBuffer.view(index), true);
+                mBuffer.skip(length);
+                mScanIndex -= length;
+                mMessageCount--;
             }            
             return message;
         }        
     }
+
+    /**
+     * Decodes the bytes using the connection's {@link CharsetDecoder} into the re-used
+     * {@link CharBuffer}.  When not {@code endOfInput}, an incomplete sequence at the end of
+     * the bytes is not consumed.  Must be called while holding {@link #mBuffer}.
+     *
+     * @param bytes the bytes to decode
+     * @param endOfInput whether the bytes are a complete message
+     * @return the decoded String
+     */
+    private String decode(ByteBuffer bytes, boolean endOfInput) {
+        mDecoder.reset();
+        mChars.clear();
+
+        while (mDecoder.decode(bytes, mChars, endOfInput).isOverflow()) {
+            growChars();
+        }
+
+        if (endOfInput) {
+            while (mDecoder.flush(mChars).isOverflow()) {
+                growChars();
+            }
+        }
+
+        mChars.flip();
+        return mChars.toString();
+    }
+
+    /**
+     * Decodes everything received so far onto the end of {@link #mDecoded}.  The decoder is
+     * not reset between calls, so that an incomplete character (left in {@link #mBuffer}) or a
+     * byte order mark carries on to the next chunk.  Must be called while holding
+     * {@link #mBuffer}.
+     */
+    private void decodeReceived() {
+        ByteBuffer bytes = mBuffer.view(mBuffer.size());
+        int start = bytes.position();
+        mChars.clear();
+
+        while (mDecoder.decode(bytes, mChars, false).isOverflow()) {
+            growChars();
+        }
+
+        mBuffer.skip(bytes.position() - start);
+        mChars.flip();
+        mDecoded.append(mChars);
+    }
+
+    private void growChars() {
+        CharBuffer chars = CharBuffer.allocate(mChars.capacity() << 1);
+        mChars.flip();
+        chars.put(mChars);
+        mChars = chars;
+    }
+
+    /**
+     * Scans the newly received data for delimiters, starting from where the previous scan
+     * stopped, and updates the message count.  Must be called while holding {@link #mBuffer}.
+     */
+    private void countMessages() {
+        if (isBlankDelimiter())
+            return;
+
+        int index;
+        if (mDecoded != null) {
+            while ((index = mDecoded.indexOf(mDelimiter, mScanIndex)) > -1) {
+                mScanIndex = index + mDelimiter.length();
+                mMessageCount++;
+                mStats.messageReceived();
+            }
+
+            mScanIndex = Math.max(mScanIndex, mDecoded.length() - mDelimiter.length() + 1);
+            return;
+        }
+
+        while ((index = mBuffer.indexOf(mDelimiterBytes, mScanIndex)) > -1) {
+            mScanIndex = index + mDelimiterBytes.length;
+            mMessageCount++;
+            mStats.messageReceived();
+        }
+
+        // A partial delimiter could be sitting at the end of the buffer
+        mScanIndex = Math.max(mScanIndex, mBuffer.size() - mDelimiterBytes.length + 1);
+    }
+
+    private boolean isBlankDelimiter() {
+        return mDelimiterBytes == null && mDecoded == null;
+    }
+
+    /**
+     * Whether a delimiter can be found by scanning the encoded bytes.  This requires a charset
+     * in which the bytes of one character never appear within the encoding of another, and
+     * which doesn't start the encoding with a byte order mark.
+     *
+     * @param charset the device charset
+     * @return true when the bytes can be scanned for the delimiter
+     */
+    static boolean isByteScannable(Charset charset) {
+        return StandardCharsets.US_ASCII.equals(charset)
+                || StandardCharsets.UTF_8.equals(charset)
+                || charset.name().startsWith("ISO-8859-");
+    }
+
+    /**
+     * Encodes the delimiter with a {@link java.nio.charset.CharsetEncoder}, which unlike
+     * {@link String#getBytes(Charset)} never adds a byte order mark.
+     */
+    private static byte[] encode(String delimiter, Charset charset) throws IOException {
+        ByteBuffer encoded = charset.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE)
+                .encode(CharBuffer.wrap(delimiter));
+        byte[] bytes = new byte[encoded.remaining()];
+        encoded.get(bytes);
+        return bytes;
+    }
 }
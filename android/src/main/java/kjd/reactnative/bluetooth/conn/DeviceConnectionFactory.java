@@ -3,9 +3,53 @@ package kjd.reactnative.bluetooth.conn;
 import android.bluetooth.BluetoothSocket;
 
 import java.io.IOException;
-import java.util.Properties;
 
 @FunctionalInterface
 public interface DeviceConnectionFactory {
-    DeviceConnection create(BluetoothSocket device, Properties properties) throws IOException;
+    DeviceConnection create(BluetoothSocket device, ConnectionConfig config) throws IOException;
+
+    /**
+     * The options specific to the connections created, these are parsed (and validated) along
+     * with the {@link StandardOption}(s) before the connection is attempted, see
+     * {@link ConnectionConfig#parse(ConnectionOption...)}.
+     *
+     * @return the options used by the connection type
+     */
+    default ConnectionOption[] options() {
+        return new ConnectionOption[0];
+    }
+
+    /**
+     * Checks the options which can only be validated by the connection type (for example the
+     * names of registered stages), once the {@link #options()} have been parsed and before the
+     * connection is attempted.
+     *
+     * @param config the parsed options
+     * @throws IllegalArgumentException if the options can't be used by the connection type
+     */
+    default void validate(ConnectionConfig config) {
+    }
+
+    /**
+     * Registers the options used by the connections the factory creates.
+     *
+     * @param factory creates the connections
+     * @param options the options used by the connection type
+     * @return the factory providing the options
+     */
+    static DeviceConnectionFactory withOptions(DeviceConnectionFactory factory,
+                                               ConnectionOption... options) {
+        return new DeviceConnectionFactory() {
+            @Override
+            public DeviceConnection create(BluetoothSocket socket, ConnectionConfig config)
+                    throws IOException {
+                return factory.create(socket, config);
+            }
+
+            @Override
+            public ConnectionOption[] options() {
+                return options;
+            }
+        };
+    }
 }
@@ -0,0 +1,204 @@
+package kjd.reactnative.bluetooth.conn;
+
+import android.bluetooth.BluetoothDevice;
+import android.bluetooth.BluetoothSocket;
+import android.util.JsonReader;
+import android.util.JsonToken;
+import android.util.Log;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import kjd.reactnative.android.BiConsumer;
+import kjd.reactnative.bluetooth.BuildConfig;
+
+/**
+ * Implements a {@link DelimitedStringDeviceConnectionImpl} for devices which send one JSON object
+ * per line (JSON Lines).  When a {@link StructuredDataConnection} listener is registered each line
+ * is parsed on the connection thread, directly into a {@link WritableMap}, so the Javascript
+ * thread doesn't need to {@code JSON.parse} every message.
+ * <p>
+ * Lines which aren't a single JSON object are skipped and counted as
+ * {@link ConnectionStats#frameDropped()}, blank lines are ignored.  When
+ * {@link JsonLinesOption#JSON_FIELDS} is provided only those top level fields are kept, the
+ * remaining values are skipped without being parsed.
+ * <p>
+ * Messages which are {@link #read()} manually are the lines as received.
+ *
+ * @author kendavidson
+ */
+public class JsonLinesDeviceConnectionImpl extends DelimitedStringDeviceConnectionImpl
+        implements StructuredDataConnection {
+
+    /**
+     * The top level fields kept, null to keep all.
+     */
+    private final Set<String> mFields;
+
+    private BiConsumer<BluetoothDevice, ReadableMap> mOnStructuredDataReceived;
+
+    public JsonLinesDeviceConnectionImpl(BluetoothSocket socket, ConnectionConfig config) throws IOException {
+        super(socket, config);
+
+        String delimiter = mConfig.getString(StandardOption.DELIMITER);
+        if (delimiter == null || delimiter.isEmpty())
+            throw new IllegalArgumentException("jsonl connections require a delimiter");
+
+        List<String> fields = mConfig.get(JsonLinesOption.JSON_FIELDS);
+        this.mFields = fields.isEmpty() ? null : new HashSet<>(fields);
+    }
+
+    /**
+     * Provides the {@link DeviceConnectionFactory} for {@code jsonl} connections, registering the
+     * {@link JsonLinesOption}(s).
+     *
+     * @return the connection factory
+     */
+    public static DeviceConnectionFactory factory() {
+        return DeviceConnectionFactory.withOptions(JsonLinesDeviceConnectionImpl::new, JsonLinesOption.values());
+    }
+
+    @Override
+    public synchronized void onStructuredDataReceived(BiConsumer<BluetoothDevice, ReadableMap> onDataReceived) {
+        this.mOnStructuredDataReceived = onDataReceived;
+    }
+
+    @Override
+    public synchronized void clearOnDataReceived() {
+        super.clearOnDataReceived();
+        this.mOnStructuredDataReceived = null;
+    }
+
+    @Override
+    protected boolean hasDataListener() {
+        return mOnStructuredDataReceived != null || super.hasDataListener();
+    }
+
+    /**
+     * Parses the line and provides it to the structured listener, without one the line is
+     * delivered as a String.
+     *
+     * @param message the line
+     */
+    @Override
+    protected void deliver(String message) {
+        BiConsumer<BluetoothDevice, ReadableMap> listener = mOnStructuredDataReceived;
+        if (listener == null) {
+            super.deliver(message);
+            return;
+        }
+
+        if (message.trim().isEmpty())
+            return;
+
+        WritableMap data = parse(message);
+        if (data == null) {
+            mStats.frameDropped();
+            return;
+        }
+
+        listener.accept(getDevice(), data);
+        messageDelivered();
+    }
+
+    /**
+     * Parses the line, which must contain a single JSON object.
+     *
+     * @param line the line
+     * @return the object, or null if the line is malformed
+     */
+    WritableMap parse(String line) {
+        JsonReader reader = new JsonReader(new StringReader(line));
+        try {
+            if (reader.peek() != JsonToken.BEGIN_OBJECT)
+                return null;
+
+            WritableMap data = readObject(reader, mFields);
+            return reader.peek() == JsonToken.END_DOCUMENT ? data : null;
+        } catch (IOException | IllegalStateException | NumberFormatException e) {
+            if (BuildConfig.DEBUG)
+                Log.d(this.getClass().getSimpleName(),
+                        String.format("Skipping malformed line from %s: %s",
+                                getDevice().getAddress(), e.getMessage()));
+            return null;
+        }
+    }
+
+    private static WritableMap readObject(JsonReader reader, Set<String> fields) throws IOException {
+        WritableMap map = Arguments.createMap();
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (fields != null && !fields.contains(name)) {
+                reader.skipValue();
+                continue;
+            }
+
+            switch (reader.peek()) {
+                case BEGIN_OBJECT:
+                    map.putMap(name, readObject(reader, null));
+                    break;
+                case BEGIN_ARRAY:
+                    map.putArray(name, readArray(reader));
+                    break;
+                case NUMBER:
+                    map.putDouble(name, reader.nextDouble());
+                    break;
+                case BOOLEAN:
+                    map.putBoolean(name, reader.nextBoolean());
+                    break;
+                case NULL:
+                    reader.nextNull();
+                    map.putNull(name);
+                    break;
+                default:
+                    map.putString(name, reader.nextString());
+                    break;
+            }
+        }
+        reader.endObject();
+
+        return map;
+    }
+
+    private static WritableArray readArray(JsonReader reader) throws IOException {
+        WritableArray array = Arguments.createArray();
+
+        reader.beginArray();
+        while (reader.hasNext()) {
+            switch (reader.peek()) {
+                case BEGIN_OBJECT:
+                    array.pushMap(readObject(reader, null));
+                    break;
+                case BEGIN_ARRAY:
+                    array.pushArray(readArray(reader));
+                    break;
+                case NUMBER:
+                    array.pushDouble(reader.nextDouble());
+                    break;
+                case BOOLEAN:
+                    array.pushBoolean(reader.nextBoolean());
+                    break;
+                case NULL:
+                    reader.nextNull();
+                    array.pushNull();
+                    break;
+                default:
+                    array.pushString(reader.nextString());
+                    break;
+            }
+        }
+        reader.endArray();
+
+        return array;
+    }
+}
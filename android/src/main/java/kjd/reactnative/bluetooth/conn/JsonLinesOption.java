@@ -0,0 +1,29 @@
+package kjd.reactnative.bluetooth.conn;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The options of {@code jsonl} connections, registered with the
+ * {@link JsonLinesDeviceConnectionImpl} factory.
+ *
+ * @author kendavidson
+ */
+public enum JsonLinesOption implements ConnectionOption {
+    /**
+     * The top level fields kept from each object by {@code jsonl} connections, all fields are
+     * kept when not provided.  Provided as a list or comma separated String.
+     */
+    JSON_FIELDS("jsonFields", List.class, Collections.emptyList());
+
+    private final OptionSpec spec;
+
+    JsonLinesOption(String code, Class clazz, Object defaultValue, int... range) {
+        this.spec = new OptionSpec(code, clazz, defaultValue, range);
+    }
+
+    @Override
+    public OptionSpec spec() {
+        return spec;
+    }
+}
@@ -0,0 +1,133 @@
+package kjd.reactnative.bluetooth.conn;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.WritableMap;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import kjd.reactnative.bluetooth.Mappable;
+
+/**
+ * Records latency samples (nanoseconds) into power of two buckets (by microsecond) along with
+ * the count, total, min and max.  Recording is lock free so it can be done from the read
+ * thread while snapshots are taken on the React Native bridge thread.  Percentiles are an
+ * approximation, they're reported as the upper bound of the bucket they fall in.
+ *
+ * @author kendavidson
+ */
+public class LatencyHistogram implements Mappable {
+
+    /**
+     * Bucket {@code n} holds samples less than {@code 2^n} microseconds, the last bucket holds
+     * everything larger (over half an hour).
+     */
+    private static final int BUCKETS = 32;
+
+    private final AtomicLongArray mBuckets;
+    private final AtomicLong mCount;
+    private final AtomicLong mTotal;
+    private final AtomicLong mMin;
+    private final AtomicLong mMax;
+
+    public LatencyHistogram() {
+        this.mBuckets = new AtomicLongArray(BUCKETS);
+        this.mCount = new AtomicLong();
+        this.mTotal = new AtomicLong();
+        this.mMin = new AtomicLong(Long.MAX_VALUE);
+        this.mMax = new AtomicLong();
+    }
+
+    /**
+     * Record a single sample.
+     *
+     * @param nanos the latency in nanoseconds, negative values are ignored
+     */
+    public void record(long nanos) {
+        if (nanos < 0)
+            return;
+
+        long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+        int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+        mBuckets.incrementAndGet(bucket);
+        mCount.incrementAndGet();
+        mTotal.addAndGet(nanos);
+
+        long current;
+        while (nanos < (current = mMin.get()) && !mMin.compareAndSet(current, nanos)) { }
+        while (nanos > (current = mMax.get()) && !mMax.compareAndSet(current, nanos)) { }
+    }
+
+    public long getCount() {
+        return mCount.get();
+    }
+
+    public long getMin() {
+        return mCount.get() == 0 ? 0 : mMin.get();
+    }
+
+    public long getMax() {
+        return mMax.get();
+    }
+
+    public long getMean() {
+        long count = mCount.get();
+        return count == 0 ? 0 : mTotal.get() / count;
+    }
+
+    /**
+     * Approximate the requested percentile.
+     *
+     * @param percentile between 0 and 100
+     * @return the upper bound (nanoseconds) of the bucket containing the percentile
+     */
+    public long getPercentile(double percentile) {
+        long count = mCount.get();
+        if (count == 0)
+            return 0;
+
+        long target = (long) Math.ceil(count * (percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += mBuckets.get(i);
+            if (seen >= Math.max(target, 1)) {
+                return Math.min(TimeUnit.MICROSECONDS.toNanos(1L << i), getMax());
+            }
+        }
+
+        return getMax();
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            mBuckets.set(i, 0);
+        }
+        mCount.set(0);
+        mTotal.set(0);
+        mMin.set(Long.MAX_VALUE);
+        mMax.set(0);
+    }
+
+    /**
+     * Provides the current values, all latencies are in (fractional) milliseconds.
+     *
+     * @return the snapshot
+     */
+    @Override
+    public WritableMap map() {
+        WritableMap map = Arguments.createMap();
+        map.putDouble("count", getCount());
+        map.putDouble("min", toMillis(getMin()));
+        map.putDouble("max", toMillis(getMax()));
+        map.putDouble("mean", toMillis(getMean()));
+        map.putDouble("p50", toMillis(getPercentile(50)));
+        map.putDouble("p90", toMillis(getPercentile(90)));
+        map.putDouble("p99", toMillis(getPercentile(99)));
+        return map;
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,436 @@
+package kjd.reactnative.bluetooth.conn;
+
+import android.bluetooth.BluetoothDevice;
+import android.bluetooth.BluetoothSocket;
+import android.util.Log;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import kjd.reactnative.android.BiConsumer;
+import kjd.reactnative.bluetooth.BuildConfig;
+
+/**
+ * Implements a {@link DelimitedStringDeviceConnectionImpl} for NMEA 0183 devices (GPS receivers).
+ * Each line is checked before it's read or delivered:
+ * <ul>
+ *     <li>sentences which don't start with {@code $} (or {@code !}), have an incorrect
+ *     {@code *hh} checksum or (when {@link NmeaOption#NMEA_REQUIRE_CHECKSUM}) have no checksum
+ *     are dropped and counted as {@link ConnectionStats#frameDropped()}</li>
+ *     <li>sentences not included in {@link NmeaOption#NMEA_SENTENCES} are skipped</li>
+ * </ul>
+ * so neither {@link #read()} nor the listeners are provided filtered or corrupt sentences.
+ * <p>
+ * When a {@link StructuredDataConnection} listener is registered each sentence is parsed on the
+ * connection thread.  {@code GGA}, {@code RMC}, {@code GLL} and {@code VTG} sentences provide
+ * their fields by name as numbers (coordinates in signed decimal degrees, times in seconds since
+ * midnight UTC), other sentences provide their {@code fields} as Strings.  Empty fields are left
+ * out.
+ *
+ * @author kendavidson
+ */
+public class NmeaDeviceConnectionImpl extends DelimitedStringDeviceConnectionImpl
+        implements StructuredDataConnection {
+
+    /**
+     * The sentence types and/or addresses provided, null to provide all.
+     */
+    private final Set<String> mSentences;
+
+    private final boolean mRequireChecksum;
+
+    /**
+     * The start of each field within {@link #mSentence}, re-used for every sentence parsed.
+     */
+    private int[] mFieldStarts;
+
+    private int mFieldCount;
+
+    /**
+     * The sentence being parsed and the end of its fields (the checksum or end of the sentence).
+     */
+    private String mSentence;
+    private int mFieldsEnd;
+
+    private BiConsumer<BluetoothDevice, ReadableMap> mOnStructuredDataReceived;
+
+    public NmeaDeviceConnectionImpl(BluetoothSocket socket, ConnectionConfig config) throws IOException {
+        super(socket, config);
+
+        String delimiter = mConfig.getString(StandardOption.DELIMITER);
+        if (delimiter == null || delimiter.isEmpty())
+            throw new IllegalArgumentException("nmea connections require a delimiter");
+
+        List<String> sentences = mConfig.get(NmeaOption.NMEA_SENTENCES);
+        this.mSentences = sentences.isEmpty() ? null : new HashSet<>(sentences);
+        this.mRequireChecksum = mConfig.getBoolean(NmeaOption.NMEA_REQUIRE_CHECKSUM);
+        this.mFieldStarts = new int[24];
+    }
+
+    /**
+     * Provides the {@link DeviceConnectionFactory} for {@code nmea} connections, registering the
+     * {@link NmeaOption}(s).
+     *
+     * @return the connection factory
+     */
+    public static DeviceConnectionFactory factory() {
+        return DeviceConnectionFactory.withOptions(NmeaDeviceConnectionImpl::new, NmeaOption.values());
+    }
+
+    @Override
+    public synchronized void onStructuredDataReceived(BiConsumer<BluetoothDevice, ReadableMap> onDataReceived) {
+        this.mOnStructuredDataReceived = onDataReceived;
+    }
+
+    @Override
+    public synchronized void clearOnDataReceived() {
+        super.clearOnDataReceived();
+        this.mOnStructuredDataReceived = null;
+    }
+
+    @Override
+    protected boolean hasDataListener() {
+        return mOnStructuredDataReceived != null || super.hasDataListener();
+    }
+
+    /**
+     * Reads the next valid sentence, without line ending, skipping those which are filtered out
+     * or corrupt.  {@link #available()} includes the lines which will be skipped.
+     *
+     * @return the next sentence or null if there are none
+     */
+    @Override
+    public String read() {
+        String line;
+        while ((line = super.read()) != null) {
+            String sentence = accept(line);
+            if (sentence != null)
+                return sentence;
+        }
+        return null;
+    }
+
+    /**
+     * Parses the sentence and provides it to the structured listener, without one the sentence
+     * is delivered as a String.
+     *
+     * @param message the sentence, already accepted by {@link #read()}
+     */
+    @Override
+    protected void deliver(String message) {
+        BiConsumer<BluetoothDevice, ReadableMap> listener = mOnStructuredDataReceived;
+        if (listener == null) {
+            super.deliver(message);
+            return;
+        }
+
+        WritableMap data = parse(message);
+        if (data == null) {
+            mStats.frameDropped();
+            return;
+        }
+
+        listener.accept(getDevice(), data);
+        messageDelivered();
+    }
+
+    /**
+     * Checks the line is a sentence which should be provided.
+     *
+     * @param line the line as received
+     * @return the sentence without line ending, or null if it's blank, corrupt or filtered out
+     */
+    String accept(String line) {
+        int end = line.length();
+        while (end > 0 && line.charAt(end - 1) <= ' ')
+            end--;
+
+        if (end == 0)
+            return null;
+
+        char start = line.charAt(0);
+        if (start != '$' && start != '!')
+            return dropped(line, "not a sentence");
+
+        int fieldsEnd = line.indexOf('*');
+        if (fieldsEnd < 0 || fieldsEnd >= end) {
+            if (mRequireChecksum)
+                return dropped(line, "no checksum");
+            fieldsEnd = end;
+        } else {
+            if (fieldsEnd + 3 != end)
+                return dropped(line, "malformed checksum");
+
+            int high = Character.digit(line.charAt(fieldsEnd + 1), 16);
+            int low = Character.digit(line.charAt(fieldsEnd + 2), 16);
+            if (high < 0 || low < 0)
+                return dropped(line, "malformed checksum");
+
+            int checksum = 0;
+            for (int i = 1; i < fieldsEnd; i++)
+                checksum ^= line.charAt(i);
+
+            if (checksum != ((high << 4) | low))
+                return dropped(line, "incorrect checksum");
+        }
+
+        int addressEnd = line.indexOf(',');
+        if (addressEnd < 0 || addressEnd > fieldsEnd)
+            addressEnd = fieldsEnd;
+
+        if (addressEnd < 4)
+            return dropped(line, "no address");
+
+        if (mSentences != null) {
+            String address = line.substring(1, addressEnd);
+            if (!mSentences.contains(address) && !mSentences.contains(type(address)))
+                return null;
+        }
+
+        return end == line.length() ? line : line.substring(0, end);
+    }
+
+    private String dropped(String line, String reason) {
+        if (BuildConfig.DEBUG)
+            Log.d(this.getClass().getSimpleName(),
+                    String.format("Dropping sentence from %s (%s): %s",
+                            getDevice().getAddress(), reason, line));
+
+        mStats.frameDropped();
+        return null;
+    }
+
+    /**
+     * Parses an accepted sentence.
+     *
+     * @param sentence the sentence
+     * @return the parsed sentence, or null if a field is malformed
+     */
+    WritableMap parse(String sentence) {
+        split(sentence);
+
+        String address = field(0);
+        String type = type(address);
+
+        WritableMap data = Arguments.createMap();
+        if (type.length() < address.length())
+            data.putString("talker", address.substring(0, 2));
+        data.putString("sentence", type);
+
+        try {
+            switch (type) {
+                case "GGA":
+                    putTime(data, 1);
+                    putCoordinate(data, "latitude", 2);
+                    putCoordinate(data, "longitude", 4);
+                    putInt(data, "fix", 6);
+                    putInt(data, "satellites", 7);
+                    putDouble(data, "hdop", 8);
+                    putDouble(data, "altitude", 9);
+                    putDouble(data, "geoidSeparation", 11);
+                    break;
+                case "RMC":
+                    putTime(data, 1);
+                    putStatus(data, 2);
+                    putCoordinate(data, "latitude", 3);
+                    putCoordinate(data, "longitude", 5);
+                    putDouble(data, "speedKnots", 7);
+                    putDouble(data, "course", 8);
+                    putTimestamp(data, 9, 1);
+                    break;
+                case "GLL":
+                    putCoordinate(data, "latitude", 1);
+                    putCoordinate(data, "longitude", 3);
+                    putTime(data, 5);
+                    putStatus(data, 6);
+                    break;
+                case "VTG":
+                    putDouble(data, "course", 1);
+                    putDouble(data, "courseMagnetic", 3);
+                    putDouble(data, "speedKnots", 5);
+                    putDouble(data, "speedKmh", 7);
+                    break;
+                default:
+                    WritableArray fields = Arguments.createArray();
+                    for (int i = 1; i < mFieldCount; i++)
+                        fields.pushString(field(i));
+                    data.putArray("fields", fields);
+                    break;
+            }
+        } catch (NumberFormatException e) {
+            if (BuildConfig.DEBUG)
+                Log.d(this.getClass().getSimpleName(),
+                        String.format("Dropping sentence from %s (%s): %s",
+                                getDevice().getAddress(), e.getMessage(), sentence));
+            return null;
+        } finally {
+            mSentence = null;
+        }
+
+        return data;
+    }
+
+    /**
+     * Records the start of each field, the first field being the address (without the
+     * {@code $}).
+     */
+    private void split(String sentence) {
+        int end = sentence.indexOf('*');
+
+        mSentence = sentence;
+        mFieldsEnd = end < 0 ? sentence.length() : end;
+        mFieldStarts[0] = 1;
+        mFieldCount = 1;
+
+        for (int i = 1; i < mFieldsEnd; i++) {
+            if (sentence.charAt(i) != ',')
+                continue;
+
+            if (mFieldCount == mFieldStarts.length) {
+                int[] starts = new int[mFieldCount << 1];
+                System.arraycopy(mFieldStarts, 0, starts, 0, mFieldCount);
+                mFieldStarts = starts;
+            }
+            mFieldStarts[mFieldCount++] = i + 1;
+        }
+    }
+
+    private int start(int field) {
+        return mFieldStarts[field];
+    }
+
+    private int end(int field) {
+        return field + 1 < mFieldCount ? mFieldStarts[field + 1] - 1 : mFieldsEnd;
+    }
+
+    private boolean has(int field) {
+        return field < mFieldCount && end(field) > start(field);
+    }
+
+    private String field(int field) {
+        return mSentence.substring(start(field), end(field));
+    }
+
+    private void putDouble(WritableMap data, String name, int field) {
+        if (has(field))
+            data.putDouble(name, Double.parseDouble(field(field)));
+    }
+
+    private void putInt(WritableMap data, String name, int field) {
+        if (has(field))
+            data.putInt(name, digits(start(field), end(field) - start(field)));
+    }
+
+    private void putStatus(WritableMap data, int field) {
+        if (has(field))
+            data.putBoolean("valid", mSentence.charAt(start(field)) == 'A');
+    }
+
+    /**
+     * Puts the {@code ddmm.mmmm} or {@code dddmm.mmmm} field and its hemisphere (the next field)
+     * as signed decimal degrees.
+     */
+    private void putCoordinate(WritableMap data, String name, int field) {
+        if (!has(field))
+            return;
+
+        double value = Double.parseDouble(field(field));
+        double degrees = Math.floor(value / 100);
+        degrees += (value - degrees * 100) / 60;
+
+        char hemisphere = has(field + 1) ? mSentence.charAt(start(field + 1)) : 0;
+        if (hemisphere == 'S' || hemisphere == 'W')
+            degrees = -degrees;
+        else if (hemisphere != 'N' && hemisphere != 'E')
+            throw new NumberFormatException("invalid hemisphere for " + name);
+
+        data.putDouble(name, degrees);
+    }
+
+    /**
+     * Puts the {@code hhmmss.ss} field as seconds since midnight UTC.
+     */
+    private void putTime(WritableMap data, int field) {
+        if (has(field))
+            data.putDouble("time", secondsOfDay(field));
+    }
+
+    /**
+     * Puts the {@code ddmmyy} date and {@code hhmmss.ss} time fields as milliseconds since the
+     * epoch.  Two digit years from {@code 80} are in the 1900s.
+     */
+    private void putTimestamp(WritableMap data, int dateField, int timeField) {
+        if (!has(dateField) || !has(timeField))
+            return;
+
+        int start = start(dateField);
+        if (end(dateField) - start != 6)
+            throw new NumberFormatException("invalid date");
+
+        int year = digits(start + 4, 2);
+        long days = daysSinceEpoch(year < 80 ? 2000 + year : 1900 + year,
+                digits(start + 2, 2), digits(start, 2));
+
+        data.putDouble("timestamp", Math.round((days * 86400 + secondsOfDay(timeField)) * 1000));
+    }
+
+    private double secondsOfDay(int field) {
+        int start = start(field);
+        int end = end(field);
+        if (end - start < 6)
+            throw new NumberFormatException("invalid time");
+
+        double seconds = digits(start + 4, 2);
+        if (end - start > 6)
+            seconds = Double.parseDouble(mSentence.substring(start + 4, end));
+
+        return digits(start, 2) * 3600 + digits(start + 2, 2) * 60 + seconds;
+    }
+
+    private int digits(int start, int count) {
+        if (count == 0 || count > 9)
+            throw new NumberFormatException("invalid number");
+
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            char c = mSentence.charAt(i);
+            if (c < '0' || c > '9')
+                throw new NumberFormatException("invalid number");
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /**
+     * The days from 1970-01-01 to the (proleptic Gregorian) date, without the allocation of a
+     * {@link java.util.Calendar} per sentence.
+     */
+    static long daysSinceEpoch(int year, int month, int day) {
+        if (month < 1 || month > 12 || day < 1 || day > 31)
+            throw new NumberFormatException("invalid date");
+
+        if (month <= 2)
+            year--;
+
+        int era = year / 400;
+        int yearOfEra = year - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097L + dayOfEra - 719468;
+    }
+
+    /**
+     * The sentence type of the address, {@code GGA} for {@code GPGGA}.  Proprietary sentences
+     * ({@code P} addresses) have no talker, so the full address is the type.
+     */
+    static String type(String address) {
+        return address.charAt(0) == 'P' || address.length() < 5 ? address : address.substring(2);
+    }
+}
@@ -0,0 +1,36 @@
+package kjd.reactnative.bluetooth.conn;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The options of {@code nmea} connections, registered with the
+ * {@link NmeaDeviceConnectionImpl} factory.
+ *
+ * @author kendavidson
+ */
+public enum NmeaOption implements ConnectionOption {
+    /**
+     * The sentences provided by {@code nmea} connections, either the sentence type ({@code GGA})
+     * matching any talker or the full address ({@code GPGGA}).  All sentences are provided when
+     * not provided.  Provided as a list or comma separated String.
+     */
+    NMEA_SENTENCES("nmeaSentences", List.class, Collections.emptyList()),
+
+    /**
+     * Whether {@code nmea} connections drop sentences without a {@code *hh} checksum.  Sentences
+     * with an incorrect checksum are always dropped.
+     */
+    NMEA_REQUIRE_CHECKSUM("nmeaRequireChecksum", Boolean.class, true);
+
+    private final OptionSpec spec;
+
+    NmeaOption(String code, Class clazz, Object defaultValue, int... range) {
+        this.spec = new OptionSpec(code, clazz, defaultValue, range);
+    }
+
+    @Override
+    public OptionSpec spec() {
+        return spec;
+    }
+}
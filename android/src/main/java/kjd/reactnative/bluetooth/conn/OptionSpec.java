@@ -0,0 +1,54 @@
+package kjd.reactnative.bluetooth.conn;
+
+/**
+ * Describes a {@link ConnectionOption}: the code used by the application, the type of the parsed
+ * value, the default and (for Integer options) the range allowed.  Each option constant holds
+ * one, which the {@link ConnectionOption} methods read from.
+ *
+ * @author kendavidson
+ */
+public final class OptionSpec {
+
+    private final String mCode;
+    private final Class mType;
+    private final Object mDefaultValue;
+    private final int mMin;
+    private final int mMax;
+
+    /**
+     * @param code the name used by the application
+     * @param type the type of the parsed value
+     * @param defaultValue the value used when the option isn't provided
+     * @param range for Integer options, the smallest and (optionally) largest value allowed
+     */
+    public OptionSpec(String code, Class type, Object defaultValue, int... range) {
+        if (range.length > 2)
+            throw new IllegalArgumentException("range is a min and optional max");
+
+        this.mCode = code;
+        this.mType = type;
+        this.mDefaultValue = defaultValue;
+        this.mMin = range.length > 0 ? range[0] : Integer.MIN_VALUE;
+        this.mMax = range.length > 1 ? range[1] : Integer.MAX_VALUE;
+    }
+
+    public String code() {
+        return mCode;
+    }
+
+    public Class type() {
+        return mType;
+    }
+
+    public Object defaultValue() {
+        return mDefaultValue;
+    }
+
+    public int min() {
+        return mMin;
+    }
+
+    public int max() {
+        return mMax;
+    }
+}
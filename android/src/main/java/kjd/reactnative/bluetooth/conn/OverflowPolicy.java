@@ -0,0 +1,23 @@
+package kjd.reactnative.bluetooth.conn;
+
+/**
+ * Determines what happens when received data doesn't fit within a bounded buffer.
+ *
+ * @author kendavidson
+ */
+public enum OverflowPolicy {
+    /**
+     * The oldest buffered data is dropped to make room for the newly received data.
+     */
+    DROP_OLDEST,
+
+    /**
+     * The newly received data that doesn't fit is dropped.
+     */
+    DROP_NEWEST,
+
+    /**
+     * The connection is disconnected.
+     */
+    DISCONNECT
+}
@@ -0,0 +1,23 @@
+package kjd.reactnative.bluetooth.conn;
+
+/**
+ * Determines how the {@link AbstractDeviceConnection} read thread uses
+ * {@link StandardOption#READ_TIMEOUT} between reads.
+ *
+ * @author kendavidson
+ */
+public enum ReadPacing {
+    /**
+     * Reads are performed back to back while data is flowing.  Only when a read returns no
+     * data does the thread back off, doubling the wait from 1 millisecond up to the
+     * {@link StandardOption#READ_TIMEOUT}.  {@link android.bluetooth.BluetoothSocket} reads
+     * block until data arrives, so with them the timeout is effectively never applied.
+     */
+    ADAPTIVE,
+
+    /**
+     * The original (and default) behaviour, the thread waits {@link StandardOption#READ_TIMEOUT}
+     * after every read whether or not data was received.
+     */
+    FIXED
+}
@@ -5,7 +5,6 @@ import android.bluetooth.BluetoothServerSocket;
 import android.bluetooth.BluetoothSocket;
 
 import java.io.IOException;
-import java.util.Properties;
 
 import kjd.reactnative.bluetooth.BluetoothUUID;
 
@@ -13,27 +12,25 @@ public class RfcommAcceptorThreadImpl extends ConnectionAcceptor {
 
     private String mServiceName;
     private boolean mSecure;
-    private boolean mCancelled;
-    private int mNumAccept;
+    private volatile boolean mCancelled;
+    private AcceptMode mMode;
     private BluetoothServerSocket mSocket;
 
     /**
-     * Acceptor threads require the {@link BluetoothAdapter} in order to create the server
+     * Acceptors require the {@link BluetoothAdapter} in order to create the server
      * sockets.
      *
      * @param adapter
-     * @param properties
+     * @param config
      * @throws IOException
      */
-    public RfcommAcceptorThreadImpl(BluetoothAdapter adapter, Properties properties) throws IOException {
-        super(adapter, properties);
-
-        this.setName(String.format("%s__Thread", this.getClass().getSimpleName()));
+    public RfcommAcceptorThreadImpl(BluetoothAdapter adapter, ConnectionConfig config) throws IOException {
+        super(adapter, config);
 
         this.mCancelled = false;
-        this.mSecure = StandardOption.SECURE_SOCKET.get(properties);
-        this.mServiceName = StandardOption.SERVICE_NAME.get(properties);
-        this.mNumAccept = 1;
+        this.mSecure = config.getBoolean(StandardOption.SECURE_SOCKET);
+        this.mServiceName = config.getString(StandardOption.SERVICE_NAME);
+        this.mMode = config.get(ConnectOption.ACCEPT_MODE);
 
         BluetoothServerSocket tmp = null;
         if (mSecure) {
@@ -48,20 +45,20 @@ public class RfcommAcceptorThreadImpl extends ConnectionAcceptor {
     }
 
     @Override
-    protected BluetoothSocket connect(Properties properties) throws IOException {
-        BluetoothSocket[] sockets = new BluetoothSocket[mNumAccept];
-
-        // Keep listening until exception occurs or a socket is returned.
-        int accepted = 0;
-        while (accepted < mNumAccept) {
+    protected BluetoothSocket connect(ConnectionConfig config) throws IOException {
+        // Keep listening until exception occurs or a socket is returned, in server mode
+        // keep going until cancelled
+        while (!mCancelled) {
             try {
                 BluetoothSocket socket = mSocket.accept();
 
-                if (socket != null) {
-                    // if we're good set the socket and continue
-                    // This will allow for multiple sockets later
-                    sockets[accepted++] = socket;
-                }
+                if (socket == null)
+                    continue;
+
+                if (AcceptMode.SINGLE == mMode)
+                    return socket;
+
+                notifyListeners(socket);
             } catch (IOException e) {
                 if (!mCancelled) {
                     disconnect();
@@ -70,7 +67,7 @@ public class RfcommAcceptorThreadImpl extends ConnectionAcceptor {
             }
         }
 
-        return sockets[0];
+        return null;
     }
 
     @Override
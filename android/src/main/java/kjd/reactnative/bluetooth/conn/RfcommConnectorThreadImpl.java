@@ -5,23 +5,20 @@ import android.bluetooth.BluetoothSocket;
 
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
-import java.util.Properties;
 
 import kjd.reactnative.bluetooth.BluetoothUUID;
 
 public class RfcommConnectorThreadImpl extends ConnectionConnector {
 
     private boolean mSecure;
-    private boolean mCancelled;
+    private volatile boolean mCancelled;
     private BluetoothSocket mSocket;
 
-    public RfcommConnectorThreadImpl(BluetoothDevice device, Properties properties) throws IOException {
-        super(device, properties);
-
-        this.setName(String.format("%s_%s__Thread", this.getClass().getSimpleName(), device.getAddress()));
+    public RfcommConnectorThreadImpl(BluetoothDevice device, ConnectionConfig config) throws IOException {
+        super(device, config);
 
         this.mCancelled = false;
-        this.mSecure = StandardOption.SECURE_SOCKET.get(properties);
+        this.mSecure = config.getBoolean(StandardOption.SECURE_SOCKET);
 
         BluetoothSocket tmp = null;
 
@@ -35,11 +32,15 @@ public class RfcommConnectorThreadImpl extends ConnectionConnector {
     }
 
     @Override
-    protected BluetoothSocket connect(Properties properties) throws IOException {
+    protected BluetoothSocket connect(ConnectionConfig config) throws IOException {
         // Now we can actually attempt the connection.
         try {
             mSocket.connect();
         } catch (IOException e) {
+            // There's no point trying the alternative when the socket was closed by cancel
+            if (mCancelled)
+                throw new IOException("Connect was cancelled", e);
+
             try {
                 // Some 4.1 devices have problems, try an alternative way to connect
                 // See https://github.com/don/RCTBluetoothSerialModule/issues/89
@@ -63,6 +64,9 @@ public class RfcommConnectorThreadImpl extends ConnectionConnector {
                     try { this.mSocket.close(); } catch(IOException ignored) {}
                     throw e1;
                 }
+
+                // Previously the closed socket was returned as though connected
+                throw new IOException("Connect was cancelled", e1);
             } catch (IllegalAccessException e1) {
                 throw new IOException(e);
             } catch (InvocationTargetException e1) {
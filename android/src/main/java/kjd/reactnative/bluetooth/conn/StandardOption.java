@@ -4,17 +4,20 @@ import java.nio.charset.Charset;
 import java.util.Properties;
 
 /**
- * Provides some standardized options and method for parsing their values (and default values).
- * They're al lumped here, as opposed to being split into their specific packages/classes,
- * just because.
+ * Provides the options shared by every connection, connector and acceptor, along with the
+ * types selecting which are used.  Options specific to a single connection type are owned by
+ * that type (for example {@link kjd.reactnative.bluetooth.frame.FrameOption}) and registered
+ * with its {@link DeviceConnectionFactory#options()}.
  * <p>
  * Feel free to re-use these options in your custom acceptors, connectors and connections; or
- * provide your own; or just use straight strings to manage them.
+ * provide your own {@link ConnectionOption}(s); or just use straight strings to manage them.
+ * <p>
+ * Values are parsed and validated once, for each connection, by {@link ConnectionConfig}.
  *
  * @author kendavidson
  *
  */
-public enum StandardOption {
+public enum StandardOption implements ConnectionOption {
     /**
      * Allows React Native app to specify the {@link ConnectionConnector} to use when performing
      * a {@code connectToDevice} request.  The default is {@code rfcomm} which is provided by
@@ -49,17 +52,16 @@ public enum StandardOption {
      */
     DEVICE_CHARSET("charset", Charset.class, Charset.forName("ascii")) {
         @Override
-        public <T> T get(Properties properties) {
-            Object value = properties.containsKey(this.name())
-                    ? properties.get(this.name()) : properties.containsKey(this.name().toLowerCase())
-                        ? properties.get(this.name().toLowerCase()) : properties.get(this.code());
-            if (value == null) {
-                value = Charset.forName("ascii");
-            } else if (value instanceof String) {
-                value = Charset.forName((String) value);
+        public Object parse(Object value) {
+            if (value instanceof String) {
+                try {
+                    return Charset.forName((String) value);
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException(
+                            String.format("%s %s is not supported", code(), value), e);
+                }
             }
-
-            return (T) value;
+            return super.parse(value);
         }
     },
 
@@ -70,89 +72,81 @@ public enum StandardOption {
      * slowdowns.
      *
      */
-    READ_TIMEOUT("readTimeout", Integer.class, 0   ),
+    READ_TIMEOUT("readTimeout", Integer.class, 0, 0),
+
+    /**
+     * Determines how the {@link #READ_TIMEOUT} is applied, see {@link ReadPacing}.  Defaults to
+     * {@code fixed} which waits after every read, {@code adaptive} must be requested.
+     */
+    READ_PACING("readPacing", ReadPacing.class, ReadPacing.FIXED),
 
     /**
      * Another hold over from the original was the max size of the buffer.  This defaults to {@code 1024}
      * but in some forks has been increased to allow for more data in a single read.
      */
-    READ_SIZE("readSize", Integer.class, 1024),
+    READ_SIZE("readSize", Integer.class, 1024, 1),
 
     /**
-     * Used by {@link ConnectionAcceptor} and {@link ConnectionConnector} to determine whether to
-     * use secure or insecure sockets.
+     * The maximum number of bytes a connection will buffer while waiting for data to be read.
+     * Buffers start at {@link #READ_SIZE} and grow as required up to this limit.
      */
-    SECURE_SOCKET("secure", Boolean.class, true),
+    READ_BUFFER_LIMIT("readBufferLimit", Integer.class, 64 * 1024, 1),
 
     /**
-     * Used by {@link ConnectionAcceptor} to set a name when other devices find this.
+     * What happens when the {@link #READ_BUFFER_LIMIT} would be exceeded, see
+     * {@link OverflowPolicy}.  Defaults to {@code disconnect}.
      */
-    SERVICE_NAME("serviceName", String.class, "RNBluetoothClassic"),
+    READ_OVERFLOW("readOverflow", OverflowPolicy.class, OverflowPolicy.DISCONNECT),
 
     /**
-     * Currently the default {@link ConnectionAcceptor} allows a single connection then returns
-     * the device.  This was put in to eventually allow multiple connections to be found.  Although
-     * this requires a bit of addition to make it worth while, like notifying of a connected device
-     * upon each accept.   It needs more testing and work so it's just here for reference.
+     * The number of writes allowed to wait for the connection's writer.  When greater than
+     * {@code 0} writes are queued and made on their own thread (see {@link WriteQueue}), the
+     * default of {@code 0} writes on the calling thread.
      */
-    ACCEPT_CONNECTION_NUM("acceptConnectionNumber", Integer.class, 1);
+    WRITE_QUEUE_SIZE("writeQueueSize", Integer.class, 0, 0),
 
-    private String code;
-    private Class clazz;
-    private Object defaultValue;
+    /**
+     * When writes are queued, the maximum number of bytes from adjacent writes which are joined
+     * into a single write.
+     */
+    WRITE_COALESCE_SIZE("writeCoalesceSize", Integer.class, 1024, 1),
 
-    StandardOption(String code, Class clazz, Object defaultValue) {
-        this.code = code;
-        this.clazz = clazz;
-        this.defaultValue = defaultValue;
-    }
+    /**
+     * Used by {@link ConnectionAcceptor} and {@link ConnectionConnector} to determine whether to
+     * use secure or insecure sockets.
+     */
+    SECURE_SOCKET("secure", Boolean.class, true),
+
+    /**
+     * Used by {@link ConnectionAcceptor} to set a name when other devices find this.
+     */
+    SERVICE_NAME("serviceName", String.class, "RNBluetoothClassic");
+
+    private final OptionSpec spec;
 
-    public Class type() {
-        return clazz;
+    StandardOption(String code, Class clazz, Object defaultValue, int... range) {
+        this.spec = new OptionSpec(code, clazz, defaultValue, range);
     }
 
-    public String code() {
-        return code;
+    @Override
+    public OptionSpec spec() {
+        return spec;
     }
 
     /**
-     * Get the current or default value of the {@link StandardOption}.  The property key is checked
-     * in order:
-     * <ul>
-     *     <li>StandardOption name</li>
-     *     <li>StandardOption name as lowercase</li>
-     *     <li>StandardOption code</li>
-     * </ul>
-     * which I'm not a huge fan of, but this will allow for a number of different methodologies
-     * with regards to properties and naming conventions.  In the end hopefully we can
-     * stick with one.
+     * Get the current or default value of the {@link StandardOption}, see
+     * {@link #lookup(java.util.Map)} and {@link #parse(Object)}.
      *
      * @param properties the {@link Properties} provided by the application
      *
      * @param <T> the Type of data this option represents.  Be careful here as this does no
      *           type checking.
      * @return the provided or default value
+     * @throws IllegalArgumentException if the provided value is invalid
+     * @deprecated use a {@link ConnectionConfig}, which parses each option once
      */
+    @Deprecated
     public <T> T get(Properties properties) {
-        Object value = properties.containsKey(this.name())
-            ? properties.get(this.name()) : properties.containsKey(this.name().toLowerCase())
-                ? properties.get(this.name().toLowerCase()) : properties.get(this.code());
-
-        if (value == null || !(this.type().isAssignableFrom(value.getClass()))) {
-            return this.defaultValue();
-        }
-
-        return (T) value;
-    }
-
-    /**
-     * The default value.
-     *
-     * @param <T> the Type of data this option represents.  Be careful here as this does no
-     *          type checking.
-     * @return
-     */
-    public <T> T defaultValue() {
-        return (T) defaultValue;
+        return (T) parse(lookup(properties));
     }
 }
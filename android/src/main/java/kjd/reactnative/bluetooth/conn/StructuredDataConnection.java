@@ -0,0 +1,30 @@
+package kjd.reactnative.bluetooth.conn;
+
+import android.bluetooth.BluetoothDevice;
+
+import com.facebook.react.bridge.ReadableMap;
+
+import kjd.reactnative.android.BiConsumer;
+
+/**
+ * Implemented by {@link DeviceConnection}(s) which parse received messages into structured data,
+ * so that each message is sent to React Native as a map rather than a String which would need to
+ * be parsed on the Javascript thread.  When available the
+ * {@link kjd.reactnative.bluetooth.RNBluetoothClassicModule} registers its read listener with
+ * {@link #onStructuredDataReceived(BiConsumer)} instead of
+ * {@link DeviceConnection#onDataReceived(BiConsumer)}.
+ * <p>
+ * {@link DeviceConnection#clearOnDataReceived()} clears both listeners.
+ *
+ * @author kendavidson
+ */
+public interface StructuredDataConnection extends DeviceConnection {
+
+    /**
+     * Adds the listener provided with each parsed message.  Each map is provided to the listener
+     * once, and shouldn't be used by the connection afterwards.
+     *
+     * @param onDataReceived consumer of parsed messages
+     */
+    void onStructuredDataReceived(BiConsumer<BluetoothDevice, ReadableMap> onDataReceived);
+}
@@ -0,0 +1,218 @@
+package kjd.reactnative.bluetooth.conn;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import kjd.reactnative.android.BiConsumer;
+
+/**
+ * Bounded queue of pending writes for an {@link AbstractDeviceConnection}, served by its own
+ * writer thread so that writes no longer block the calling (React Native bridge) thread.
+ * <p>
+ * When the writer wakes it takes every pending write it can, up to {@code coalesceSize} bytes,
+ * and sends them to the device as a single write.  Each write is completed (successfully or not)
+ * once the bytes have been flushed.  When the queue is full further writes are refused, which
+ * gives a fast producer back pressure instead of an ever growing amount of memory.
+ * <p>
+ * A list of writes can be queued with {@link #offerAll(List, BiConsumer)}, taking a single place
+ * in the queue.  They're written in order, stopping at the first failure.
+ *
+ * @author kendavidson
+ */
+public class WriteQueue implements Runnable {
+
+    private final AbstractDeviceConnection mConnection;
+    private final BlockingQueue<PendingWrite> mQueue;
+    private final int mCoalesceSize;
+
+    /**
+     * Re-used to join the pending writes, allocated on the first coalesced write.
+     */
+    private byte[] mCoalesceBuffer;
+
+    /**
+     * The data of the pending writes being written, re-used by the writer.
+     */
+    private final List<byte[]> mPayloads = new ArrayList<>();
+
+    private volatile boolean mClosed;
+    private volatile Thread mWriter;
+
+    /**
+     * Creates a new {@link WriteQueue}.
+     *
+     * @param connection to which the writes are made
+     * @param capacity the number of writes allowed to wait
+     * @param coalesceSize the maximum number of bytes joined into a single write
+     */
+    WriteQueue(AbstractDeviceConnection connection, int capacity, int coalesceSize) {
+        this.mConnection = connection;
+        this.mQueue = new ArrayBlockingQueue<>(capacity);
+        this.mCoalesceSize = coalesceSize;
+    }
+
+    /**
+     * Queues the data to be written.
+     *
+     * @param data the bytes to write
+     * @param onWritten called with the data and either {@code null} once flushed, or the
+     *                  Exception which caused the write to fail
+     * @throws IOException if the queue is full or closed
+     */
+    public void offer(byte[] data, BiConsumer<byte[], Exception> onWritten) throws IOException {
+        offerAll(Collections.singletonList(data), (written, error) -> onWritten.accept(data, error));
+    }
+
+    /**
+     * Queues the list of data to be written, in order, taking a single place in the queue.  When
+     * a write fails the rest of the list is not written.
+     *
+     * @param data the bytes of each write
+     * @param onWritten called with the number written and either {@code null} once all were
+     *                  flushed, or the Exception which stopped the writes
+     * @throws IOException if the queue is full or closed, in which case nothing is written
+     */
+    public void offerAll(List<byte[]> data, BiConsumer<Integer, Exception> onWritten) throws IOException {
+        if (mClosed)
+            throw new IOException("Connection is closed");
+
+        if (!mQueue.offer(new PendingWrite(data, onWritten)))
+            throw new IOException(
+                    String.format("Write queue is full (%d pending)", mQueue.size()));
+
+        // Closed while offering, the writer may already be gone
+        if (mClosed)
+            failPending(new IOException("Connection is closed"));
+    }
+
+    /**
+     * @return the number of writes waiting
+     */
+    public int size() {
+        return mQueue.size();
+    }
+
+    /**
+     * Stops the writer, anything still waiting is failed.
+     */
+    public void close() {
+        mClosed = true;
+
+        Thread writer = mWriter;
+        if (writer != null)
+            writer.interrupt();
+        else
+            failPending(new IOException("Connection is closed"));
+    }
+
+    @Override
+    public void run() {
+        mWriter = Thread.currentThread();
+        List<PendingWrite> batch = new ArrayList<>();
+
+        try {
+            while (!mClosed) {
+                batch.add(mQueue.take());
+
+                int length = batch.get(0).length;
+                PendingWrite next;
+                while ((next = mQueue.peek()) != null
+                        && length + next.length <= mCoalesceSize) {
+                    batch.add(mQueue.poll());
+                    length += next.length;
+                }
+
+                for (PendingWrite write : batch) {
+                    mPayloads.addAll(write.data);
+                }
+
+                int written = 0;
+                Exception error = null;
+                try {
+                    while (written < mPayloads.size()) {
+                        written = write(written);
+                    }
+                } catch (IOException e) {
+                    error = e;
+                }
+
+                // Those before the failure were written
+                for (PendingWrite write : batch) {
+                    int count = Math.min(written, write.data.size());
+                    written -= count;
+                    write.onWritten.accept(count, count == write.data.size() ? null : error);
+                }
+                batch.clear();
+                mPayloads.clear();
+            }
+        } catch (InterruptedException ignored) {
+            // Closed
+        } finally {
+            mClosed = true;
+            mWriter = null;
+            failPending(new IOException("Connection is closed"));
+        }
+    }
+
+    /**
+     * Writes the payload at {@code from}, joined with as many of the following payloads as fit
+     * within the coalesce size.
+     *
+     * @param from index of the first payload to write
+     * @return the index of the next payload to write
+     * @throws IOException if the write fails
+     */
+    private int write(int from) throws IOException {
+        int to = from + 1;
+        int length = mPayloads.get(from).length;
+        while (to < mPayloads.size() && length + mPayloads.get(to).length <= mCoalesceSize) {
+            length += mPayloads.get(to++).length;
+        }
+
+        if (to == from + 1) {
+            mConnection.writeDirect(mPayloads.get(from), 0, length);
+            return to;
+        }
+
+        if (mCoalesceBuffer == null || mCoalesceBuffer.length < length)
+            mCoalesceBuffer = new byte[Math.max(length, mCoalesceSize)];
+
+        int offset = 0;
+        for (int i = from; i < to; i++) {
+            byte[] data = mPayloads.get(i);
+            System.arraycopy(data, 0, mCoalesceBuffer, offset, data.length);
+            offset += data.length;
+        }
+
+        mConnection.writeDirect(mCoalesceBuffer, 0, length);
+        return to;
+    }
+
+    private void failPending(Exception e) {
+        PendingWrite write;
+        while ((write = mQueue.poll()) != null) {
+            write.onWritten.accept(0, e);
+        }
+    }
+
+    private static class PendingWrite {
+        final List<byte[]> data;
+        final int length;
+        final BiConsumer<Integer, Exception> onWritten;
+
+        PendingWrite(List<byte[]> data, BiConsumer<Integer, Exception> onWritten) {
+            int length = 0;
+            for (byte[] bytes : data) {
+                length += bytes.length;
+            }
+
+            this.data = data;
+            this.length = length;
+            this.onWritten = onWritten;
+        }
+    }
+}
@@ -15,6 +15,11 @@ import kjd.reactnative.bluetooth.Mappable;
 /**
  * Provides wrapping of {@link android.bluetooth.BluetoothDevice} details and communication.
  * Primarily used for providing the {@link Mappable#map()} method.
+ * <p>
+ * Each {@link BluetoothDevice} getter is a Binder call to the Bluetooth service, so the details
+ * used by {@link #map()} are looked up once and kept until {@link #invalidate()} is called.  This
+ * lets the {@link kjd.reactnative.bluetooth.RNBluetoothClassicModule} hold onto a NativeDevice
+ * per address and map it for every message read without going back to the service.
  *
  * @author kendavidson
  */
@@ -23,11 +28,24 @@ public class NativeDevice implements Mappable {
     private BluetoothDevice mDevice;
     private Map<String,Object> mExtra;
 
+    /**
+     * The details last looked up from {@link #mDevice}, null until required.
+     */
+    private volatile Details mDetails;
+
     public NativeDevice(BluetoothDevice device) {
         this.mDevice = device;
         this.mExtra = new HashMap<>();
     }
 
+    /**
+     * Drops the cached details so that they are looked up again on the next {@link #map()}.
+     * Should be called when the device is bonded, renamed, or otherwise changes.
+     */
+    public void invalidate() {
+        mDetails = null;
+    }
+
     public BluetoothDevice getDevice() { return mDevice; }
 
     public String getAddress() {
@@ -67,20 +85,29 @@ public class NativeDevice implements Mappable {
         };
     }
 
+    private Details details() {
+        Details details = mDetails;
+        if (details == null) {
+            mDetails = details = new Details();
+        }
+        return details;
+    }
+
     @Override
     public WritableMap map() {
+        Details details = details();
         WritableMap mapped = Arguments.createMap();
 
-        mapped.putString("name", mDevice.getName() != null ? mDevice.getName() : mDevice.getAddress());
-        mapped.putString("address", mDevice.getAddress());
-        mapped.putString("id", mDevice.getAddress());
-        mapped.putBoolean("bonded", mDevice.getBondState() == BluetoothDevice.BOND_BONDED);
-        mapped.putString("type", this.getBlutoothTypeString());
+        mapped.putString("name", details.name != null ? details.name : details.address);
+        mapped.putString("address", details.address);
+        mapped.putString("id", details.address);
+        mapped.putBoolean("bonded", details.bondState == BluetoothDevice.BOND_BONDED);
+        mapped.putString("type", details.type);
 
-        if (mDevice.getBluetoothClass() != null) {
+        if (details.hasClass) {
             WritableMap deviceClass = Arguments.createMap();
-            deviceClass.putInt("deviceClass", mDevice.getBluetoothClass().getDeviceClass());
-            deviceClass.putInt("majorClass", mDevice.getBluetoothClass().getMajorDeviceClass());
+            deviceClass.putInt("deviceClass", details.deviceClass);
+            deviceClass.putInt("majorClass", details.majorClass);
 
             mapped.putMap("deviceClass", deviceClass);
         }
@@ -89,4 +116,29 @@ public class NativeDevice implements Mappable {
 
         return mapped;
     }
+
+    /**
+     * The {@link BluetoothDevice} values used by {@link #map()}, looked up together.
+     */
+    private class Details {
+        final String name;
+        final String address;
+        final int bondState;
+        final String type;
+        final boolean hasClass;
+        final int deviceClass;
+        final int majorClass;
+
+        Details() {
+            BluetoothClass bluetoothClass = mDevice.getBluetoothClass();
+
+            this.name = mDevice.getName();
+            this.address = mDevice.getAddress();
+            this.bondState = mDevice.getBondState();
+            this.type = getBlutoothTypeString();
+            this.hasClass = bluetoothClass != null;
+            this.deviceClass = hasClass ? bluetoothClass.getDeviceClass() : 0;
+            this.majorClass = hasClass ? bluetoothClass.getMajorDeviceClass() : 0;
+        }
+    }
 }
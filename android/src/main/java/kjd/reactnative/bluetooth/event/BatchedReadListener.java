@@ -0,0 +1,86 @@
+package kjd.reactnative.bluetooth.event;
+
+import android.bluetooth.BluetoothDevice;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gathers the messages provided by a {@link kjd.reactnative.bluetooth.conn.DeviceConnection} and
+ * hands them off as a single batch.  A batch is flushed when either:
+ * <ul>
+ *     <li>it contains {@code batchSize} messages</li>
+ *     <li>the first message in the batch has waited {@code linger} milliseconds</li>
+ * </ul>
+ * This allows high rate connections to cross the React Native bridge once per batch instead of
+ * once per message.  Each batch is provided with the read time of its oldest message.
+ *
+ * @param <T> the type of message being batched
+ *
+ * @author kendavidson
+ */
+public class BatchedReadListener<T> implements TimedReadListener<T> {
+
+    private final int mBatchSize;
+    private final long mLinger;
+    private final ScheduledExecutorService mScheduler;
+    private final TimedReadListener<List<T>> mOnFlush;
+
+    private List<T> mPending;
+    private long mPendingRead;
+    private BluetoothDevice mDevice;
+    private ScheduledFuture<?> mScheduledFlush;
+
+    /**
+     * Creates a new {@link BatchedReadListener}.
+     *
+     * @param batchSize the number of messages which will cause an immediate flush
+     * @param linger the maximum time (milliseconds) the oldest message will wait
+     * @param scheduler used to flush batches which haven't filled
+     * @param onFlush receives each batch
+     */
+    public BatchedReadListener(int batchSize,
+                               long linger,
+                               ScheduledExecutorService scheduler,
+                               TimedReadListener<List<T>> onFlush) {
+        this.mBatchSize = batchSize;
+        this.mLinger = linger;
+        this.mScheduler = scheduler;
+        this.mOnFlush = onFlush;
+        this.mPending = new ArrayList<>(batchSize);
+    }
+
+    @Override
+    public synchronized void accept(BluetoothDevice device, T data, long readNanos) {
+        mDevice = device;
+        if (mPending.isEmpty())
+            mPendingRead = readNanos;
+        mPending.add(data);
+
+        if (mPending.size() >= mBatchSize) {
+            flush();
+        } else if (mScheduledFlush == null) {
+            mScheduledFlush = mScheduler.schedule(this::flush, mLinger, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Sends the currently pending messages (if any) and cancels the scheduled flush.
+     */
+    public synchronized void flush() {
+        if (mScheduledFlush != null) {
+            mScheduledFlush.cancel(false);
+            mScheduledFlush = null;
+        }
+
+        if (mPending.isEmpty())
+            return;
+
+        List<T> batch = mPending;
+        mPending = new ArrayList<>(mBatchSize);
+        mOnFlush.accept(mDevice, batch, mPendingRead);
+    }
+}
@@ -4,8 +4,6 @@ import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.bridge.WritableMap;
 
-import java.util.Calendar;
-
 import kjd.reactnative.bluetooth.Mappable;
 import kjd.reactnative.bluetooth.Utilities;
 
@@ -21,7 +19,7 @@ public abstract class BluetoothEvent implements Mappable {
     public WritableMap map() {
         WritableMap map = Arguments.createMap();
         map.putString("eventType", eventType.name());
-        map.putString("timestamp", Utilities.formatDate(Calendar.getInstance().getTime()));
+        map.putString("timestamp", Utilities.formatDate(System.currentTimeMillis()));
         map.merge(buildMap());
         return map;
     }
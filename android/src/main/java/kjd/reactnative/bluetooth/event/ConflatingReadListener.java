@@ -0,0 +1,251 @@
+package kjd.reactnative.bluetooth.event;
+
+import android.bluetooth.BluetoothDevice;
+
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.ReadableType;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps only the newest message provided by a {@link kjd.reactnative.bluetooth.conn.DeviceConnection}
+ * and hands it off at most once per {@code interval}, for displays which only care about the
+ * latest reading.  Messages replaced before they're sent are counted by {@link #getConflated()}.
+ * <p>
+ * When a {@code key} is provided the newest message is kept per key, and all of them are handed
+ * off together (in the order the keys were first received within the interval).  The key of a
+ * String message is the text before the first occurrence of {@code key} (for example {@code ","}
+ * keys NMEA sentences by address), the key of a map message is the value of its {@code key}
+ * field.  Messages without a key share a single key.  The messages sent together are provided
+ * with the read time of the oldest of them.
+ * <p>
+ * A message arriving after a quiet period is sent immediately, rather than waiting for the
+ * interval.
+ * <p>
+ * With flow control (see {@link ReadOption#READ_FLOW_CONTROL}) each hand off uses one credit.
+ * Without credit messages keep being conflated, rather than being queued, and the newest are
+ * handed off once credit is granted.
+ *
+ * @author kendavidson
+ */
+public class ConflatingReadListener implements TimedReadListener<Object>, ReadCredit {
+
+    private final long mInterval;
+    private final String mKey;
+    private final ScheduledExecutorService mScheduler;
+    private final TimedReadListener<Object> mOnLatest;
+    private final TimedReadListener<List<Object>> mOnLatestByKey;
+    private final AtomicLong mConflated;
+    private final boolean mFlowControl;
+
+    private Object mLatest;
+    private long mLatestRead;
+    private final Map<String, Object> mLatestByKey;
+    private final Map<String, Long> mReadByKey;
+    private BluetoothDevice mDevice;
+    private ScheduledFuture<?> mScheduledFlush;
+    private long mLastFlush;
+    private long mCredit;
+
+    /**
+     * Creates a new {@link ConflatingReadListener}.
+     *
+     * @param interval the minimum time (milliseconds) between messages being handed off
+     * @param key the key separator (String messages) or field (map messages), or null to keep a
+     *            single message
+     * @param scheduler used to send messages which arrive within the interval
+     * @param onLatest receives the newest message, when there is no key
+     * @param onLatestByKey receives the newest message for each key
+     */
+    public ConflatingReadListener(long interval,
+                                  String key,
+                                  ScheduledExecutorService scheduler,
+                                  TimedReadListener<Object> onLatest,
+                                  TimedReadListener<List<Object>> onLatestByKey) {
+        this(interval, key, false, 0, scheduler, onLatest, onLatestByKey);
+    }
+
+    /**
+     * Creates a new {@link ConflatingReadListener}.
+     *
+     * @param interval the minimum time (milliseconds) between messages being handed off
+     * @param key the key separator (String messages) or field (map messages), or null to keep a
+     *            single message
+     * @param flowControl whether messages are only handed off while there is credit
+     * @param credit with flow control, the credit available before the first grant
+     * @param scheduler used to send messages which arrive within the interval
+     * @param onLatest receives the newest message, when there is no key
+     * @param onLatestByKey receives the newest message for each key
+     */
+    public ConflatingReadListener(long interval,
+                                  String key,
+                                  boolean flowControl,
+                                  long credit,
+                                  ScheduledExecutorService scheduler,
+                                  TimedReadListener<Object> onLatest,
+                                  TimedReadListener<List<Object>> onLatestByKey) {
+        this.mFlowControl = flowControl;
+        this.mCredit = credit;
+        this.mInterval = TimeUnit.MILLISECONDS.toNanos(interval);
+        this.mKey = (key == null || key.isEmpty()) ? null : key;
+        this.mScheduler = scheduler;
+        this.mOnLatest = onLatest;
+        this.mOnLatestByKey = onLatestByKey;
+        this.mConflated = new AtomicLong();
+        this.mLatestByKey = new LinkedHashMap<>();
+        this.mReadByKey = new LinkedHashMap<>();
+        this.mLastFlush = System.nanoTime() - mInterval;
+    }
+
+    @Override
+    public synchronized void accept(BluetoothDevice device, Object data, long readNanos) {
+        mDevice = device;
+
+        boolean replaced;
+        if (mKey == null) {
+            replaced = mLatest != null;
+            mLatest = data;
+            mLatestRead = readNanos;
+        } else {
+            String key = key(data);
+            replaced = mLatestByKey.put(key, data) != null;
+            mReadByKey.put(key, readNanos);
+        }
+
+        if (replaced)
+            mConflated.incrementAndGet();
+
+        schedule();
+    }
+
+    /**
+     * Sends the pending message(s) now, or once the interval has passed since the last were
+     * sent.  Without credit nothing is scheduled, {@link #grant(long)} schedules them.
+     */
+    private void schedule() {
+        if (mScheduledFlush != null || (mFlowControl && mCredit <= 0))
+            return;
+
+        long wait = mLastFlush + mInterval - System.nanoTime();
+        if (wait <= 0) {
+            flush();
+        } else {
+            mScheduledFlush = mScheduler.schedule(() -> flush(), wait, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Sends the pending message(s), if any, and cancels the scheduled flush.  With flow
+     * control, nothing is sent without credit.
+     */
+    public synchronized void flush() {
+        flush(false);
+    }
+
+    /**
+     * Sends the pending message(s), whether or not there is credit (none is used).  Used once
+     * the connection has ended so that the newest messages aren't lost.
+     */
+    public synchronized void drain() {
+        flush(true);
+    }
+
+    private void flush(boolean force) {
+        if (mScheduledFlush != null) {
+            mScheduledFlush.cancel(false);
+            mScheduledFlush = null;
+        }
+
+        if (!force && mFlowControl && mCredit <= 0)
+            return;
+
+        if (mKey == null) {
+            if (mLatest == null)
+                return;
+
+            Object latest = mLatest;
+            mLatest = null;
+            mLastFlush = System.nanoTime();
+            if (mFlowControl && !force)
+                mCredit--;
+            mOnLatest.accept(mDevice, latest, mLatestRead);
+        } else {
+            if (mLatestByKey.isEmpty())
+                return;
+
+            List<Object> latest = new ArrayList<>(mLatestByKey.values());
+            long oldestRead = Long.MAX_VALUE;
+            for (long read : mReadByKey.values()) {
+                oldestRead = Math.min(oldestRead, read);
+            }
+            mLatestByKey.clear();
+            mReadByKey.clear();
+            mLastFlush = System.nanoTime();
+            if (mFlowControl && !force)
+                mCredit--;
+            mOnLatestByKey.accept(mDevice, latest, oldestRead);
+        }
+    }
+
+    /**
+     * Adds credit, the pending message(s) are sent once the interval allows.
+     *
+     * @param credit the number of events React Native is ready to receive
+     * @return the credit remaining
+     * @throws IllegalStateException without flow control
+     */
+    @Override
+    public synchronized long grant(long credit) {
+        if (!mFlowControl)
+            throw new IllegalStateException("Read flow control is not enabled");
+
+        mCredit += credit;
+        if (mLatest != null || !mLatestByKey.isEmpty())
+            schedule();
+        return mCredit;
+    }
+
+    @Override
+    public synchronized long getCredit() {
+        return mCredit;
+    }
+
+    public boolean isFlowControlled() {
+        return mFlowControl;
+    }
+
+    /**
+     * The number of messages replaced by a newer message before being sent.
+     *
+     * @return the number of messages dropped
+     */
+    public long getConflated() {
+        return mConflated.get();
+    }
+
+    private String key(Object data) {
+        if (data instanceof ReadableMap) {
+            ReadableMap map = (ReadableMap) data;
+            if (!map.hasKey(mKey))
+                return null;
+
+            ReadableType type = map.getType(mKey);
+            if (ReadableType.String == type)
+                return map.getString(mKey);
+            if (ReadableType.Number == type)
+                return String.valueOf(map.getDouble(mKey));
+            return null;
+        }
+
+        String message = String.valueOf(data);
+        int index = message.indexOf(mKey);
+        return index < 0 ? null : message.substring(0, index);
+    }
+}
@@ -0,0 +1,100 @@
+package kjd.reactnative.bluetooth.event;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.WritableMap;
+
+import java.util.Locale;
+
+import kjd.reactnative.bluetooth.device.NativeDevice;
+
+/**
+ * Reports the progress of a single device within a {@code connectToDevices} request.  Along with
+ * the {@link Status} of the device, the number of devices completed and the total requested are
+ * provided so that applications can show overall progress.
+ *
+ * @author kendavidson
+ */
+public class ConnectProgressEvent extends BluetoothEvent {
+
+    public enum Status {
+        /**
+         * The connection attempt has started.
+         */
+        CONNECTING,
+
+        /**
+         * The device is connected (or was already connected).
+         */
+        CONNECTED,
+
+        /**
+         * The connection attempt failed, or couldn't be started.
+         */
+        FAILED,
+
+        /**
+         * The connection attempt was cancelled after {@code connectTimeout}.
+         */
+        TIMEOUT;
+
+        public String code() {
+            return name().toLowerCase(Locale.US);
+        }
+    }
+
+    private final String address;
+    private final Status status;
+    private final NativeDevice device;
+    private final String error;
+    private final int completed;
+    private final int total;
+
+    /**
+     * Creates a new {@link ConnectProgressEvent}.
+     *
+     * @param address the device address
+     * @param status the status of the device
+     * @param device the device, null if the address isn't valid
+     * @param error the reason for failure, or null
+     * @param completed the number of devices completed
+     * @param total the number of devices requested
+     */
+    public ConnectProgressEvent(String address, Status status, NativeDevice device, String error,
+                                int completed, int total) {
+        super(EventType.DEVICE_CONNECT_PROGRESS);
+        this.address = address;
+        this.status = status;
+        this.device = device;
+        this.error = error;
+        this.completed = completed;
+        this.total = total;
+    }
+
+    /**
+     * The result of the device, as provided (by address) when {@code connectToDevices} resolves.
+     *
+     * @return the status, device and error
+     */
+    public WritableMap result() {
+        WritableMap map = Arguments.createMap();
+        map.putString("status", status.code());
+
+        if (device != null)
+            map.putMap("device", device.map());
+
+        if (error != null)
+            map.putString("error", error);
+
+        return map;
+    }
+
+    @Override
+    public ReadableMap buildMap() {
+        WritableMap map = result();
+        map.putString("address", address);
+        map.putInt("completed", completed);
+        map.putInt("total", total);
+        return map;
+    }
+}
@@ -0,0 +1,134 @@
+package kjd.reactnative.bluetooth.event;
+
+import android.bluetooth.BluetoothDevice;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicLong;
+
+import kjd.reactnative.bluetooth.conn.OverflowPolicy;
+
+/**
+ * Provides credit based flow control between a {@link kjd.reactnative.bluetooth.conn.DeviceConnection}
+ * and the Javascript consumer.  Each message handed off to the wrapped listener uses one credit,
+ * which React Native grants with {@link #grant(long)} once it has processed earlier messages.
+ * Without credit, messages wait in a queue bounded by {@code limit}; when it's full the
+ * {@link OverflowPolicy} is applied:
+ * <ul>
+ *     <li>{@link OverflowPolicy#DROP_OLDEST} the oldest waiting message is dropped</li>
+ *     <li>{@link OverflowPolicy#DROP_NEWEST} the received message is dropped</li>
+ *     <li>{@link OverflowPolicy#DISCONNECT} an {@link IllegalStateException} is thrown, which
+ *     disconnects the connection in the same way as a read buffer overflow</li>
+ * </ul>
+ * This keeps events from piling up in the bridge while the Javascript thread is stalled.
+ *
+ * @author kendavidson
+ */
+public class CreditReadListener implements TimedReadListener<Object>, ReadCredit {
+
+    private final TimedReadListener<Object> mListener;
+    private final int mLimit;
+    private final OverflowPolicy mOverflowPolicy;
+
+    private final ArrayDeque<Object> mQueue;
+    private final ArrayDeque<Long> mQueueReads;
+    private final AtomicLong mDropped;
+    private long mCredit;
+    private BluetoothDevice mDevice;
+
+    /**
+     * Creates a new {@link CreditReadListener}.
+     *
+     * @param credit the credit available before the first grant
+     * @param limit the maximum number of messages waiting for credit
+     * @param overflowPolicy applied when the queue is full
+     * @param listener receives messages while there is credit
+     */
+    public CreditReadListener(long credit,
+                              int limit,
+                              OverflowPolicy overflowPolicy,
+                              TimedReadListener<Object> listener) {
+        this.mCredit = credit;
+        this.mLimit = limit;
+        this.mOverflowPolicy = overflowPolicy;
+        this.mListener = listener;
+        this.mQueue = new ArrayDeque<>();
+        this.mQueueReads = new ArrayDeque<>();
+        this.mDropped = new AtomicLong();
+    }
+
+    @Override
+    public synchronized void accept(BluetoothDevice device, Object data, long readNanos) {
+        mDevice = device;
+
+        if (mCredit > 0 && mQueue.isEmpty()) {
+            mCredit--;
+            mListener.accept(device, data, readNanos);
+            return;
+        }
+
+        if (mQueue.size() >= mLimit) {
+            switch (mOverflowPolicy) {
+                case DROP_OLDEST:
+                    mQueue.poll();
+                    mQueueReads.poll();
+                    mDropped.incrementAndGet();
+                    break;
+                case DROP_NEWEST:
+                    mDropped.incrementAndGet();
+                    return;
+                default:
+                    throw new IllegalStateException(String.format(
+                            "Read credit queue limit of %d messages exceeded", mLimit));
+            }
+        }
+
+        mQueue.add(data);
+        mQueueReads.add(readNanos);
+    }
+
+    @Override
+    public synchronized long grant(long credit) {
+        mCredit += credit;
+
+        Object data;
+        while (mCredit > 0 && (data = mQueue.poll()) != null) {
+            mCredit--;
+            mListener.accept(mDevice, data, mQueueReads.poll());
+        }
+
+        return mCredit;
+    }
+
+    /**
+     * Hands off all of the waiting messages, whether or not there is credit.  Used once the
+     * connection has ended so that messages which were received aren't lost.
+     */
+    public synchronized void drain() {
+        Object data;
+        while ((data = mQueue.poll()) != null) {
+            mListener.accept(mDevice, data, mQueueReads.poll());
+        }
+    }
+
+    /**
+     * The listener receiving the messages, for example a {@link BatchedReadListener}.
+     *
+     * @return the wrapped listener
+     */
+    public TimedReadListener<Object> getListener() {
+        return mListener;
+    }
+
+    @Override
+    public synchronized long getCredit() {
+        return mCredit;
+    }
+
+    public synchronized int getQueueDepth() {
+        return mQueue.size();
+    }
+
+    public long getDropped() {
+        return mDropped.get();
+    }
+}
@@ -50,7 +50,13 @@ public enum EventType {
      * and manage that process.   For example, they could start discovery and then listen for
      * a specific device, once that device is found discovery can be stopped.
      */
-    DEVICE_DISCOVERED("deviceDiscovered");
+    DEVICE_DISCOVERED("deviceDiscovered"),
+
+    /**
+     * Fired during {@code connectToDevices} as each device connection is attempted and
+     * completed, see {@link ConnectProgressEvent}.
+     */
+    DEVICE_CONNECT_PROGRESS("deviceConnectProgress");
 
     public final String code;
     EventType(String code) {
@@ -0,0 +1,23 @@
+package kjd.reactnative.bluetooth.event;
+
+/**
+ * A read listener which only hands off messages while React Native has granted credit, see
+ * {@link ReadOption#READ_FLOW_CONTROL}.  Each message (or event) handed off uses one credit.
+ *
+ * @author kendavidson
+ */
+public interface ReadCredit {
+
+    /**
+     * Adds credit and hands off the waiting messages it allows.
+     *
+     * @param credit the number of messages React Native is ready to receive
+     * @return the credit remaining
+     */
+    long grant(long credit);
+
+    /**
+     * @return the credit remaining
+     */
+    long getCredit();
+}
@@ -0,0 +1,21 @@
+package kjd.reactnative.bluetooth.event;
+
+/**
+ * Which received messages are sent as {@link EventType#DEVICE_READ} events for a connection,
+ * selected with {@link ReadOption#READ_DELIVERY}.
+ *
+ * @author kendavidson
+ */
+public enum ReadDelivery {
+    /**
+     * Every message is sent (individually or in batches).
+     */
+    ALL,
+
+    /**
+     * Only the most recent message (or the most recent message per key) is sent, at most once
+     * per {@link ReadOption#READ_CONFLATE_INTERVAL}.  See
+     * {@link ConflatingReadListener}.
+     */
+    LATEST
+}
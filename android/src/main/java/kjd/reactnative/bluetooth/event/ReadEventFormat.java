@@ -0,0 +1,23 @@
+package kjd.reactnative.bluetooth.event;
+
+/**
+ * The content of the {@link EventType#DEVICE_READ} events sent for a connection, selected with
+ * {@link ReadOption#READ_EVENT_FORMAT}.
+ *
+ * @author kendavidson
+ */
+public enum ReadEventFormat {
+    /**
+     * The original event containing the {@code device}, {@code data} and formatted
+     * {@code timestamp}.
+     */
+    FULL,
+
+    /**
+     * Only the {@code data} and a per connection {@code sequence} number, plus the
+     * {@code timestamp} when {@link ReadOption#READ_TIMESTAMP}
+     * is provided.  The device is already identified by the {@code DEVICE_READ@address} event
+     * name, so it isn't mapped for every message.
+     */
+    COMPACT
+}
@@ -0,0 +1,97 @@
+package kjd.reactnative.bluetooth.event;
+
+import kjd.reactnative.bluetooth.conn.ConnectionOption;
+import kjd.reactnative.bluetooth.conn.OptionSpec;
+import kjd.reactnative.bluetooth.conn.OverflowPolicy;
+
+/**
+ * The options used by the {@link kjd.reactnative.bluetooth.RNBluetoothClassicModule} to create
+ * the read listener of each connection, which decide how received messages are sent to React
+ * Native as {@code DEVICE_READ} events.  These apply to every connection type.
+ *
+ * @author kendavidson
+ */
+public enum ReadOption implements ConnectionOption {
+    /**
+     * Used by the {@link kjd.reactnative.bluetooth.RNBluetoothClassicModule} to gather received
+     * messages and send them to React Native as a single {@code DEVICE_READ} event (with an array
+     * of data) instead of one event per message.  The default of {@code 0} (or {@code 1}) keeps
+     * one event per message.
+     */
+    READ_BATCH_SIZE("readBatchSize", Integer.class, 0, 0),
+
+    /**
+     * When batching reads, the maximum amount of time (milliseconds) a message will wait for the
+     * batch to fill before it's sent anyway.
+     */
+    READ_BATCH_LINGER("readBatchLinger", Integer.class, 20, 0),
+
+    /**
+     * Used by the {@link kjd.reactnative.bluetooth.RNBluetoothClassicModule} to select the
+     * content of {@code DEVICE_READ} events, {@code full} (the default) or {@code compact}.  See
+     * {@link ReadEventFormat}.
+     */
+    READ_EVENT_FORMAT("readEventFormat", ReadEventFormat.class, ReadEventFormat.FULL),
+
+    /**
+     * The {@code timestamp} provided with {@code DEVICE_READ} events: {@code iso}, {@code epoch}
+     * (milliseconds), {@code monotonic} (nanoseconds) or {@code none}.  When not provided
+     * {@code full} events use {@code iso} and {@code compact} events use {@code none}.  See
+     * {@link TimestampFormat}.
+     */
+    READ_TIMESTAMP("readTimestamp", TimestampFormat.class, null),
+
+    /**
+     * Used by the {@link kjd.reactnative.bluetooth.RNBluetoothClassicModule} to select which
+     * messages are sent as {@code DEVICE_READ} events, {@code all} (the default) or
+     * {@code latest}.  See {@link ReadDelivery}.
+     */
+    READ_DELIVERY("readDelivery", ReadDelivery.class, ReadDelivery.ALL),
+
+    /**
+     * With {@code latest} delivery, the minimum time (milliseconds) between
+     * {@code DEVICE_READ} events.
+     */
+    READ_CONFLATE_INTERVAL("readConflateInterval", Integer.class, 100, 1),
+
+    /**
+     * With {@code latest} delivery, keeps the newest message per key rather than a single
+     * message.  String messages are keyed by the text before the first occurrence of this
+     * value, maps by the value of this field.
+     */
+    READ_CONFLATE_KEY("readConflateKey", String.class, null),
+
+    /**
+     * Used by the {@link kjd.reactnative.bluetooth.RNBluetoothClassicModule} to only send
+     * {@code DEVICE_READ} events while React Native has granted credit (with
+     * {@code grantReadCredit}), see {@link CreditReadListener}.
+     */
+    READ_FLOW_CONTROL("readFlowControl", Boolean.class, false),
+
+    /**
+     * With read flow control, the number of messages which can be sent before credit is granted.
+     */
+    READ_INITIAL_CREDIT("readInitialCredit", Integer.class, 0, 0),
+
+    /**
+     * With read flow control, the maximum number of messages waiting for credit.
+     */
+    READ_CREDIT_QUEUE_LIMIT("readCreditQueueLimit", Integer.class, 1024, 1),
+
+    /**
+     * With read flow control, what happens when the {@link #READ_CREDIT_QUEUE_LIMIT} would be
+     * exceeded, see {@link OverflowPolicy}.  Defaults to {@code drop-oldest}.
+     */
+    READ_CREDIT_OVERFLOW("readCreditOverflow", OverflowPolicy.class, OverflowPolicy.DROP_OLDEST);
+
+    private final OptionSpec spec;
+
+    ReadOption(String code, Class clazz, Object defaultValue, int... range) {
+        this.spec = new OptionSpec(code, clazz, defaultValue, range);
+    }
+
+    @Override
+    public OptionSpec spec() {
+        return spec;
+    }
+}
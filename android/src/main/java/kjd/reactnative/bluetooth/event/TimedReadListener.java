@@ -0,0 +1,36 @@
+package kjd.reactnative.bluetooth.event;
+
+import android.bluetooth.BluetoothDevice;
+
+import kjd.reactnative.android.BiConsumer;
+
+/**
+ * A read listener which is also provided the time each message was read, so that listeners
+ * holding messages (for batching, conflation or read credit) can pass it along and the time
+ * until the message is sent to React Native can be recorded.
+ * <p>
+ * Connections hand messages off during the read which completed them, so messages provided
+ * through {@link #accept(Object, Object)} are given the current time.
+ *
+ * @param <T> the type of message
+ *
+ * @author kendavidson
+ */
+@FunctionalInterface
+public interface TimedReadListener<T> extends BiConsumer<BluetoothDevice, T> {
+
+    /**
+     * Provides a message along with the time it was read.
+     *
+     * @param device the device from which the message was read
+     * @param data the message (or batch of messages)
+     * @param readNanos {@link System#nanoTime()} of the read, for a batch the read of the
+     *                  oldest message
+     */
+    void accept(BluetoothDevice device, T data, long readNanos);
+
+    @Override
+    default void accept(BluetoothDevice device, T data) {
+        accept(device, data, System.nanoTime());
+    }
+}
@@ -0,0 +1,65 @@
+package kjd.reactnative.bluetooth.event;
+
+import com.facebook.react.bridge.WritableMap;
+
+import kjd.reactnative.bluetooth.Utilities;
+
+/**
+ * How the {@code timestamp} of {@link EventType#DEVICE_READ} events is provided, selected with
+ * {@link ReadOption#READ_TIMESTAMP}.
+ *
+ * @author kendavidson
+ */
+public enum TimestampFormat {
+    /**
+     * A UTC date String using {@link Utilities#DATE_PATTERN}, the original format.
+     */
+    ISO {
+        @Override
+        public void put(WritableMap map, long epochMillis, long monotonicNanos) {
+            map.putString(KEY, Utilities.formatDate(epochMillis));
+        }
+    },
+
+    /**
+     * Milliseconds since the epoch.
+     */
+    EPOCH {
+        @Override
+        public void put(WritableMap map, long epochMillis, long monotonicNanos) {
+            map.putDouble(KEY, epochMillis);
+        }
+    },
+
+    /**
+     * {@link System#nanoTime()}, which is only useful for comparing against other monotonic
+     * timestamps (the same clock is used by the connection stats).
+     */
+    MONOTONIC {
+        @Override
+        public void put(WritableMap map, long epochMillis, long monotonicNanos) {
+            map.putDouble(KEY, monotonicNanos);
+        }
+    },
+
+    /**
+     * No timestamp is provided.
+     */
+    NONE {
+        @Override
+        public void put(WritableMap map, long epochMillis, long monotonicNanos) {
+            // Nothing to add
+        }
+    };
+
+    private static final String KEY = "timestamp";
+
+    /**
+     * Adds the timestamp to the map.
+     *
+     * @param map the event map
+     * @param epochMillis when the event occurred, {@link System#currentTimeMillis()}
+     * @param monotonicNanos when the event occurred, {@link System#nanoTime()}
+     */
+    public abstract void put(WritableMap map, long epochMillis, long monotonicNanos);
+}
@@ -0,0 +1,129 @@
+package kjd.reactnative.bluetooth.frame;
+
+import java.io.ByteArrayOutputStream;
+
+import kjd.reactnative.bluetooth.conn.ByteRingBuffer;
+import kjd.reactnative.bluetooth.conn.ConnectionConfig;
+
+/**
+ * Frames data on a sequence of delimiter bytes, working directly on the received bytes (no
+ * charset decoding).  The delimiter is provided as hex, for example {@code 7E} or {@code 0D0A},
+ * and isn't included in the frames.  Empty frames (consecutive delimiters) are skipped.
+ * <p>
+ * When no delimiter is found within {@code maxFrameSize} bytes, the data is dropped up to the
+ * next delimiter.
+ *
+ * @author kendavidson
+ */
+public class ByteDelimiterFramer implements Framer {
+
+    private final byte[] mDelimiter;
+    private final int mMaxFrameSize;
+
+    /**
+     * Position (relative to the head of the buffer) up to which data has already been scanned.
+     */
+    private int mScanIndex;
+
+    /**
+     * Dropping an oversized frame, everything up to the next delimiter is skipped.
+     */
+    private boolean mDiscarding;
+
+    public ByteDelimiterFramer(ConnectionConfig config) {
+        this(config.<byte[]>get(FrameOption.FRAME_DELIMITER),
+                config.getInt(FrameOption.MAX_FRAME_SIZE));
+    }
+
+    public ByteDelimiterFramer(byte[] delimiter, int maxFrameSize) {
+        if (delimiter.length == 0)
+            throw new IllegalArgumentException("frameDelimiter must contain at least one byte");
+
+        this.mDelimiter = delimiter;
+        this.mMaxFrameSize = maxFrameSize;
+    }
+
+    @Override
+    public boolean next(ByteRingBuffer buffer, Frame frame) {
+        int index;
+        while ((index = buffer.indexOf(mDelimiter, mScanIndex)) > -1) {
+            mScanIndex = 0;
+
+            if (mDiscarding || index > mMaxFrameSize) {
+                buffer.skip(index + mDelimiter.length);
+                if (mDiscarding) {
+                    // Already reported when discarding started
+                    mDiscarding = false;
+                    continue;
+                }
+
+                frame.reset(0);
+                frame.invalidate();
+                return true;
+            }
+
+            if (index == 0) {
+                buffer.skip(mDelimiter.length);
+                continue;
+            }
+
+            frame.reset(index);
+            buffer.copyTo(0, frame.data(), 0, index);
+            frame.setLength(index);
+            buffer.skip(index + mDelimiter.length);
+            return true;
+        }
+
+        // Keep enough to match a delimiter split between reads
+        int keep = Math.min(buffer.size(), mDelimiter.length - 1);
+
+        if (mDiscarding) {
+            buffer.skip(buffer.size() - keep);
+            mScanIndex = 0;
+            return false;
+        }
+
+        if (buffer.size() - keep > mMaxFrameSize) {
+            buffer.skip(buffer.size() - keep);
+            mScanIndex = 0;
+            mDiscarding = true;
+            frame.reset(0);
+            frame.invalidate();
+            return true;
+        }
+
+        mScanIndex = buffer.size() - keep;
+        return false;
+    }
+
+    /**
+     * Parses hex bytes separated by whitespace and/or commas, each token may have a single
+     * {@code 0x} prefix.  For example {@code "0D0A"}, {@code "0x0D 0x0A"} and {@code "0d,0a"}
+     * are all the same, while {@code "0x0x0D"} or {@code "0D0"} are invalid.
+     *
+     * @param hex the hex String
+     * @return the bytes
+     * @throws IllegalArgumentException if the String isn't valid hex
+     */
+    public static byte[] parseHex(String hex) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        for (String token : hex.trim().split("[\\s,]+")) {
+            if (token.isEmpty())
+                continue;
+
+            int start = token.startsWith("0x") || token.startsWith("0X") ? 2 : 0;
+            int length = token.length() - start;
+            if (length == 0 || length % 2 != 0)
+                throw new IllegalArgumentException(String.format("Invalid hex bytes: %s", hex));
+
+            for (int i = start; i < token.length(); i += 2) {
+                int high = Character.digit(token.charAt(i), 16);
+                int low = Character.digit(token.charAt(i + 1), 16);
+                if (high < 0 || low < 0)
+                    throw new IllegalArgumentException(String.format("Invalid hex bytes: %s", hex));
+                bytes.write((high << 4) | low);
+            }
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,107 @@
+package kjd.reactnative.bluetooth.frame;
+
+import kjd.reactnative.bluetooth.conn.ByteRingBuffer;
+
+/**
+ * Base for framers where frames are separated by a delimiter byte and the content is byte
+ * stuffed (SLIP, COBS, HDLC, etc).  Implementations decode one received byte at a time, so the
+ * received data is de-stuffed into the {@link Frame} in a single pass and partial frames are
+ * carried between reads.
+ *
+ * @author kendavidson
+ */
+public abstract class ByteStuffingFramer implements Framer {
+
+    /**
+     * The byte isn't part of the frame content.
+     */
+    protected static final int SKIP = -1;
+
+    /**
+     * The byte ends the current frame.
+     */
+    protected static final int END = -2;
+
+    /**
+     * The byte ends the current frame, which is to be dropped.
+     */
+    protected static final int ABORT = -3;
+
+    /**
+     * The byte is a protocol error, the current frame is dropped once it ends.
+     */
+    protected static final int INVALID = -4;
+
+    private final int mMaxFrameSize;
+
+    private boolean mInFrame;
+    private boolean mValid;
+
+    protected ByteStuffingFramer(int maxFrameSize) {
+        this.mMaxFrameSize = maxFrameSize;
+    }
+
+    @Override
+    public boolean next(ByteRingBuffer buffer, Frame frame) {
+        int size = buffer.size();
+
+        for (int i = 0; i < size; i++) {
+            if (!mInFrame) {
+                frame.reset(0);
+                mInFrame = true;
+                mValid = true;
+                startFrame();
+            }
+
+            int value = decode(buffer.get(i));
+            if (value >= 0) {
+                if (frame.length() < mMaxFrameSize) {
+                    frame.append((byte) value);
+                } else {
+                    mValid = false;
+                }
+            } else if (value == INVALID) {
+                mValid = false;
+            } else if (value == END || value == ABORT) {
+                boolean valid = endFrame() && mValid && value == END;
+                mInFrame = false;
+
+                // Nothing between delimiters
+                if (valid && frame.length() == 0)
+                    continue;
+
+                if (!valid)
+                    frame.invalidate();
+                buffer.skip(i + 1);
+                return true;
+            }
+        }
+
+        // Everything has been decoded into the frame
+        buffer.skip(size);
+        return false;
+    }
+
+    /**
+     * Called before the first byte of each frame, used to reset any decoding state.
+     */
+    protected abstract void startFrame();
+
+    /**
+     * Decodes the next received byte.
+     *
+     * @param b the received byte
+     * @return the decoded byte value (0 - 255), {@link #SKIP}, {@link #END}, {@link #ABORT} or
+     *          {@link #INVALID}
+     */
+    protected abstract int decode(byte b);
+
+    /**
+     * Called at the end of each frame.
+     *
+     * @return whether the frame ended in a valid state
+     */
+    protected boolean endFrame() {
+        return true;
+    }
+}
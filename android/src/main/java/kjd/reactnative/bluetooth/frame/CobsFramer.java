@@ -0,0 +1,69 @@
+package kjd.reactnative.bluetooth.frame;
+
+import kjd.reactnative.bluetooth.conn.ConnectionConfig;
+
+/**
+ * Consistent Overhead Byte Stuffing framing: frames end with {@code 0x00} and within a frame
+ * each code byte {@code n} is followed by {@code n - 1} data bytes and an implied zero (unless
+ * {@code n} is {@code 0xFF} or it's the last block).
+ *
+ * @author kendavidson
+ */
+public class CobsFramer extends ByteStuffingFramer {
+
+    private static final int DELIMITER = 0x00;
+    private static final int MAX_CODE = 0xFF;
+
+    /**
+     * The current block code.
+     */
+    private int mCode;
+
+    /**
+     * Data bytes remaining within the current block, when {@code 0} the next byte is a code.
+     */
+    private int mRemaining;
+
+    private boolean mFirstBlock;
+
+    public CobsFramer(ConnectionConfig config) {
+        this(config.getInt(FrameOption.MAX_FRAME_SIZE));
+    }
+
+    public CobsFramer(int maxFrameSize) {
+        super(maxFrameSize);
+    }
+
+    @Override
+    protected void startFrame() {
+        mCode = MAX_CODE;
+        mRemaining = 0;
+        mFirstBlock = true;
+    }
+
+    @Override
+    protected int decode(byte b) {
+        int value = b & 0xFF;
+
+        if (value == DELIMITER)
+            return END;
+
+        if (mRemaining > 0) {
+            mRemaining--;
+            return value;
+        }
+
+        // New block, the previous block's implied zero is only added now that we know it
+        // wasn't the last
+        int implied = (!mFirstBlock && mCode != MAX_CODE) ? 0 : SKIP;
+        mFirstBlock = false;
+        mCode = value;
+        mRemaining = value - 1;
+        return implied;
+    }
+
+    @Override
+    protected boolean endFrame() {
+        return mRemaining == 0;
+    }
+}
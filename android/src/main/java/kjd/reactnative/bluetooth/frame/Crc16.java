@@ -0,0 +1,128 @@
+package kjd.reactnative.bluetooth.frame;
+
+/**
+ * Table driven CRC16 variants used to validate frame trailers.  Each variant knows the byte
+ * order of its two byte trailer (which is how it's commonly sent on the wire).  As a
+ * {@link FrameValidator} the trailer is removed from frames which pass.
+ *
+ * @author kendavidson
+ */
+public enum Crc16 implements FrameValidator {
+    /**
+     * CRC-16/CCITT-FALSE, big endian trailer.
+     */
+    CCITT_FALSE(0x1021, 0xFFFF, false, 0x0000),
+
+    /**
+     * CRC-16/XMODEM, big endian trailer.
+     */
+    XMODEM(0x1021, 0x0000, false, 0x0000),
+
+    /**
+     * CRC-16/X-25, the HDLC / PPP frame check sequence, little endian trailer.
+     */
+    X25(0x8408, 0xFFFF, true, 0xFFFF),
+
+    /**
+     * CRC-16/KERMIT, little endian trailer.
+     */
+    KERMIT(0x8408, 0x0000, true, 0x0000),
+
+    /**
+     * CRC-16/MODBUS, little endian trailer.
+     */
+    MODBUS(0xA001, 0xFFFF, true, 0x0000);
+
+    private final int mInit;
+    private final boolean mReflected;
+    private final int mXorOut;
+    private final int[] mTable;
+
+    /**
+     * @param poly the polynomial, already reversed for reflected variants
+     * @param init initial value
+     * @param reflected whether the variant is reflected (LSB first)
+     * @param xorOut applied to the final value
+     */
+    Crc16(int poly, int init, boolean reflected, int xorOut) {
+        this.mInit = init;
+        this.mReflected = reflected;
+        this.mXorOut = xorOut;
+        this.mTable = new int[256];
+
+        for (int i = 0; i < 256; i++) {
+            int crc = reflected ? i : i << 8;
+            for (int bit = 0; bit < 8; bit++) {
+                if (reflected) {
+                    crc = (crc & 0x0001) != 0 ? (crc >>> 1) ^ poly : crc >>> 1;
+                } else {
+                    crc = (crc & 0x8000) != 0 ? (crc << 1) ^ poly : crc << 1;
+                }
+            }
+            mTable[i] = crc & 0xFFFF;
+        }
+    }
+
+    public int compute(byte[] data, int offset, int length) {
+        int crc = mInit;
+        for (int i = offset; i < offset + length; i++) {
+            if (mReflected) {
+                crc = (crc >>> 8) ^ mTable[(crc ^ data[i]) & 0xFF];
+            } else {
+                crc = ((crc << 8) ^ mTable[((crc >>> 8) ^ data[i]) & 0xFF]) & 0xFFFF;
+            }
+        }
+        return crc ^ mXorOut;
+    }
+
+    /**
+     * Checks the two byte CRC trailer at the end of the frame.
+     *
+     * @param frame the frame, including the trailer
+     * @return whether the trailer matches the frame data
+     */
+    public boolean check(Frame frame) {
+        int length = frame.length() - 2;
+        if (length < 0)
+            return false;
+
+        byte[] data = frame.data();
+        int first = data[length] & 0xFF;
+        int second = data[length + 1] & 0xFF;
+        int trailer = mReflected ? first | (second << 8) : (first << 8) | second;
+
+        return compute(data, 0, length) == trailer;
+    }
+
+    /**
+     * Checks the trailer (see {@link #check(Frame)}), removing it when the frame is valid.
+     *
+     * @param frame the frame, including the trailer
+     * @return whether the trailer matches the frame data
+     */
+    @Override
+    public boolean validate(Frame frame) {
+        if (!check(frame))
+            return false;
+
+        frame.setLength(frame.length() - 2);
+        return true;
+    }
+
+    /**
+     * Parses the option value, {@code none} (or blank) results in {@code null}.  Accepts any
+     * case with either {@code -} or {@code _}, and an optional {@code crc16-} prefix.
+     *
+     * @param value the option value
+     * @return the matching {@link Crc16} or null
+     */
+    public static Crc16 parse(String value) {
+        String name = value.trim().toUpperCase().replace('-', '_');
+        if (name.isEmpty() || "NONE".equals(name))
+            return null;
+
+        if (name.startsWith("CRC16_"))
+            name = name.substring("CRC16_".length());
+        return valueOf(name);
+    }
+}
@@ -0,0 +1,18 @@
+package kjd.reactnative.bluetooth.frame;
+
+/**
+ * The byte order of a multi-byte field, see {@link FrameOption#LENGTH_FIELD_BYTE_ORDER}.
+ *
+ * @author kendavidson
+ */
+public enum Endianness {
+    /**
+     * Most significant byte first (network byte order).
+     */
+    BIG,
+
+    /**
+     * Least significant byte first.
+     */
+    LITTLE
+}
@@ -0,0 +1,89 @@
+package kjd.reactnative.bluetooth.frame;
+
+/**
+ * A single frame produced by a {@link Framer}.  The same {@link Frame} is re-used for every
+ * frame on a connection, so the data is only valid until the next call to
+ * {@link Framer#next(kjd.reactnative.bluetooth.conn.ByteRingBuffer, Frame)}.
+ * <p>
+ * Frames which are found to be malformed (too large, failed checks, etc.) are marked as
+ * invalid rather than thrown, the connection counts and drops them.
+ *
+ * @author kendavidson
+ */
+public class Frame {
+
+    private byte[] mData;
+    private int mLength;
+    private boolean mValid;
+
+    public Frame(int initialCapacity) {
+        this.mData = new byte[Math.max(initialCapacity, 16)];
+        this.mLength = 0;
+        this.mValid = true;
+    }
+
+    /**
+     * Provides the backing array, only the first {@link #length()} bytes are part of the frame.
+     *
+     * @return the frame data
+     */
+    public byte[] data() {
+        return mData;
+    }
+
+    public int length() {
+        return mLength;
+    }
+
+    public boolean isValid() {
+        return mValid;
+    }
+
+    /**
+     * Marks the frame as malformed so that it's dropped.
+     */
+    public void invalidate() {
+        mValid = false;
+    }
+
+    /**
+     * Clears the frame ready for the next, ensuring there is room for {@code capacity} bytes.
+     *
+     * @param capacity the expected frame length
+     */
+    public void reset(int capacity) {
+        if (mData.length < capacity) {
+            int size = mData.length;
+            while (size < capacity) {
+                size = size << 1;
+            }
+            mData = new byte[size];
+        }
+
+        mLength = 0;
+        mValid = true;
+    }
+
+    /**
+     * Sets the length after the data has been written directly into {@link #data()}.
+     *
+     * @param length the frame length
+     */
+    public void setLength(int length) {
+        mLength = length;
+    }
+
+    /**
+     * Appends a single byte, growing if required.
+     *
+     * @param b the byte
+     */
+    public void append(byte b) {
+        if (mLength == mData.length) {
+            byte[] data = new byte[mData.length << 1];
+            System.arraycopy(mData, 0, data, 0, mLength);
+            mData = data;
+        }
+        mData[mLength++] = b;
+    }
+}
@@ -0,0 +1,16 @@
+package kjd.reactnative.bluetooth.frame;
+
+/**
+ * The last stage of a {@link FramePipeline}, encoding each frame into the message sent to
+ * React Native.  See {@link FrameEncoding} for the standard encoders.
+ *
+ * @author kendavidson
+ */
+public interface FrameEncoder {
+
+    /**
+     * @param frame the valid frame
+     * @return the message
+     */
+    String encode(Frame frame);
+}
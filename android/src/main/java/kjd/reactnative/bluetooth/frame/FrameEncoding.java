@@ -0,0 +1,51 @@
+package kjd.reactnative.bluetooth.frame;
+
+import android.util.Base64;
+
+/**
+ * How a {@link FramedDeviceConnectionImpl} encodes frames for transfer to React Native.
+ *
+ * @author kendavidson
+ */
+public enum FrameEncoding implements FrameEncoder {
+    BASE64 {
+        @Override
+        public String encode(Frame frame) {
+            return Base64.encodeToString(frame.data(), 0, frame.length(), Base64.NO_WRAP);
+        }
+    },
+
+    /**
+     * Lowercase hex, two characters per byte.
+     */
+    HEX {
+        @Override
+        public String encode(Frame frame) {
+            byte[] data = frame.data();
+            char[] chars = new char[frame.length() * 2];
+            for (int i = 0, c = 0; i < frame.length(); i++) {
+                chars[c++] = HEX_DIGITS[(data[i] >> 4) & 0x0F];
+                chars[c++] = HEX_DIGITS[data[i] & 0x0F];
+            }
+            return new String(chars);
+        }
+    };
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    public abstract String encode(Frame frame);
+
+    /**
+     * @param value the {@link FrameOption#FRAME_ENCODING}
+     * @return the matching {@link FrameEncoding}
+     * @throws IllegalArgumentException if the value isn't {@code base64} or {@code hex}
+     */
+    public static FrameEncoding parse(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(String.format("%s must be base64 or hex, was %s",
+                    FrameOption.FRAME_ENCODING.code(), value), e);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package kjd.reactnative.bluetooth.frame;
+
+import java.util.Collections;
+import java.util.List;
+
+import kjd.reactnative.bluetooth.conn.ConnectionConfig;
+import kjd.reactnative.bluetooth.conn.ConnectionOption;
+import kjd.reactnative.bluetooth.conn.OptionSpec;
+
+/**
+ * The options of the framed connection types ({@code length-prefixed}, {@code binary-delimited},
+ * {@code slip}, {@code cobs}, {@code hdlc} and {@code pipeline}).  Registered by
+ * {@link FramedDeviceConnectionImpl#factory(FramerFactory)} and
+ * {@link PipelineStages#connectionFactory()}, custom framed connections can re-use them in the
+ * same way.
+ *
+ * @author kendavidson
+ */
+public enum FrameOption implements ConnectionOption {
+    /**
+     * Used by {@link LengthFieldFramer}, the number of bytes
+     * before the length field.
+     */
+    LENGTH_FIELD_OFFSET("lengthFieldOffset", Integer.class, 0, 0),
+
+    /**
+     * Used by {@link LengthFieldFramer}, the size of the length
+     * field (1 to 4 bytes).
+     */
+    LENGTH_FIELD_WIDTH("lengthFieldWidth", Integer.class, 2, 1, 4),
+
+    /**
+     * Used by {@link LengthFieldFramer}, either {@code big} or
+     * {@code little} endian.
+     */
+    LENGTH_FIELD_BYTE_ORDER("lengthFieldByteOrder", Endianness.class, Endianness.BIG),
+
+    /**
+     * Used by {@link LengthFieldFramer}, added to the length
+     * field value to get the number of bytes following the field.
+     */
+    LENGTH_ADJUSTMENT("lengthAdjustment", Integer.class, 0),
+
+    /**
+     * The largest frame (in bytes) accepted by framed connections, larger frames are dropped.
+     */
+    MAX_FRAME_SIZE("maxFrameSize", Integer.class, 64 * 1024, 1),
+
+    /**
+     * How framed connections encode each frame, {@code base64} or {@code hex}.
+     */
+    FRAME_ENCODING("frameEncoding", String.class, "base64"),
+
+    /**
+     * Used by {@link ByteDelimiterFramer}, the delimiter bytes
+     * as hex (for example {@code 7E} or {@code 0D0A}), see
+     * {@link ByteDelimiterFramer#parseHex(String)}.
+     */
+    FRAME_DELIMITER("frameDelimiter", byte[].class, new byte[] { 0x0A }) {
+        @Override
+        public Object parse(Object value) {
+            if (value instanceof String) {
+                try {
+                    byte[] delimiter = ByteDelimiterFramer.parseHex((String) value);
+                    if (delimiter.length > 0)
+                        return delimiter;
+                } catch (IllegalArgumentException ignored) {
+                    // Reported below
+                }
+                throw new IllegalArgumentException(String.format(
+                        "%s must be one or more hex bytes (for example 0D0A), was %s", code(), value));
+            }
+            return super.parse(value);
+        }
+    },
+
+    /**
+     * The CRC16 trailer checked (and removed) by framed connections: {@code none},
+     * {@code ccitt-false}, {@code xmodem}, {@code x25}, {@code kermit} or {@code modbus}.  When
+     * not provided the connection type's default is used ({@code x25} for {@code hdlc}, otherwise
+     * {@code none}), see {@link #crc(ConnectionConfig, Crc16)}.
+     */
+    FRAME_CRC("frameCrc", Crc16.class, null) {
+        @Override
+        public Object parse(Object value) {
+            if (value instanceof String) {
+                try {
+                    return Crc16.parse((String) value);
+                } catch (IllegalArgumentException e) {
+                    throw invalid(value);
+                }
+            }
+            return super.parse(value);
+        }
+    },
+
+    /**
+     * The name of the {@link Framer} used by {@code pipeline}
+     * connections, see {@link PipelineStages}.
+     */
+    FRAMER("framer", String.class, null),
+
+    /**
+     * The names of the {@link FrameValidator}(s) run, in order,
+     * by {@code pipeline} connections.  Provided as a list or comma separated String.
+     */
+    FRAME_VALIDATORS("frameValidators", List.class, Collections.emptyList()),
+
+    /**
+     * The names of the {@link FrameTransformer}(s) run, in
+     * order, by {@code pipeline} connections.  Provided as a list or comma separated String.
+     */
+    FRAME_TRANSFORMERS("frameTransformers", List.class, Collections.emptyList());
+
+    private final OptionSpec spec;
+
+    FrameOption(String code, Class clazz, Object defaultValue, int... range) {
+        this.spec = new OptionSpec(code, clazz, defaultValue, range);
+    }
+
+    @Override
+    public OptionSpec spec() {
+        return spec;
+    }
+
+    /**
+     * The {@link #FRAME_CRC} to check, which is null both for {@code none} and when not
+     * provided; only the latter uses the connection type's default.
+     *
+     * @param config the connection options
+     * @param defaultCrc the connection type's CRC, or null
+     * @return the CRC or null for none
+     */
+    public static Crc16 crc(ConnectionConfig config, Crc16 defaultCrc) {
+        return FRAME_CRC.lookup(config.options()) != null ? config.get(FRAME_CRC) : defaultCrc;
+    }
+}
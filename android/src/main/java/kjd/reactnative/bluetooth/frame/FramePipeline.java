@@ -0,0 +1,83 @@
+package kjd.reactnative.bluetooth.frame;
+
+import kjd.reactnative.bluetooth.conn.ByteRingBuffer;
+
+/**
+ * The stages used by a {@link FramedDeviceConnectionImpl} to turn the received bytes into
+ * messages:
+ * <ol>
+ *     <li>a {@link Framer} splits the received bytes into frames</li>
+ *     <li>each {@link FrameValidator} checks the frame, the first to fail drops it</li>
+ *     <li>each {@link FrameTransformer} modifies the frame in place</li>
+ *     <li>the {@link FrameEncoder} creates the message</li>
+ * </ol>
+ * Every stage works on the connection's single {@link Frame}, so nothing is allocated between
+ * stages.  A pipeline belongs to a single connection.
+ *
+ * @author kendavidson
+ */
+public final class FramePipeline {
+
+    private static final FrameValidator[] NO_VALIDATORS = new FrameValidator[0];
+    private static final FrameTransformer[] NO_TRANSFORMERS = new FrameTransformer[0];
+
+    private final Framer mFramer;
+    private final FrameValidator[] mValidators;
+    private final FrameTransformer[] mTransformers;
+    private final FrameEncoder mEncoder;
+
+    /**
+     * Creates a new {@link FramePipeline}.
+     *
+     * @param framer splits the received data
+     * @param validators run in order, may be null
+     * @param transformers run in order, may be null
+     * @param encoder creates the message
+     */
+    public FramePipeline(Framer framer,
+                         FrameValidator[] validators,
+                         FrameTransformer[] transformers,
+                         FrameEncoder encoder) {
+        if (framer == null || encoder == null)
+            throw new IllegalArgumentException("A FramePipeline requires a Framer and FrameEncoder");
+
+        this.mFramer = framer;
+        this.mValidators = validators != null ? validators.clone() : NO_VALIDATORS;
+        this.mTransformers = transformers != null ? transformers.clone() : NO_TRANSFORMERS;
+        this.mEncoder = encoder;
+    }
+
+    /**
+     * See {@link Framer#next(ByteRingBuffer, Frame)}.
+     */
+    public boolean next(ByteRingBuffer buffer, Frame frame) {
+        return mFramer.next(buffer, frame);
+    }
+
+    /**
+     * Runs the validators and transformers on the frame returned by
+     * {@link #next(ByteRingBuffer, Frame)}.
+     *
+     * @param frame the frame
+     * @return false if the frame was found to be malformed and should be dropped
+     */
+    public boolean process(Frame frame) {
+        if (!frame.isValid())
+            return false;
+
+        for (FrameValidator validator : mValidators) {
+            if (!validator.validate(frame))
+                return false;
+        }
+
+        for (FrameTransformer transformer : mTransformers) {
+            transformer.transform(frame);
+        }
+
+        return frame.isValid();
+    }
+
+    public String encode(Frame frame) {
+        return mEncoder.encode(frame);
+    }
+}
@@ -0,0 +1,19 @@
+package kjd.reactnative.bluetooth.frame;
+
+/**
+ * Modifies each valid frame of a {@link FramePipeline} in place, before it's encoded.  For
+ * example removing a header, un-escaping or decrypting.  The frame can grow (see
+ * {@link Frame#reset(int)} and {@link Frame#append(byte)}), but as the same {@link Frame} is
+ * used for every message no copy should be required.
+ * <p>
+ * A transformer can {@link Frame#invalidate()} the frame to have it dropped.
+ *
+ * @author kendavidson
+ */
+public interface FrameTransformer {
+
+    /**
+     * @param frame the frame to be modified
+     */
+    void transform(Frame frame);
+}
@@ -0,0 +1,17 @@
+package kjd.reactnative.bluetooth.frame;
+
+/**
+ * Checks each frame produced by the {@link Framer} of a {@link FramePipeline}, for example
+ * against a checksum.  Validators may shorten the frame (removing a trailer once it's been
+ * checked) but shouldn't otherwise change it.
+ *
+ * @author kendavidson
+ */
+public interface FrameValidator {
+
+    /**
+     * @param frame the frame
+     * @return false if the frame is malformed and should be dropped
+     */
+    boolean validate(Frame frame);
+}
@@ -0,0 +1,314 @@
+package kjd.reactnative.bluetooth.frame;
+
+import android.bluetooth.BluetoothSocket;
+import android.util.Log;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import kjd.reactnative.bluetooth.BuildConfig;
+import kjd.reactnative.bluetooth.conn.AbstractDeviceConnection;
+import kjd.reactnative.bluetooth.conn.ByteRingBuffer;
+import kjd.reactnative.bluetooth.conn.ConnectionConfig;
+import kjd.reactnative.bluetooth.conn.ConnectionOption;
+import kjd.reactnative.bluetooth.conn.DeviceConnection;
+import kjd.reactnative.bluetooth.conn.DeviceConnectionFactory;
+import kjd.reactnative.bluetooth.conn.OverflowPolicy;
+import kjd.reactnative.bluetooth.conn.StandardOption;
+
+/**
+ * Implements a binary {@link kjd.reactnative.bluetooth.conn.DeviceConnection} which uses a
+ * {@link FramePipeline} to split the received bytes into frames.  Each complete frame is
+ * provided as a single message (by default encoded using {@link FrameOption#FRAME_ENCODING}),
+ * so frame boundaries are kept and no reassembly is required within Javascript.
+ * <p>
+ * When there is no read listener, frames are held until they are read; {@link #available()}
+ * returns the number of frames waiting.  Waiting frames are limited to
+ * {@link StandardOption#READ_BUFFER_LIMIT} bytes (of frame data), when exceeded the
+ * {@link StandardOption#READ_OVERFLOW} policy is applied and the dropped frames are counted as
+ * overflows.  When {@link FrameOption#FRAME_CRC} is configured
+ * each frame's two byte CRC trailer is checked (and removed).  Malformed frames are dropped and
+ * counted in the {@link kjd.reactnative.bluetooth.conn.ConnectionStats}.
+ *
+ * @author kendavidson
+ */
+public class FramedDeviceConnectionImpl extends AbstractDeviceConnection {
+
+    /**
+     * Received data waiting to be framed.
+     */
+    private final ByteRingBuffer mBuffer;
+
+    private final FramePipeline mPipeline;
+
+    /**
+     * Re-used for each frame.
+     */
+    private final Frame mFrame;
+
+    /**
+     * Encoded frames waiting to be read, along with the size of each frame's data.
+     */
+    private final Deque<String> mFrames;
+    private final Deque<Integer> mFrameSizes;
+
+    /**
+     * The total size of the frames waiting, limited to {@link #mBufferLimit}.
+     */
+    private int mFramesSize;
+
+    private final int mBufferLimit;
+    private final OverflowPolicy mOverflowPolicy;
+
+    /**
+     * Creates a new {@link FramedDeviceConnectionImpl}.
+     *
+     * @param socket the connected socket
+     * @param config connection options
+     * @param framer splits the received data, this must not be shared between connections
+     */
+    public FramedDeviceConnectionImpl(BluetoothSocket socket, ConnectionConfig config, Framer framer) throws IOException {
+        this(socket, config, framer, null);
+    }
+
+    /**
+     * Creates a new {@link FramedDeviceConnectionImpl}.
+     *
+     * @param socket the connected socket
+     * @param config connection options
+     * @param framer splits the received data, this must not be shared between connections
+     * @param defaultCrc used when {@link FrameOption#FRAME_CRC} isn't provided
+     */
+    public FramedDeviceConnectionImpl(BluetoothSocket socket,
+                                      ConnectionConfig config,
+                                      Framer framer,
+                                      Crc16 defaultCrc) throws IOException {
+        this(socket, config, standardPipeline(config, framer, defaultCrc));
+    }
+
+    /**
+     * Creates a new {@link FramedDeviceConnectionImpl} running the provided stages.
+     *
+     * @param socket the connected socket
+     * @param config connection options
+     * @param pipeline the stages, this must not be shared between connections
+     */
+    public FramedDeviceConnectionImpl(BluetoothSocket socket,
+                                      ConnectionConfig config,
+                                      FramePipeline pipeline) throws IOException {
+        super(socket, config);
+
+        int bufferSize = mConfig.getInt(StandardOption.READ_SIZE);
+        this.mBuffer = new ByteRingBuffer(bufferSize);
+        this.mPipeline = pipeline;
+        this.mFrame = new Frame(bufferSize);
+        this.mFrames = new ArrayDeque<>();
+        this.mFrameSizes = new ArrayDeque<>();
+        this.mFramesSize = 0;
+        this.mBufferLimit = mConfig.getInt(StandardOption.READ_BUFFER_LIMIT);
+        this.mOverflowPolicy = mConfig.get(StandardOption.READ_OVERFLOW);
+    }
+
+    /**
+     * Provides a {@link DeviceConnectionFactory} creating {@link FramedDeviceConnectionImpl}(s),
+     * each with their own {@link Framer}.
+     *
+     * @param framerFactory creates the {@link Framer} for each connection
+     * @return the connection factory
+     */
+    public static DeviceConnectionFactory factory(FramerFactory framerFactory) {
+        return factory(framerFactory, null);
+    }
+
+    /**
+     * Provides a {@link DeviceConnectionFactory} creating {@link FramedDeviceConnectionImpl}(s),
+     * each with their own {@link Framer}, validating frames with {@code defaultCrc} unless
+     * {@link FrameOption#FRAME_CRC} is provided.
+     *
+     * @param framerFactory creates the {@link Framer} for each connection
+     * @param defaultCrc the protocol's CRC, or null
+     * @return the connection factory
+     */
+    public static DeviceConnectionFactory factory(FramerFactory framerFactory, Crc16 defaultCrc) {
+        return pipelineFactory(config ->
+                standardPipeline(config, framerFactory.create(config), defaultCrc));
+    }
+
+    /**
+     * Provides a {@link DeviceConnectionFactory} creating {@link FramedDeviceConnectionImpl}(s),
+     * each running its own {@link FramePipeline}.  A pipeline is also created (and discarded) by
+     * {@link DeviceConnectionFactory#validate(ConnectionConfig)}, so that options only the stages
+     * check are reported before connecting.
+     *
+     * @param pipelineFactory creates the {@link FramePipeline} for each connection
+     * @return the connection factory
+     */
+    public static DeviceConnectionFactory pipelineFactory(StageFactory<FramePipeline> pipelineFactory) {
+        return new DeviceConnectionFactory() {
+            @Override
+            public DeviceConnection create(BluetoothSocket socket, ConnectionConfig config)
+                    throws IOException {
+                return new FramedDeviceConnectionImpl(socket, config, pipelineFactory.create(config));
+            }
+
+            @Override
+            public ConnectionOption[] options() {
+                return FrameOption.values();
+            }
+
+            @Override
+            public void validate(ConnectionConfig config) {
+                pipelineFactory.create(config);
+            }
+        };
+    }
+
+    /**
+     * The pipeline of the standard framed connection types: the framer, the
+     * {@link FrameOption#FRAME_CRC} (or default) validator and the
+     * {@link FrameOption#FRAME_ENCODING}.
+     */
+    private static FramePipeline standardPipeline(ConnectionConfig config, Framer framer, Crc16 defaultCrc) {
+        Crc16 crc = FrameOption.crc(config, defaultCrc);
+
+        return new FramePipeline(framer,
+                crc != null ? new FrameValidator[] { crc } : null,
+                null,
+                FrameEncoding.parse(config.getString(FrameOption.FRAME_ENCODING)));
+    }
+
+    @Override
+    protected void receivedData(byte[] bytes) {
+        receivedData(bytes, 0, bytes.length);
+    }
+
+    @Override
+    protected void receivedData(byte[] buffer, int offset, int length) {
+        if (BuildConfig.DEBUG)
+            Log.d(this.getClass().getSimpleName(),
+                String.format("Received %d bytes from device %s", length, getDevice().getAddress()));
+
+        synchronized (mBuffer) {
+            mBuffer.write(buffer, offset, length);
+            mStats.buffered(mBuffer.size());
+
+            while (mPipeline.next(mBuffer, mFrame)) {
+                if (!mPipeline.process(mFrame)) {
+                    mStats.frameDropped();
+                    continue;
+                }
+
+                mStats.messageReceived();
+                String message = encode(mFrame);
+
+                if (hasDataListener()) {
+                    // Frames held before the listener was added are delivered first
+                    String waiting;
+                    while ((waiting = pollFrame()) != null) {
+                        deliver(waiting);
+                    }
+                    deliver(message);
+                } else {
+                    addFrame(message, mFrame.length());
+                }
+            }
+        }
+    }
+
+    /**
+     * Holds the frame until it's read, applying the {@link StandardOption#READ_OVERFLOW} policy
+     * when the frames waiting would exceed {@link StandardOption#READ_BUFFER_LIMIT}.  Must be
+     * called while holding {@link #mBuffer}.
+     *
+     * @param message the encoded frame
+     * @param size the size of the frame's data
+     */
+    private void addFrame(String message, int size) {
+        int overflow = mFramesSize + size - mBufferLimit;
+        if (overflow > 0) {
+            switch (mOverflowPolicy) {
+                case DROP_OLDEST:
+                    // A single frame larger than the limit is still kept, as the newest data
+                    int dropped = 0;
+                    while (mFramesSize + size > mBufferLimit && !mFrames.isEmpty()) {
+                        int oldest = mFrameSizes.peek();
+                        pollFrame();
+                        dropped += oldest;
+                    }
+                    if (dropped > 0)
+                        mStats.overflow(dropped);
+                    break;
+                case DROP_NEWEST:
+                    mStats.overflow(size);
+                    return;
+                default:
+                    mStats.overflow(overflow);
+                    throw new IllegalStateException(String.format(
+                            "Read buffer limit of %d bytes exceeded", mBufferLimit));
+            }
+        }
+
+        mFrames.add(message);
+        mFrameSizes.add(size);
+        mFramesSize += size;
+        mStats.buffered(mFramesSize);
+    }
+
+    /**
+     * Removes the oldest frame waiting.  Must be called while holding {@link #mBuffer}.
+     *
+     * @return the encoded frame, or null if there are none
+     */
+    private String pollFrame() {
+        String message = mFrames.poll();
+        if (message != null)
+            mFramesSize -= mFrameSizes.poll();
+        return message;
+    }
+
+    /**
+     * Provides the number of complete frames waiting to be read.
+     *
+     * @return the number of frames
+     */
+    @Override
+    public int available() {
+        synchronized (mBuffer) {
+            return mFrames.size();
+        }
+    }
+
+    @Override
+    public boolean clear() {
+        synchronized (mBuffer) {
+            mBuffer.clear();
+            mFrames.clear();
+            mFrameSizes.clear();
+            mFramesSize = 0;
+            return true;
+        }
+    }
+
+    /**
+     * Reads the next frame.
+     *
+     * @return the encoded frame, or null if there are none
+     */
+    @Override
+    public String read() {
+        synchronized (mBuffer) {
+            return pollFrame();
+        }
+    }
+
+    /**
+     * Encodes the frame for transfer to React Native.
+     *
+     * @param frame the frame
+     * @return the encoded frame
+     */
+    protected String encode(Frame frame) {
+        return mPipeline.encode(frame);
+    }
+}
@@ -0,0 +1,30 @@
+package kjd.reactnative.bluetooth.frame;
+
+import kjd.reactnative.bluetooth.conn.ByteRingBuffer;
+
+/**
+ * Splits the data received by a {@link FramedDeviceConnectionImpl} into frames.  Framers work
+ * directly on the received bytes and are called repeatedly until no more complete frames are
+ * available.  A new {@link Framer} is created for each connection so implementations are free
+ * to keep state between calls.
+ *
+ * @author kendavidson
+ */
+public interface Framer {
+
+    /**
+     * Attempts to take the next frame from the head of the {@code buffer}, copying it into
+     * {@code frame}.  The bytes making up the frame (and any bytes which can't be part of a
+     * frame) are removed from the buffer.
+     * <p>
+     * Malformed frames are still returned, but marked {@link Frame#invalidate()}.
+     * <p>
+     * The same {@code frame} is provided to every call and isn't touched by the connection
+     * until a frame is returned, so partial frames can be built up across calls.
+     *
+     * @param buffer the received data
+     * @param frame populated with the next frame
+     * @return true when {@code frame} was populated, false if more data is required
+     */
+    boolean next(ByteRingBuffer buffer, Frame frame);
+}
@@ -0,0 +1,14 @@
+package kjd.reactnative.bluetooth.frame;
+
+import kjd.reactnative.bluetooth.conn.ConnectionConfig;
+
+/**
+ * Creates a {@link Framer} for each new connection.
+ *
+ * @author kendavidson
+ */
+@FunctionalInterface
+public interface FramerFactory extends StageFactory<Framer> {
+    @Override
+    Framer create(ConnectionConfig config);
+}
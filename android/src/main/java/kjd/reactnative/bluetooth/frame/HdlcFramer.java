@@ -0,0 +1,53 @@
+package kjd.reactnative.bluetooth.frame;
+
+import kjd.reactnative.bluetooth.conn.ConnectionConfig;
+
+/**
+ * Asynchronous HDLC (RFC 1662) framing: frames are separated by {@code 0x7E} flags and
+ * {@code 0x7D} escapes the following byte (which is XOR'd with {@code 0x20}).  An escape followed
+ * by a flag aborts the frame.  The frame check sequence is validated by the connection, see
+ * {@link FrameOption#FRAME_CRC} (which defaults to {@link Crc16#X25} for {@code hdlc}).
+ *
+ * @author kendavidson
+ */
+public class HdlcFramer extends ByteStuffingFramer {
+
+    private static final int FLAG = 0x7E;
+    private static final int ESCAPE = 0x7D;
+    private static final int ESCAPE_XOR = 0x20;
+
+    private boolean mEscaped;
+
+    public HdlcFramer(ConnectionConfig config) {
+        this(config.getInt(FrameOption.MAX_FRAME_SIZE));
+    }
+
+    public HdlcFramer(int maxFrameSize) {
+        super(maxFrameSize);
+    }
+
+    @Override
+    protected void startFrame() {
+        mEscaped = false;
+    }
+
+    @Override
+    protected int decode(byte b) {
+        int value = b & 0xFF;
+
+        if (mEscaped) {
+            mEscaped = false;
+            return value == FLAG ? ABORT : value ^ ESCAPE_XOR;
+        }
+
+        if (value == FLAG)
+            return END;
+
+        if (value == ESCAPE) {
+            mEscaped = true;
+            return SKIP;
+        }
+
+        return value;
+    }
+}
@@ -0,0 +1,117 @@
+package kjd.reactnative.bluetooth.frame;
+
+import kjd.reactnative.bluetooth.conn.ByteRingBuffer;
+import kjd.reactnative.bluetooth.conn.ConnectionConfig;
+
+/**
+ * Frames data using a length field within a fixed position header, configured by:
+ * <ul>
+ *     <li><strong>lengthFieldOffset</strong> the number of bytes before the length field.</li>
+ *     <li><strong>lengthFieldWidth</strong> the size (1 to 4 bytes) of the length field.</li>
+ *     <li><strong>lengthFieldByteOrder</strong> {@code big} or {@code little} endian.</li>
+ *     <li><strong>lengthAdjustment</strong> added to the length field value, for when the value
+ *     includes (or excludes) something other than the data following the field.  For example a
+ *     length which includes the header would use {@code -(offset + width)}.</li>
+ *     <li><strong>maxFrameSize</strong> frames larger than this are discarded.</li>
+ * </ul>
+ * The full frame (header included) is provided, so that any fields before the length field
+ * are still available.
+ *
+ * @author kendavidson
+ */
+public class LengthFieldFramer implements Framer {
+
+    private final int mOffset;
+    private final int mWidth;
+    private final boolean mBigEndian;
+    private final int mAdjustment;
+    private final int mMaxFrameSize;
+
+    /**
+     * Bytes remaining from an oversized frame which still need to be discarded.
+     */
+    private long mDiscard;
+
+    public LengthFieldFramer(ConnectionConfig config) {
+        this(config.getInt(FrameOption.LENGTH_FIELD_OFFSET),
+                config.getInt(FrameOption.LENGTH_FIELD_WIDTH),
+                Endianness.BIG == config.get(FrameOption.LENGTH_FIELD_BYTE_ORDER),
+                config.getInt(FrameOption.LENGTH_ADJUSTMENT),
+                config.getInt(FrameOption.MAX_FRAME_SIZE));
+    }
+
+    public LengthFieldFramer(int offset, int width, boolean bigEndian, int adjustment, int maxFrameSize) {
+        if (offset < 0)
+            throw new IllegalArgumentException(
+                    String.format("lengthFieldOffset must not be negative: %d", offset));
+        if (width < 1 || width > 4)
+            throw new IllegalArgumentException(
+                    String.format("lengthFieldWidth must be between 1 and 4: %d", width));
+        if (maxFrameSize < offset + width)
+            throw new IllegalArgumentException(
+                    String.format("maxFrameSize must be at least the header size: %d", maxFrameSize));
+
+        this.mOffset = offset;
+        this.mWidth = width;
+        this.mBigEndian = bigEndian;
+        this.mAdjustment = adjustment;
+        this.mMaxFrameSize = maxFrameSize;
+    }
+
+    @Override
+    public boolean next(ByteRingBuffer buffer, Frame frame) {
+        if (mDiscard > 0) {
+            int skip = (int) Math.min(mDiscard, buffer.size());
+            buffer.skip(skip);
+            mDiscard -= skip;
+            if (mDiscard > 0)
+                return false;
+        }
+
+        int headerLength = mOffset + mWidth;
+        if (buffer.size() < headerLength)
+            return false;
+
+        long frameLength = headerLength + readLength(buffer) + mAdjustment;
+
+        if (frameLength < headerLength) {
+            // Nothing sensible can be done with the length, drop the header and try again
+            frame.reset(0);
+            frame.invalidate();
+            buffer.skip(headerLength);
+            return true;
+        }
+
+        if (frameLength > mMaxFrameSize) {
+            frame.reset(0);
+            frame.invalidate();
+            int skip = (int) Math.min(frameLength, buffer.size());
+            buffer.skip(skip);
+            mDiscard = frameLength - skip;
+            return true;
+        }
+
+        int length = (int) frameLength;
+        if (buffer.size() < length)
+            return false;
+
+        frame.reset(length);
+        buffer.copyTo(0, frame.data(), 0, length);
+        frame.setLength(length);
+        buffer.skip(length);
+        return true;
+    }
+
+    private long readLength(ByteRingBuffer buffer) {
+        long length = 0;
+        for (int i = 0; i < mWidth; i++) {
+            long b = buffer.get(mOffset + i) & 0xFF;
+            if (mBigEndian) {
+                length = (length << 8) | b;
+            } else {
+                length |= b << (8 * i);
+            }
+        }
+        return length;
+    }
+}
@@ -0,0 +1,153 @@
+package kjd.reactnative.bluetooth.frame;
+
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import kjd.reactnative.bluetooth.conn.ConnectionConfig;
+import kjd.reactnative.bluetooth.conn.DeviceConnectionFactory;
+import kjd.reactnative.bluetooth.conn.StandardOption;
+
+/**
+ * The named stages available to {@code pipeline} connections.  Rather than creating a new
+ * {@link kjd.reactnative.bluetooth.conn.DeviceConnection} for each protocol, a connection
+ * selects its stages with the connection options:
+ * <ul>
+ *     <li>{@link FrameOption#FRAMER} - the {@link Framer} (required)</li>
+ *     <li>{@link FrameOption#FRAME_VALIDATORS} - the {@link FrameValidator}(s)</li>
+ *     <li>{@link FrameOption#FRAME_TRANSFORMERS} - the {@link FrameTransformer}(s)</li>
+ *     <li>{@link FrameOption#FRAME_ENCODING} - the {@link FrameEncoder}</li>
+ * </ul>
+ * The {@link #standard()} stages are:
+ * <ul>
+ *     <li>framers: {@code length-field}, {@code delimiter}, {@code slip}, {@code cobs} and
+ *     {@code hdlc}</li>
+ *     <li>validators: {@code crc}, using {@link FrameOption#FRAME_CRC}</li>
+ *     <li>encoders: {@code base64}, {@code hex} and {@code text} (decoded using
+ *     {@link StandardOption#DEVICE_CHARSET})</li>
+ * </ul>
+ * Further stages are registered with the
+ * {@link kjd.reactnative.bluetooth.RNBluetoothClassicPackage.Builder}.
+ *
+ * @author kendavidson
+ */
+public class PipelineStages {
+
+    private final Map<String, FramerFactory> mFramers;
+    private final Map<String, StageFactory<? extends FrameValidator>> mValidators;
+    private final Map<String, StageFactory<? extends FrameTransformer>> mTransformers;
+    private final Map<String, StageFactory<? extends FrameEncoder>> mEncoders;
+
+    public PipelineStages() {
+        this.mFramers = new HashMap<>();
+        this.mValidators = new HashMap<>();
+        this.mTransformers = new HashMap<>();
+        this.mEncoders = new HashMap<>();
+    }
+
+    private PipelineStages(PipelineStages stages) {
+        this.mFramers = new HashMap<>(stages.mFramers);
+        this.mValidators = new HashMap<>(stages.mValidators);
+        this.mTransformers = new HashMap<>(stages.mTransformers);
+        this.mEncoders = new HashMap<>(stages.mEncoders);
+    }
+
+    /**
+     * @return a new {@link PipelineStages} with the standard stages registered
+     */
+    public static PipelineStages standard() {
+        return new PipelineStages()
+                .withFramer("length-field", LengthFieldFramer::new)
+                .withFramer("delimiter", ByteDelimiterFramer::new)
+                .withFramer("slip", SlipFramer::new)
+                .withFramer("cobs", CobsFramer::new)
+                .withFramer("hdlc", HdlcFramer::new)
+                .withValidator("crc", PipelineStages::crc)
+                .withEncoder("base64", config -> FrameEncoding.BASE64)
+                .withEncoder("hex", config -> FrameEncoding.HEX)
+                .withEncoder("text", PipelineStages::text);
+    }
+
+    public PipelineStages withFramer(String name, FramerFactory factory) {
+        mFramers.put(name, factory);
+        return this;
+    }
+
+    public PipelineStages withValidator(String name, StageFactory<? extends FrameValidator> factory) {
+        mValidators.put(name, factory);
+        return this;
+    }
+
+    public PipelineStages withTransformer(String name, StageFactory<? extends FrameTransformer> factory) {
+        mTransformers.put(name, factory);
+        return this;
+    }
+
+    public PipelineStages withEncoder(String name, StageFactory<? extends FrameEncoder> factory) {
+        mEncoders.put(name, factory);
+        return this;
+    }
+
+    /**
+     * Creates the stages selected by the connection options.
+     *
+     * @param config the connection options
+     * @return the pipeline for a single connection
+     * @throws IllegalArgumentException if a stage isn't registered, or its options are invalid
+     */
+    public FramePipeline create(ConnectionConfig config) {
+        String framer = config.getString(FrameOption.FRAMER);
+        if (framer == null)
+            throw new IllegalArgumentException("framer is required by pipeline connections");
+
+        List<String> validatorNames = config.get(FrameOption.FRAME_VALIDATORS);
+        FrameValidator[] validators = new FrameValidator[validatorNames.size()];
+        for (int i = 0; i < validators.length; i++) {
+            validators[i] = lookup(mValidators, "frame validator", validatorNames.get(i)).create(config);
+        }
+
+        List<String> transformerNames = config.get(FrameOption.FRAME_TRANSFORMERS);
+        FrameTransformer[] transformers = new FrameTransformer[transformerNames.size()];
+        for (int i = 0; i < transformers.length; i++) {
+            transformers[i] = lookup(mTransformers, "frame transformer", transformerNames.get(i)).create(config);
+        }
+
+        return new FramePipeline(
+                lookup(mFramers, "framer", framer).create(config),
+                validators,
+                transformers,
+                lookup(mEncoders, "frame encoding", config.getString(FrameOption.FRAME_ENCODING)).create(config));
+    }
+
+    /**
+     * Provides the {@link DeviceConnectionFactory} for {@code pipeline} connections, using the
+     * stages currently registered.  The stage names are checked before connecting.
+     *
+     * @return the connection factory
+     */
+    public DeviceConnectionFactory connectionFactory() {
+        final PipelineStages stages = new PipelineStages(this);
+        return FramedDeviceConnectionImpl.pipelineFactory(stages::create);
+    }
+
+    private static <T> T lookup(Map<String, T> stages, String type, String name) {
+        T stage = stages.get(name);
+        if (stage == null)
+            throw new IllegalArgumentException(
+                    String.format("%s %s is not registered, available are %s", type, name, stages.keySet()));
+        return stage;
+    }
+
+    private static FrameValidator crc(ConnectionConfig config) {
+        Crc16 crc = config.get(FrameOption.FRAME_CRC);
+        if (crc == null)
+            throw new IllegalArgumentException("frameCrc is required by the crc frame validator");
+        return crc;
+    }
+
+    private static FrameEncoder text(ConnectionConfig config) {
+        final Charset charset = config.get(StandardOption.DEVICE_CHARSET);
+        return frame -> new String(frame.data(), 0, frame.length(), charset);
+    }
+}
@@ -0,0 +1,57 @@
+package kjd.reactnative.bluetooth.frame;
+
+import kjd.reactnative.bluetooth.conn.ConnectionConfig;
+
+/**
+ * SLIP (RFC 1055) framing: frames end with {@code 0xC0} with {@code 0xDB 0xDC} and
+ * {@code 0xDB 0xDD} escaping {@code 0xC0} and {@code 0xDB} within the frame.
+ *
+ * @author kendavidson
+ */
+public class SlipFramer extends ByteStuffingFramer {
+
+    private static final int FRAME_END = 0xC0;
+    private static final int FRAME_ESC = 0xDB;
+    private static final int ESC_END = 0xDC;
+    private static final int ESC_ESC = 0xDD;
+
+    private boolean mEscaped;
+
+    public SlipFramer(ConnectionConfig config) {
+        this(config.getInt(FrameOption.MAX_FRAME_SIZE));
+    }
+
+    public SlipFramer(int maxFrameSize) {
+        super(maxFrameSize);
+    }
+
+    @Override
+    protected void startFrame() {
+        mEscaped = false;
+    }
+
+    @Override
+    protected int decode(byte b) {
+        int value = b & 0xFF;
+
+        if (mEscaped) {
+            mEscaped = false;
+            switch (value) {
+                case ESC_END: return FRAME_END;
+                case ESC_ESC: return FRAME_ESC;
+                case FRAME_END: return ABORT;
+                default: return INVALID;
+            }
+        }
+
+        if (value == FRAME_END)
+            return END;
+
+        if (value == FRAME_ESC) {
+            mEscaped = true;
+            return SKIP;
+        }
+
+        return value;
+    }
+}
@@ -0,0 +1,21 @@
+package kjd.reactnative.bluetooth.frame;
+
+import kjd.reactnative.bluetooth.conn.ConnectionConfig;
+
+/**
+ * Creates a stage of a {@link FramePipeline} for each new connection.  Stages which keep no
+ * state can return the same instance every time.
+ *
+ * @param <T> the type of stage
+ * @author kendavidson
+ */
+@FunctionalInterface
+public interface StageFactory<T> {
+
+    /**
+     * @param config the connection options
+     * @return the stage for the connection
+     * @throws IllegalArgumentException if the options required by the stage are invalid
+     */
+    T create(ConnectionConfig config);
+}
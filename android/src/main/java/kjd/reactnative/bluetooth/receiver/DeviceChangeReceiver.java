@@ -0,0 +1,70 @@
+package kjd.reactnative.bluetooth.receiver;
+
+import android.bluetooth.BluetoothDevice;
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.util.Log;
+
+import kjd.reactnative.bluetooth.BuildConfig;
+import kjd.reactnative.bluetooth.RNBluetoothClassicModule;
+
+/**
+ * Provides listening to the {@link BluetoothDevice} events which change the details of a device:
+ * <ul>
+ *  <li>{@link BluetoothDevice#ACTION_BOND_STATE_CHANGED}</li>
+ *  <li>{@link BluetoothDevice#ACTION_NAME_CHANGED}</li>
+ *  <li>{@link BluetoothDevice#ACTION_CLASS_CHANGED}</li>
+ *  <li>{@link BluetoothDevice#ACTION_ACL_CONNECTED}</li>
+ * </ul>
+ * <p>
+ * Used by the {@link RNBluetoothClassicModule} to know when its cached
+ * {@link kjd.reactnative.bluetooth.device.NativeDevice}(s) are out of date.
+ *
+ * @author kendavidson
+ *
+ */
+public class DeviceChangeReceiver extends BroadcastReceiver {
+
+    private DeviceChangeCallback mCallback;
+
+    public DeviceChangeReceiver(DeviceChangeCallback callback) {
+        this.mCallback = callback;
+    }
+
+    @Override
+    public void onReceive(Context context, Intent intent) {
+        final BluetoothDevice device = intent.getParcelableExtra(BluetoothDevice.EXTRA_DEVICE);
+
+        if (device == null)
+            return;
+
+        if (BuildConfig.DEBUG)
+            Log.d(this.getClass().getSimpleName(),
+                    String.format("Device %s changed (%s)", device.getAddress(), intent.getAction()));
+
+        mCallback.onDeviceChanged(device);
+    }
+
+    public static IntentFilter intentFilter() {
+        IntentFilter intent = new IntentFilter();
+        intent.addAction(BluetoothDevice.ACTION_BOND_STATE_CHANGED);
+        intent.addAction(BluetoothDevice.ACTION_NAME_CHANGED);
+        intent.addAction(BluetoothDevice.ACTION_CLASS_CHANGED);
+        intent.addAction(BluetoothDevice.ACTION_ACL_CONNECTED);
+
+        return intent;
+    }
+
+    public interface DeviceChangeCallback {
+
+        /**
+         * The bond state, name, class or connection of the device has changed.
+         *
+         * @param device the {@link BluetoothDevice} which changed
+         */
+        void onDeviceChanged(BluetoothDevice device);
+
+    }
+}
@@ -0,0 +1,300 @@
+package kjd.reactnative.bluetooth;
+
+import android.bluetooth.BluetoothDevice;
+import android.bluetooth.BluetoothSocket;
+
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReadableMap;
+
+import org.junit.After;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import kjd.reactnative.bluetooth.conn.BlockingInputStream;
+import kjd.reactnative.bluetooth.conn.ConnectionConfig;
+import kjd.reactnative.bluetooth.conn.ConnectionConnector;
+
+import static kjd.reactnative.bluetooth.conn.TestConnections.socket;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Checks the attempts made by {@link RNBluetoothClassicModule#connectToDevices}.  Connectors
+ * either connect, fail, or block until they're released (or aborted) by the test.
+ *
+ * @author kendavidson
+ */
+public class ConnectBatchTest {
+
+    private static final long TIMEOUT = 5000;
+
+    private enum Outcome { CONNECT, FAIL, BLOCK }
+
+    private final Map<String, Outcome> mOutcomes = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<TestConnector>> mConnectors = new ConcurrentHashMap<>();
+    private final AtomicInteger mCreated = new AtomicInteger();
+    private final AtomicInteger mRunning = new AtomicInteger();
+    private final AtomicInteger mMaxRunning = new AtomicInteger();
+
+    private TestModule mTestModule;
+    private RNBluetoothClassicModule mModule;
+
+    @After
+    public void closeModule() {
+        if (mTestModule != null)
+            mTestModule.close();
+    }
+
+    @Test
+    public void attemptsAreLimitedToTheConcurrency() throws Exception {
+        createModule(4);
+        for (int i = 0; i < 5; i++)
+            mOutcomes.put(address(i), Outcome.BLOCK);
+
+        Promise promise = connectAll(JavaOnlyMap.of("connectConcurrency", 2),
+                address(0), address(1), address(2), address(3), address(4));
+
+        started(address(0));
+        started(address(1));
+        Thread.sleep(100);
+        assertEquals("Only two attempts should be made", 2, mCreated.get());
+
+        // Each completed attempt starts the next
+        for (int i = 0; i < 5; i++) {
+            started(address(i)).release();
+        }
+
+        ReadableMap results = results(promise);
+        for (int i = 0; i < 5; i++)
+            assertEquals("connected", results.getMap(address(i)).getString("status"));
+        assertEquals(2, mMaxRunning.get());
+    }
+
+    @Test
+    public void concurrencyIsLimitedToTheConnectThreads() throws Exception {
+        createModule(1);
+        mOutcomes.put(address(0), Outcome.BLOCK);
+        mOutcomes.put(address(1), Outcome.BLOCK);
+
+        Promise promise = connectAll(JavaOnlyMap.of("connectConcurrency", 4),
+                address(0), address(1));
+
+        TestConnector first = started(address(0));
+        Thread.sleep(100);
+        assertEquals(1, mCreated.get());
+
+        first.release();
+        started(address(1)).release();
+
+        results(promise);
+        assertEquals(1, mMaxRunning.get());
+    }
+
+    @Test
+    public void resultsAreProvidedForEachAddress() throws Exception {
+        createModule(2);
+        mOutcomes.put(address(1), Outcome.FAIL);
+
+        Promise promise = connectAll(new JavaOnlyMap(),
+                address(0), address(1), "not an address", address(0), 5);
+
+        ReadableMap results = results(promise);
+        assertEquals("connected", results.getMap(address(0)).getString("status"));
+
+        ReadableMap refused = results.getMap(address(1));
+        assertEquals("failed", refused.getString("status"));
+        assertEquals("Connection refused", refused.getString("error"));
+
+        ReadableMap invalid = results.getMap("not an address");
+        assertEquals("failed", invalid.getString("status"));
+        assertEquals("not an address is not a valid address", invalid.getString("error"));
+
+        ReadableMap notString = results.getMap("4");
+        assertEquals("failed", notString.getString("status"));
+        assertEquals("Address at index 4 is not a string", notString.getString("error"));
+
+        // The duplicate address is only attempted once
+        assertEquals(2, mCreated.get());
+        assertTrue(isConnected(address(0)));
+        assertFalse(isConnected(address(1)));
+    }
+
+    @Test
+    public void connectedAndConnectingAddressesAreNotAttempted() throws Exception {
+        createModule(2);
+        mOutcomes.put(address(1), Outcome.BLOCK);
+
+        Promise connected = mock(Promise.class);
+        mModule.connectToDevice(address(0), new JavaOnlyMap(), connected);
+        verify(connected, timeout(TIMEOUT)).resolve(any());
+
+        Promise connecting = mock(Promise.class);
+        mModule.connectToDevice(address(1), new JavaOnlyMap(), connecting);
+        TestConnector blocked = started(address(1));
+
+        ReadableMap results = results(connectAll(new JavaOnlyMap(), address(0), address(1)));
+        assertEquals("connected", results.getMap(address(0)).getString("status"));
+
+        ReadableMap already = results.getMap(address(1));
+        assertEquals("failed", already.getString("status"));
+        assertEquals("Already attempting connection to device " + address(1),
+                already.getString("error"));
+
+        assertEquals(2, mCreated.get());
+
+        // The original attempt isn't affected
+        blocked.release();
+        verify(connecting, timeout(TIMEOUT)).resolve(any());
+    }
+
+    @Test
+    public void timeoutStartsOnceTheConnectorRuns() throws Exception {
+        createModule(1);
+        mOutcomes.put(address(0), Outcome.BLOCK);
+
+        // Hold the only connect thread for longer than the timeout
+        mModule.connectToDevice(address(0), new JavaOnlyMap(), mock(Promise.class));
+        TestConnector blocking = started(address(0));
+
+        Promise promise = connectAll(JavaOnlyMap.of("connectTimeout", 200), address(1));
+        Thread.sleep(400);
+        blocking.release();
+
+        ReadableMap results = results(promise);
+        assertEquals("connected", results.getMap(address(1)).getString("status"));
+        assertFalse(started(address(1)).mCancelled);
+    }
+
+    @Test
+    public void runningConnectorsAreAbortedAfterTheTimeout() throws Exception {
+        createModule(1);
+        mOutcomes.put(address(0), Outcome.BLOCK);
+
+        Promise promise = connectAll(JavaOnlyMap.of("connectTimeout", 200), address(0));
+
+        ReadableMap result = results(promise).getMap(address(0));
+        assertEquals("timeout", result.getString("status"));
+        assertEquals("Connection timed out after 200 ms", result.getString("error"));
+        assertTrue(started(address(0)).mCancelled);
+    }
+
+    private void createModule(int maxConcurrentConnects) {
+        mTestModule = new TestModule(
+                (adapter, config) -> {
+                    throw new IOException("Only connecting in this test");
+                },
+                (device, config) -> {
+                    TestConnector connector = new TestConnector(device, config);
+                    mCreated.incrementAndGet();
+                    connector(device.getAddress()).complete(connector);
+                    return connector;
+                },
+                maxConcurrentConnects);
+        mModule = mTestModule.module();
+    }
+
+    private Promise connectAll(ReadableMap parameters, Object... addresses) {
+        Promise promise = mock(Promise.class);
+        mModule.connectToDevices(JavaOnlyArray.of(addresses), parameters, promise);
+        return promise;
+    }
+
+    private ReadableMap results(Promise promise) {
+        ArgumentCaptor<Object> results = ArgumentCaptor.forClass(Object.class);
+        verify(promise, timeout(TIMEOUT)).resolve(results.capture());
+        return (ReadableMap) results.getValue();
+    }
+
+    private boolean isConnected(String address) {
+        Promise promise = mock(Promise.class);
+        mModule.isDeviceConnected(address, promise);
+
+        ArgumentCaptor<Object> connected = ArgumentCaptor.forClass(Object.class);
+        verify(promise).resolve(connected.capture());
+        return (Boolean) connected.getValue();
+    }
+
+    private CompletableFuture<TestConnector> connector(String address) {
+        return mConnectors.computeIfAbsent(address, a -> new CompletableFuture<>());
+    }
+
+    /**
+     * Waits for the connector of the address to be run.
+     */
+    private TestConnector started(String address) throws Exception {
+        TestConnector connector = connector(address).get(TIMEOUT, TimeUnit.MILLISECONDS);
+        assertTrue(address + " should be connecting",
+                connector.mStarted.await(TIMEOUT, TimeUnit.MILLISECONDS));
+        return connector;
+    }
+
+    private static String address(int i) {
+        return String.format("00:11:22:33:44:%02d", i);
+    }
+
+    /**
+     * Completes with the {@link Outcome} configured for the address, counting the connectors
+     * running at the same time.
+     */
+    private class TestConnector extends ConnectionConnector {
+
+        private final String mAddress;
+        private final Outcome mOutcome;
+        private final CountDownLatch mStarted = new CountDownLatch(1);
+        private final CountDownLatch mRelease = new CountDownLatch(1);
+        private volatile boolean mCancelled;
+
+        TestConnector(BluetoothDevice device, ConnectionConfig config) throws IOException {
+            super(device, config);
+            this.mAddress = device.getAddress();
+            this.mOutcome = mOutcomes.getOrDefault(mAddress, Outcome.CONNECT);
+        }
+
+        @Override
+        protected BluetoothSocket connect(ConnectionConfig config) throws IOException {
+            mMaxRunning.accumulateAndGet(mRunning.incrementAndGet(), Math::max);
+            try {
+                mStarted.countDown();
+                if (mOutcome == Outcome.BLOCK)
+                    mRelease.await();
+
+                if (mCancelled)
+                    throw new IOException("Cancelled");
+                if (mOutcome == Outcome.FAIL)
+                    throw new IOException("Connection refused");
+                return socket(mAddress, new BlockingInputStream(), new ByteArrayOutputStream());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted", e);
+            } finally {
+                mRunning.decrementAndGet();
+            }
+        }
+
+        @Override
+        protected void cancel() {
+            mCancelled = true;
+            mRelease.countDown();
+        }
+
+        void release() {
+            mRelease.countDown();
+        }
+    }
+}
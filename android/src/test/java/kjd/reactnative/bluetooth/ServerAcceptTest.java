@@ -0,0 +1,219 @@
+package kjd.reactnative.bluetooth;
+
+import android.bluetooth.BluetoothAdapter;
+import android.bluetooth.BluetoothSocket;
+
+import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReadableMap;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import kjd.reactnative.bluetooth.conn.BlockingInputStream;
+import kjd.reactnative.bluetooth.conn.ConnectionAcceptor;
+import kjd.reactnative.bluetooth.conn.ConnectionConfig;
+
+import static kjd.reactnative.bluetooth.conn.TestConnections.socket;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Checks {@code server} accept mode, where the acceptor keeps accepting clients until
+ * {@link RNBluetoothClassicModule#cancelAccept(Promise)}.  Clients are sockets whose input
+ * blocks until they're closed, so they stay connected until the module is invalidated.
+ *
+ * @author kendavidson
+ */
+public class ServerAcceptTest {
+
+    private static final long TIMEOUT = 5000;
+
+    private TestModule mTestModule;
+    private RNBluetoothClassicModule mModule;
+    private final BlockingQueue<TestAcceptor> mAcceptors = new LinkedBlockingQueue<>();
+
+    @Before
+    public void createModule() {
+        mTestModule = new TestModule(
+                (adapter, config) -> {
+                    TestAcceptor acceptor = new TestAcceptor(adapter, config);
+                    mAcceptors.add(acceptor);
+                    return acceptor;
+                },
+                (device, config) -> {
+                    throw new IOException("Only accepting in this test");
+                });
+        mModule = mTestModule.module();
+    }
+
+    @After
+    public void closeModule() {
+        mTestModule.close();
+    }
+
+    @Test
+    public void keepsAcceptingClients() throws Exception {
+        TestAcceptor acceptor = acceptServer(3);
+
+        BlockingInputStream[] clients = new BlockingInputStream[3];
+        for (int i = 0; i < clients.length; i++) {
+            clients[i] = new BlockingInputStream();
+            acceptor.accept(client(address(i), clients[i]));
+            assertTrue("Client " + i + " should be reading", clients[i].awaitRead(TIMEOUT));
+        }
+
+        for (int i = 0; i < clients.length; i++) {
+            assertTrue(isConnected(address(i)));
+            assertFalse(clients[i].isClosed());
+        }
+    }
+
+    @Test
+    public void clientsOverTheLimitAreClosed() throws Exception {
+        TestAcceptor acceptor = acceptServer(1);
+
+        BlockingInputStream first = new BlockingInputStream();
+        acceptor.accept(client(address(0), first));
+        assertTrue(first.awaitRead(TIMEOUT));
+
+        BlockingInputStream second = new BlockingInputStream();
+        acceptor.accept(client(address(1), second));
+        assertTrue(second.awaitClosed(TIMEOUT));
+
+        assertTrue(isConnected(address(0)));
+        assertFalse(isConnected(address(1)));
+    }
+
+    @Test
+    public void duplicateSocketFromConnectedDeviceIsClosed() throws Exception {
+        TestAcceptor acceptor = acceptServer(2);
+
+        BlockingInputStream first = new BlockingInputStream();
+        acceptor.accept(client(address(0), first));
+        assertTrue(first.awaitRead(TIMEOUT));
+
+        BlockingInputStream duplicate = new BlockingInputStream();
+        acceptor.accept(client(address(0), duplicate));
+        assertTrue(duplicate.awaitClosed(TIMEOUT));
+
+        // The duplicate doesn't replace or disconnect the original connection, and as it
+        // wasn't counted as a client there is still room for another
+        assertFalse(first.isClosed());
+        assertTrue(isConnected(address(0)));
+
+        BlockingInputStream other = new BlockingInputStream();
+        acceptor.accept(client(address(1), other));
+        assertTrue(other.awaitRead(TIMEOUT));
+        assertTrue(isConnected(address(1)));
+    }
+
+    @Test
+    public void cancelAcceptStopsAccepting() throws Exception {
+        TestAcceptor acceptor = acceptServer(2);
+
+        BlockingInputStream first = new BlockingInputStream();
+        acceptor.accept(client(address(0), first));
+        assertTrue(first.awaitRead(TIMEOUT));
+
+        Promise cancelled = mock(Promise.class);
+        mModule.cancelAccept(cancelled);
+        verify(cancelled).resolve(true);
+        assertTrue(acceptor.mFinished.await(TIMEOUT, TimeUnit.MILLISECONDS));
+
+        // Later clients are no longer accepted, those already connected stay connected
+        BlockingInputStream late = new BlockingInputStream();
+        acceptor.accept(client(address(1), late));
+        assertFalse(late.awaitRead(200));
+        assertFalse(isConnected(address(1)));
+        assertTrue(isConnected(address(0)));
+
+        // and accepting can be started again
+        acceptServer(2);
+    }
+
+    /**
+     * Starts accepting in server mode, returning the acceptor created.
+     */
+    private TestAcceptor acceptServer(int clients) throws InterruptedException {
+        ReadableMap parameters = JavaOnlyMap.of(
+                "acceptMode", "server",
+                "acceptConnectionNumber", clients);
+
+        Promise promise = mock(Promise.class);
+        mModule.accept(parameters, promise);
+        verify(promise).resolve(true);
+
+        TestAcceptor acceptor = mAcceptors.poll(TIMEOUT, TimeUnit.MILLISECONDS);
+        assertNotNull("The acceptor should be created", acceptor);
+        return acceptor;
+    }
+
+    private boolean isConnected(String address) {
+        Promise promise = mock(Promise.class);
+        mModule.isDeviceConnected(address, promise);
+
+        ArgumentCaptor<Object> connected = ArgumentCaptor.forClass(Object.class);
+        verify(promise).resolve(connected.capture());
+        return (Boolean) connected.getValue();
+    }
+
+    private static BluetoothSocket client(String address, BlockingInputStream in) {
+        return socket(address, in, new ByteArrayOutputStream());
+    }
+
+    private static String address(int i) {
+        return String.format("00:11:22:33:44:%02d", i);
+    }
+
+    /**
+     * Hands out the sockets provided by the test until it's cancelled.
+     */
+    private static class TestAcceptor extends ConnectionAcceptor {
+
+        private static final Object CANCELLED = new Object();
+
+        private final BlockingQueue<Object> mSockets = new LinkedBlockingQueue<>();
+        private final CountDownLatch mFinished = new CountDownLatch(1);
+
+        TestAcceptor(BluetoothAdapter adapter, ConnectionConfig config) throws IOException {
+            super(adapter, config);
+        }
+
+        @Override
+        protected BluetoothSocket connect(ConnectionConfig config) {
+            try {
+                Object next;
+                while ((next = mSockets.take()) != CANCELLED) {
+                    notifyListeners((BluetoothSocket) next);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                mFinished.countDown();
+            }
+            return null;
+        }
+
+        @Override
+        public void cancel() {
+            mSockets.add(CANCELLED);
+        }
+
+        void accept(BluetoothSocket socket) {
+            mSockets.add(socket);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package kjd.reactnative.bluetooth;
+
+import android.bluetooth.BluetoothAdapter;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.bridge.ReactApplicationContext;
+
+import org.mockito.MockedStatic;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import kjd.reactnative.bluetooth.conn.ConnectionAcceptor;
+import kjd.reactnative.bluetooth.conn.ConnectionAcceptorFactory;
+import kjd.reactnative.bluetooth.conn.ConnectionConnector;
+import kjd.reactnative.bluetooth.conn.ConnectionConnectorFactory;
+import kjd.reactnative.bluetooth.conn.ConnectionExecutor;
+import kjd.reactnative.bluetooth.conn.DelimitedStringDeviceConnectionImpl;
+import kjd.reactnative.bluetooth.conn.DeviceConnection;
+import kjd.reactnative.bluetooth.conn.StandardOption;
+
+import static kjd.reactnative.bluetooth.conn.TestConnections.device;
+import static org.mockito.Mockito.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.when;
+
+/**
+ * Creates a {@link RNBluetoothClassicModule} for tests, with an enabled adapter and a mocked
+ * React context (without a Catalyst instance events are dropped).  Connections use the default
+ * {@code delimited} type, the acceptor and connector are provided by the test.
+ * <p>
+ * The maps are normally created natively, so {@link Arguments} is mocked to provide Java only
+ * maps.  Static mocks only apply to the thread which created them, so the module is given an
+ * executor which mocks them on each of its threads as well.
+ * <p>
+ * {@link #close()} invalidates the module, disconnecting everything and stopping its threads.
+ *
+ * @author kendavidson
+ */
+public class TestModule implements AutoCloseable {
+
+    private final BluetoothAdapter mAdapter;
+    private final ReactApplicationContext mContext;
+    private final StaticMocks mStaticMocks;
+    private final RNBluetoothClassicModule mModule;
+
+    public TestModule(ConnectionAcceptorFactory acceptorFactory,
+                      ConnectionConnectorFactory connectorFactory) {
+        this(acceptorFactory, connectorFactory, ConnectionExecutor.DEFAULT_MAX_CONCURRENT_CONNECTS);
+    }
+
+    /**
+     * @param acceptorFactory provides the acceptors
+     * @param connectorFactory provides the connectors
+     * @param maxConcurrentConnects the connect threads, further connectors wait for one
+     */
+    public TestModule(ConnectionAcceptorFactory acceptorFactory,
+                      ConnectionConnectorFactory connectorFactory,
+                      int maxConcurrentConnects) {
+        mAdapter = mock(BluetoothAdapter.class);
+        when(mAdapter.isEnabled()).thenReturn(true);
+        when(mAdapter.getRemoteDevice(anyString()))
+                .thenAnswer(invocation -> device(invocation.getArgument(0)));
+        mStaticMocks = new StaticMocks();
+
+        Map<String, ConnectionAcceptorFactory> acceptors = Collections.singletonMap(
+                StandardOption.ACCEPTOR_TYPE.defaultValue(), acceptorFactory);
+        Map<String, ConnectionConnectorFactory> connectors = Collections.singletonMap(
+                StandardOption.CONNECTOR_TYPE.defaultValue(), connectorFactory);
+        mContext = mock(ReactApplicationContext.class);
+        mModule = new RNBluetoothClassicModule(mContext,
+                acceptors, connectors,
+                Collections.singletonMap(StandardOption.CONNECTION_TYPE.defaultValue(),
+                        DelimitedStringDeviceConnectionImpl::new),
+                new TestExecutor(maxConcurrentConnects));
+    }
+
+    public RNBluetoothClassicModule module() {
+        return mModule;
+    }
+
+    /**
+     * The mocked context, which can be given a Catalyst instance to receive the events.
+     */
+    public ReactApplicationContext context() {
+        return mContext;
+    }
+
+    @Override
+    public void close() {
+        try {
+            mModule.invalidate();
+        } finally {
+            mStaticMocks.close();
+        }
+    }
+
+    /**
+     * Runs the task with the static mocks in place on the current thread.
+     */
+    private Runnable withStaticMocks(Runnable task) {
+        return () -> {
+            try (StaticMocks ignored = new StaticMocks()) {
+                task.run();
+            }
+        };
+    }
+
+    /**
+     * The {@link Arguments} and {@link BluetoothAdapter} static mocks for the current thread.
+     */
+    private class StaticMocks implements AutoCloseable {
+        private final MockedStatic<Arguments> mArguments;
+        private final MockedStatic<BluetoothAdapter> mAdapterStatics;
+
+        StaticMocks() {
+            mArguments = mockStatic(Arguments.class);
+            mArguments.when(Arguments::createMap).thenAnswer(invocation -> new JavaOnlyMap());
+            mArguments.when(Arguments::createArray).thenAnswer(invocation -> new JavaOnlyArray());
+
+            mAdapterStatics = mockStatic(BluetoothAdapter.class);
+            mAdapterStatics.when(BluetoothAdapter::getDefaultAdapter).thenReturn(mAdapter);
+            mAdapterStatics.when(() -> BluetoothAdapter.checkBluetoothAddress(anyString()))
+                    .thenAnswer(invocation -> ((String) invocation.getArgument(0)).length() == 17);
+        }
+
+        @Override
+        public void close() {
+            mAdapterStatics.close();
+            mArguments.close();
+        }
+    }
+
+    /**
+     * Runs connectors on {@code maxConcurrentConnects} threads, and everything else on threads
+     * as required, each with the static mocks.
+     */
+    private class TestExecutor extends ConnectionExecutor {
+        private final ExecutorService mConnects;
+        private final ExecutorService mConnections;
+
+        TestExecutor(int maxConcurrentConnects) {
+            super(maxConcurrentConnects, DEFAULT_MAX_CONNECTIONS);
+            mConnects = Executors.newFixedThreadPool(maxConcurrentConnects);
+            mConnections = Executors.newCachedThreadPool();
+        }
+
+        @Override
+        public void connect(String address, ConnectionConnector connector) {
+            mConnects.execute(withStaticMocks(connector));
+        }
+
+        @Override
+        public void connect(String address, ConnectionConnector connector, Runnable onStart) {
+            mConnects.execute(withStaticMocks(() -> {
+                onStart.run();
+                connector.run();
+            }));
+        }
+
+        @Override
+        public void accept(ConnectionAcceptor acceptor) {
+            mConnections.execute(withStaticMocks(acceptor));
+        }
+
+        @Override
+        public void connection(String address, DeviceConnection connection) {
+            mConnections.execute(withStaticMocks(connection));
+        }
+
+        @Override
+        public void execute(String name, Runnable task) {
+            mConnections.execute(withStaticMocks(task));
+        }
+
+        @Override
+        public void shutdown() {
+            mConnects.shutdownNow();
+            mConnections.shutdownNow();
+            super.shutdown();
+        }
+    }
+}
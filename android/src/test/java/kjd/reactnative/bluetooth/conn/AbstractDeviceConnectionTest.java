@@ -0,0 +1,45 @@
+package kjd.reactnative.bluetooth.conn;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static kjd.reactnative.bluetooth.conn.TestConnections.config;
+import static kjd.reactnative.bluetooth.conn.TestConnections.socket;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the read loop of {@link AbstractDeviceConnection}.  The {@link TestConnections#socket()}
+ * input stream is empty, so the first read reports the end of the stream.
+ *
+ * @author kendavidson
+ */
+public class AbstractDeviceConnectionTest {
+
+    @Test(timeout = 5000)
+    public void endOfStreamIsLostConnection() throws Exception {
+        assertLost(config());
+    }
+
+    @Test(timeout = 5000)
+    public void endOfStreamIsLostConnectionWhenAdaptive() throws Exception {
+        assertLost(config("readPacing", "adaptive", "readTimeout", 100));
+    }
+
+    @Test(timeout = 5000)
+    public void endOfStreamIsLostConnectionWhenFixed() throws Exception {
+        assertLost(config("readPacing", "fixed", "readTimeout", 100));
+    }
+
+    private static void assertLost(ConnectionConfig config) throws Exception {
+        DelimitedStringDeviceConnectionImpl connection =
+                new DelimitedStringDeviceConnectionImpl(socket(), config);
+        AtomicReference<Exception> lost = new AtomicReference<>();
+        connection.onDisconnect((device, e) -> lost.set(e));
+
+        // Returns rather than waiting on data which will never arrive
+        connection.run();
+
+        assertTrue(String.valueOf(lost.get()), lost.get() instanceof ConnectionLostException);
+    }
+}
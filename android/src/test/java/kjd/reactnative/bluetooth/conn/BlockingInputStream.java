@@ -0,0 +1,60 @@
+package kjd.reactnative.bluetooth.conn;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The input of a device which stays connected without sending anything, reads block until the
+ * stream (or its socket) is closed.  Lets tests wait for a connection to start reading, or for
+ * its socket to be closed.
+ *
+ * @author kendavidson
+ */
+public class BlockingInputStream extends InputStream {
+
+    private final CountDownLatch mRead = new CountDownLatch(1);
+    private final CountDownLatch mClosed = new CountDownLatch(1);
+
+    @Override
+    public int read() throws IOException {
+        return read(new byte[1], 0, 1);
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+        mRead.countDown();
+        try {
+            mClosed.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return -1;
+    }
+
+    @Override
+    public void close() {
+        mClosed.countDown();
+    }
+
+    /**
+     * @param millis the time to wait
+     * @return whether a read was started within the time
+     */
+    public boolean awaitRead(long millis) throws InterruptedException {
+        return mRead.await(millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @param millis the time to wait
+     * @return whether the stream was closed within the time
+     */
+    public boolean awaitClosed(long millis) throws InterruptedException {
+        return mClosed.await(millis, TimeUnit.MILLISECONDS);
+    }
+
+    public boolean isClosed() {
+        return mClosed.getCount() == 0;
+    }
+}
@@ -0,0 +1,82 @@
+package kjd.reactnative.bluetooth.conn;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Checks {@link ConnectionConfig} parses each registered option once, when it's created (or
+ * parsed), and that reading an option which wasn't registered is an error rather than a parse.
+ *
+ * @author kendavidson
+ */
+public class ConnectionConfigTest {
+
+    @Test
+    public void standardOptionsAreParsedWhenCreated() {
+        ConnectionConfig config = config("readSize", 2048.0, "readPacing", "Adaptive");
+        assertEquals(2048, config.getInt(StandardOption.READ_SIZE));
+        assertEquals(ReadPacing.ADAPTIVE, config.get(StandardOption.READ_PACING));
+        assertEquals("\n", config.getString(StandardOption.DELIMITER));
+    }
+
+    @Test
+    public void readPacingDefaultsToFixed() {
+        assertEquals(ReadPacing.FIXED, config().get(StandardOption.READ_PACING));
+    }
+
+    @Test
+    public void registeredOptionsAreParsed() {
+        ConnectionConfig config = config("nmeaRequireChecksum", false).parse(NmeaOption.values());
+        assertEquals(false, config.getBoolean(NmeaOption.NMEA_REQUIRE_CHECKSUM));
+        assertTrue(config.<java.util.List<String>>get(NmeaOption.NMEA_SENTENCES).isEmpty());
+    }
+
+    @Test
+    public void unregisteredOptionsAreNotParsedOnRead() {
+        ConnectionConfig config = config("nmeaRequireChecksum", false);
+        try {
+            config.get(NmeaOption.NMEA_REQUIRE_CHECKSUM);
+            fail("Unregistered option was read");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("nmeaRequireChecksum"));
+        }
+    }
+
+    @Test
+    public void invalidOptionsAreReportedTogether() {
+        try {
+            config("readSize", 0, "readPacing", "sometimes");
+            fail("Invalid options were accepted");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("readSize must be a whole number of at least 1"));
+            assertTrue(e.getMessage(), e.getMessage().contains("readPacing must be one of adaptive, fixed"));
+        }
+    }
+
+    @Test
+    public void specRange() {
+        assertEquals(1, StandardOption.READ_SIZE.min());
+        assertEquals(Integer.MAX_VALUE, StandardOption.READ_SIZE.max());
+        assertEquals(Integer.MIN_VALUE, StandardOption.DELIMITER.min());
+        assertEquals("readSize", StandardOption.READ_SIZE.code());
+        assertEquals(Integer.class, StandardOption.READ_SIZE.type());
+        assertEquals(Integer.valueOf(1024), StandardOption.READ_SIZE.defaultValue());
+    }
+
+    /**
+     * Only the {@link StandardOption}(s), unlike {@link TestConnections#config(Object...)}.
+     */
+    private static ConnectionConfig config(Object... options) {
+        Map<String, Object> values = new HashMap<>();
+        for (int i = 0; i < options.length; i += 2) {
+            values.put((String) options[i], options[i + 1]);
+        }
+        return ConnectionConfig.from(values);
+    }
+}
@@ -0,0 +1,130 @@
+package kjd.reactnative.bluetooth.conn;
+
+import android.bluetooth.BluetoothSocket;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static kjd.reactnative.bluetooth.conn.TestConnections.ADDRESS;
+import static kjd.reactnative.bluetooth.conn.TestConnections.config;
+import static kjd.reactnative.bluetooth.conn.TestConnections.socket;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Checks the limits applied by the {@link ConnectionExecutor} pools.
+ *
+ * @author kendavidson
+ */
+public class ConnectionExecutorTest {
+
+    private final CountDownLatch mRelease = new CountDownLatch(1);
+    private ConnectionExecutor mExecutor;
+
+    @After
+    public void shutdown() {
+        mRelease.countDown();
+        if (mExecutor != null)
+            mExecutor.shutdown();
+    }
+
+    @Test
+    public void connectsAreQueuedUpToTheLimit() throws Exception {
+        mExecutor = new ConnectionExecutor(1, 2, 1);
+
+        BlockingConnector running = new BlockingConnector();
+        mExecutor.connect(ADDRESS, running);
+        assertTrue(running.mStarted.await(5, TimeUnit.SECONDS));
+
+        mExecutor.connect(ADDRESS, new BlockingConnector());
+        mExecutor.connect(ADDRESS, new BlockingConnector());
+        assertEquals(2, mExecutor.getConnectQueueDepth());
+
+        try {
+            mExecutor.connect(ADDRESS, new BlockingConnector());
+            fail("The connect queue is full");
+        } catch (RejectedExecutionException e) {
+            assertEquals("Too many connection attempts, 2 are already waiting", e.getMessage());
+        }
+        assertEquals(2, mExecutor.getConnectQueueDepth());
+    }
+
+    @Test
+    public void queuedConnectsRunOnceThereIsAThread() throws Exception {
+        mExecutor = new ConnectionExecutor(1, 1, 1);
+
+        BlockingConnector running = new BlockingConnector();
+        BlockingConnector queued = new BlockingConnector();
+        mExecutor.connect(ADDRESS, running);
+        mExecutor.connect(ADDRESS, queued);
+
+        mRelease.countDown();
+        assertTrue(queued.mStarted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void connectsAreRejectedOnceShutdown() throws Exception {
+        mExecutor = new ConnectionExecutor();
+        mExecutor.shutdown();
+
+        try {
+            mExecutor.connect(ADDRESS, new BlockingConnector());
+            fail("The executor has been shut down");
+        } catch (RejectedExecutionException e) {
+            assertEquals("Connection executor has been shut down", e.getMessage());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void connectQueueIsRequired() {
+        new ConnectionExecutor(1, 0, 1);
+    }
+
+    @Test
+    public void cancelledTasksAreRemovedFromTheScheduler() {
+        mExecutor = new ConnectionExecutor();
+        ThreadPoolExecutor scheduler = (ThreadPoolExecutor) mExecutor.scheduler();
+
+        ScheduledFuture<?> timeout = mExecutor.scheduler().schedule(() -> { }, 1, TimeUnit.HOURS);
+        assertEquals(1, scheduler.getQueue().size());
+
+        timeout.cancel(false);
+        assertEquals(0, scheduler.getQueue().size());
+    }
+
+    /**
+     * Waits for the test to release it, failing the connection.
+     */
+    private class BlockingConnector extends ConnectionConnector {
+
+        private final CountDownLatch mStarted = new CountDownLatch(1);
+
+        BlockingConnector() throws IOException {
+            super(socket().getRemoteDevice(), config());
+        }
+
+        @Override
+        protected BluetoothSocket connect(ConnectionConfig config) throws IOException {
+            mStarted.countDown();
+            try {
+                mRelease.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IOException("Released");
+        }
+
+        @Override
+        protected void cancel() {
+            mRelease.countDown();
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package kjd.reactnative.bluetooth.conn;
+
+import org.junit.Test;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static kjd.reactnative.bluetooth.conn.TestConnections.config;
+import static kjd.reactnative.bluetooth.conn.TestConnections.socket;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks the {@link ByteRingBuffer} framing of {@link DelimitedStringDeviceConnectionImpl}
+ * produces the same messages as the original {@link StringBuffer} implementation (decoding every
+ * chunk, re-scanning the whole buffer on {@code available()} and deleting from the front on each
+ * read) when both are given the same chunks.
+ *
+ * @author kendavidson
+ */
+public class DelimitedStringBaselineTest {
+
+    private static final int MESSAGES = 2000;
+    private static final int CHUNK_SIZE = 256;
+
+    @Test
+    public void listenerDeliversTheSameMessages() throws Exception {
+        byte[] data = messages(MESSAGES);
+        List<String> expected = baselineWithListener(data);
+
+        assertEquals(MESSAGES, expected.size());
+        assertEquals(expected, ringWithListener(data));
+    }
+
+    @Test
+    public void backlogReadsTheSameMessages() throws Exception {
+        // Without a listener the application polls available() as data arrives, then reads
+        byte[] data = messages(MESSAGES);
+        List<String> expected = baselineBacklog(data);
+
+        assertEquals(MESSAGES, expected.size());
+        assertEquals(expected, ringBacklog(data));
+    }
+
+    private static List<String> baselineWithListener(byte[] data) {
+        StringBufferConnection connection = new StringBufferConnection("\n", StandardCharsets.UTF_8);
+        List<String> messages = new ArrayList<>(MESSAGES);
+        for (int offset = 0; offset < data.length; offset += CHUNK_SIZE) {
+            connection.receivedData(data, offset, Math.min(CHUNK_SIZE, data.length - offset));
+
+            String message;
+            while ((message = connection.read()) != null) {
+                messages.add(message);
+            }
+        }
+        return messages;
+    }
+
+    private static List<String> ringWithListener(byte[] data) throws Exception {
+        DelimitedStringDeviceConnectionImpl connection =
+                new DelimitedStringDeviceConnectionImpl(socket(), config("charset", "utf-8"));
+        final List<String> messages = new ArrayList<>(MESSAGES);
+        connection.onDataReceived((device, message) -> messages.add(message));
+        TestConnections.receive(connection, data, CHUNK_SIZE);
+        return messages;
+    }
+
+    private static List<String> baselineBacklog(byte[] data) {
+        StringBufferConnection connection = new StringBufferConnection("\n", StandardCharsets.UTF_8);
+        int polls = 0;
+        for (int offset = 0; offset < data.length; offset += CHUNK_SIZE) {
+            connection.receivedData(data, offset, Math.min(CHUNK_SIZE, data.length - offset));
+            polls += connection.available();
+        }
+
+        List<String> messages = new ArrayList<>(polls);
+        String message;
+        while ((message = connection.read()) != null) {
+            messages.add(message);
+        }
+        return messages;
+    }
+
+    private static List<String> ringBacklog(byte[] data) throws Exception {
+        DelimitedStringDeviceConnectionImpl connection =
+                new DelimitedStringDeviceConnectionImpl(socket(), config("charset", "utf-8"));
+        int polls = 0;
+        for (int offset = 0; offset < data.length; offset += CHUNK_SIZE) {
+            connection.receivedData(data, offset, Math.min(CHUNK_SIZE, data.length - offset));
+            polls += connection.available();
+        }
+
+        List<String> messages = new ArrayList<>(polls);
+        String message;
+        while ((message = connection.read()) != null) {
+            messages.add(message);
+        }
+        return messages;
+    }
+
+    private static byte[] messages(int count) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            builder.append("$GPGGA,").append(i).append(",4807.038,N,01131.000,E,1,08,0.9*47\n");
+        }
+        return builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * The original {@link StringBuffer} implementation of the delimited connection, without the
+     * socket and logging.
+     */
+    private static class StringBufferConnection {
+        private final StringBuffer mBuffer = new StringBuffer();
+        private final String mDelimiter;
+        private final Charset mCharset;
+
+        StringBufferConnection(String delimiter, Charset charset) {
+            this.mDelimiter = delimiter;
+            this.mCharset = charset;
+        }
+
+        void receivedData(byte[] bytes, int offset, int length) {
+            synchronized (mBuffer) {
+                mBuffer.append(new String(bytes, offset, length, mCharset));
+            }
+        }
+
+        int available() {
+            synchronized (mBuffer) {
+                int count = 0;
+                int lastIndex = -1;
+                while ((lastIndex = mBuffer.indexOf(mDelimiter, lastIndex + 1)) > -1) {
+                    count++;
+                }
+                return count;
+            }
+        }
+
+        String read() {
+            synchronized (mBuffer) {
+                String message = null;
+                int index = mBuffer.indexOf(mDelimiter, 0);
+                if (index > -1) {
+                    message = mBuffer.substring(0, index);
+                    mBuffer.delete(0, index + mDelimiter.length());
+                }
+                return message;
+            }
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package kjd.reactnative.bluetooth.conn;
+
+import org.junit.Test;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static kjd.reactnative.bluetooth.conn.TestConnections.config;
+import static kjd.reactnative.bluetooth.conn.TestConnections.socket;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that {@link DelimitedStringDeviceConnectionImpl} scans each received byte for
+ * delimiters once, so that {@link DelimitedStringDeviceConnectionImpl#available()} stays
+ * constant time however large the backlog.  Each delimiter found is counted as a received
+ * message, so a re-scan shows up as extra messages.
+ * <p>
+ * Multi-byte characters split between reads must decode the same as when received whole, the
+ * messages are split at every byte offset in each of the {@link #CHARSETS}.  Delimiters must only
+ * be found on whole characters, in charsets where the delimiter's bytes can appear within
+ * another character.
+ *
+ * @author kendavidson
+ */
+public class DelimitedStringDeviceConnectionImplTest {
+
+    private static final int CHUNK_SIZE = 100;
+
+    /**
+     * The characters are 1 to 4 bytes in UTF-8 and 2 or 4 (surrogate pairs) in UTF-16, none of
+     * them contain the delimiter bytes.  The UTF-16 charsets are used without a byte order mark,
+     * as the delimiter is encoded on its own.
+     */
+    private static final List<String> MESSAGES =
+            Arrays.asList("h\u00e9llo \u20acuro", "\ud83d\ude00 \u65e5\u672c\u8a9e", "\u00fcn\u00efc\u00f6d\u00e9 \ud83c\udf0d");
+
+    private static final String[] CHARSETS = { "UTF-8", "UTF-16BE", "UTF-16LE" };
+
+    @Test
+    public void availableDoesNotRescanTheBacklog() throws Exception {
+        DelimitedStringDeviceConnectionImpl connection =
+                new DelimitedStringDeviceConnectionImpl(socket(), config());
+
+        byte[] message = "$GPGGA,123519,4807.038,N,01131.000,E,1,08,0.9*47\n"
+                .getBytes(StandardCharsets.US_ASCII);
+        int messages = 50000;
+
+        for (int i = 0; i < messages; i++) {
+            TestConnections.receive(connection, message, 17);
+
+            assertEquals(i + 1, connection.available());
+            int scanIndex = connection.getScanIndex();
+            for (int poll = 0; poll < 3; poll++) {
+                assertEquals(i + 1, connection.available());
+            }
+
+            // Polling doesn't scan, and every delimiter was only found once
+            assertEquals(scanIndex, connection.getScanIndex());
+            assertEquals(i + 1, connection.getStats().getMessagesReceived());
+        }
+
+        assertEquals((long) messages * message.length, connection.getScanIndex());
+    }
+
+    @Test
+    public void longMessageIsScannedOnce() throws Exception {
+        DelimitedStringDeviceConnectionImpl connection =
+                new DelimitedStringDeviceConnectionImpl(socket(), config("delimiter", "\r\n"));
+
+        byte[] chunk = new byte[CHUNK_SIZE];
+        for (int i = 0; i < chunk.length; i++) {
+            chunk[i] = (byte) ('a' + (i % 26));
+        }
+        // A delimiter split across the chunks
+        chunk[chunk.length - 1] = '\r';
+
+        int received = 0;
+        for (int i = 0; i < 10000; i++) {
+            connection.receivedData(chunk);
+            received += chunk.length;
+
+            // Only the partial delimiter at the end is left to be scanned again
+            assertEquals(received - 1, connection.getScanIndex());
+            assertEquals(0, connection.available());
+        }
+
+        byte[] end = "\nnext".getBytes(StandardCharsets.US_ASCII);
+        connection.receivedData(end);
+        assertEquals(1, connection.available());
+        assertEquals(1, connection.getStats().getMessagesReceived());
+    }
+
+    @Test
+    public void readMovesTheScanIndex() throws Exception {
+        DelimitedStringDeviceConnectionImpl connection =
+                new DelimitedStringDeviceConnectionImpl(socket(), config());
+
+        byte[] data = "one\ntwo\nthree\nfour".getBytes(StandardCharsets.US_ASCII);
+        TestConnections.receive(connection, data, 3);
+        assertEquals(3, connection.available());
+        int scanIndex = connection.getScanIndex();
+
+        assertEquals("one", connection.read());
+        assertEquals(2, connection.available());
+        assertEquals(scanIndex - 4, connection.getScanIndex());
+
+        assertEquals("two", connection.read());
+        assertEquals("three", connection.read());
+        assertNull(connection.read());
+        assertEquals(0, connection.available());
+
+        byte[] end = "\n".getBytes(StandardCharsets.US_ASCII);
+        connection.receivedData(end);
+        assertEquals(1, connection.available());
+        assertEquals("four", connection.read());
+        assertEquals(4, connection.getStats().getMessagesReceived());
+    }
+
+    @Test
+    public void delimitedMessagesSplitAtEveryOffset() throws Exception {
+        String text = String.join("\n", MESSAGES) + "\n";
+
+        for (String charset : CHARSETS) {
+            byte[] data = text.getBytes(Charset.forName(charset));
+
+            for (int split = 1; split < data.length; split++) {
+                DelimitedStringDeviceConnectionImpl connection = new DelimitedStringDeviceConnectionImpl(
+                        socket(), config("charset", charset));
+                receiveSplit(connection, data, split);
+
+                List<String> messages = new ArrayList<>();
+                String message;
+                while ((message = connection.read()) != null) {
+                    messages.add(message);
+                }
+                assertEquals(charset + " split at " + split, MESSAGES, messages);
+            }
+
+            DelimitedStringDeviceConnectionImpl connection = new DelimitedStringDeviceConnectionImpl(
+                    socket(), config("charset", charset));
+            List<String> delivered = new ArrayList<>();
+            connection.onDataReceived((device, message) -> delivered.add(message));
+            TestConnections.receive(connection, data, 1);
+            assertEquals(charset + " a byte at a time", MESSAGES, delivered);
+        }
+    }
+
+    @Test
+    public void blankDelimiterSplitAtEveryOffset() throws Exception {
+        String text = String.join("", MESSAGES);
+
+        for (String charset : CHARSETS) {
+            byte[] data = text.getBytes(Charset.forName(charset));
+
+            for (int split = 1; split < data.length; split++) {
+                // Delivered as received
+                DelimitedStringDeviceConnectionImpl connection = new DelimitedStringDeviceConnectionImpl(
+                        socket(), config("charset", charset, "delimiter", ""));
+                StringBuilder delivered = new StringBuilder();
+                connection.onDataReceived((device, message) -> delivered.append(message));
+                receiveSplit(connection, data, split);
+                assertDecoded(charset + " delivered split at " + split, text, delivered.toString());
+
+                // Read as received
+                connection = new DelimitedStringDeviceConnectionImpl(
+                        socket(), config("charset", charset, "delimiter", ""));
+                StringBuilder read = new StringBuilder();
+                connection.receivedData(data, 0, split);
+                read.append(connection.read());
+                connection.receivedData(data, split, data.length - split);
+                read.append(connection.read());
+                assertDecoded(charset + " read split at " + split, text, read.toString());
+                assertEquals(0, connection.available());
+            }
+        }
+    }
+
+    @Test
+    public void utf16DelimiterIsOnlyFoundOnCharacters() throws Exception {
+        // U+0A05 U+0100 is 05 0A 00 01 in UTF-16LE, which contains the bytes of a "\n" (0A 00)
+        List<String> expected = Arrays.asList("\u0a05\u0100", "next");
+        assertDelimited(expected, "UTF-16LE", "\n");
+    }
+
+    @Test
+    public void utf16ByteOrderMarkIsOnlyAtTheStart() throws Exception {
+        // String.getBytes adds a byte order mark, which the device only sends once
+        assertDelimited(MESSAGES, "UTF-16", "\n");
+    }
+
+    @Test
+    public void shiftJisDelimiterIsOnlyFoundOnCharacters() throws Exception {
+        // U+30A1 is 83 40 in Shift_JIS, the trail byte being an "@"
+        List<String> expected = Arrays.asList("\u30a1\u30a1", "\u30bd");
+        assertDelimited(expected, "Shift_JIS", "@");
+    }
+
+    @Test
+    public void onlyAsciiCompatibleCharsetsScanBytes() {
+        assertTrue(DelimitedStringDeviceConnectionImpl.isByteScannable(StandardCharsets.US_ASCII));
+        assertTrue(DelimitedStringDeviceConnectionImpl.isByteScannable(StandardCharsets.ISO_8859_1));
+        assertTrue(DelimitedStringDeviceConnectionImpl.isByteScannable(StandardCharsets.UTF_8));
+        assertFalse(DelimitedStringDeviceConnectionImpl.isByteScannable(StandardCharsets.UTF_16));
+        assertFalse(DelimitedStringDeviceConnectionImpl.isByteScannable(StandardCharsets.UTF_16LE));
+        assertFalse(DelimitedStringDeviceConnectionImpl.isByteScannable(Charset.forName("Shift_JIS")));
+    }
+
+    /**
+     * Checks the messages are read, and delivered, the same however the data is split.
+     */
+    private static void assertDelimited(List<String> expected, String charset, String delimiter)
+            throws Exception {
+        byte[] data = (String.join(delimiter, expected) + delimiter).getBytes(Charset.forName(charset));
+
+        for (int split = 1; split < data.length; split++) {
+            DelimitedStringDeviceConnectionImpl connection = new DelimitedStringDeviceConnectionImpl(
+                    socket(), config("charset", charset, "delimiter", delimiter));
+            receiveSplit(connection, data, split);
+            assertEquals(charset + " split at " + split, expected.size(), connection.available());
+
+            List<String> messages = new ArrayList<>();
+            String message;
+            while ((message = connection.read()) != null) {
+                messages.add(message);
+            }
+            assertEquals(charset + " split at " + split, expected, messages);
+            assertEquals(0, connection.available());
+        }
+
+        DelimitedStringDeviceConnectionImpl connection = new DelimitedStringDeviceConnectionImpl(
+                socket(), config("charset", charset, "delimiter", delimiter));
+        List<String> delivered = new ArrayList<>();
+        connection.onDataReceived((device, message) -> delivered.add(message));
+        TestConnections.receive(connection, data, 1);
+        assertEquals(charset + " a byte at a time", expected, delivered);
+    }
+
+    private static void receiveSplit(AbstractDeviceConnection connection, byte[] data, int split) {
+        connection.receivedData(data, 0, split);
+        connection.receivedData(data, split, data.length - split);
+    }
+
+    private static void assertDecoded(String description, String expected, String actual) {
+        assertFalse(description + " contains a replacement character", actual.indexOf('\ufffd') > -1);
+        assertEquals(description, expected, actual);
+    }
+}
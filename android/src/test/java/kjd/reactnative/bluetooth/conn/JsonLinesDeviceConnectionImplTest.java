@@ -0,0 +1,215 @@
+package kjd.reactnative.bluetooth.conn;
+
+import android.bluetooth.BluetoothDevice;
+import android.util.JsonReader;
+import android.util.JsonToken;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.ReadableType;
+import com.facebook.react.bridge.WritableMap;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.MockedConstruction;
+import org.mockito.MockedStatic;
+import org.mockito.invocation.InvocationOnMock;
+
+import java.io.Reader;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static kjd.reactnative.bluetooth.conn.TestConnections.config;
+import static kjd.reactnative.bluetooth.conn.TestConnections.socket;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mockConstruction;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Checks the parsing and field filtering of {@link JsonLinesDeviceConnectionImpl}.  The maps are
+ * normally created natively, so {@link Arguments} is mocked to provide Java only maps.
+ * {@link JsonReader} is only a stub outside of Android, so each one created delegates to Gson's
+ * {@link com.google.gson.stream.JsonReader} (from which it was derived) instead.
+ *
+ * @author kendavidson
+ */
+public class JsonLinesDeviceConnectionImplTest {
+
+    private static final double DELTA = 1e-9;
+
+    private MockedStatic<Arguments> mArguments;
+    private MockedConstruction<JsonReader> mJsonReaders;
+
+    @Before
+    public void mockArguments() {
+        mArguments = mockStatic(Arguments.class);
+        mArguments.when(Arguments::createMap).thenAnswer(invocation -> new JavaOnlyMap());
+        mArguments.when(Arguments::createArray).thenAnswer(invocation -> new JavaOnlyArray());
+    }
+
+    @Before
+    public void mockJsonReader() {
+        final Map<Object, com.google.gson.stream.JsonReader> readers =
+                Collections.synchronizedMap(new IdentityHashMap<>());
+        mJsonReaders = mockConstruction(JsonReader.class,
+                withSettings().defaultAnswer(invocation ->
+                        delegate(readers.get(invocation.getMock()), invocation)),
+                (mock, context) -> readers.put(mock,
+                        new com.google.gson.stream.JsonReader((Reader) context.arguments().get(0))));
+    }
+
+    @After
+    public void closeMocks() {
+        mJsonReaders.close();
+        mArguments.close();
+    }
+
+    @Test
+    public void values() throws Exception {
+        WritableMap data = connection().parse(
+                "{\"number\":1.5,\"string\":\"text\",\"flag\":true,\"missing\":null}");
+
+        assertEquals(1.5, data.getDouble("number"), DELTA);
+        assertEquals("text", data.getString("string"));
+        assertTrue(data.getBoolean("flag"));
+        assertTrue(data.hasKey("missing"));
+        assertTrue(data.isNull("missing"));
+    }
+
+    @Test
+    public void nestedObjectsAndArrays() throws Exception {
+        WritableMap data = connection().parse(
+                "{\"position\":{\"lat\":48.1,\"fix\":{\"valid\":true}},"
+                        + "\"values\":[1,\"two\",[3,4],{\"five\":5},null,false]}");
+
+        ReadableMap position = data.getMap("position");
+        assertEquals(48.1, position.getDouble("lat"), DELTA);
+        assertTrue(position.getMap("fix").getBoolean("valid"));
+
+        ReadableArray values = data.getArray("values");
+        assertEquals(6, values.size());
+        assertEquals(1, values.getDouble(0), DELTA);
+        assertEquals("two", values.getString(1));
+        assertEquals(2, values.getArray(2).size());
+        assertEquals(4, values.getArray(2).getDouble(1), DELTA);
+        assertEquals(5, values.getMap(3).getDouble("five"), DELTA);
+        assertEquals(ReadableType.Null, values.getType(4));
+        assertFalse(values.getBoolean(5));
+    }
+
+    @Test
+    public void fieldFilter() throws Exception {
+        WritableMap data = connection("jsonFields", "id,position").parse(
+                "{\"id\":7,\"raw\":{\"skipped\":[1,2,{\"x\":null}]},\"position\":{\"lat\":1,\"lon\":2},"
+                        + "\"extra\":\"skipped\"}");
+
+        assertEquals(7, data.getDouble("id"), DELTA);
+        assertFalse(data.hasKey("raw"));
+        assertFalse(data.hasKey("extra"));
+
+        // Only top level fields are filtered
+        ReadableMap position = data.getMap("position");
+        assertEquals(1, position.getDouble("lat"), DELTA);
+        assertEquals(2, position.getDouble("lon"), DELTA);
+    }
+
+    @Test
+    public void fieldFilterAcceptsAList() throws Exception {
+        JsonLinesDeviceConnectionImpl connection =
+                connection("jsonFields", Collections.singletonList("id"));
+        WritableMap data = connection.parse("{\"id\":7,\"other\":8}");
+        assertTrue(data.hasKey("id"));
+        assertFalse(data.hasKey("other"));
+    }
+
+    @Test
+    public void trailingGarbageIsRejected() throws Exception {
+        JsonLinesDeviceConnectionImpl connection = connection();
+        assertNull(connection.parse("{\"id\":1} trailing"));
+        assertNull(connection.parse("{\"id\":1}{\"id\":2}"));
+        assertNull(connection.parse("{\"id\":1},"));
+    }
+
+    @Test
+    public void onlyObjectsAreAccepted() throws Exception {
+        JsonLinesDeviceConnectionImpl connection = connection();
+        assertNull(connection.parse("[1,2]"));
+        assertNull(connection.parse("\"text\""));
+        assertNull(connection.parse("42"));
+        assertNull(connection.parse("{\"id\":"));
+        assertNull(connection.parse("{id:1}"));
+    }
+
+    @Test
+    public void malformedLinesAreCountedAsDropped() throws Exception {
+        JsonLinesDeviceConnectionImpl connection = connection();
+        List<ReadableMap> received = new ArrayList<>();
+        connection.onStructuredDataReceived((device, data) -> received.add(data));
+
+        connection.deliver("{\"id\":1}");
+        connection.deliver("not json");
+        connection.deliver("{\"id\":2} trailing");
+        connection.deliver("  ");
+        connection.deliver("{\"id\":3}");
+
+        assertEquals(2, received.size());
+        assertEquals(3, received.get(1).getDouble("id"), DELTA);
+
+        // Blank lines are ignored rather than dropped
+        assertEquals(2, connection.getStats().getFramesDropped());
+    }
+
+    @Test
+    public void linesAreStringsWithoutAStructuredListener() throws Exception {
+        JsonLinesDeviceConnectionImpl connection = connection();
+        List<String> received = new ArrayList<>();
+        connection.onDataReceived((BluetoothDevice device, String data) -> received.add(data));
+
+        connection.deliver("not json");
+        assertEquals(Collections.singletonList("not json"), received);
+        assertEquals(0, connection.getStats().getFramesDropped());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void delimiterIsRequired() throws Exception {
+        new JsonLinesDeviceConnectionImpl(socket(), config("delimiter", ""));
+    }
+
+    private static JsonLinesDeviceConnectionImpl connection(Object... options) throws Exception {
+        Object[] values = new Object[options.length + 2];
+        values[0] = "delimiter";
+        values[1] = "\n";
+        System.arraycopy(options, 0, values, 2, options.length);
+        return new JsonLinesDeviceConnectionImpl(socket(), config(values));
+    }
+
+    /**
+     * Calls the same method on the Gson reader, converting the tokens returned.
+     */
+    private static Object delegate(com.google.gson.stream.JsonReader reader,
+                                   InvocationOnMock invocation) throws Throwable {
+        Method method = com.google.gson.stream.JsonReader.class.getMethod(
+                invocation.getMethod().getName(), invocation.getMethod().getParameterTypes());
+        try {
+            Object result = method.invoke(reader, invocation.getArguments());
+            return (result instanceof com.google.gson.stream.JsonToken)
+                    ? JsonToken.valueOf(((Enum<?>) result).name())
+                    : result;
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
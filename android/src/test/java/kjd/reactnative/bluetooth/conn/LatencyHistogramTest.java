@@ -0,0 +1,162 @@
+package kjd.reactnative.bluetooth.conn;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.bridge.WritableMap;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.MockedStatic;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mockStatic;
+
+/**
+ * Checks the bucketing and snapshot of {@link LatencyHistogram}.  The snapshot map is normally
+ * created natively, so {@link Arguments} is mocked to provide Java only maps.
+ *
+ * @author kendavidson
+ */
+public class LatencyHistogramTest {
+
+    private static final double DELTA = 1e-9;
+
+    private MockedStatic<Arguments> mArguments;
+
+    @Before
+    public void mockArguments() {
+        mArguments = mockStatic(Arguments.class);
+        mArguments.when(Arguments::createMap).thenAnswer(invocation -> new JavaOnlyMap());
+    }
+
+    @After
+    public void closeArguments() {
+        mArguments.close();
+    }
+
+    @Test
+    public void emptyHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMin());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getMean());
+        assertEquals(0, histogram.getPercentile(50));
+    }
+
+    @Test
+    public void negativeSamplesAreIgnored() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-1);
+        assertEquals(0, histogram.getCount());
+    }
+
+    @Test
+    public void countMinMaxMean() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1000);
+        histogram.record(5000);
+        histogram.record(3000);
+
+        assertEquals(3, histogram.getCount());
+        assertEquals(1000, histogram.getMin());
+        assertEquals(5000, histogram.getMax());
+        assertEquals(3000, histogram.getMean());
+    }
+
+    @Test
+    public void percentileIsTheUpperBoundOfItsBucket() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 100; i++) {
+            histogram.record(micros(1500));
+        }
+        histogram.record(micros(100_000));
+
+        // 1500us falls in the bucket below 2^11us, 100ms in the bucket below 2^17us
+        assertEquals(micros(2048), histogram.getPercentile(50));
+        assertEquals(micros(2048), histogram.getPercentile(99));
+        assertEquals(micros(100_000), histogram.getPercentile(100));
+    }
+
+    @Test
+    public void percentileIsLimitedToTheMax() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(micros(1500));
+        assertEquals(micros(1500), histogram.getPercentile(50));
+    }
+
+    @Test
+    public void subMicrosecondSamplesUseTheFirstBucket() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(200);
+        histogram.record(micros(10));
+
+        assertEquals(micros(1), histogram.getPercentile(50));
+        assertEquals(micros(10), histogram.getPercentile(100));
+    }
+
+    @Test
+    public void lastBucketHoldsLargeSamples() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(TimeUnit.HOURS.toNanos(1));
+        histogram.record(TimeUnit.HOURS.toNanos(2));
+
+        assertEquals(micros(1L << 31), histogram.getPercentile(50));
+        assertEquals(TimeUnit.HOURS.toNanos(2), histogram.getMax());
+    }
+
+    @Test
+    public void reset() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(micros(1500));
+        histogram.reset();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMin());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getPercentile(50));
+
+        histogram.record(micros(10));
+        assertEquals(micros(10), histogram.getMin());
+    }
+
+    @Test
+    public void mapProvidesMilliseconds() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(micros(1500));
+        histogram.record(micros(2500));
+
+        WritableMap map = histogram.map();
+        assertEquals(2, map.getDouble("count"), DELTA);
+        assertEquals(1.5, map.getDouble("min"), DELTA);
+        assertEquals(2.5, map.getDouble("max"), DELTA);
+        assertEquals(2.0, map.getDouble("mean"), DELTA);
+        assertEquals(2.048, map.getDouble("p50"), DELTA);
+        assertEquals(2.5, map.getDouble("p90"), DELTA);
+        assertEquals(2.5, map.getDouble("p99"), DELTA);
+    }
+
+    @Test
+    public void emptyMap() {
+        WritableMap map = new LatencyHistogram().map();
+        assertEquals(0, map.getDouble("count"), DELTA);
+        assertEquals(0, map.getDouble("min"), DELTA);
+        assertEquals(0, map.getDouble("p99"), DELTA);
+    }
+
+    @Test
+    public void statsProvideTheReadToEmitSnapshot() {
+        ConnectionStats stats = new ConnectionStats();
+        stats.eventSent(micros(1500));
+
+        assertEquals(1, stats.getReadToEmit().getCount());
+        assertEquals(1.5, stats.map().getMap("readToEmit").getDouble("max"), DELTA);
+    }
+
+    private static long micros(long micros) {
+        return TimeUnit.MICROSECONDS.toNanos(micros);
+    }
+}
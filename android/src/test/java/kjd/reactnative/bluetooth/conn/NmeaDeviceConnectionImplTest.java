@@ -0,0 +1,241 @@
+package kjd.reactnative.bluetooth.conn;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.WritableMap;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.MockedStatic;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import static kjd.reactnative.bluetooth.conn.TestConnections.config;
+import static kjd.reactnative.bluetooth.conn.TestConnections.socket;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mockStatic;
+
+/**
+ * Checks the sentence filtering and parsing of {@link NmeaDeviceConnectionImpl}.  The maps are
+ * normally created natively, so {@link Arguments} is mocked to provide Java only maps.
+ *
+ * @author kendavidson
+ */
+public class NmeaDeviceConnectionImplTest {
+
+    private static final String GGA =
+            "$GPGGA,123519,4807.038,N,01131.000,E,1,08,0.9,545.4,M,46.9,M,,*47";
+    private static final String RMC =
+            "$GPRMC,123519,A,4807.038,N,01131.000,E,022.4,084.4,230394,003.1,W*6A";
+
+    private static final double DELTA = 1e-9;
+
+    private MockedStatic<Arguments> mArguments;
+
+    @Before
+    public void mockArguments() {
+        mArguments = mockStatic(Arguments.class);
+        mArguments.when(Arguments::createMap).thenAnswer(invocation -> new JavaOnlyMap());
+        mArguments.when(Arguments::createArray).thenAnswer(invocation -> new JavaOnlyArray());
+    }
+
+    @After
+    public void closeArguments() {
+        mArguments.close();
+    }
+
+    @Test
+    public void validChecksum() throws Exception {
+        NmeaDeviceConnectionImpl connection = connection();
+        assertEquals(GGA, connection.accept(GGA + "\r"));
+        assertEquals(RMC, connection.accept(RMC));
+        assertEquals(0, connection.getStats().getFramesDropped());
+    }
+
+    @Test
+    public void corruptChecksum() throws Exception {
+        NmeaDeviceConnectionImpl connection = connection();
+        assertNull(connection.accept(GGA.replace("4807.038", "4807.039")));
+        assertNull(connection.accept(GGA.replace("*47", "*48")));
+        assertNull(connection.accept(GGA.replace("*47", "*4G")));
+        assertNull(connection.accept(GGA.replace("*47", "*4")));
+        assertEquals(4, connection.getStats().getFramesDropped());
+    }
+
+    @Test
+    public void lowerCaseChecksum() throws Exception {
+        String rmc = RMC.replace("*6A", "*6a");
+        assertEquals(rmc, connection().accept(rmc));
+    }
+
+    @Test
+    public void missingChecksumWhenRequired() throws Exception {
+        NmeaDeviceConnectionImpl connection = connection();
+        assertNull(connection.accept(withoutChecksum(GGA)));
+        assertEquals(1, connection.getStats().getFramesDropped());
+    }
+
+    @Test
+    public void missingChecksumWhenNotRequired() throws Exception {
+        NmeaDeviceConnectionImpl connection = connection("nmeaRequireChecksum", false);
+        String gga = withoutChecksum(GGA);
+        assertEquals(gga, connection.accept(gga));
+
+        // Checksums which are provided must still be correct
+        assertNull(connection.accept(GGA.replace("*47", "*48")));
+
+        WritableMap data = connection.parse(gga);
+        assertNotNull(data);
+        assertEquals(545.4, data.getDouble("altitude"), DELTA);
+    }
+
+    @Test
+    public void notSentences() throws Exception {
+        NmeaDeviceConnectionImpl connection = connection();
+        assertNull(connection.accept("GPGGA,123519*47"));
+        assertNull(connection.accept(sentence("GP")));
+        assertNull(connection.accept("  "));
+        assertEquals(2, connection.getStats().getFramesDropped());
+    }
+
+    @Test
+    public void gga() throws Exception {
+        WritableMap data = connection().parse(GGA);
+        assertEquals("GP", data.getString("talker"));
+        assertEquals("GGA", data.getString("sentence"));
+        assertEquals(12 * 3600 + 35 * 60 + 19, data.getDouble("time"), DELTA);
+        assertEquals(48 + 7.038 / 60, data.getDouble("latitude"), DELTA);
+        assertEquals(11 + 31.0 / 60, data.getDouble("longitude"), DELTA);
+        assertEquals(1, data.getInt("fix"));
+        assertEquals(8, data.getInt("satellites"));
+        assertEquals(0.9, data.getDouble("hdop"), DELTA);
+        assertEquals(46.9, data.getDouble("geoidSeparation"), DELTA);
+    }
+
+    @Test
+    public void southAndWestAreNegative() throws Exception {
+        WritableMap data = connection().parse(
+                sentence("GPGLL,3351.120,S,15112.540,W,225444.50,A"));
+        assertEquals(-(33 + 51.12 / 60), data.getDouble("latitude"), DELTA);
+        assertEquals(-(151 + 12.54 / 60), data.getDouble("longitude"), DELTA);
+        assertEquals(22 * 3600 + 54 * 60 + 44.5, data.getDouble("time"), DELTA);
+        assertEquals(true, data.getBoolean("valid"));
+    }
+
+    @Test
+    public void invalidHemisphereIsDropped() throws Exception {
+        assertNull(connection().parse(sentence("GPGLL,3351.120,X,15112.540,W,225444,A")));
+    }
+
+    @Test
+    public void rmcTimestamp() throws Exception {
+        WritableMap data = connection().parse(RMC);
+        assertEquals(true, data.getBoolean("valid"));
+        assertEquals(22.4, data.getDouble("speedKnots"), DELTA);
+        assertEquals(84.4, data.getDouble("course"), DELTA);
+        assertEquals(epochMillis(1994, 3, 23, 12, 35, 19), data.getDouble("timestamp"), DELTA);
+    }
+
+    @Test
+    public void rmcCentury() throws Exception {
+        assertEquals(epochMillis(2000, 1, 1, 0, 0, 0), rmcTimestamp("000000", "010100"), DELTA);
+        assertEquals(epochMillis(1999, 12, 31, 23, 59, 59), rmcTimestamp("235959", "311299"), DELTA);
+        assertEquals(epochMillis(1980, 1, 1, 0, 0, 0), rmcTimestamp("000000", "010180"), DELTA);
+        assertEquals(epochMillis(2079, 12, 31, 12, 0, 0), rmcTimestamp("120000", "311279"), DELTA);
+        assertEquals(epochMillis(2024, 2, 29, 6, 30, 0), rmcTimestamp("063000", "290224"), DELTA);
+    }
+
+    @Test
+    public void invalidDateIsDropped() throws Exception {
+        assertNull(connection().parse(rmc("123519", "231394")));
+        assertNull(connection().parse(rmc("123519", "2303")));
+    }
+
+    @Test
+    public void proprietarySentences() throws Exception {
+        String pgrme = sentence("PGRME,15.0,M,45.0,M,25.0,M");
+        NmeaDeviceConnectionImpl connection = connection();
+        assertEquals(pgrme, connection.accept(pgrme));
+
+        WritableMap data = connection.parse(pgrme);
+        assertFalse(data.hasKey("talker"));
+        assertEquals("PGRME", data.getString("sentence"));
+
+        ReadableArray fields = data.getArray("fields");
+        assertEquals(6, fields.size());
+        assertEquals("15.0", fields.getString(0));
+        assertEquals("M", fields.getString(5));
+    }
+
+    @Test
+    public void sentenceFilter() throws Exception {
+        NmeaDeviceConnectionImpl connection = connection("nmeaSentences", "GGA,PGRME");
+        String pgrme = sentence("PGRME,15.0,M,45.0,M,25.0,M");
+        assertEquals(GGA, connection.accept(GGA));
+        assertEquals(pgrme, connection.accept(pgrme));
+        assertNull(connection.accept(RMC));
+        assertNull(connection.accept(sentence("PGRMZ,246,f,3")));
+
+        // Filtered sentences aren't dropped
+        assertEquals(0, connection.getStats().getFramesDropped());
+    }
+
+    @Test
+    public void sentenceFilterByAddress() throws Exception {
+        NmeaDeviceConnectionImpl connection = connection("nmeaSentences", "GNRMC");
+        String rmc = sentence("GNRMC,123519,A,4807.038,N,01131.000,E,022.4,084.4,230394,003.1,W");
+        assertEquals(rmc, connection.accept(rmc));
+        assertNull(connection.accept(RMC));
+    }
+
+    @Test
+    public void types() {
+        assertEquals("GGA", NmeaDeviceConnectionImpl.type("GPGGA"));
+        assertEquals("PGRME", NmeaDeviceConnectionImpl.type("PGRME"));
+        assertEquals("PUBX", NmeaDeviceConnectionImpl.type("PUBX"));
+    }
+
+    private static NmeaDeviceConnectionImpl connection(Object... options) throws Exception {
+        Object[] values = new Object[options.length + 2];
+        values[0] = "delimiter";
+        values[1] = "\n";
+        System.arraycopy(options, 0, values, 2, options.length);
+        return new NmeaDeviceConnectionImpl(socket(), config(values));
+    }
+
+    private double rmcTimestamp(String time, String date) throws Exception {
+        return connection().parse(rmc(time, date)).getDouble("timestamp");
+    }
+
+    private static String rmc(String time, String date) {
+        return sentence("GPRMC," + time + ",A,4807.038,N,01131.000,E,022.4,084.4," + date + ",003.1,W");
+    }
+
+    /**
+     * @param content the sentence between the {@code $} and checksum
+     * @return the sentence with its checksum
+     */
+    private static String sentence(String content) {
+        int checksum = 0;
+        for (int i = 0; i < content.length(); i++) {
+            checksum ^= content.charAt(i);
+        }
+        return String.format("$%s*%02X", content, checksum);
+    }
+
+    private static String withoutChecksum(String sentence) {
+        return sentence.substring(0, sentence.indexOf('*'));
+    }
+
+    private static double epochMillis(int year, int month, int day, int hour, int minute, int second) {
+        return LocalDateTime.of(year, month, day, hour, minute, second)
+                .toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+}
@@ -0,0 +1,105 @@
+package kjd.reactnative.bluetooth.conn;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+import kjd.reactnative.bluetooth.BuildConfig;
+import kjd.reactnative.bluetooth.frame.ByteDelimiterFramer;
+import kjd.reactnative.bluetooth.frame.FramedDeviceConnectionImpl;
+
+import static kjd.reactnative.bluetooth.conn.TestConnections.config;
+import static kjd.reactnative.bluetooth.conn.TestConnections.socket;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeFalse;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Checks the steady state read path of the built in connections doesn't allocate per chunk,
+ * counting the bytes allocated by the test thread while chunks are received.  Only the chunks
+ * which don't complete a message are measured, a completed message is allocated as the String
+ * delivered to the application.
+ * <p>
+ * Debug builds log each chunk, so this only runs against the release variant.
+ *
+ * @author kendavidson
+ */
+public class ReceiveAllocationTest {
+
+    private static final int CHUNK_SIZE = 256;
+    private static final int CHUNKS = 2000;
+    private static final int WARMUP_ROUNDS = 20;
+
+    private com.sun.management.ThreadMXBean mThreads;
+    private byte[] mChunk;
+
+    @Before
+    public void setUp() {
+        assumeFalse("Debug logging allocates", BuildConfig.DEBUG);
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+
+        mThreads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(mThreads.isThreadAllocatedMemorySupported());
+        mThreads.setThreadAllocatedMemoryEnabled(true);
+
+        mChunk = new byte[CHUNK_SIZE];
+        Arrays.fill(mChunk, (byte) 'a');
+    }
+
+    @Test
+    public void delimitedMessageInProgress() throws Exception {
+        DelimitedStringDeviceConnectionImpl connection =
+                new DelimitedStringDeviceConnectionImpl(socket(), config("charset", "utf-8"));
+        connection.onDataReceived((device, message) -> {});
+
+        assertNoAllocation("delimited", connection, new byte[] { '\n' });
+    }
+
+    @Test
+    public void binaryAtBufferLimit() throws Exception {
+        ByteArrayDeviceConnectionImpl connection = new ByteArrayDeviceConnectionImpl(socket(),
+                config("readBufferLimit", CHUNK_SIZE * 8, "readOverflow", "drop-oldest"));
+
+        assertNoAllocation("binary", connection, new byte[0]);
+    }
+
+    @Test
+    public void framedFrameInProgress() throws Exception {
+        FramedDeviceConnectionImpl connection = new FramedDeviceConnectionImpl(socket(),
+                config("frameEncoding", "hex", "maxFrameSize", CHUNK_SIZE * CHUNKS * 2),
+                new ByteDelimiterFramer(new byte[] { 0x7E }, CHUNK_SIZE * CHUNKS * 2));
+        connection.onDataReceived((device, message) -> {});
+
+        assertNoAllocation("framed", connection, new byte[] { 0x7E });
+    }
+
+    /**
+     * Receives the chunks followed by {@code end}, completing the message, until warmed up (the
+     * buffers have grown to their steady state size and the code is compiled).  Then counts the
+     * bytes allocated receiving the chunks again, less than a byte per chunk leaves room for the
+     * measurement itself.
+     */
+    private void assertNoAllocation(String name, AbstractDeviceConnection connection, byte[] end) {
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            receiveChunks(connection);
+            connection.receivedData(end, 0, end.length);
+        }
+
+        long thread = Thread.currentThread().getId();
+        long before = mThreads.getThreadAllocatedBytes(thread);
+        receiveChunks(connection);
+        long allocated = mThreads.getThreadAllocatedBytes(thread) - before;
+        connection.receivedData(end, 0, end.length);
+
+        assertTrue(String.format("%s allocated %d bytes receiving %d chunks", name, allocated, CHUNKS),
+                allocated < CHUNKS);
+    }
+
+    private void receiveChunks(AbstractDeviceConnection connection) {
+        for (int i = 0; i < CHUNKS; i++) {
+            connection.receivedData(mChunk, 0, mChunk.length);
+        }
+    }
+}
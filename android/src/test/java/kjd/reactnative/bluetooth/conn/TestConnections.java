@@ -0,0 +1,125 @@
+package kjd.reactnative.bluetooth.conn;
+
+import android.bluetooth.BluetoothDevice;
+import android.bluetooth.BluetoothSocket;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import kjd.reactnative.bluetooth.event.ReadOption;
+import kjd.reactnative.bluetooth.frame.FrameOption;
+
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Provides the sockets and configs used to create connections within tests.  Data is provided
+ * to the connections by calling {@code receivedData} directly rather than running the read
+ * thread.
+ *
+ * @author kendavidson
+ */
+public final class TestConnections {
+
+    public static final String ADDRESS = "00:11:22:33:44:55";
+
+    private TestConnections() {}
+
+    /**
+     * The mocks are stub only (they don't record invocations), as {@code getDevice()} is called
+     * for every delivered message and would otherwise dominate the benchmarks.
+     *
+     * @return a socket connected to a device at {@link #ADDRESS}, with empty streams
+     */
+    public static BluetoothSocket socket() {
+        return socket(new ByteArrayInputStream(new byte[0]), new ByteArrayOutputStream());
+    }
+
+    /**
+     * @param in provides the data read from the device
+     * @param out receives the data written to the device
+     * @return a socket connected to a device at {@link #ADDRESS}, with the provided streams
+     */
+    public static BluetoothSocket socket(InputStream in, OutputStream out) {
+        return socket(ADDRESS, in, out);
+    }
+
+    /**
+     * Closing the socket closes its streams, as with a real socket.
+     *
+     * @param address the address of the connected device
+     * @param in provides the data read from the device
+     * @param out receives the data written to the device
+     * @return a socket connected to a device at {@code address}, with the provided streams
+     */
+    public static BluetoothSocket socket(String address, InputStream in, OutputStream out) {
+        BluetoothDevice device = device(address);
+
+        BluetoothSocket socket = mock(BluetoothSocket.class, withSettings().stubOnly());
+        try {
+            when(socket.getInputStream()).thenReturn(in);
+            when(socket.getOutputStream()).thenReturn(out);
+            doAnswer(invocation -> {
+                in.close();
+                out.close();
+                return null;
+            }).when(socket).close();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        when(socket.getRemoteDevice()).thenReturn(device);
+        return socket;
+    }
+
+    /**
+     * @param address the device address
+     * @return a device at {@code address}
+     */
+    public static BluetoothDevice device(String address) {
+        BluetoothDevice device = mock(BluetoothDevice.class, withSettings().stubOnly());
+        when(device.getAddress()).thenReturn(address);
+        when(device.getName()).thenReturn("Test device");
+        return device;
+    }
+
+    /**
+     * Creates a config from option name and value pairs, parsing every built in option set (as
+     * the module does for the selected connection type) so that any connection, framer or
+     * listener can be created from it.
+     *
+     * @param options alternating option codes and values
+     * @return the config
+     */
+    public static ConnectionConfig config(Object... options) {
+        Map<String, Object> values = new HashMap<>();
+        for (int i = 0; i < options.length; i += 2) {
+            values.put((String) options[i], options[i + 1]);
+        }
+        return ConnectionConfig.from(values)
+                .parse(ConnectOption.values())
+                .parse(ReadOption.values())
+                .parse(JsonLinesOption.values())
+                .parse(NmeaOption.values())
+                .parse(FrameOption.values());
+    }
+
+    /**
+     * Provides the data in chunks of (at most) {@code chunkSize} bytes, as the read thread would.
+     *
+     * @param connection receives the data
+     * @param data the data
+     * @param chunkSize the largest chunk
+     */
+    public static void receive(AbstractDeviceConnection connection, byte[] data, int chunkSize) {
+        for (int offset = 0; offset < data.length; offset += chunkSize) {
+            connection.receivedData(data, offset, Math.min(chunkSize, data.length - offset));
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package kjd.reactnative.bluetooth.conn;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static kjd.reactnative.bluetooth.conn.TestConnections.config;
+import static kjd.reactnative.bluetooth.conn.TestConnections.socket;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Checks the {@link WriteQueue} of an {@link AbstractDeviceConnection}: coalescing, refusing
+ * writes when full, failing pending writes on close and not blocking the connection while a
+ * write is stuck on the device.
+ *
+ * @author kendavidson
+ */
+public class WriteQueueTest {
+
+    private Thread mWriter;
+
+    @After
+    public void stopWriter() throws InterruptedException {
+        if (mWriter != null) {
+            mWriter.interrupt();
+            mWriter.join(1000);
+        }
+    }
+
+    @Test(timeout = 5000)
+    public void coalescesUpToCoalesceSize() throws Exception {
+        RecordingOutputStream out = new RecordingOutputStream();
+        DelimitedStringDeviceConnectionImpl connection = connection(out, 10, 8);
+        Results results = new Results(5);
+
+        // Queued before the writer starts, so they're all waiting together
+        offer(connection, "ab", results);
+        offer(connection, "cd", results);
+        offer(connection, "efgh", results);
+        offer(connection, "ij", results);
+        offer(connection, "klmnopqrstuv", results);
+        startWriter(connection);
+
+        results.await();
+        assertEquals(Arrays.asList("abcdefgh", "ij", "klmnopqrstuv"), out.writes());
+        assertEquals(Arrays.asList(null, null, null, null, null), results.errors());
+        assertEquals(22, connection.getStats().getBytesWritten());
+    }
+
+    @Test(timeout = 5000)
+    public void offerAllCoalescesAcrossTheList() throws Exception {
+        RecordingOutputStream out = new RecordingOutputStream();
+        DelimitedStringDeviceConnectionImpl connection = connection(out, 10, 4);
+        Results results = new Results(1);
+
+        connection.getWriteQueue().offerAll(bytes("ab", "cd", "ef"), results::written);
+        startWriter(connection);
+
+        results.await();
+        assertEquals(Arrays.asList("abcd", "ef"), out.writes());
+        assertEquals(Collections.singletonList(3), results.counts());
+    }
+
+    @Test(timeout = 5000)
+    public void offerAllStopsAtTheFirstFailure() throws Exception {
+        RecordingOutputStream out = new RecordingOutputStream();
+        out.failAfter = 1;
+        DelimitedStringDeviceConnectionImpl connection = connection(out, 10, 1);
+        Results results = new Results(2);
+
+        connection.getWriteQueue().offerAll(bytes("ab", "cd", "ef"), results::written);
+        offer(connection, "gh", results);
+        startWriter(connection);
+
+        results.await();
+        assertEquals(Collections.singletonList("ab"), out.writes());
+        assertEquals(Arrays.asList(1, 0), results.counts());
+        assertTrue(results.errors().get(0) instanceof IOException);
+        assertTrue(results.errors().get(1) instanceof IOException);
+    }
+
+    @Test
+    public void rejectsWritesWhenFull() throws Exception {
+        DelimitedStringDeviceConnectionImpl connection = connection(new RecordingOutputStream(), 2, 8);
+        Results results = new Results(2);
+
+        offer(connection, "ab", results);
+        offer(connection, "cd", results);
+        try {
+            offer(connection, "ef", results);
+            fail("Write was queued beyond the capacity");
+        } catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("full"));
+        }
+
+        try {
+            connection.getWriteQueue().offerAll(bytes("gh", "ij"), results::written);
+            fail("List was queued beyond the capacity");
+        } catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("full"));
+        }
+        assertEquals(2, connection.getWriteQueue().size());
+    }
+
+    @Test
+    public void closeFailsPendingWrites() throws Exception {
+        RecordingOutputStream out = new RecordingOutputStream();
+        DelimitedStringDeviceConnectionImpl connection = connection(out, 10, 8);
+        Results results = new Results(2);
+
+        offer(connection, "ab", results);
+        connection.getWriteQueue().offerAll(bytes("cd", "ef"), results::written);
+        connection.disconnect();
+
+        results.await();
+        assertEquals(Arrays.asList(0, 0), results.counts());
+        assertTrue(results.errors().get(0) instanceof IOException);
+        assertTrue(results.errors().get(1) instanceof IOException);
+        assertEquals(0, connection.getWriteQueue().size());
+        assertTrue(out.writes().isEmpty());
+
+        try {
+            offer(connection, "gh", results);
+            fail("Write was queued after close");
+        } catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("closed"));
+        }
+    }
+
+    @Test(timeout = 5000)
+    public void closeStopsTheWriter() throws Exception {
+        DelimitedStringDeviceConnectionImpl connection = connection(new RecordingOutputStream(), 10, 8);
+        startWriter(connection);
+
+        connection.getWriteQueue().close();
+        mWriter.join();
+    }
+
+    @Test(timeout = 5000)
+    public void blockedWriteDoesNotBlockTheConnection() throws Exception {
+        BlockingOutputStream out = new BlockingOutputStream();
+        DelimitedStringDeviceConnectionImpl connection = connection(out, 10, 8);
+        Results results = new Results(2);
+
+        offer(connection, "ab", results);
+        offer(connection, "cdefghij", results);
+        startWriter(connection);
+        assertTrue(out.writing.await(1, TimeUnit.SECONDS));
+
+        // Neither wait on the stuck write, and closing the streams releases it
+        connection.getConnectionStatus();
+        connection.onDataReceived((device, message) -> {});
+        connection.disconnect();
+
+        results.await();
+        assertTrue(results.errors().get(0) instanceof IOException);
+        assertTrue(results.errors().get(1) instanceof IOException);
+    }
+
+    @Test
+    public void writesAreMadeDirectlyWithoutAQueue() throws Exception {
+        RecordingOutputStream out = new RecordingOutputStream();
+        DelimitedStringDeviceConnectionImpl connection = new DelimitedStringDeviceConnectionImpl(
+                socket(new ByteArrayInputStream(new byte[0]), out), config());
+        Results results = new Results(2);
+
+        assertNull(connection.getWriteQueue());
+        offer(connection, "ab", results);
+        connection.writeAll(bytes("cd", "ef"), results::written);
+
+        assertEquals(Arrays.asList("ab", "cd", "ef"), out.writes());
+        assertEquals(Arrays.asList(1, 2), results.counts());
+    }
+
+    private void startWriter(AbstractDeviceConnection connection) {
+        mWriter = new Thread(connection.getWriteQueue());
+        mWriter.start();
+    }
+
+    private static DelimitedStringDeviceConnectionImpl connection(
+            OutputStream out, int queueSize, int coalesceSize) throws IOException {
+        return new DelimitedStringDeviceConnectionImpl(
+                socket(new ByteArrayInputStream(new byte[0]), out),
+                config("writeQueueSize", queueSize, "writeCoalesceSize", coalesceSize));
+    }
+
+    private static void offer(AbstractDeviceConnection connection, String data, Results results)
+            throws IOException {
+        connection.write(data.getBytes(StandardCharsets.US_ASCII),
+                (bytes, error) -> results.written(error == null ? 1 : 0, error));
+    }
+
+    private static List<byte[]> bytes(String... data) {
+        List<byte[]> bytes = new ArrayList<>();
+        for (String d : data) {
+            bytes.add(d.getBytes(StandardCharsets.US_ASCII));
+        }
+        return bytes;
+    }
+
+    /**
+     * Collects the completion of each write, in the order they complete.
+     */
+    private static class Results {
+        private final CountDownLatch mDone;
+        private final List<Integer> mCounts = Collections.synchronizedList(new ArrayList<>());
+        private final List<Exception> mErrors = Collections.synchronizedList(new ArrayList<>());
+
+        Results(int expected) {
+            this.mDone = new CountDownLatch(expected);
+        }
+
+        void written(Integer count, Exception error) {
+            mCounts.add(count);
+            mErrors.add(error);
+            mDone.countDown();
+        }
+
+        void await() throws InterruptedException {
+            mDone.await();
+        }
+
+        List<Integer> counts() {
+            return mCounts;
+        }
+
+        List<Exception> errors() {
+            return mErrors;
+        }
+    }
+
+    /**
+     * Records each write separately, optionally failing once {@code failAfter} writes are made.
+     */
+    private static class RecordingOutputStream extends OutputStream {
+        private final List<String> mWrites = Collections.synchronizedList(new ArrayList<>());
+        int failAfter = Integer.MAX_VALUE;
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (mWrites.size() >= failAfter)
+                throw new IOException("Write failed");
+            mWrites.add(new String(b, off, len, StandardCharsets.US_ASCII));
+        }
+
+        List<String> writes() {
+            return mWrites;
+        }
+    }
+
+    /**
+     * Blocks every write until closed, as a stalled RFCOMM write would.
+     */
+    private static class BlockingOutputStream extends OutputStream {
+        final CountDownLatch writing = new CountDownLatch(1);
+        private final CountDownLatch mClosed = new CountDownLatch(1);
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            writing.countDown();
+            try {
+                mClosed.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IOException("Stream closed");
+        }
+
+        @Override
+        public void close() {
+            mClosed.countDown();
+        }
+    }
+}
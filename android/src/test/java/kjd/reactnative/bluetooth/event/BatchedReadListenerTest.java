@@ -0,0 +1,159 @@
+package kjd.reactnative.bluetooth.event;
+
+import android.bluetooth.BluetoothDevice;
+import android.bluetooth.BluetoothSocket;
+
+import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.modules.core.DeviceEventManagerModule;
+
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import kjd.reactnative.bluetooth.RNBluetoothClassicModule;
+import kjd.reactnative.bluetooth.TestModule;
+import kjd.reactnative.bluetooth.conn.ConnectionConfig;
+import kjd.reactnative.bluetooth.conn.ConnectionConnector;
+
+import static kjd.reactnative.bluetooth.conn.TestConnections.ADDRESS;
+import static kjd.reactnative.bluetooth.conn.TestConnections.device;
+import static kjd.reactnative.bluetooth.conn.TestConnections.socket;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks when {@link BatchedReadListener} flushes its batches: once full, once the oldest message
+ * has lingered, and when the module removes the listener at the end of a connection.
+ *
+ * @author kendavidson
+ */
+public class BatchedReadListenerTest {
+
+    private static final long LINGER = 20;
+    private static final long TIMEOUT = 5000;
+
+    private final BluetoothDevice mDevice = device(ADDRESS);
+    private final TestScheduler mScheduler = new TestScheduler();
+    private final List<List<String>> mSent = new ArrayList<>();
+    private final List<Long> mSentReads = new ArrayList<>();
+
+    @Test
+    public void fullBatchIsFlushedImmediately() {
+        BatchedReadListener<String> listener = listener(3);
+        listener.accept(mDevice, "a", 1);
+        listener.accept(mDevice, "b", 2);
+        assertTrue(mSent.isEmpty());
+
+        listener.accept(mDevice, "c", 3);
+        assertEquals(Collections.singletonList(Arrays.asList("a", "b", "c")), mSent);
+
+        // The linger flush was cancelled along with the batch
+        assertTrue(mScheduler.getScheduled().isEmpty());
+        assertEquals(0, mScheduler.runScheduled());
+    }
+
+    @Test
+    public void partialBatchIsFlushedAfterTheLinger() {
+        BatchedReadListener<String> listener = listener(10);
+        listener.accept(mDevice, "a", 1);
+        listener.accept(mDevice, "b", 2);
+
+        // Only the first message schedules the flush
+        assertEquals(Collections.singletonList(LINGER), mScheduler.getScheduled());
+        assertTrue(mSent.isEmpty());
+
+        assertEquals(1, mScheduler.runScheduled());
+        assertEquals(Collections.singletonList(Arrays.asList("a", "b")), mSent);
+
+        listener.accept(mDevice, "c", 3);
+        assertEquals(Collections.singletonList(LINGER), mScheduler.getScheduled());
+    }
+
+    @Test
+    public void batchIsGivenTheOldestRead() {
+        BatchedReadListener<String> listener = listener(2);
+        listener.accept(mDevice, "a", 100);
+        listener.accept(mDevice, "b", 200);
+        listener.accept(mDevice, "c", 300);
+        mScheduler.runScheduled();
+
+        assertEquals(Arrays.asList(100L, 300L), mSentReads);
+    }
+
+    @Test
+    public void flushWithoutMessagesSendsNothing() {
+        listener(2).flush();
+        assertTrue(mSent.isEmpty());
+    }
+
+    @Test
+    public void remainingBatchIsSentWhenTheConnectionEnds() throws Exception {
+        PipedOutputStream remote = new PipedOutputStream();
+        PipedInputStream input = new PipedInputStream(remote);
+
+        try (TestModule testModule = new TestModule(
+                (adapter, config) -> {
+                    throw new IOException("Only connecting in this test");
+                },
+                (device, config) -> new ConnectionConnector(device, config) {
+                    @Override
+                    protected BluetoothSocket connect(ConnectionConfig config) {
+                        return socket(device.getAddress(), input, new ByteArrayOutputStream());
+                    }
+
+                    @Override
+                    protected void cancel() { }
+                })) {
+            DeviceEventManagerModule.RCTDeviceEventEmitter emitter =
+                    mock(DeviceEventManagerModule.RCTDeviceEventEmitter.class);
+            when(testModule.context().hasActiveCatalystInstance()).thenReturn(true);
+            when(testModule.context().getJSModule(DeviceEventManagerModule.RCTDeviceEventEmitter.class))
+                    .thenReturn(emitter);
+            RNBluetoothClassicModule module = testModule.module();
+
+            // Neither the size nor the linger will be reached before the connection ends
+            Promise promise = mock(Promise.class);
+            module.connectToDevice(ADDRESS,
+                    JavaOnlyMap.of("readBatchSize", 10, "readBatchLinger", 60000), promise);
+            verify(promise, timeout(TIMEOUT)).resolve(any());
+            module.addListener("DEVICE_READ@" + ADDRESS);
+
+            remote.write("a\nb\n".getBytes(StandardCharsets.UTF_8));
+            remote.close();
+
+            ArgumentCaptor<Object> event = ArgumentCaptor.forClass(Object.class);
+            verify(emitter, timeout(TIMEOUT)).emit(eq("DEVICE_READ@" + ADDRESS), event.capture());
+
+            ReadableArray data = ((ReadableMap) event.getValue()).getArray("data");
+            assertEquals(2, data.size());
+            assertEquals("a", data.getString(0));
+            assertEquals("b", data.getString(1));
+        }
+    }
+
+    private BatchedReadListener<String> listener(int batchSize) {
+        return new BatchedReadListener<>(batchSize, LINGER, mScheduler,
+                (BluetoothDevice device, List<String> data, long readNanos) -> {
+                    mSent.add(data);
+                    mSentReads.add(readNanos);
+                });
+    }
+}
@@ -0,0 +1,164 @@
+package kjd.reactnative.bluetooth.event;
+
+import android.bluetooth.BluetoothDevice;
+
+import com.facebook.react.bridge.JavaOnlyMap;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static kjd.reactnative.bluetooth.conn.TestConnections.ADDRESS;
+import static kjd.reactnative.bluetooth.conn.TestConnections.device;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks which messages {@link ConflatingReadListener} keeps, by key, and when it hands them
+ * off.  The interval is long enough that only the first message is sent straight away, the
+ * rest wait for the {@link TestScheduler}.
+ *
+ * @author kendavidson
+ */
+public class ConflatingReadListenerTest {
+
+    private static final long INTERVAL = TimeUnit.HOURS.toMillis(1);
+
+    private final BluetoothDevice mDevice = device(ADDRESS);
+    private final TestScheduler mScheduler = new TestScheduler();
+    private final List<Object> mSent = new ArrayList<>();
+    private final List<Long> mSentReads = new ArrayList<>();
+
+    @Test
+    public void firstMessageIsSentImmediately() {
+        ConflatingReadListener listener = listener(null);
+        listener.accept(mDevice, "a", 1);
+
+        assertEquals(Collections.singletonList("a"), mSent);
+        assertEquals(Collections.singletonList(1L), mSentReads);
+        assertTrue(mScheduler.getScheduled().isEmpty());
+    }
+
+    @Test
+    public void waitingMessageIsReplaced() {
+        ConflatingReadListener listener = listener(null);
+        listener.accept(mDevice, "a", 1);
+        listener.accept(mDevice, "b", 2);
+        listener.accept(mDevice, "c", 3);
+
+        assertEquals(Collections.singletonList("a"), mSent);
+        assertEquals(1, mScheduler.getScheduled().size());
+        assertEquals(1, listener.getConflated());
+
+        mScheduler.runScheduled();
+        assertEquals(Arrays.asList("a", "c"), mSent);
+        assertEquals(Arrays.asList(1L, 3L), mSentReads);
+    }
+
+    @Test
+    public void sentMessagesAreNotConflated() {
+        ConflatingReadListener listener = listener(null);
+        listener.accept(mDevice, "a", 1);
+        listener.accept(mDevice, "b", 2);
+        mScheduler.runScheduled();
+        listener.accept(mDevice, "c", 3);
+        mScheduler.runScheduled();
+
+        assertEquals(Arrays.asList("a", "b", "c"), mSent);
+        assertEquals(0, listener.getConflated());
+    }
+
+    @Test
+    public void flushSendsTheWaitingMessage() {
+        ConflatingReadListener listener = listener(null);
+        listener.accept(mDevice, "a", 1);
+        listener.accept(mDevice, "b", 2);
+        listener.flush();
+
+        assertEquals(Arrays.asList("a", "b"), mSent);
+        assertEquals(0, mScheduler.runScheduled());
+    }
+
+    @Test
+    public void stringKeyIsThePrefix() {
+        ConflatingReadListener listener = listener(",");
+        listener.accept(mDevice, "$GPGGA,1", 1);
+        listener.accept(mDevice, "$GPGGA,2", 2);
+        listener.accept(mDevice, "$GPRMC,1", 3);
+        listener.accept(mDevice, "$GPGGA,3", 4);
+        listener.accept(mDevice, "no key", 5);
+        listener.accept(mDevice, "other", 6);
+
+        mScheduler.runScheduled();
+        assertEquals(Arrays.asList(
+                Collections.singletonList("$GPGGA,1"),
+                Arrays.asList("$GPGGA,3", "$GPRMC,1", "other")), mSent);
+
+        // $GPGGA,2 and "no key" (which like "other" has no key) were replaced
+        assertEquals(2, listener.getConflated());
+    }
+
+    @Test
+    public void mapKeyIsTheField() {
+        ConflatingReadListener listener = listener("id");
+        listener.accept(mDevice, JavaOnlyMap.of("id", "first", "value", 1), 1);
+        listener.accept(mDevice, JavaOnlyMap.of("id", "a", "value", 2), 2);
+        listener.accept(mDevice, JavaOnlyMap.of("id", 7, "value", 3), 3);
+        listener.accept(mDevice, JavaOnlyMap.of("id", "a", "value", 4), 4);
+        listener.accept(mDevice, JavaOnlyMap.of("id", 7.0, "value", 5), 5);
+        listener.accept(mDevice, JavaOnlyMap.of("value", 6), 6);
+        listener.accept(mDevice, JavaOnlyMap.of("id", true, "value", 7), 7);
+
+        mScheduler.runScheduled();
+        assertEquals(Arrays.asList(4.0, 5.0, 7.0), values(mSent.get(1)));
+
+        // Messages without a String or Number key share a key
+        assertEquals(3, listener.getConflated());
+    }
+
+    @Test
+    public void keyedMessagesAreGivenTheOldestRead() {
+        ConflatingReadListener listener = listener(",");
+        listener.accept(mDevice, "A,1", 100);
+        listener.accept(mDevice, "A,2", 200);
+        listener.accept(mDevice, "B,1", 300);
+        listener.accept(mDevice, "A,3", 400);
+
+        mScheduler.runScheduled();
+        assertEquals(Arrays.asList(100L, 300L), mSentReads);
+    }
+
+    @Test
+    public void nothingIsScheduledWithoutMessages() {
+        ConflatingReadListener listener = listener(",");
+        listener.flush();
+        listener.drain();
+
+        assertTrue(mSent.isEmpty());
+        assertTrue(mScheduler.getScheduled().isEmpty());
+    }
+
+    private ConflatingReadListener listener(String key) {
+        return new ConflatingReadListener(INTERVAL, key, mScheduler,
+                (BluetoothDevice device, Object data, long readNanos) -> {
+                    mSent.add(data);
+                    mSentReads.add(readNanos);
+                },
+                (BluetoothDevice device, List<Object> data, long readNanos) -> {
+                    mSent.add(data);
+                    mSentReads.add(readNanos);
+                });
+    }
+
+    private static List<Double> values(Object batch) {
+        List<Double> values = new ArrayList<>();
+        for (Object message : (List<?>) batch) {
+            values.add(((JavaOnlyMap) message).getDouble("value"));
+        }
+        return values;
+    }
+}
@@ -0,0 +1,190 @@
+package kjd.reactnative.bluetooth.event;
+
+import android.bluetooth.BluetoothDevice;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import kjd.reactnative.bluetooth.conn.DelimitedStringDeviceConnectionImpl;
+import kjd.reactnative.bluetooth.conn.OverflowPolicy;
+
+import static kjd.reactnative.bluetooth.conn.TestConnections.ADDRESS;
+import static kjd.reactnative.bluetooth.conn.TestConnections.config;
+import static kjd.reactnative.bluetooth.conn.TestConnections.device;
+import static kjd.reactnative.bluetooth.conn.TestConnections.socket;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Checks the credit used by {@link CreditReadListener} and its {@link OverflowPolicy}s, and the
+ * credit applied by a flow controlled {@link ConflatingReadListener}.
+ *
+ * @author kendavidson
+ */
+public class CreditReadListenerTest {
+
+    private final BluetoothDevice mDevice = device(ADDRESS);
+    private final List<Object> mSent = new ArrayList<>();
+    private final List<Long> mSentReads = new ArrayList<>();
+
+    @Test
+    public void messagesAreSentWhileThereIsCredit() {
+        CreditReadListener listener = listener(2, 10, OverflowPolicy.DROP_OLDEST);
+        listener.accept(mDevice, "a", 1);
+        listener.accept(mDevice, "b", 2);
+        listener.accept(mDevice, "c", 3);
+
+        assertEquals(Arrays.asList("a", "b"), mSent);
+        assertEquals(0, listener.getCredit());
+        assertEquals(1, listener.getQueueDepth());
+    }
+
+    @Test
+    public void grantSendsTheWaitingMessages() {
+        CreditReadListener listener = listener(0, 10, OverflowPolicy.DROP_OLDEST);
+        listener.accept(mDevice, "a", 1);
+        listener.accept(mDevice, "b", 2);
+        listener.accept(mDevice, "c", 3);
+
+        assertEquals(0, listener.grant(2));
+        assertEquals(Arrays.asList("a", "b"), mSent);
+        assertEquals(Arrays.asList(1L, 2L), mSentReads);
+
+        assertEquals(4, listener.grant(5));
+        assertEquals(Arrays.asList("a", "b", "c"), mSent);
+        assertEquals(0, listener.getQueueDepth());
+    }
+
+    @Test
+    public void dropOldest() {
+        CreditReadListener listener = listener(0, 2, OverflowPolicy.DROP_OLDEST);
+        listener.accept(mDevice, "a", 1);
+        listener.accept(mDevice, "b", 2);
+        listener.accept(mDevice, "c", 3);
+
+        listener.grant(10);
+        assertEquals(Arrays.asList("b", "c"), mSent);
+        assertEquals(Arrays.asList(2L, 3L), mSentReads);
+        assertEquals(1, listener.getDropped());
+    }
+
+    @Test
+    public void dropNewest() {
+        CreditReadListener listener = listener(0, 2, OverflowPolicy.DROP_NEWEST);
+        listener.accept(mDevice, "a", 1);
+        listener.accept(mDevice, "b", 2);
+        listener.accept(mDevice, "c", 3);
+
+        listener.grant(10);
+        assertEquals(Arrays.asList("a", "b"), mSent);
+        assertEquals(1, listener.getDropped());
+    }
+
+    @Test
+    public void disconnectPolicyThrows() {
+        CreditReadListener listener = listener(0, 1, OverflowPolicy.DISCONNECT);
+        listener.accept(mDevice, "a", 1);
+
+        try {
+            listener.accept(mDevice, "b", 2);
+            fail("The queue limit was exceeded");
+        } catch (IllegalStateException e) {
+            assertEquals("Read credit queue limit of 1 messages exceeded", e.getMessage());
+        }
+        assertEquals(1, listener.getQueueDepth());
+    }
+
+    @Test
+    public void disconnectPolicyDisconnectsFromTheReadThread() throws Exception {
+        CreditReadListener listener = listener(0, 1, OverflowPolicy.DISCONNECT);
+        DelimitedStringDeviceConnectionImpl connection = new DelimitedStringDeviceConnectionImpl(
+                socket(new ByteArrayInputStream("a\nb\nc\n".getBytes(StandardCharsets.UTF_8)),
+                        new ByteArrayOutputStream()),
+                config("delimiter", "\n"));
+        connection.onDataReceived(listener::accept);
+
+        AtomicReference<Exception> disconnected = new AtomicReference<>();
+        connection.onDisconnect((device, e) -> disconnected.set(e));
+
+        // Run as the read thread would, the overflow ends the read rather than the end of
+        // the stream
+        connection.run();
+
+        assertTrue(disconnected.get() instanceof IllegalStateException);
+        assertEquals(Collections.emptyList(), mSent);
+        assertEquals(1, listener.getQueueDepth());
+    }
+
+    @Test
+    public void drainSendsWithoutCredit() {
+        CreditReadListener listener = listener(0, 10, OverflowPolicy.DROP_OLDEST);
+        listener.accept(mDevice, "a", 1);
+        listener.accept(mDevice, "b", 2);
+
+        listener.drain();
+        assertEquals(Arrays.asList("a", "b"), mSent);
+        assertEquals(Arrays.asList(1L, 2L), mSentReads);
+        assertEquals(0, listener.getCredit());
+        assertEquals(0, listener.getQueueDepth());
+    }
+
+    @Test
+    public void creditIsAppliedAfterConflation() {
+        TestScheduler scheduler = new TestScheduler();
+        ConflatingReadListener listener = new ConflatingReadListener(
+                TimeUnit.HOURS.toMillis(1), null, true, 0, scheduler,
+                (BluetoothDevice device, Object data, long readNanos) -> mSent.add(data),
+                (BluetoothDevice device, List<Object> data, long readNanos) -> mSent.add(data));
+
+        // Without credit messages keep being conflated, rather than waiting in a queue
+        listener.accept(mDevice, "a", 1);
+        listener.accept(mDevice, "b", 2);
+        listener.accept(mDevice, "c", 3);
+        assertTrue(mSent.isEmpty());
+        assertTrue(scheduler.getScheduled().isEmpty());
+        assertEquals(2, listener.getConflated());
+
+        // Each hand off uses a credit
+        assertEquals(1, listener.grant(2));
+        assertEquals(Collections.singletonList("c"), mSent);
+
+        listener.accept(mDevice, "d", 4);
+        listener.accept(mDevice, "e", 5);
+        scheduler.runScheduled();
+        assertEquals(Arrays.asList("c", "e"), mSent);
+        assertEquals(0, listener.getCredit());
+
+        // Once the connection has ended the newest is sent whether or not there is credit
+        listener.accept(mDevice, "f", 6);
+        assertTrue(scheduler.getScheduled().isEmpty());
+        listener.drain();
+        assertEquals(Arrays.asList("c", "e", "f"), mSent);
+        assertEquals(0, listener.getCredit());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void conflatingGrantRequiresFlowControl() {
+        new ConflatingReadListener(1, null, new TestScheduler(),
+                (BluetoothDevice device, Object data, long readNanos) -> { },
+                (BluetoothDevice device, List<Object> data, long readNanos) -> { })
+                .grant(1);
+    }
+
+    private CreditReadListener listener(long credit, int limit, OverflowPolicy overflowPolicy) {
+        return new CreditReadListener(credit, limit, overflowPolicy,
+                (BluetoothDevice device, Object data, long readNanos) -> {
+                    mSent.add(data);
+                    mSentReads.add(readNanos);
+                });
+    }
+}
@@ -0,0 +1,161 @@
+package kjd.reactnative.bluetooth.event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A scheduler which only runs its tasks when the test calls {@link #runScheduled()}, as if
+ * their delay had passed.  Lets the read listeners be tested without waiting.
+ *
+ * @author kendavidson
+ */
+public class TestScheduler extends AbstractExecutorService implements ScheduledExecutorService {
+
+    private final List<Task> mTasks = new ArrayList<>();
+
+    /**
+     * Runs the tasks scheduled (and not cancelled) so far.
+     *
+     * @return the number of tasks run
+     */
+    public int runScheduled() {
+        List<Task> tasks = new ArrayList<>(mTasks);
+        mTasks.clear();
+
+        int run = 0;
+        for (Task task : tasks) {
+            if (!task.isCancelled()) {
+                task.run();
+                run++;
+            }
+        }
+        return run;
+    }
+
+    /**
+     * @return the delays (milliseconds) of the tasks waiting to be run
+     */
+    public List<Long> getScheduled() {
+        List<Long> delays = new ArrayList<>();
+        for (Task task : mTasks) {
+            if (!task.isCancelled())
+                delays.add(task.getDelay(TimeUnit.MILLISECONDS));
+        }
+        return delays;
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+        Task task = new Task(command, unit.toNanos(delay));
+        mTasks.add(task);
+        return task;
+    }
+
+    @Override
+    public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void shutdown() {
+        mTasks.clear();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        mTasks.clear();
+        return new ArrayList<>();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return false;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return false;
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) {
+        return true;
+    }
+
+    private static class Task implements ScheduledFuture<Object> {
+
+        private final Runnable mCommand;
+        private final long mDelay;
+        private boolean mCancelled;
+        private boolean mDone;
+
+        Task(Runnable command, long delay) {
+            this.mCommand = command;
+            this.mDelay = delay;
+        }
+
+        void run() {
+            mDone = true;
+            mCommand.run();
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(mDelay, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(mDelay, other.getDelay(TimeUnit.NANOSECONDS));
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            if (mDone)
+                return false;
+            mCancelled = true;
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return mCancelled;
+        }
+
+        @Override
+        public boolean isDone() {
+            return mDone || mCancelled;
+        }
+
+        @Override
+        public Object get() {
+            return null;
+        }
+
+        @Override
+        public Object get(long timeout, TimeUnit unit) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package kjd.reactnative.bluetooth.frame;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import kjd.reactnative.bluetooth.conn.ConnectionConfig;
+import kjd.reactnative.bluetooth.conn.DelimitedStringDeviceConnectionImpl;
+import kjd.reactnative.bluetooth.conn.TestConnections;
+
+import static kjd.reactnative.bluetooth.conn.TestConnections.config;
+import static kjd.reactnative.bluetooth.conn.TestConnections.socket;
+import static kjd.reactnative.bluetooth.frame.TestFrames.INVALID;
+import static kjd.reactnative.bluetooth.frame.TestFrames.bytes;
+import static kjd.reactnative.bluetooth.frame.TestFrames.frames;
+import static kjd.reactnative.bluetooth.frame.TestFrames.hex;
+import static kjd.reactnative.bluetooth.frame.TestFrames.split;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Checks the {@link ByteDelimiterFramer}: multi byte delimiters split across reads, empty and
+ * oversized frames, parsing the hex delimiter, and that it frames the same messages as the
+ * String based {@link DelimitedStringDeviceConnectionImpl}.
+ *
+ * @author kendavidson
+ */
+public class ByteDelimiterFramerTest {
+
+    private static final byte[] CRLF = bytes(0x0D, 0x0A);
+    private static final int MAX_FRAME_SIZE = 1024;
+
+    @Test
+    public void delimiterSplitAcrossReads() {
+        byte[] data = ascii("ab\r\nc\rd\r\n\r\nef\r\n");
+        List<String> expected = Arrays.asList(hex(ascii("ab")), hex(ascii("c\rd")), hex(ascii("ef")));
+
+        for (int size = 1; size <= data.length; size++) {
+            assertEquals("read " + size, expected,
+                    frames(new ByteDelimiterFramer(CRLF, MAX_FRAME_SIZE), split(data, size)));
+        }
+    }
+
+    @Test
+    public void emptyFramesAreSkipped() {
+        assertEquals(Collections.singletonList("01"),
+                frames(new ByteDelimiterFramer(bytes(0x7E), MAX_FRAME_SIZE), bytes(0x7E, 0x7E, 0x01, 0x7E, 0x7E)));
+    }
+
+    @Test
+    public void oversizedFramesAreDropped() {
+        assertEquals(Arrays.asList(INVALID, hex(ascii("ab"))),
+                frames(new ByteDelimiterFramer(CRLF, 4), ascii("abcdef\r\nab\r\n")));
+    }
+
+    @Test
+    public void oversizedFramesSplitAcrossReadsAreDroppedOnce() {
+        byte[] data = ascii("abcdefghijkl\r\nab\r\n");
+        for (int size = 1; size <= data.length; size++) {
+            assertEquals("read " + size, Arrays.asList(INVALID, hex(ascii("ab"))),
+                    frames(new ByteDelimiterFramer(CRLF, 4), split(data, size)));
+        }
+    }
+
+    @Test
+    public void parseHex() {
+        assertArrayEquals(CRLF, ByteDelimiterFramer.parseHex("0D0A"));
+        assertArrayEquals(CRLF, ByteDelimiterFramer.parseHex("0x0D 0x0A"));
+        assertArrayEquals(CRLF, ByteDelimiterFramer.parseHex(" 0d,0a "));
+        assertArrayEquals(bytes(0x7E), ByteDelimiterFramer.parseHex("0X7e"));
+    }
+
+    @Test
+    public void parseInvalidHex() {
+        for (String hex : new String[] { "0D0", "0x0x0D", "0G", "0x", "0D 0" }) {
+            try {
+                ByteDelimiterFramer.parseHex(hex);
+                fail(hex + " was parsed");
+            } catch (IllegalArgumentException expected) {
+                // Invalid
+            }
+        }
+    }
+
+    @Test
+    public void asciiFramesTheSameMessages() throws Exception {
+        assertSameMessages("ascii");
+    }
+
+    @Test
+    public void utf8FramesTheSameMessages() throws Exception {
+        assertSameMessages("utf-8");
+    }
+
+    /**
+     * Both connections are given the same CRLF delimited data, in chunks which split some of
+     * the delimiters.  The framed messages are delivered hex encoded.
+     */
+    private static void assertSameMessages(String charset) throws Exception {
+        StringBuilder data = new StringBuilder();
+        List<String> frames = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            String message = "$GPGGA," + i + ",4807.038,N,01131.000,E,1,08,0.9*47";
+            data.append(message).append("\r\n");
+            frames.add(hex(ascii(message)));
+        }
+        byte[] bytes = ascii(data.toString());
+
+        DelimitedStringDeviceConnectionImpl delimited = new DelimitedStringDeviceConnectionImpl(
+                socket(), config("charset", charset, "delimiter", "\r\n"));
+        List<String> messages = new ArrayList<>();
+        delimited.onDataReceived((device, message) -> messages.add(hex(ascii(message))));
+        TestConnections.receive(delimited, bytes, 37);
+
+        ConnectionConfig config = config("frameEncoding", "hex", "frameDelimiter", "0D0A");
+        FramedDeviceConnectionImpl framed = new FramedDeviceConnectionImpl(
+                socket(), config, new ByteDelimiterFramer(config));
+        List<String> framedMessages = new ArrayList<>();
+        framed.onDataReceived((device, message) -> framedMessages.add(message));
+        TestConnections.receive(framed, bytes, 37);
+
+        assertEquals(frames, messages);
+        assertEquals(frames, framedMessages);
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
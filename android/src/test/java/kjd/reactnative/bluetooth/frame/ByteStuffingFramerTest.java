@@ -0,0 +1,136 @@
+package kjd.reactnative.bluetooth.frame;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static kjd.reactnative.bluetooth.frame.TestFrames.INVALID;
+import static kjd.reactnative.bluetooth.frame.TestFrames.bytes;
+import static kjd.reactnative.bluetooth.frame.TestFrames.concat;
+import static kjd.reactnative.bluetooth.frame.TestFrames.frames;
+import static kjd.reactnative.bluetooth.frame.TestFrames.hex;
+import static kjd.reactnative.bluetooth.frame.TestFrames.range;
+import static kjd.reactnative.bluetooth.frame.TestFrames.split;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks the SLIP, HDLC and COBS {@link ByteStuffingFramer}s, including escapes, aborted frames
+ * and frames split across reads.
+ *
+ * @author kendavidson
+ */
+public class ByteStuffingFramerTest {
+
+    private static final int MAX_FRAME_SIZE = 1024;
+
+    @Test
+    public void slipEscapes() {
+        assertEquals(Collections.singletonList("01c002db03"),
+                frames(new SlipFramer(MAX_FRAME_SIZE),
+                        bytes(0x01, 0xDB, 0xDC, 0x02, 0xDB, 0xDD, 0x03, 0xC0)));
+    }
+
+    @Test
+    public void slipSkipsEmptyFrames() {
+        assertEquals(Collections.singletonList("01"),
+                frames(new SlipFramer(MAX_FRAME_SIZE), bytes(0xC0, 0xC0, 0x01, 0xC0)));
+    }
+
+    @Test
+    public void slipEscapedEndAborts() {
+        assertEquals(Arrays.asList(INVALID, "05"),
+                frames(new SlipFramer(MAX_FRAME_SIZE), bytes(0x01, 0x02, 0xDB, 0xC0, 0x05, 0xC0)));
+    }
+
+    @Test
+    public void slipInvalidEscape() {
+        assertEquals(Arrays.asList(INVALID, "02"),
+                frames(new SlipFramer(MAX_FRAME_SIZE), bytes(0x01, 0xDB, 0x07, 0xC0, 0x02, 0xC0)));
+    }
+
+    @Test
+    public void slipEscapeSplitAcrossReads() {
+        assertEquals(Collections.singletonList("01c0"),
+                frames(new SlipFramer(MAX_FRAME_SIZE), bytes(0x01, 0xDB), bytes(0xDC, 0xC0)));
+    }
+
+    @Test
+    public void hdlcEscapes() {
+        assertEquals(Collections.singletonList("017e7d03"),
+                frames(new HdlcFramer(MAX_FRAME_SIZE),
+                        bytes(0x7E, 0x01, 0x7D, 0x5E, 0x7D, 0x5D, 0x7D, 0x23, 0x7E)));
+    }
+
+    @Test
+    public void hdlcAbort() {
+        assertEquals(Arrays.asList(INVALID, "02"),
+                frames(new HdlcFramer(MAX_FRAME_SIZE), bytes(0x7E, 0x01, 0x7D, 0x7E, 0x02, 0x7E)));
+    }
+
+    @Test
+    public void hdlcSharedFlags() {
+        assertEquals(Arrays.asList("01", "02"),
+                frames(new HdlcFramer(MAX_FRAME_SIZE), bytes(0x7E, 0x01, 0x7E, 0x02, 0x7E)));
+    }
+
+    @Test
+    public void cobsZeroRuns() {
+        assertCobs(bytes(0x00), bytes(0x01, 0x01, 0x00));
+        assertCobs(bytes(0x00, 0x00), bytes(0x01, 0x01, 0x01, 0x00));
+        assertCobs(bytes(0x11, 0x22, 0x00, 0x33), bytes(0x03, 0x11, 0x22, 0x02, 0x33, 0x00));
+        assertCobs(bytes(0x11, 0x22, 0x33, 0x44), bytes(0x05, 0x11, 0x22, 0x33, 0x44, 0x00));
+        assertCobs(bytes(0x11, 0x00, 0x00, 0x00), bytes(0x02, 0x11, 0x01, 0x01, 0x01, 0x00));
+    }
+
+    @Test
+    public void cobsBlockBoundary() {
+        // 254 non zero bytes fill a block, with no implied zero
+        assertCobs(range(0x01, 0xFE), concat(bytes(0xFF), range(0x01, 0xFE), bytes(0x00)));
+        assertCobs(concat(bytes(0x00), range(0x01, 0xFE)),
+                concat(bytes(0x01, 0xFF), range(0x01, 0xFE), bytes(0x00)));
+        assertCobs(range(0x01, 0xFF),
+                concat(bytes(0xFF), range(0x01, 0xFE), bytes(0x02, 0xFF, 0x00)));
+        assertCobs(concat(range(0x02, 0xFF), bytes(0x00)),
+                concat(bytes(0xFF), range(0x02, 0xFF), bytes(0x01, 0x01, 0x00)));
+        assertCobs(concat(range(0x03, 0xFF), bytes(0x00, 0x01)),
+                concat(bytes(0xFE), range(0x03, 0xFF), bytes(0x02, 0x01, 0x00)));
+    }
+
+    @Test
+    public void cobsTruncatedBlock() {
+        assertEquals(Arrays.asList(INVALID, "11"),
+                frames(new CobsFramer(MAX_FRAME_SIZE), bytes(0x03, 0x11, 0x00, 0x02, 0x11, 0x00)));
+    }
+
+    @Test
+    public void oversizedFramesAreInvalid() {
+        assertEquals(Arrays.asList(INVALID, "0102"),
+                frames(new SlipFramer(2), bytes(0x01, 0x02, 0x03, 0xC0, 0x01, 0x02, 0xC0)));
+    }
+
+    @Test
+    public void framesSplitAcrossReads() {
+        byte[] slip = bytes(0x01, 0xDB, 0xDC, 0x02, 0xC0, 0xDB, 0xDD, 0xC0, 0x03, 0xDB, 0xC0, 0x04, 0xC0);
+        List<String> slipFrames = Arrays.asList("01c002", "db", INVALID, "04");
+
+        byte[] hdlc = bytes(0x7E, 0x01, 0x7D, 0x5E, 0x02, 0x7E, 0x7D, 0x5D, 0x7E, 0x03, 0x7D, 0x7E, 0x04, 0x7E);
+        List<String> hdlcFrames = Arrays.asList("017e02", "7d", INVALID, "04");
+
+        byte[] cobs = concat(bytes(0x03, 0x11, 0x22, 0x02, 0x33, 0x00),
+                bytes(0xFF), range(0x01, 0xFE), bytes(0x02, 0xFF, 0x00));
+        List<String> cobsFrames = Arrays.asList("11220033", hex(range(0x01, 0xFF)));
+
+        for (int size = 1; size <= cobs.length; size++) {
+            assertEquals("slip " + size, slipFrames, frames(new SlipFramer(MAX_FRAME_SIZE), split(slip, size)));
+            assertEquals("hdlc " + size, hdlcFrames, frames(new HdlcFramer(MAX_FRAME_SIZE), split(hdlc, size)));
+            assertEquals("cobs " + size, cobsFrames, frames(new CobsFramer(MAX_FRAME_SIZE), split(cobs, size)));
+        }
+    }
+
+    private static void assertCobs(byte[] decoded, byte[] encoded) {
+        assertEquals(Collections.singletonList(hex(decoded)),
+                frames(new CobsFramer(MAX_FRAME_SIZE), encoded));
+    }
+}
@@ -0,0 +1,96 @@
+package kjd.reactnative.bluetooth.frame;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static kjd.reactnative.bluetooth.frame.TestFrames.bytes;
+import static kjd.reactnative.bluetooth.frame.TestFrames.concat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks each {@link Crc16} variant against its catalogued check value (the CRC of the ASCII
+ * string {@code 123456789}) and the byte order of its trailer.
+ *
+ * @author kendavidson
+ */
+public class Crc16Test {
+
+    private static final byte[] CHECK = "123456789".getBytes(StandardCharsets.US_ASCII);
+
+    @Test
+    public void checkValues() {
+        assertEquals(0x29B1, Crc16.CCITT_FALSE.compute(CHECK, 0, CHECK.length));
+        assertEquals(0x31C3, Crc16.XMODEM.compute(CHECK, 0, CHECK.length));
+        assertEquals(0x906E, Crc16.X25.compute(CHECK, 0, CHECK.length));
+        assertEquals(0x2189, Crc16.KERMIT.compute(CHECK, 0, CHECK.length));
+        assertEquals(0x4B37, Crc16.MODBUS.compute(CHECK, 0, CHECK.length));
+    }
+
+    @Test
+    public void computeUsesOffsetAndLength() {
+        byte[] data = concat(bytes(0xAA, 0x55), CHECK, bytes(0xFF));
+        assertEquals(0x29B1, Crc16.CCITT_FALSE.compute(data, 2, CHECK.length));
+    }
+
+    @Test
+    public void bigEndianTrailers() {
+        assertTrailer(Crc16.CCITT_FALSE, 0x29, 0xB1);
+        assertTrailer(Crc16.XMODEM, 0x31, 0xC3);
+    }
+
+    @Test
+    public void littleEndianTrailers() {
+        assertTrailer(Crc16.X25, 0x6E, 0x90);
+        assertTrailer(Crc16.KERMIT, 0x89, 0x21);
+        assertTrailer(Crc16.MODBUS, 0x37, 0x4B);
+    }
+
+    @Test
+    public void validateRemovesTheTrailer() {
+        Frame frame = frame(concat(CHECK, bytes(0x29, 0xB1)));
+        assertTrue(Crc16.CCITT_FALSE.validate(frame));
+        assertEquals(CHECK.length, frame.length());
+    }
+
+    @Test
+    public void validateKeepsInvalidFrames() {
+        Frame frame = frame(concat(CHECK, bytes(0x29, 0xB0)));
+        assertFalse(Crc16.CCITT_FALSE.validate(frame));
+        assertEquals(CHECK.length + 2, frame.length());
+    }
+
+    @Test
+    public void framesShorterThanTheTrailerFail() {
+        assertFalse(Crc16.XMODEM.check(frame(bytes(0x00))));
+        assertTrue(Crc16.XMODEM.check(frame(bytes(0x00, 0x00))));
+    }
+
+    @Test
+    public void parse() {
+        assertEquals(Crc16.CCITT_FALSE, Crc16.parse("ccitt-false"));
+        assertEquals(Crc16.X25, Crc16.parse("CRC16_X25"));
+        assertEquals(Crc16.MODBUS, Crc16.parse(" crc16-modbus "));
+        assertNull(Crc16.parse("none"));
+        assertNull(Crc16.parse(""));
+    }
+
+    /**
+     * The trailer must be accepted in the variant's byte order and rejected when swapped.
+     */
+    private static void assertTrailer(Crc16 crc, int first, int second) {
+        assertTrue(crc.name(), crc.check(frame(concat(CHECK, bytes(first, second)))));
+        assertFalse(crc.name(), crc.check(frame(concat(CHECK, bytes(second, first)))));
+    }
+
+    private static Frame frame(byte[] data) {
+        Frame frame = new Frame(data.length);
+        for (byte b : data) {
+            frame.append(b);
+        }
+        return frame;
+    }
+}
@@ -0,0 +1,143 @@
+package kjd.reactnative.bluetooth.frame;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static kjd.reactnative.bluetooth.conn.TestConnections.config;
+import static kjd.reactnative.bluetooth.frame.TestFrames.INVALID;
+import static kjd.reactnative.bluetooth.frame.TestFrames.bytes;
+import static kjd.reactnative.bluetooth.frame.TestFrames.concat;
+import static kjd.reactnative.bluetooth.frame.TestFrames.frames;
+import static kjd.reactnative.bluetooth.frame.TestFrames.hex;
+import static kjd.reactnative.bluetooth.frame.TestFrames.range;
+import static kjd.reactnative.bluetooth.frame.TestFrames.split;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the {@link LengthFieldFramer} with each length field width and byte order, oversized
+ * frames and headers split across reads.
+ *
+ * @author kendavidson
+ */
+public class LengthFieldFramerTest {
+
+    private static final int MAX_FRAME_SIZE = 1024;
+
+    @Test
+    public void widthsAndByteOrders() {
+        byte[] payload = range(0x01, 0x05);
+        for (int width = 1; width <= 4; width++) {
+            for (boolean bigEndian : new boolean[] { true, false }) {
+                byte[] frame = concat(lengthField(payload.length, width, bigEndian), payload);
+                assertEquals(width + (bigEndian ? " big" : " little"),
+                        Collections.singletonList(hex(frame)),
+                        frames(new LengthFieldFramer(0, width, bigEndian, 0, MAX_FRAME_SIZE), frame));
+            }
+        }
+    }
+
+    @Test
+    public void byteOrder() {
+        // 0x0102 bytes big endian, 0x0201 little endian, only the little endian length is large
+        byte[] data = concat(bytes(0x01, 0x02), new byte[0x0102]);
+        assertEquals(1, frames(new LengthFieldFramer(0, 2, true, 0, 0x0200), data).size());
+        assertEquals(Collections.singletonList(INVALID),
+                frames(new LengthFieldFramer(0, 2, false, 0, 0x0200), data));
+    }
+
+    @Test
+    public void configuredByteOrder() {
+        byte[] frame = concat(bytes(0x03, 0x00), range(0x01, 0x03));
+        assertEquals(Collections.singletonList(hex(frame)),
+                frames(new LengthFieldFramer(config("lengthFieldWidth", 2,
+                        "lengthFieldByteOrder", "little")), frame));
+    }
+
+    @Test
+    public void offsetAndAdjustment() {
+        // Type byte, then a length which includes the two byte header
+        byte[] frame = bytes(0x7A, 0x05, 0x01, 0x02, 0x03);
+        assertEquals(Arrays.asList(hex(frame), hex(frame)),
+                frames(new LengthFieldFramer(1, 1, true, -2, MAX_FRAME_SIZE), concat(frame, frame)));
+    }
+
+    @Test
+    public void emptyFrames() {
+        assertEquals(Arrays.asList("00", "0111"),
+                frames(new LengthFieldFramer(0, 1, true, 0, MAX_FRAME_SIZE), bytes(0x00, 0x01, 0x11)));
+    }
+
+    @Test
+    public void lengthsShorterThanTheHeaderAreInvalid() {
+        // A length of 1 adjusted to -1, followed by a length of 3 adjusted to 1
+        assertEquals(Arrays.asList(INVALID, "0311"),
+                frames(new LengthFieldFramer(0, 1, true, -2, MAX_FRAME_SIZE), bytes(0x01, 0x03, 0x11)));
+    }
+
+    @Test
+    public void oversizedFramesAreDiscarded() {
+        // 0x10 bytes of data with an 8 byte max, followed by a valid frame
+        byte[] data = concat(bytes(0x10), range(0x01, 0x10), bytes(0x02, 0xAA, 0xBB));
+        for (int size = 1; size <= data.length; size++) {
+            assertEquals("read " + size, Arrays.asList(INVALID, "02aabb"),
+                    frames(new LengthFieldFramer(0, 1, true, 0, 8), split(data, size)));
+        }
+    }
+
+    @Test
+    public void maxFrameSizeIncludesTheHeader() {
+        assertEquals(Arrays.asList("0401020304", INVALID),
+                frames(new LengthFieldFramer(0, 1, true, 0, 5),
+                        bytes(0x04, 0x01, 0x02, 0x03, 0x04, 0x05, 0x01, 0x02, 0x03, 0x04, 0x05)));
+    }
+
+    @Test
+    public void largeLengthFields() {
+        // Four byte lengths beyond the int range must still be rejected
+        assertEquals(Collections.singletonList(INVALID),
+                frames(new LengthFieldFramer(0, 4, true, 0, MAX_FRAME_SIZE),
+                        bytes(0xFF, 0xFF, 0xFF, 0xFF, 0x01)));
+    }
+
+    @Test
+    public void partialHeaders() {
+        byte[] frame = concat(bytes(0x7A, 0x00, 0x00, 0x03), range(0x01, 0x03));
+        for (int size = 1; size <= frame.length; size++) {
+            assertEquals("read " + size, Arrays.asList(hex(frame), hex(frame)),
+                    frames(new LengthFieldFramer(1, 3, true, 0, MAX_FRAME_SIZE),
+                            split(concat(frame, frame), size)));
+        }
+    }
+
+    @Test
+    public void invalidConfigurations() {
+        assertInvalid(-1, 1, MAX_FRAME_SIZE);
+        assertInvalid(0, 0, MAX_FRAME_SIZE);
+        assertInvalid(0, 5, MAX_FRAME_SIZE);
+        assertInvalid(2, 2, 3);
+    }
+
+    private static void assertInvalid(int offset, int width, int maxFrameSize) {
+        try {
+            new LengthFieldFramer(offset, width, true, 0, maxFrameSize);
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains(offset < 0
+                    ? "lengthFieldOffset" : width < 1 || width > 4 ? "lengthFieldWidth" : "maxFrameSize"));
+            return;
+        }
+        throw new AssertionError(String.format("offset %d, width %d, maxFrameSize %d was accepted",
+                offset, width, maxFrameSize));
+    }
+
+    private static byte[] lengthField(int length, int width, boolean bigEndian) {
+        byte[] field = new byte[width];
+        for (int i = 0; i < width; i++) {
+            int shift = 8 * (bigEndian ? width - 1 - i : i);
+            field[i] = (byte) (length >>> shift);
+        }
+        return field;
+    }
+}
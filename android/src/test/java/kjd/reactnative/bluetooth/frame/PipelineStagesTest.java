@@ -0,0 +1,206 @@
+package kjd.reactnative.bluetooth.frame;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import kjd.reactnative.bluetooth.conn.ByteRingBuffer;
+
+import static kjd.reactnative.bluetooth.conn.TestConnections.config;
+import static kjd.reactnative.bluetooth.frame.TestFrames.bytes;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Checks the stages selected by name from {@link PipelineStages}, and the order in which the
+ * {@link FramePipeline} runs them.
+ *
+ * @author kendavidson
+ */
+public class PipelineStagesTest {
+
+    @Test
+    public void standardStagesAreLookedUpByName() {
+        FramePipeline pipeline = PipelineStages.standard().create(
+                config("framer", "delimiter", "frameEncoding", "hex"));
+        assertEquals(Arrays.asList("0102", "03"),
+                messages(pipeline, bytes(0x01, 0x02, 0x0A, 0x03, 0x0A)));
+
+        pipeline = PipelineStages.standard().create(
+                config("framer", "slip", "frameEncoding", "base64"));
+        assertEquals(Collections.singletonList("AQI="),
+                messages(pipeline, bytes(0x01, 0x02, 0xC0)));
+    }
+
+    @Test
+    public void crcValidatorDropsCorruptFrames() {
+        FramePipeline pipeline = PipelineStages.standard().create(config(
+                "framer", "delimiter",
+                "frameDelimiter", "7E",
+                "frameValidators", "crc",
+                "frameCrc", "modbus",
+                "frameEncoding", "hex"));
+
+        // MODBUS CRC of 01 02 is 0xE181, sent low byte first
+        assertEquals(Collections.singletonList("0102"),
+                messages(pipeline, bytes(0x01, 0x02, 0x81, 0xE1, 0x7E, 0x01, 0x03, 0x81, 0xE1, 0x7E)));
+    }
+
+    @Test
+    public void registeredStagesAreLookedUpByName() {
+        PipelineStages stages = PipelineStages.standard()
+                .withTransformer("reverse", config -> PipelineStagesTest::reverse)
+                .withEncoder("ascii", config -> PipelineStagesTest::ascii);
+
+        FramePipeline pipeline = stages.create(config(
+                "framer", "delimiter",
+                "frameTransformers", "reverse",
+                "frameEncoding", "ascii"));
+        assertEquals(Collections.singletonList("cba"), messages(pipeline, bytes('a', 'b', 'c', 0x0A)));
+    }
+
+    @Test
+    public void stagesRunInTheConfiguredOrder() {
+        List<String> order = new ArrayList<>();
+        PipelineStages stages = new PipelineStages()
+                .withFramer("delimiter", ByteDelimiterFramer::new)
+                .withValidator("first", config -> frame -> order.add("first"))
+                .withValidator("second", config -> frame -> order.add("second"))
+                .withTransformer("append-x", config -> frame -> {
+                    order.add("append-x");
+                    frame.append((byte) 'x');
+                })
+                .withTransformer("append-y", config -> frame -> {
+                    order.add("append-y");
+                    frame.append((byte) 'y');
+                })
+                .withEncoder("ascii", config -> PipelineStagesTest::ascii);
+
+        FramePipeline pipeline = stages.create(config(
+                "framer", "delimiter",
+                "frameValidators", Arrays.asList("second", "first"),
+                "frameTransformers", "append-y,append-x",
+                "frameEncoding", "ascii"));
+
+        assertEquals(Collections.singletonList("ayx"), messages(pipeline, bytes('a', 0x0A)));
+        assertEquals(Arrays.asList("second", "first", "append-y", "append-x"), order);
+    }
+
+    @Test
+    public void firstFailingValidatorDropsTheFrame() {
+        List<String> order = new ArrayList<>();
+        PipelineStages stages = PipelineStages.standard()
+                .withValidator("reject", config -> frame -> !order.add("reject"))
+                .withValidator("accept", config -> frame -> order.add("accept"))
+                .withTransformer("transform", config -> frame -> order.add("transform"));
+
+        FramePipeline pipeline = stages.create(config(
+                "framer", "delimiter",
+                "frameValidators", "reject,accept",
+                "frameTransformers", "transform"));
+
+        assertEquals(Collections.emptyList(), messages(pipeline, bytes(0x01, 0x0A)));
+        assertEquals(Collections.singletonList("reject"), order);
+    }
+
+    @Test
+    public void invalidFramesAreDroppedBeforeTheValidators() {
+        List<String> order = new ArrayList<>();
+        FramePipeline pipeline = new FramePipeline(
+                new ByteDelimiterFramer(new byte[] { 0x0A }, 2),
+                new FrameValidator[] { frame -> order.add("validate") },
+                null,
+                FrameEncoding.HEX);
+
+        Frame frame = new Frame(16);
+        frame.invalidate();
+        assertFalse(pipeline.process(frame));
+        assertTrue(order.isEmpty());
+    }
+
+    @Test
+    public void unknownFramerIsRejected() {
+        assertRejected("framer unknown is not registered",
+                "framer", "unknown");
+    }
+
+    @Test
+    public void unknownValidatorIsRejected() {
+        assertRejected("frame validator unknown is not registered",
+                "framer", "delimiter", "frameValidators", "unknown");
+    }
+
+    @Test
+    public void unknownTransformerIsRejected() {
+        assertRejected("frame transformer unknown is not registered",
+                "framer", "delimiter", "frameTransformers", "unknown");
+    }
+
+    @Test
+    public void unknownEncodingIsRejected() {
+        assertRejected("frame encoding unknown is not registered",
+                "framer", "delimiter", "frameEncoding", "unknown");
+    }
+
+    @Test
+    public void framerIsRequired() {
+        assertRejected("framer is required by pipeline connections");
+    }
+
+    @Test
+    public void crcValidatorRequiresTheCrc() {
+        assertRejected("frameCrc is required by the crc frame validator",
+                "framer", "delimiter", "frameValidators", "crc");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void pipelineRequiresAnEncoder() {
+        new FramePipeline(new ByteDelimiterFramer(new byte[] { 0x0A }, 16), null, null, null);
+    }
+
+    private static void assertRejected(String message, Object... options) {
+        try {
+            PipelineStages.standard().create(config(options));
+            fail("The pipeline should be rejected");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith(message));
+        }
+    }
+
+    /**
+     * Runs the received data through the pipeline as a pipeline connection would.
+     *
+     * @return the messages produced
+     */
+    private static List<String> messages(FramePipeline pipeline, byte[] data) {
+        ByteRingBuffer buffer = new ByteRingBuffer(16);
+        Frame frame = new Frame(16);
+        List<String> messages = new ArrayList<>();
+
+        buffer.write(data);
+        while (pipeline.next(buffer, frame)) {
+            if (pipeline.process(frame))
+                messages.add(pipeline.encode(frame));
+        }
+        return messages;
+    }
+
+    private static void reverse(Frame frame) {
+        byte[] data = frame.data();
+        for (int i = 0, j = frame.length() - 1; i < j; i++, j--) {
+            byte b = data[i];
+            data[i] = data[j];
+            data[j] = b;
+        }
+    }
+
+    private static String ascii(Frame frame) {
+        return new String(frame.data(), 0, frame.length(), StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,109 @@
+package kjd.reactnative.bluetooth.frame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import kjd.reactnative.bluetooth.conn.ByteRingBuffer;
+
+/**
+ * Helpers for driving a {@link Framer} directly, without a connection.
+ *
+ * @author kendavidson
+ */
+public class TestFrames {
+
+    /**
+     * Marks a frame which was {@link Frame#invalidate()}d.
+     */
+    public static final String INVALID = "invalid";
+
+    /**
+     * Provides each read to the {@code framer} in turn, collecting every frame it produces.
+     *
+     * @param framer the framer
+     * @param reads the data received by each read
+     * @return the hex encoded frames, or {@link #INVALID}
+     */
+    public static List<String> frames(Framer framer, byte[]... reads) {
+        ByteRingBuffer buffer = new ByteRingBuffer(16);
+        Frame frame = new Frame(16);
+        List<String> frames = new ArrayList<>();
+
+        for (byte[] read : reads) {
+            buffer.write(read);
+            while (framer.next(buffer, frame)) {
+                frames.add(frame.isValid() ? hex(frame.data(), frame.length()) : INVALID);
+            }
+        }
+        return frames;
+    }
+
+    /**
+     * Splits {@code data} into reads of {@code size} bytes (the last may be shorter).
+     *
+     * @param data the data
+     * @param size the read size
+     * @return the reads
+     */
+    public static byte[][] split(byte[] data, int size) {
+        byte[][] reads = new byte[(data.length + size - 1) / size][];
+        for (int i = 0; i < reads.length; i++) {
+            int length = Math.min(size, data.length - i * size);
+            reads[i] = new byte[length];
+            System.arraycopy(data, i * size, reads[i], 0, length);
+        }
+        return reads;
+    }
+
+    /**
+     * @param values unsigned byte values
+     * @return the bytes
+     */
+    public static byte[] bytes(int... values) {
+        byte[] bytes = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            bytes[i] = (byte) values[i];
+        }
+        return bytes;
+    }
+
+    /**
+     * @param from the first value
+     * @param to the last value (inclusive)
+     * @return the bytes {@code from} through {@code to}
+     */
+    public static byte[] range(int from, int to) {
+        byte[] bytes = new byte[to - from + 1];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (from + i);
+        }
+        return bytes;
+    }
+
+    public static byte[] concat(byte[]... parts) {
+        int length = 0;
+        for (byte[] part : parts) {
+            length += part.length;
+        }
+
+        byte[] bytes = new byte[length];
+        int offset = 0;
+        for (byte[] part : parts) {
+            System.arraycopy(part, 0, bytes, offset, part.length);
+            offset += part.length;
+        }
+        return bytes;
+    }
+
+    public static String hex(byte[] bytes) {
+        return hex(bytes, bytes.length);
+    }
+
+    public static String hex(byte[] bytes, int length) {
+        StringBuilder hex = new StringBuilder(length * 2);
+        for (int i = 0; i < length; i++) {
+            hex.append(String.format("%02x", bytes[i]));
+        }
+        return hex.toString();
+    }
+}
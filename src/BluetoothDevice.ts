@@ -1,11 +1,12 @@
 import BluetoothModule from './BluetoothModule';
 import BluetoothNativeDevice from './BluetoothNativeDevice';
 import {
+  BluetoothReadEvent,
   BluetoothEventListener,
   BluetoothDeviceReadEvent,
   BluetoothEventSubscription,
 } from './BluetoothEvent';
-import { StandardOptions } from './BluetoothNativeModule';
+import { StandardOptions, ConnectionStats } from './BluetoothNativeModule';
 import { Buffer } from 'buffer';
 
 /**
@@ -93,6 +94,30 @@ export default class BluetoothDevice implements BluetoothNativeDevice {
     return this._bluetoothModule.availableFromDevice(this.address);
   }
 
+  /**
+   * Throughput and latency stats for this connection.
+   *
+   * This is an Android only function.
+   *
+   * @return Promise resolving the ConnectionStats
+   */
+  getConnectionStats = (): Promise<ConnectionStats> => {
+    return this._bluetoothModule.getConnectionStats(this.address);
+  }
+
+  /**
+   * Grants read credit when connected with `readFlowControl`, allowing that many more
+   * messages to be received.
+   *
+   * This is an Android only function.
+   *
+   * @param credit the number of messages ready to be received
+   * @return Promise resolving the credit remaining
+   */
+  grantReadCredit = (credit: number): Promise<number> => {
+    return this._bluetoothModule.grantReadCredit(this.address, credit);
+  }
+
   /**
    * Read an individual message/data package from the device.  This depends completely on the
    * implementation of DeviceConnection.  The standard implemenation is based on delimited
@@ -140,16 +165,49 @@ export default class BluetoothDevice implements BluetoothNativeDevice {
     return this._bluetoothModule.writeToDevice(this.address, data, encoding);
   }
 
+  /**
+   * Writes each of the provided data to the device, in order, with a single call to the
+   * Native module.  Writing stops at the first failure.
+   *
+   * This is an Android only function.
+   *
+   * @param data to be written to the device.
+   * @param encoding the encoding used when wrapping non Buffer data
+   * @return Promise resolving the number of data written
+   */
+  writeMany = (
+    data: (string | Buffer)[],
+    encoding?:
+      | 'utf-8'
+      | 'ascii'
+      | 'utf8'
+      | 'utf16le'
+      | 'ucs2'
+      | 'ucs-2'
+      | 'base64'
+      | 'latin1'
+      | 'binary'
+      | 'hex'
+      | undefined
+  ): Promise<number> => {
+    return this._bluetoothModule.writeManyToDevice(this.address, data, encoding);
+  }
+
   /**
    * Adds a listener to the device.  Once completed this will:
    * - send queued data already read from the device (if implemented by DeviceConnection)
    * - send all subsequent data
    *
+   * Connections using `readBatchSize` should provide a listener for
+   * BluetoothDeviceReadBatchEvent(s).  Connections using `readEventFormat: 'compact'`
+   * should provide a listener for BluetoothDeviceCompactReadEvent(s) (or
+   * BluetoothDeviceCompactReadBatchEvent(s) when batching).
+   *
    * @param listener the BluetoothEventListener which will receive incoming data
    */
-  onDataReceived = (
-    listener: BluetoothEventListener<BluetoothDeviceReadEvent>
+  onDataReceived = <T extends BluetoothReadEvent = BluetoothDeviceReadEvent>(
+    listener: BluetoothEventListener<T>
   ): BluetoothEventSubscription => {
-    return this._bluetoothModule.onDeviceRead(this.address, listener);
+    return this._bluetoothModule.onDeviceRead<T>(this.address, listener);
   }
 }
@@ -12,6 +12,7 @@ export enum BluetoothEventType {
   DEVICE_READ = 'DEVICE_READ',
   ERROR = 'ERROR',
   DEVICE_DISCOVERED = 'DEVICE_DISCOVERED',
+  DEVICE_CONNECT_PROGRESS = 'DEVICE_CONNECT_PROGRESS',
 }
 
 /**
@@ -43,16 +44,117 @@ export interface BluetoothDeviceEvent extends BluetoothEvent {
 }
 
 /**
- * Device read events.
+ * Device read events.  The `timestamp` is a number when the connection is configured
+ * with `readTimestamp: 'epoch' | 'monotonic'` (Android).
  */
 export interface BluetoothDeviceReadEvent extends BluetoothDeviceEvent {
   data: string;
 }
 
+/**
+ * Device read events from `jsonl` connections (Android), the data is the parsed line.
+ */
+export interface BluetoothDeviceJsonReadEvent extends BluetoothDeviceEvent {
+  data: Record<string, unknown>;
+}
+
+/**
+ * A sentence parsed by `nmea` connections (Android).  Coordinates are signed
+ * decimal degrees, `time` is seconds since midnight UTC and `timestamp` is
+ * milliseconds since the epoch.  Empty fields are left out, sentences other
+ * than GGA, RMC, GLL and VTG provide their `fields` as strings.
+ */
+export interface NmeaSentence {
+  talker?: string;
+  sentence: string;
+  time?: number;
+  timestamp?: number;
+  valid?: boolean;
+  latitude?: number;
+  longitude?: number;
+  fix?: number;
+  satellites?: number;
+  hdop?: number;
+  altitude?: number;
+  geoidSeparation?: number;
+  speedKnots?: number;
+  speedKmh?: number;
+  course?: number;
+  courseMagnetic?: number;
+  fields?: string[];
+}
+
+/**
+ * Device read events from `nmea` connections (Android).
+ */
+export interface BluetoothDeviceNmeaReadEvent extends BluetoothDeviceEvent {
+  data: NmeaSentence;
+}
+
+/**
+ * Device read events when the connection is configured with `readBatchSize`.
+ */
+export interface BluetoothDeviceReadBatchEvent extends BluetoothDeviceEvent {
+  data: string[];
+}
+
+/**
+ * Device read events when the connection is configured with `readEventFormat: 'compact'`
+ * (Android).  The device is identified by the subscription, so only the data and a per
+ * connection sequence number are sent.  The numeric timestamp is only available with
+ * `readTimestamp: 'epoch' | 'monotonic'`.
+ */
+export interface BluetoothDeviceCompactReadEvent {
+  data: string;
+  sequence: number;
+  timestamp?: number;
+}
+
+/**
+ * Compact device read events when the connection is also configured with `readBatchSize`.
+ */
+export interface BluetoothDeviceCompactReadBatchEvent {
+  data: string[];
+  sequence: number;
+  timestamp?: number;
+}
+
+/**
+ * The result of a single device within `connectToDevices` (Android).  The device is
+ * missing when the address isn't valid.
+ */
+export interface ConnectResult {
+  status: 'connecting' | 'connected' | 'failed' | 'timeout';
+  device?: BluetoothNativeDevice;
+  error?: string;
+}
+
+/**
+ * Progress of `connectToDevices` (Android), sent as each device connection is attempted
+ * and completed.
+ */
+export interface BluetoothConnectProgressEvent extends ConnectResult {
+  eventType: BluetoothEventType;
+  timestamp: string;
+  address: string;
+  completed: number;
+  total: number;
+}
+
+/**
+ * Any of the event shapes which can be received by a device read listener.
+ */
+export type BluetoothReadEvent =
+  | BluetoothEvent
+  | BluetoothDeviceCompactReadEvent
+  | BluetoothDeviceCompactReadBatchEvent;
+
 /**
  * BluetoothDevice and RNBluetoothModule use event listeners for communication with javascript.
  */
-export type BluetoothEventListener<T extends BluetoothEvent> = (event: T) => void;
+export type BluetoothEventListener<
+  T extends BluetoothReadEvent | BluetoothConnectProgressEvent
+> = (event: T) => void;
 
 /**
  * Used to wrap EmitterSubscription or EventSubscription
@@ -1,4 +1,8 @@
-import RNBluetoothClassicModule, { StandardOptions } from './BluetoothNativeModule';
+import RNBluetoothClassicModule, {
+  StandardOptions,
+  ConnectionStats,
+  AllConnectionStats,
+} from './BluetoothNativeModule';
 import BluetoothDevice from './BluetoothDevice';
 import BluetoothNativeDevice from './BluetoothNativeDevice';
 import {
@@ -8,6 +12,9 @@ import {
   BluetoothDeviceEvent,
   BluetoothEventSubscription,
   BluetoothEvent,
+  BluetoothReadEvent,
+  BluetoothConnectProgressEvent,
+  ConnectResult,
 } from './BluetoothEvent';
 import { BluetoothDeviceReadEvent } from './BluetoothEvent';
 import { NativeEventEmitter, Platform } from 'react-native';
@@ -87,6 +94,47 @@ export default class BluetoothModule {
     return this._nativeModule.readFromDevice(address);
   }
 
+  /**
+   * Request the throughput and latency stats for a connected device.
+   *
+   * This is an Android only function.
+   *
+   * @param address address of the connected device
+   * @return Promise resolved with the device ConnectionStats
+   */
+  getConnectionStats(address: string): Promise<ConnectionStats>;
+
+  /**
+   * Request the throughput and latency stats for all connected devices, along
+   * with the state of the connection threads.
+   *
+   * This is an Android only function.
+   *
+   * @return Promise resolved with the AllConnectionStats
+   */
+  getConnectionStats(): Promise<AllConnectionStats>;
+
+  getConnectionStats(address?: string): Promise<ConnectionStats | AllConnectionStats> {
+    if (Platform.OS == 'ios') throw new Error('Method not implemented.');
+    return this._nativeModule.getConnectionStats(address ?? null);
+  }
+
+  /**
+   * Grants read credit to a connection using `readFlowControl`, allowing that
+   * many more messages to be received.  Grant credit as messages are processed
+   * so that events don't pile up while the Javascript thread is busy.
+   *
+   * This is an Android only function.
+   *
+   * @param address address of the connected device
+   * @param credit the number of messages ready to be received
+   * @return Promise resolved with the credit remaining
+   */
+  grantReadCredit(address: string, credit: number): Promise<number> {
+    if (Platform.OS == 'ios') throw new Error('Method not implemented.');
+    return this._nativeModule.grantReadCredit(address, credit);
+  }
+
   /**
    * Clears the device buffer.
    *
@@ -170,6 +218,27 @@ export default class BluetoothModule {
     return new BluetoothDevice(connected, this);
   }
 
+  /**
+   * Attempts to connect to each of the requested devices, using the same options for
+   * each.  No more than `connectConcurrency` attempts are made at the same time, each
+   * limited to `connectTimeout`.  Progress is available with `onDeviceConnectProgress`.
+   *
+   * Resolves once every device has completed with the result of each address, a device
+   * which fails doesn't reject the promise.
+   *
+   * This is an Android only feature.
+   *
+   * @param addresses the addresses to which we are connecting
+   * @param options extra properties required for the connections.
+   */
+  connectToDevices<T extends StandardOptions>(
+    addresses: string[],
+    options?: T
+  ): Promise<Record<string, ConnectResult>> {
+    if (Platform.OS == 'ios') throw new Error('Method not implemented.');
+    return this._nativeModule.connectToDevices(addresses, options || {});
+  }
+
   /**
    * Wraps connected NativeDevice.
    *
@@ -213,6 +282,44 @@ export default class BluetoothModule {
     return this._nativeModule.writeToDevice(address, data.toString('base64'));
   }
 
+  /**
+   * Write each of the provided messages to the device, in order, with a single
+   * call to the native module.  Writing stops at the first failure, the
+   * resolved count can be compared to the number of messages to determine
+   * which were written.
+   *
+   * This is an Android only function.
+   *
+   * @param address the address to which we will send data
+   * @param messages string|Buffer(s) which will be sent.
+   * @param encoding used for string messages, see writeToDevice
+   * @return Promise resolved with the number of messages written
+   */
+  writeManyToDevice(
+    address: string,
+    messages: (string | Buffer)[],
+    encoding?:
+      | 'utf-8'
+      | 'ascii'
+      | 'utf8'
+      | 'utf16le'
+      | 'ucs2'
+      | 'ucs-2'
+      | 'base64'
+      | 'latin1'
+      | 'binary'
+      | 'hex'
+      | undefined
+  ): Promise<number> {
+    if (Platform.OS == 'ios') throw new Error('Method not implemented.');
+    let data = messages.map((message) =>
+      (Buffer.isBuffer(message) ? (message as Buffer) : Buffer.from(message, encoding)).toString(
+        'base64'
+      )
+    );
+    return this._nativeModule.writeManyToDevice(address, data);
+  }
+
   /**
    * Starts discovery on the bluetooth adatper.
    *
@@ -279,6 +386,26 @@ export default class BluetoothModule {
     let paired: BluetoothNativeDevice = await this._nativeModule.accept(properties);
     return new BluetoothDevice(paired, this);
   }
+
+  /**
+   * Start accepting connections from multiple clients (`acceptMode` server).  Resolves
+   * once accepting has started, each client is then reported with a DEVICE_CONNECTED
+   * event (see `onDeviceConnected`) and accepting continues until `cancelAccept`.  Up to
+   * `acceptConnectionNumber` clients are connected at the same time.
+   *
+   * Cancelling stops accepting, clients already connected stay connected.
+   *
+   * This is an Android only feature.
+   *
+   * @param properties used during the connection and connected process(es)
+   */
+  startServer<T extends StandardOptions>(properties: T): Promise<boolean> {
+    if (Platform.OS == 'ios') throw new Error('Method not implemented.');
+    return this._nativeModule
+      .accept({ ...properties, acceptMode: 'server' })
+      .then(() => true);
+  }
+
   /**
    * Attempt to cancel the accepting state.
    *
@@ -313,7 +440,9 @@ export default class BluetoothModule {
     return this._nativeModule.setBluetoothAdapterName(name);
   }
 
-  private createBluetoothEventSubscription<T extends BluetoothEvent>(
+  private createBluetoothEventSubscription<
+    T extends BluetoothEvent | BluetoothConnectProgressEvent
+  >(
     eventType: BluetoothEventType,
     listener: BluetoothEventListener<T>
   ): BluetoothEventSubscription {
@@ -407,12 +536,16 @@ export default class BluetoothModule {
    * is not currently connected an exception will be thrown, although I'm not sure if
    * this is required, since it may be annoying to continually add/remove subscriptions.
    *
+   * When the connection was configured with `readBatchSize` the listener will receive
+   * BluetoothDeviceReadBatchEvent(s) instead, and with `readEventFormat: 'compact'`
+   * BluetoothDeviceCompactReadEvent(s) or BluetoothDeviceCompactReadBatchEvent(s).
+   *
    * @param address device address to which we will start listening
    * @param listener onReadListener
    */
-  onDeviceRead(
+  onDeviceRead<T extends BluetoothReadEvent = BluetoothDeviceReadEvent>(
     address: string,
-    listener: BluetoothEventListener<BluetoothDeviceReadEvent>
+    listener: BluetoothEventListener<T>
   ): BluetoothEventSubscription {
     let eventType = `${BluetoothEventType.DEVICE_READ}@${address}`;
     this._nativeModule.addListener(eventType);
@@ -451,6 +584,21 @@ export default class BluetoothModule {
     return this.createBluetoothEventSubscription(BluetoothEventType.DEVICE_DISCOVERED, listener);
   }
 
+  /**
+   * Creates an event subscription wrapping the DEVICE_CONNECT_PROGRESS events, sent by
+   * `connectToDevices` as each device connection is attempted and completed.
+   *
+   * @param listener
+   */
+  onDeviceConnectProgress(
+    listener: BluetoothEventListener<BluetoothConnectProgressEvent>
+  ): BluetoothEventSubscription {
+    return this.createBluetoothEventSubscription(
+      BluetoothEventType.DEVICE_CONNECT_PROGRESS,
+      listener
+    );
+  }
+
   /**
    * Opens Android's Bluetooth Settings activity.
    */
@@ -1,4 +1,5 @@
 import BluetoothNativeDevice from './BluetoothNativeDevice';
+import { ConnectResult } from './BluetoothEvent';
 
 /**
  * kjd.reactnative.RNBluetoothClassicModule
@@ -59,6 +60,21 @@ export default interface BluetoothNativeModule {
     properties?: T
   ): Promise<BluetoothNativeDevice>;
 
+  /**
+   * Attempts to connect to each of the provided addresses, a limited number
+   * at a time.  Progress is sent as DEVICE_CONNECT_PROGRESS events.
+   *
+   * This is an Android only function.
+   *
+   * @param addresses to which the connections will be attempted
+   * @param properties for requesting special connecting/connection settings
+   * @return Promise resolved with the result of each address once all have completed
+   */
+  connectToDevices<T extends StandardOptions>(
+    addresses: string[],
+    properties?: T
+  ): Promise<Record<string, ConnectResult>>;
+
   /**
    * Attempts to disconnect from the requested address.
    *
@@ -102,6 +118,30 @@ export default interface BluetoothNativeModule {
    */
   readFromDevice(address: string): Promise<string>;
 
+  /**
+   * Requests the throughput and latency stats for the connected device, or
+   * for all connected devices (along with the connection thread stats) when
+   * no address is provided.
+   *
+   * This is an Android only function.
+   *
+   * @param address address of the device, or null for all devices
+   * @return Promise resolved with the stats
+   */
+  getConnectionStats(address?: string | null): Promise<ConnectionStats | AllConnectionStats>;
+
+  /**
+   * Grants credit to a connection using `readFlowControl`, allowing that many
+   * more messages to be sent as `DEVICE_READ` events.
+   *
+   * This is an Android only function.
+   *
+   * @param address address of the device
+   * @param credit the number of messages ready to be received
+   * @return Promise resolved with the credit remaining
+   */
+  grantReadCredit(address: string, credit: number): Promise<number>;
+
   /**
    * Attempt to clear the devices current buffer.
    *
@@ -119,6 +159,16 @@ export default interface BluetoothNativeModule {
    */
   writeToDevice(address: string, data: string): Promise<boolean>;
 
+  /**
+   * Write each of the provided data, in order, to the device.  Writing stops
+   * at the first failure.
+   *
+   * @param address address to which we will write
+   * @param data base64 encoded data to be written
+   * @return Promise resolved with the number of data written
+   */
+  writeManyToDevice(address: string, data: string[]): Promise<number>;
+
   /**
    * Attempts to enable the BluetoothAdapter.
    *
@@ -143,7 +193,8 @@ export default interface BluetoothNativeModule {
    *
    * This is an Android only function.
    *
-   * @return Promise resolved with the connected device
+   * @return Promise resolved with the connected device, or resolved once accepting
+   *    has started when the `acceptMode` is server
    */
   accept<T extends StandardOptions>(properties: T): Promise<BluetoothNativeDevice>;
 
@@ -245,10 +296,31 @@ export interface StandardOptions {
    */
   acceptorType?: string;
 
+  /**
+   * How the acceptor handles connections.  The default `single` resolves
+   * `accept` with the first device and stops accepting, `server` keeps
+   * accepting clients (each reported with a DEVICE_CONNECTED event) until
+   * `cancelAccept` is called.  See `BluetoothModule.startServer`.
+   *
+   * This is ignored on IOS.
+   */
+  acceptMode?: 'single' | 'server';
+
+  /**
+   * The maximum number of clients connected at the same time when the
+   * `acceptMode` is `server`.  Clients accepted while the limit is reached
+   * are disconnected straight away.  Defaults to 1.
+   *
+   * This is ignored on IOS.
+   */
+  acceptConnectionNumber?: number;
+
   /**
    * Instructs the module on what type of connection will be
    * used during connection.  The default for this delimited, which
    * uses the connection type DelimitedStringDeviceConnectionImpl.
+   * On Android `jsonl` connections provide each line as a parsed object and
+   * `nmea` connections provide validated, parsed NMEA 0183 sentences.
    *
    * Also accepts connection_type and CONNECTION_TYPE.
    */
@@ -262,6 +334,31 @@ export interface StandardOptions {
    */
   delimiter?: string;
 
+  /**
+   * jsonl connections: the top level fields kept from each object, by
+   * default all fields are kept.
+   *
+   * This is ignored on IOS.
+   */
+  jsonFields?: string[] | string;
+
+  /**
+   * nmea connections: the sentences provided, either the type (`GGA`) for
+   * any talker or the full address (`GPGGA`).  By default all sentences
+   * are provided.
+   *
+   * This is ignored on IOS.
+   */
+  nmeaSentences?: string[] | string;
+
+  /**
+   * nmea connections: whether sentences without a checksum are dropped,
+   * defaults to true.  Incorrect checksums are always dropped.
+   *
+   * This is ignored on IOS.
+   */
+  nmeaRequireChecksum?: boolean;
+
   /**
    * Sets the appropriate character set for communication.  The default
    * is ascii for both Android and IOS.  When setting this you must use
@@ -283,6 +380,17 @@ export interface StandardOptions {
    */
   readTimeout?: number;
 
+  /**
+   * How readTimeout is applied.  `fixed` (the default) waits readTimeout
+   * after every read, which was the original behaviour.  `adaptive` reads
+   * back to back while data is flowing and only backs off (up to readTimeout)
+   * when a read returns nothing.  Bluetooth socket reads block until data
+   * arrives, so with `adaptive` readTimeout is effectively ignored.
+   *
+   * This is ignored on IOS.
+   */
+  readPacing?: 'adaptive' | 'fixed';
+
   /**
    * Configures the read buffer size, this defaults to 1024.  Increasing
    * this will increase your throughput while working with streaming
@@ -294,6 +402,249 @@ export interface StandardOptions {
    */
   readSize?: number;
 
+  /**
+   * The maximum number of bytes buffered by the binary connection while
+   * waiting to be read.  The buffer starts at readSize and grows up to this
+   * limit.  Defaults to 65536.
+   *
+   * This is ignored on IOS.
+   */
+  readBufferLimit?: number;
+
+  /**
+   * What happens when readBufferLimit would be exceeded: `drop-oldest`
+   * drops buffered data, `drop-newest` drops the received data and
+   * `disconnect` (the default) disconnects the device.
+   *
+   * This is ignored on IOS.
+   */
+  readOverflow?: 'drop-oldest' | 'drop-newest' | 'disconnect';
+
+  /**
+   * `length-prefixed` connections: the number of bytes before the length
+   * field.  Defaults to 0.
+   *
+   * This is ignored on IOS.
+   */
+  lengthFieldOffset?: number;
+
+  /**
+   * `length-prefixed` connections: the size of the length field, 1 to 4
+   * bytes.  Defaults to 2.
+   *
+   * This is ignored on IOS.
+   */
+  lengthFieldWidth?: number;
+
+  /**
+   * `length-prefixed` connections: byte order of the length field.  Defaults
+   * to `big`.
+   *
+   * This is ignored on IOS.
+   */
+  lengthFieldByteOrder?: 'big' | 'little';
+
+  /**
+   * `length-prefixed` connections: added to the length field value to get
+   * the number of bytes following the field.  Defaults to 0.
+   *
+   * This is ignored on IOS.
+   */
+  lengthAdjustment?: number;
+
+  /**
+   * Framed connections: frames larger than this (bytes) are dropped.
+   * Defaults to 65536.
+   *
+   * This is ignored on IOS.
+   */
+  maxFrameSize?: number;
+
+  /**
+   * Framed connections: how each frame is encoded, `base64` (the default)
+   * or `hex`.  `pipeline` connections can also use `text` or an encoder
+   * registered with `RNBluetoothClassicPackage.Builder.withFrameEncoder`.
+   *
+   * This is ignored on IOS.
+   */
+  frameEncoding?: 'base64' | 'hex' | 'text' | string;
+
+  /**
+   * Pipeline connections: the framer splitting the received data, one of
+   * `length-field`, `delimiter`, `slip`, `cobs`, `hdlc` or a framer
+   * registered with `RNBluetoothClassicPackage.Builder.withFramer`.
+   * Required when the `connectionType` is `pipeline`.
+   *
+   * This is ignored on IOS.
+   */
+  framer?: string;
+
+  /**
+   * Pipeline connections: the validators run, in order, on each frame.
+   * `crc` checks (and removes) the `frameCrc` trailer, others are registered
+   * with `RNBluetoothClassicPackage.Builder.withFrameValidator`.
+   *
+   * This is ignored on IOS.
+   */
+  frameValidators?: string[] | string;
+
+  /**
+   * Pipeline connections: the transformers run, in order, on each valid
+   * frame before it's encoded.  Registered with
+   * `RNBluetoothClassicPackage.Builder.withFrameTransformer`.
+   *
+   * This is ignored on IOS.
+   */
+  frameTransformers?: string[] | string;
+
+  /**
+   * `binary-delimited` connections: the delimiter bytes as hex, for example
+   * `7E` or `0D0A`.  Defaults to `0A`.
+   *
+   * This is ignored on IOS.
+   */
+  frameDelimiter?: string;
+
+  /**
+   * Framed connections: the CRC16 trailer checked (and removed) from each
+   * frame.  Frames failing the check are dropped.  Defaults to `x25` for
+   * `hdlc` connections, otherwise `none`.
+   *
+   * This is ignored on IOS.
+   */
+  frameCrc?: 'none' | 'ccitt-false' | 'xmodem' | 'x25' | 'kermit' | 'modbus';
+
+  /**
+   * Sends received messages to React Native in batches, the `DEVICE_READ` event
+   * data will be an array of messages instead of a single message.  Defaults to
+   * 0 which sends one event per message.
+   *
+   * This is ignored on IOS.
+   */
+  readBatchSize?: number;
+
+  /**
+   * The maximum time (milliseconds) a message waits for its batch to fill before
+   * the batch is sent anyway.  Defaults to 20.
+   *
+   * This is ignored on IOS.
+   */
+  readBatchLinger?: number;
+
+  /**
+   * The content of `DEVICE_READ` events.  `full` (the default) includes the
+   * device and a formatted timestamp, `compact` only sends the data and a per
+   * connection sequence number.
+   *
+   * This is ignored on IOS.
+   */
+  readEventFormat?: 'full' | 'compact';
+
+  /**
+   * The `timestamp` of `DEVICE_READ` events: `iso` (a UTC date string),
+   * `epoch` (milliseconds), `monotonic` (nanoseconds, only useful for comparing
+   * against other monotonic timestamps) or `none`.  Defaults to `iso` for
+   * `full` events and `none` for `compact` events.
+   *
+   * This is ignored on IOS.
+   */
+  readTimestamp?: 'iso' | 'epoch' | 'monotonic' | 'none';
+
+  /**
+   * Which messages are sent as `DEVICE_READ` events.  `all` (the default)
+   * sends every message, `latest` only sends the newest message at most once
+   * per `readConflateInterval`, replacing any message still waiting.
+   *
+   * This is ignored on IOS.
+   */
+  readDelivery?: 'all' | 'latest';
+
+  /**
+   * With `latest` delivery, the minimum time (milliseconds) between
+   * `DEVICE_READ` events.  Defaults to 100.
+   *
+   * This is ignored on IOS.
+   */
+  readConflateInterval?: number;
+
+  /**
+   * With `latest` delivery, keeps the newest message per key and sends them
+   * together as an array.  Strings are keyed by the text before the first
+   * occurrence of this value, parsed messages by the value of this field.
+   *
+   * This is ignored on IOS.
+   */
+  readConflateKey?: string;
+
+  /**
+   * Only sends `DEVICE_READ` events while credit has been granted with
+   * `grantReadCredit`, each message using one credit.  Messages wait for
+   * credit in a queue of up to `readCreditQueueLimit` messages.  Defaults
+   * to false.
+   *
+   * This is ignored on IOS.
+   */
+  readFlowControl?: boolean;
+
+  /**
+   * With `readFlowControl`, the number of messages sent before credit is
+   * granted.  Defaults to 0.
+   *
+   * This is ignored on IOS.
+   */
+  readInitialCredit?: number;
+
+  /**
+   * With `readFlowControl`, the maximum number of messages waiting for
+   * credit.  Defaults to 1024.
+   *
+   * This is ignored on IOS.
+   */
+  readCreditQueueLimit?: number;
+
+  /**
+   * With `readFlowControl`, what happens when the queue is full:
+   * `drop-oldest` (the default), `drop-newest` or `disconnect`.
+   *
+   * This is ignored on IOS.
+   */
+  readCreditOverflow?: 'drop-oldest' | 'drop-newest' | 'disconnect';
+
+  /**
+   * When greater than 0, writes are queued (up to this many) and made on
+   * their own thread instead of the module thread.  Each write resolves once
+   * its data has been flushed, writes are rejected while the queue is full.
+   * Defaults to 0 (writes are made immediately).
+   *
+   * This is ignored on IOS.
+   */
+  writeQueueSize?: number;
+
+  /**
+   * When writes are queued, adjacent writes are joined into a single write of
+   * up to this many bytes.  Defaults to 1024.
+   *
+   * This is ignored on IOS.
+   */
+  writeCoalesceSize?: number;
+
+  /**
+   * The time (milliseconds) given to each connection attempt before it's
+   * cancelled.  Defaults to 0 (no timeout).
+   *
+   * This is ignored on IOS.
+   */
+  connectTimeout?: number;
+
+  /**
+   * The number of devices `connectToDevices` attempts at the same time.
+   * Defaults to 0, which uses the `withMaxConcurrentConnects` limit of the
+   * module (also the upper limit).
+   *
+   * This is ignored on IOS.
+   */
+  connectConcurrency?: number;
+
   /**
    * Whether or not the connector/acceptor should be created using
    * an insecure or secure socket.  Defaults to true.
@@ -313,3 +664,78 @@ export interface StandardOptions {
    */
   serviceName?: string;
 }
+
+/**
+ * Latency summary, all values are in milliseconds.  Percentiles are
+ * approximate (the upper bound of a power of two bucket).
+ */
+export interface LatencyStats {
+  count: number;
+  min: number;
+  max: number;
+  mean: number;
+  p50: number;
+  p90: number;
+  p99: number;
+}
+
+/**
+ * Throughput and latency stats for a single connection.
+ */
+export interface ConnectionStats {
+  connectedAt: number;
+  bytesRead: number;
+  bytesWritten: number;
+  messagesReceived: number;
+  messagesDelivered: number;
+  bufferHighWater: number;
+  /**
+   * Number of times the read buffer limit was reached, and the total bytes
+   * dropped.
+   */
+  overflows: number;
+  overflowBytes: number;
+  /**
+   * Malformed frames dropped by framed connections.
+   */
+  framesDropped: number;
+  /**
+   * Messages replaced by a newer message before being sent, with
+   * `readDelivery: 'latest'`.
+   */
+  messagesConflated?: number;
+  /**
+   * With `readFlowControl`, the credit remaining, the number of messages
+   * waiting for credit and the messages dropped from the full queue.
+   */
+  readCredit?: number;
+  readQueueDepth?: number;
+  readQueueDropped?: number;
+  /**
+   * Time between successive reads which returned data.
+   */
+  interArrival: LatencyStats;
+  /**
+   * Time from the read completing a message until the event containing
+   * it was sent, including time spent batching, conflating or waiting for
+   * read credit.  Batches are measured from their oldest message.
+   */
+  readToEmit: LatencyStats;
+}
+
+/**
+ * Stats for all connections (keyed by address) along with the state of
+ * the connection threads.
+ */
+export interface AllConnectionStats {
+  connections: { [address: string]: ConnectionStats };
+  executor: {
+    connectQueueDepth: number;
+    activeConnects: number;
+    maxConcurrentConnects: number;
+    completedConnects: number;
+    activeConnections: number;
+    connectionThreads: number;
+    scheduledTasks: number;
+  };
+}
@@ -5,13 +5,27 @@ import {
   BluetoothEvent,
   BluetoothDeviceEvent,
   BluetoothDeviceReadEvent,
+  BluetoothDeviceReadBatchEvent,
+  BluetoothDeviceJsonReadEvent,
+  BluetoothDeviceNmeaReadEvent,
+  NmeaSentence,
+  BluetoothDeviceCompactReadEvent,
+  BluetoothDeviceCompactReadBatchEvent,
+  BluetoothReadEvent,
+  BluetoothConnectProgressEvent,
+  ConnectResult,
   BluetoothEventListener,
   BluetoothEventSubscription,
   BluetoothEventType,
 } from './BluetoothEvent';
 import BluetoothModule from './BluetoothModule';
 import BluetoothNativeDevice from './BluetoothNativeDevice';
-import BluetoothNativeModule, { StandardOptions } from './BluetoothNativeModule';
+import BluetoothNativeModule, {
+  StandardOptions,
+  ConnectionStats,
+  AllConnectionStats,
+  LatencyStats,
+} from './BluetoothNativeModule';
 
 export default new BluetoothModule(NativeModules.RNBluetoothClassic);
 
@@ -21,10 +35,22 @@ export type {
   BluetoothEvent,
   BluetoothDeviceEvent,
   BluetoothDeviceReadEvent,
+  BluetoothDeviceReadBatchEvent,
+  BluetoothDeviceJsonReadEvent,
+  BluetoothDeviceNmeaReadEvent,
+  NmeaSentence,
+  BluetoothDeviceCompactReadEvent,
+  BluetoothDeviceCompactReadBatchEvent,
+  BluetoothReadEvent,
+  BluetoothConnectProgressEvent,
+  ConnectResult,
   BluetoothEventListener,
   BluetoothEventSubscription,
   BluetoothEventType,
   BluetoothNativeDevice,
   BluetoothNativeModule,
   StandardOptions,
+  ConnectionStats,
+  AllConnectionStats,
+  LatencyStats,
 };